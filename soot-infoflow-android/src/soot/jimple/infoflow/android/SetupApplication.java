@@ -41,6 +41,7 @@ import soot.jimple.Stmt;
 import soot.jimple.infoflow.AbstractInfoflow;
 import soot.jimple.infoflow.IInfoflow;
 import soot.jimple.infoflow.Infoflow;
+import soot.jimple.infoflow.InfoflowConfiguration.ResultsFormat;
 import soot.jimple.infoflow.android.InfoflowAndroidConfiguration.CallbackConfiguration;
 import soot.jimple.infoflow.android.InfoflowAndroidConfiguration.IccConfiguration;
 import soot.jimple.infoflow.android.InfoflowAndroidConfiguration.SootIntegrationMode;
@@ -83,6 +84,7 @@ import soot.jimple.infoflow.data.FlowDroidMemoryManager.PathDataErasureMode;
 import soot.jimple.infoflow.handlers.PostAnalysisHandler;
 import soot.jimple.infoflow.handlers.PreAnalysisHandler;
 import soot.jimple.infoflow.handlers.ResultsAvailableHandler;
+import soot.jimple.infoflow.handlers.ResultsAvailableHandler2;
 import soot.jimple.infoflow.handlers.TaintPropagationHandler;
 import soot.jimple.infoflow.ipc.IIPCManager;
 import soot.jimple.infoflow.memory.FlowDroidMemoryWatcher;
@@ -90,6 +92,10 @@ import soot.jimple.infoflow.memory.FlowDroidTimeoutWatcher;
 import soot.jimple.infoflow.memory.IMemoryBoundedSolver;
 import soot.jimple.infoflow.results.InfoflowPerformanceData;
 import soot.jimple.infoflow.results.InfoflowResults;
+import soot.jimple.infoflow.results.ResultSinkInfo;
+import soot.jimple.infoflow.results.ResultSourceInfo;
+import soot.jimple.infoflow.results.binary.BinaryResultsWriter;
+import soot.jimple.infoflow.results.streaming.JsonLinesResultsWriter;
 import soot.jimple.infoflow.rifl.RIFLSourceSinkDefinitionProvider;
 import soot.jimple.infoflow.solver.cfg.IInfoflowCFG;
 import soot.jimple.infoflow.solver.memory.IMemoryManager;
@@ -1537,6 +1543,27 @@ public class SetupApplication implements ITaintWrapperDataFlowAnalysis {
 		// Create and run the data flow tracker
 		infoflow = createInfoflow();
 		infoflow.addResultsAvailableHandler(resultAggregator);
+		for (ResultsAvailableHandler handler : resultsAvailableHandlers) {
+			// Handlers that are interested in individual results must receive them while
+			// the data flow analysis is still running. We notify them about the final
+			// results ourselves.
+			if (handler instanceof ResultsAvailableHandler2) {
+				final ResultsAvailableHandler2 handler2 = (ResultsAvailableHandler2) handler;
+				infoflow.addResultsAvailableHandler(new ResultsAvailableHandler2() {
+
+					@Override
+					public void onResultsAvailable(IInfoflowCFG cfg, InfoflowResults results) {
+						// nothing to do here
+					}
+
+					@Override
+					public boolean onSingleResultAvailable(ResultSourceInfo source, ResultSinkInfo sink) {
+						return handler2.onSingleResultAvailable(source, sink);
+					}
+
+				});
+			}
+		}
 		infoflow.runAnalysis(sourceSinkManager, entryPointCreator.getGeneratedMainMethod());
 
 		// Update the statistics
@@ -1584,9 +1611,17 @@ public class SetupApplication implements ITaintWrapperDataFlowAnalysis {
 	protected void serializeResults(InfoflowResults results, IInfoflowCFG cfg) {
 		String resultsFile = config.getAnalysisFileConfig().getOutputFile();
 		if (resultsFile != null && !resultsFile.isEmpty()) {
-			InfoflowResultsSerializer serializer = new InfoflowResultsSerializer(cfg, config);
 			try {
-				serializer.serialize(results, resultsFile);
+				if (config.getOutputConfiguration().getResultsFormat() == ResultsFormat.Binary) {
+					BinaryResultsWriter writer = new BinaryResultsWriter(cfg, config);
+					writer.serialize(results, resultsFile);
+				} else if (config.getOutputConfiguration().getResultsFormat() == ResultsFormat.JsonLines) {
+					JsonLinesResultsWriter writer = new JsonLinesResultsWriter(resultsFile, cfg, config);
+					writer.onResultsAvailable(cfg, results);
+				} else {
+					InfoflowResultsSerializer serializer = new InfoflowResultsSerializer(cfg, config);
+					serializer.serialize(results, resultsFile);
+				}
 			} catch (IOException ex) {
 				System.err.println("Could not write data flow results to file: " + ex.getMessage());
 				ex.printStackTrace();
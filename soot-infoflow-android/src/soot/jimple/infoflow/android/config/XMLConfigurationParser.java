@@ -238,6 +238,8 @@ public class XMLConfigurationParser {
 						pathConfig.setPathReconstructionTimeout(Long.valueOf(data));
 					else if (currentElement.equals(XMLConstants.TAG_PATH_RECONSTRUCTION_BATCH_SIZE))
 						pathConfig.setPathReconstructionBatchSize(Integer.valueOf(data));
+					else if (currentElement.equals(XMLConstants.TAG_PATH_RECONSTRUCTION_MEMORY_BUDGET))
+						pathConfig.setPathReconstructionMemoryBudget(Long.valueOf(data));
 					else if (currentElement.equals(XMLConstants.TAG_WRITE_OUTPUT_FILES))
 						config.setWriteOutputFiles(Boolean.valueOf(data));
 				}
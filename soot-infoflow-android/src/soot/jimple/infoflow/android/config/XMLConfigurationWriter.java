@@ -137,6 +137,8 @@ public class XMLConfigurationWriter {
 				Long.toString(pathConfig.getPathReconstructionTimeout()));
 		appendSimpleTag(document, dataFlowConfigTag, XMLConstants.TAG_PATH_RECONSTRUCTION_BATCH_SIZE,
 				Integer.toString(pathConfig.getPathReconstructionBatchSize()));
+		appendSimpleTag(document, dataFlowConfigTag, XMLConstants.TAG_PATH_RECONSTRUCTION_MEMORY_BUDGET,
+				Long.toString(pathConfig.getPathReconstructionMemoryBudget()));
 		appendSimpleTag(document, dataFlowConfigTag, XMLConstants.TAG_WRITE_OUTPUT_FILES,
 				Boolean.toString(config.getWriteOutputFiles()));
 	}
@@ -59,6 +59,7 @@ class XMLConstants {
 	public static final String TAG_DATA_FLOW_TIMEOUT = "dataFlowTimeout";
 	public static final String TAG_PATH_RECONSTRUCTION_TIMEOUT = "pathReconstructionTimeout";
 	public static final String TAG_PATH_RECONSTRUCTION_BATCH_SIZE = "pathReconstructionBatchSize";
+	public static final String TAG_PATH_RECONSTRUCTION_MEMORY_BUDGET = "pathReconstructionMemoryBudget";
 	public static final String TAG_WRITE_OUTPUT_FILES = "writeOutputFiles";
 
 	public static final String ATTR_DEFAULT_MODE = "defaultMode";
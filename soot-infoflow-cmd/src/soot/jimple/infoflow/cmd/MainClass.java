@@ -28,15 +28,25 @@ import soot.jimple.infoflow.InfoflowConfiguration.ImplicitFlowMode;
 import soot.jimple.infoflow.InfoflowConfiguration.LayoutMatchingMode;
 import soot.jimple.infoflow.InfoflowConfiguration.PathBuildingAlgorithm;
 import soot.jimple.infoflow.InfoflowConfiguration.PathReconstructionMode;
+import soot.jimple.infoflow.InfoflowConfiguration.ResultsFormat;
 import soot.jimple.infoflow.InfoflowConfiguration.StaticFieldTrackingMode;
 import soot.jimple.infoflow.android.InfoflowAndroidConfiguration;
 import soot.jimple.infoflow.android.InfoflowAndroidConfiguration.CallbackAnalyzer;
 import soot.jimple.infoflow.android.SetupApplication;
 import soot.jimple.infoflow.android.config.XMLConfigurationParser;
+import soot.jimple.infoflow.android.results.xml.InfoflowResultsSerializer;
+import soot.jimple.infoflow.handlers.ResultsAvailableHandler2;
 import soot.jimple.infoflow.methodSummary.data.provider.LazySummaryProvider;
 import soot.jimple.infoflow.methodSummary.taintWrappers.ReportMissingSummaryWrapper;
 import soot.jimple.infoflow.methodSummary.taintWrappers.SummaryTaintWrapper;
 import soot.jimple.infoflow.methodSummary.taintWrappers.TaintWrapperFactory;
+import soot.jimple.infoflow.results.InfoflowResults;
+import soot.jimple.infoflow.results.ResultSinkInfo;
+import soot.jimple.infoflow.results.ResultSourceInfo;
+import soot.jimple.infoflow.results.streaming.AbstractStreamingResultsWriter;
+import soot.jimple.infoflow.results.streaming.JsonLinesResultsWriter;
+import soot.jimple.infoflow.results.xml.StreamingXmlResultsWriter;
+import soot.jimple.infoflow.solver.cfg.IInfoflowCFG;
 import soot.jimple.infoflow.taintWrappers.EasyTaintWrapper;
 import soot.jimple.infoflow.taintWrappers.ITaintPropagationWrapper;
 import soot.jimple.infoflow.taintWrappers.TaintWrapperSet;
@@ -65,6 +75,8 @@ public class MainClass {
 	private static final String OPTION_PLATFORMS_DIR = "p";
 	private static final String OPTION_SOURCES_SINKS_FILE = "s";
 	private static final String OPTION_OUTPUT_FILE = "o";
+	private static final String OPTION_OUTPUT_FORMAT = "of";
+	private static final String OPTION_STREAM_RESULTS = "sr";
 	private static final String OPTION_ADDITIONAL_CLASSPATH = "ac";
 	private static final String OPTION_SKIP_APK_FILE = "si";
 	private static final String OPTION_WRITE_JIMPLE_FILES = "wj";
@@ -102,6 +114,7 @@ public class MainClass {
 	private static final String OPTION_MAX_CALLBACKS_COMPONENT = "mc";
 	private static final String OPTION_MAX_CALLBACKS_DEPTH = "md";
 	private static final String OPTION_PATH_SPECIFIC_RESULTS = "ps";
+	private static final String OPTION_SEED_PARTITION = "pt";
 
 	// Inter-component communication
 	private static final String OPTION_ICC_MODEL = "im";
@@ -139,7 +152,11 @@ public class MainClass {
 		options.addOption(OPTION_PLATFORMS_DIR, "platformsdir", true,
 				"Path to the platforms directory from the Android SDK");
 		options.addOption(OPTION_SOURCES_SINKS_FILE, "sourcessinksfile", true, "Definition file for sources and sinks");
-		options.addOption(OPTION_OUTPUT_FILE, "outputfile", true, "Output XML file for the discovered data flows");
+		options.addOption(OPTION_OUTPUT_FILE, "outputfile", true, "Output file for the discovered data flows");
+		options.addOption(OPTION_OUTPUT_FORMAT, "outputformat", true,
+				"Use the specified format for the output file (XML, BINARY, JSONL)");
+		options.addOption(OPTION_STREAM_RESULTS, "streamresults", false,
+				"Write each data flow to the output file as soon as it has been found (XML and JSONL only)");
 		options.addOption(OPTION_ADDITIONAL_CLASSPATH, "additionalclasspath", true,
 				"Additional JAR file that shal be put on the classpath");
 		options.addOption(OPTION_SKIP_APK_FILE, "skipapkfile", true,
@@ -198,6 +215,8 @@ public class MainClass {
 				"Merge all dex files in the given APK file into one analysis target");
 		options.addOption(OPTION_PATH_SPECIFIC_RESULTS, "pathspecificresults", false,
 				"Report different results for same source/sink pairs if they differ in their propagation paths");
+		options.addOption(OPTION_SEED_PARTITION, "seedpartition", true,
+				"Only analyze the given partition of the sources, e.g., 2/4 for the second of four partitions");
 
 		// Inter-component communication
 		options.addOption(OPTION_ICC_MODEL, "iccmodel", true,
@@ -215,7 +234,7 @@ public class MainClass {
 		options.addOption(OPTION_CALLBACK_ANALYZER, "callbackanalyzer", true,
 				"Use the specified callback analyzer (DEFAULT, FAST)");
 		options.addOption(OPTION_DATA_FLOW_SOLVER, "dataflowsolver", true,
-				"Use the specified data flow solver (CONTEXTFLOWSENSITIVE, FLOWINSENSITIVE)");
+				"Use the specified data flow solver (CONTEXTFLOWSENSITIVE, FLOWINSENSITIVE, GC, SPARSE)");
 		options.addOption(OPTION_ALIAS_ALGO, "aliasalgo", true,
 				"Use the specified aliasing algorithm (NONE, FLOWSENSITIVE, PTSBASED, LAZY)");
 		options.addOption(OPTION_CODE_ELIMINATION_MODE, "codeelimination", true,
@@ -322,7 +341,8 @@ public class MainClass {
 				config.getAnalysisFileConfig().setTargetAPKFile(apkFile.getCanonicalPath());
 				if (outputFile != null) {
 					if (apksToAnalyze.size() > 1 || (outputFile.exists() && outputFile.isDirectory())) {
-						String outputFileName = apkFile.getName().replace(".apk", ".xml");
+						String outputFileName = apkFile.getName().replace(".apk",
+								getOutputFileExtension(config.getOutputConfiguration().getResultsFormat()));
 						File curOutputFile = new File(outputFile, outputFileName);
 						config.getAnalysisFileConfig().setOutputFile(curOutputFile.getCanonicalPath());
 
@@ -337,8 +357,41 @@ public class MainClass {
 				analyzer = createFlowDroidInstance(config);
 				analyzer.setTaintWrapper(taintWrapper);
 
+				// If requested, we write out the results while the analysis is still running
+				AbstractStreamingResultsWriter streamingWriter = null;
+				String resultsFile = config.getAnalysisFileConfig().getOutputFile();
+				if (cmd.hasOption(OPTION_STREAM_RESULTS)) {
+					streamingWriter = createStreamingResultsWriter(config);
+					final AbstractStreamingResultsWriter writer = streamingWriter;
+					analyzer.addResultsAvailableHandler(new ResultsAvailableHandler2() {
+
+						@Override
+						public void onResultsAvailable(IInfoflowCFG cfg, InfoflowResults results) {
+							// We only finish the file once all components have been analyzed
+						}
+
+						@Override
+						public boolean onSingleResultAvailable(ResultSourceInfo source, ResultSinkInfo sink) {
+							return writer.onSingleResultAvailable(source, sink);
+						}
+
+					});
+
+					// The streaming writer owns the output file
+					config.getAnalysisFileConfig().setOutputFile("");
+				}
+
 				// Start the data flow analysis
-				analyzer.runInfoflow();
+				try {
+					InfoflowResults results = analyzer.runInfoflow();
+					if (streamingWriter != null)
+						streamingWriter.onResultsAvailable(null, results);
+				} finally {
+					if (streamingWriter != null) {
+						streamingWriter.close();
+						config.getAnalysisFileConfig().setOutputFile(resultsFile);
+					}
+				}
 
 				if (reportMissingSummaryWrapper != null) {
 					String file = cmd.getOptionValue(OPTION_MISSING_SUMMARIES_FILE);
@@ -570,12 +623,79 @@ public class MainClass {
 			return DataFlowSolver.FlowInsensitive;
 		else if (solver.equalsIgnoreCase("GC"))
 			return DataFlowSolver.GarbageCollecting;
+		else if (solver.equalsIgnoreCase("SPARSE"))
+			return DataFlowSolver.SparseContextFlowSensitive;
 		else {
 			System.err.println(String.format("Invalid data flow solver: %s", solver));
 			throw new AbortAnalysisException();
 		}
 	}
 
+	private static void parseSeedPartition(String seedPartition, InfoflowConfiguration config) {
+		String[] parts = seedPartition.split("/");
+		try {
+			if (parts.length == 2) {
+				int partition = Integer.parseInt(parts[0].trim());
+				int partitionCount = Integer.parseInt(parts[1].trim());
+				config.setSeedPartition(partition - 1, partitionCount);
+				return;
+			}
+		} catch (IllegalArgumentException e) {
+			// Fall through to the error message
+		}
+		System.err.println(String.format("Invalid seed partition: %s", seedPartition));
+		throw new AbortAnalysisException();
+	}
+
+	/**
+	 * Creates a writer that appends the data flow results to the configured output
+	 * file while the analysis is still running
+	 * 
+	 * @param config The configuration object
+	 * @return The streaming results writer
+	 */
+	private static AbstractStreamingResultsWriter createStreamingResultsWriter(InfoflowAndroidConfiguration config) {
+		String resultsFile = config.getAnalysisFileConfig().getOutputFile();
+		if (resultsFile == null || resultsFile.isEmpty()) {
+			System.err.println("Streaming the results requires an output file");
+			throw new AbortAnalysisException();
+		}
+		switch (config.getOutputConfiguration().getResultsFormat()) {
+		case XML:
+			return new StreamingXmlResultsWriter(resultsFile, new InfoflowResultsSerializer(config));
+		case JsonLines:
+			return new JsonLinesResultsWriter(resultsFile, config);
+		default:
+			System.err.println(String.format("Results in format %s cannot be streamed",
+					config.getOutputConfiguration().getResultsFormat()));
+			throw new AbortAnalysisException();
+		}
+	}
+
+	private static String getOutputFileExtension(ResultsFormat format) {
+		switch (format) {
+		case Binary:
+			return ".fdr";
+		case JsonLines:
+			return ".jsonl";
+		default:
+			return ".xml";
+		}
+	}
+
+	private static ResultsFormat parseResultsFormat(String format) {
+		if (format.equalsIgnoreCase("XML"))
+			return ResultsFormat.XML;
+		else if (format.equalsIgnoreCase("BINARY"))
+			return ResultsFormat.Binary;
+		else if (format.equalsIgnoreCase("JSONL"))
+			return ResultsFormat.JsonLines;
+		else {
+			System.err.println(String.format("Invalid output format: %s", format));
+			throw new AbortAnalysisException();
+		}
+	}
+
 	private static AliasingAlgorithm parseAliasAlgorithm(String aliasAlgo) {
 		if (aliasAlgo.equalsIgnoreCase("NONE"))
 			return AliasingAlgorithm.None;
@@ -685,11 +805,18 @@ public class MainClass {
 			if (outputFile != null && !outputFile.isEmpty())
 				config.getAnalysisFileConfig().setOutputFile(outputFile);
 		}
+		{
+			String outputFormat = cmd.getOptionValue(OPTION_OUTPUT_FORMAT);
+			if (outputFormat != null && !outputFormat.isEmpty())
+				config.getOutputConfiguration().setResultsFormat(parseResultsFormat(outputFormat));
+		}
 		{
 			String additionalClasspath = cmd.getOptionValue(OPTION_ADDITIONAL_CLASSPATH);
 			if (additionalClasspath != null && !additionalClasspath.isEmpty())
 				config.getAnalysisFileConfig().setAdditionalClasspath(additionalClasspath);
 		}
+		if (cmd.hasOption(OPTION_STREAM_RESULTS))
+			config.setIncrementalResultReporting(true);
 		if (cmd.hasOption(OPTION_WRITE_JIMPLE_FILES))
 			config.setWriteOutputFiles(true);
 
@@ -739,6 +866,11 @@ public class MainClass {
 			config.getPathConfiguration().setPathReconstructionMode(PathReconstructionMode.Fast);
 		if (cmd.hasOption(OPTION_ONE_SOURCE))
 			config.setOneSourceAtATime(true);
+		{
+			String seedPartition = cmd.getOptionValue(OPTION_SEED_PARTITION);
+			if (seedPartition != null && !seedPartition.isEmpty())
+				parseSeedPartition(seedPartition, config);
+		}
 		if (cmd.hasOption(OPTION_ONE_COMPONENT))
 			config.setOneComponentAtATime(true);
 		if (cmd.hasOption(OPTION_SEQUENTIAL_PATHS))
@@ -45,6 +45,8 @@ class Main {
 	private static final String OPTION_CLASS_TIMEOUT = "ct";
 	private static final String OPTION_ANALYZE_HASHCODE_EQUALS = "he";
 	private static final String OPTION_ANDROID_PLATFORMS = "p";
+	private static final String OPTION_REUSE_SCENE = "rs";
+	private static final String OPTION_SUMMARY_CACHE = "sc";
 
 	public static void main(final String[] args) throws FileNotFoundException, XMLStreamException {
 		Main main = new Main();
@@ -75,6 +77,10 @@ class Main {
 				"Also analyze hashCode() and equals() methods");
 		options.addOption(OPTION_ANDROID_PLATFORMS, "platformsdir", true,
 				"Path to the platforms directory from the Android SDK");
+		options.addOption(OPTION_REUSE_SCENE, "reusescene", false,
+				"Loads the classpath only once and analyzes all methods against the same Soot scene");
+		options.addOption(OPTION_SUMMARY_CACHE, "summarycache", true,
+				"Directory in which to cache method summaries for methods that have not changed");
 	}
 
 	public void run(final String[] args) throws FileNotFoundException, XMLStreamException {
@@ -191,6 +197,15 @@ class Main {
 			if (classTimeout > 0)
 				generator.getConfig().setClassSummaryTimeout(classTimeout);
 		}
+		{
+			if (cmd.hasOption(OPTION_REUSE_SCENE))
+				generator.getConfig().setReuseSootScene(true);
+		}
+		{
+			String summaryCacheDir = cmd.getOptionValue(OPTION_SUMMARY_CACHE);
+			if (summaryCacheDir != null && !summaryCacheDir.isEmpty())
+				generator.getConfig().setSummaryCacheDirectory(summaryCacheDir);
+		}
 		{
 			boolean analyzeHashCodeEquals = cmd.hasOption(OPTION_ANALYZE_HASHCODE_EQUALS);
 			if (analyzeHashCodeEquals)
@@ -113,4 +113,26 @@ public interface IMethodSummaryProvider {
 	 */
 	public boolean isMethodExcluded(String className, String subSignature);
 
+	/**
+	 * Gets a counter that changes whenever the summaries in this provider change.
+	 * Loading summaries lazily does not count as a change, because these summaries
+	 * have been available before.
+	 * 
+	 * @return The number of modifications of the summaries in this provider
+	 */
+	public default long getModificationCount() {
+		return 0;
+	}
+
+	/**
+	 * Gets a provider that returns the summaries that are available in this
+	 * provider right now. Providers that can receive new summaries return a view
+	 * that does not see later additions, all others return themselves.
+	 * 
+	 * @return A provider for the current state of the summaries
+	 */
+	public default IMethodSummaryProvider getSnapshot() {
+		return this;
+	}
+
 }
@@ -2,6 +2,7 @@ package soot.jimple.infoflow.methodSummary.data.provider;
 
 import java.util.Collections;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
 import soot.jimple.infoflow.methodSummary.data.summary.ClassMethodSummaries;
 import soot.jimple.infoflow.methodSummary.data.summary.ClassSummaries;
@@ -15,6 +16,7 @@ import soot.jimple.infoflow.methodSummary.data.summary.ClassSummaries;
 public class MemorySummaryProvider implements IMethodSummaryProvider {
 
 	private final ClassSummaries summaries;
+	private final AtomicLong modificationCount = new AtomicLong();
 
 	/**
 	 * Creates a new empty {@link MemorySummaryProvider} to which summaries will
@@ -82,7 +84,13 @@ public class MemorySummaryProvider implements IMethodSummaryProvider {
 	 * @param summaries The summaries to add
 	 */
 	public void addSummary(ClassMethodSummaries summaries) {
-		summaries.merge(summaries);
+		this.summaries.merge(summaries);
+		modificationCount.incrementAndGet();
+	}
+
+	@Override
+	public long getModificationCount() {
+		return modificationCount.get();
 	}
 
 	@Override
@@ -1,7 +1,9 @@
 package soot.jimple.infoflow.methodSummary.data.provider;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import soot.jimple.infoflow.methodSummary.data.summary.ClassMethodSummaries;
@@ -150,4 +152,25 @@ public class MergingSummaryProvider implements IMethodSummaryProvider {
 		return false;
 	}
 
+	@Override
+	public long getModificationCount() {
+		long count = 0;
+		for (IMethodSummaryProvider provider : innerProviders)
+			count += provider.getModificationCount();
+		return count;
+	}
+
+	@Override
+	public IMethodSummaryProvider getSnapshot() {
+		List<IMethodSummaryProvider> snapshots = new ArrayList<>(innerProviders.size());
+		boolean hasSnapshot = false;
+		for (IMethodSummaryProvider provider : innerProviders) {
+			IMethodSummaryProvider snapshot = provider.getSnapshot();
+			if (snapshot != provider)
+				hasSnapshot = true;
+			snapshots.add(snapshot);
+		}
+		return hasSnapshot ? new MergingSummaryProvider(snapshots) : this;
+	}
+
 }
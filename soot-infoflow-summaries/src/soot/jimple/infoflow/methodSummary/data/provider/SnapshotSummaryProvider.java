@@ -0,0 +1,284 @@
+package soot.jimple.infoflow.methodSummary.data.provider;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import soot.jimple.infoflow.methodSummary.data.summary.ClassMethodSummaries;
+import soot.jimple.infoflow.methodSummary.data.summary.ClassSummaries;
+import soot.jimple.infoflow.methodSummary.data.summary.ImmutableClassMethodSummaries;
+import soot.jimple.infoflow.methodSummary.data.summary.ImmutableClassSummaries;
+import soot.jimple.infoflow.methodSummary.data.summary.SummaryMetaData;
+
+/**
+ * Provider class that reads method summaries from an in-memory store to which
+ * new summaries can be added concurrently. The store is copy-on-write: Every
+ * addition publishes a new immutable snapshot. The classes are distributed over
+ * a fixed number of buckets, and an addition only copies the bucket and the
+ * class it changes. All other buckets and classes are shared with the previous
+ * snapshot. Readers never take a lock and always see a complete snapshot, i.e.,
+ * never a class whose summaries are only partially merged.
+ *
+ * Every method of this provider reads the latest snapshot. Clients that need
+ * the same summaries across several queries must pin a snapshot using
+ * {@link #getSnapshot()}.
+ *
+ * The summaries returned by {@link #getClassFlows(String)} and
+ * {@link #getSummaries()} are part of the snapshot and are thus immutable. Any
+ * attempt to modify them throws an exception. Clients that need to modify them
+ * must merge them into a new object first. The meta data is shared between all
+ * snapshots and must not be modified either.
+ *
+ */
+public class SnapshotSummaryProvider implements IMethodSummaryProvider {
+
+	private static final int BUCKET_COUNT = 64;
+
+	/**
+	 * One version of the summaries in this provider. Snapshots are never modified
+	 * once they have been published.
+	 */
+	private static class Snapshot implements IMethodSummaryProvider {
+
+		private final Map<String, ClassMethodSummaries>[] buckets;
+		private final SummaryMetaData metaData;
+		private final long version;
+
+		private volatile ClassSummaries summaries;
+
+		private Snapshot(Map<String, ClassMethodSummaries>[] buckets, SummaryMetaData metaData, long version) {
+			this.buckets = buckets;
+			this.metaData = metaData;
+			this.version = version;
+		}
+
+		/**
+		 * Creates a new snapshot in which the summaries of the given class are
+		 * replaced
+		 *
+		 * @param classSummaries The new summaries of the class
+		 * @return The new snapshot
+		 */
+		private Snapshot replaceClass(ClassMethodSummaries classSummaries) {
+			Map<String, ClassMethodSummaries>[] newBuckets = buckets.clone();
+			int bucket = getBucket(classSummaries.getClassName());
+			Map<String, ClassMethodSummaries> newBucket = new HashMap<>(buckets[bucket]);
+			newBucket.put(classSummaries.getClassName(), classSummaries);
+			newBuckets[bucket] = newBucket;
+			return new Snapshot(newBuckets, metaData, version + 1);
+		}
+
+		@Override
+		public Set<String> getLoadableClasses() {
+			return Collections.emptySet();
+		}
+
+		@Override
+		public Set<String> getSupportedClasses() {
+			Set<String> classes = new HashSet<>();
+			for (Map<String, ClassMethodSummaries> bucket : buckets)
+				classes.addAll(bucket.keySet());
+			return classes;
+		}
+
+		@Override
+		public boolean supportsClass(String clazz) {
+			return getClassFlows(clazz) != null;
+		}
+
+		@Override
+		public ClassMethodSummaries getMethodFlows(String className, String methodSubSignature) {
+			ClassMethodSummaries methodSummaries = getClassFlows(className);
+			if (methodSummaries == null)
+				return null;
+			return methodSummaries.filterForMethod(methodSubSignature);
+		}
+
+		@Override
+		public ClassSummaries getMethodFlows(Set<String> classes, String methodSignature) {
+			ClassSummaries newSummaries = new ClassSummaries();
+			for (String className : classes) {
+				ClassMethodSummaries methodSummaries = getClassFlows(className);
+				if (methodSummaries != null && !methodSummaries.isEmpty())
+					newSummaries.merge(methodSummaries.filterForMethod(methodSignature));
+			}
+			return newSummaries;
+		}
+
+		@Override
+		public ClassMethodSummaries getClassFlows(String clazz) {
+			return buckets[getBucket(clazz)].get(clazz);
+		}
+
+		@Override
+		public boolean mayHaveSummaryForMethod(String subsig) {
+			return true;
+		}
+
+		@Override
+		public ClassSummaries getSummaries() {
+			// The snapshot never changes, so we only need to build this object once
+			ClassSummaries res = summaries;
+			if (res == null) {
+				ClassSummaries allSummaries = new ClassSummaries();
+				for (Map<String, ClassMethodSummaries> bucket : buckets)
+					for (ClassMethodSummaries cms : bucket.values())
+						allSummaries.merge(cms);
+				allSummaries.setMetaData(metaData);
+				res = new ImmutableClassSummaries(allSummaries);
+				summaries = res;
+			}
+			return res;
+		}
+
+		@Override
+		public boolean isMethodExcluded(String className, String subSignature) {
+			ClassMethodSummaries classSummaries = getClassFlows(className);
+			if (classSummaries == null)
+				return false;
+			return classSummaries.getMethodSummaries().isExcluded(subSignature);
+		}
+
+		@Override
+		public long getModificationCount() {
+			return version;
+		}
+
+		@Override
+		public IMethodSummaryProvider getSnapshot() {
+			return this;
+		}
+
+	}
+
+	private final AtomicReference<Snapshot> snapshot;
+
+	/**
+	 * Creates a new empty {@link SnapshotSummaryProvider} to which summaries will
+	 * later be added
+	 */
+	public SnapshotSummaryProvider() {
+		this(new ClassSummaries());
+	}
+
+	/**
+	 * Creates a new instance of the SnapshotSummaryProvider class
+	 *
+	 * @param summaries The initial summaries to provide to the taint wrapper. This
+	 *                  object must not be modified afterwards.
+	 */
+	@SuppressWarnings("unchecked")
+	public SnapshotSummaryProvider(ClassSummaries summaries) {
+		Map<String, ClassMethodSummaries>[] buckets = new Map[BUCKET_COUNT];
+		for (int i = 0; i < buckets.length; i++)
+			buckets[i] = new HashMap<>();
+		for (ClassMethodSummaries cms : summaries.getAllSummaries())
+			buckets[getBucket(cms.getClassName())].put(cms.getClassName(), new ImmutableClassMethodSummaries(cms));
+		this.snapshot = new AtomicReference<>(new Snapshot(buckets, summaries.getMetaData(), 0));
+	}
+
+	/**
+	 * Gets the bucket for the class with the given name
+	 *
+	 * @param className The class name
+	 * @return The index of the bucket that holds the summaries of the given class
+	 */
+	private static int getBucket(String className) {
+		return (className.hashCode() & Integer.MAX_VALUE) % BUCKET_COUNT;
+	}
+
+	/**
+	 * Adds the given summaries to this provider. This method can be called
+	 * concurrently with other additions and with any number of readers.
+	 *
+	 * @param summaries The summaries to add
+	 */
+	public void addSummary(ClassMethodSummaries summaries) {
+		if (summaries == null || summaries.isEmpty())
+			return;
+
+		final String className = summaries.getClassName();
+		while (true) {
+			Snapshot oldSnapshot = snapshot.get();
+
+			// Copy the summaries of the class we change, share all the others
+			ClassMethodSummaries newClassSummaries = new ClassMethodSummaries(className);
+			ClassMethodSummaries oldClassSummaries = oldSnapshot.getClassFlows(className);
+			if (oldClassSummaries != null)
+				newClassSummaries.merge(oldClassSummaries);
+			newClassSummaries.merge(summaries);
+
+			// Nobody else has a reference to the merged summaries, so the immutable view
+			// cannot be changed behind our back
+			if (snapshot.compareAndSet(oldSnapshot,
+					oldSnapshot.replaceClass(new ImmutableClassMethodSummaries(newClassSummaries))))
+				return;
+		}
+	}
+
+	/**
+	 * Gets a provider that always returns the summaries that are available in this
+	 * provider right now. Later additions to this provider are not visible through
+	 * the returned provider.
+	 *
+	 * @return A provider for the current snapshot of the summaries
+	 */
+	@Override
+	public IMethodSummaryProvider getSnapshot() {
+		return snapshot.get();
+	}
+
+	@Override
+	public Set<String> getLoadableClasses() {
+		return Collections.emptySet();
+	}
+
+	@Override
+	public Set<String> getSupportedClasses() {
+		return snapshot.get().getSupportedClasses();
+	}
+
+	@Override
+	public boolean supportsClass(String clazz) {
+		return snapshot.get().supportsClass(clazz);
+	}
+
+	@Override
+	public ClassMethodSummaries getMethodFlows(String className, String methodSubSignature) {
+		return snapshot.get().getMethodFlows(className, methodSubSignature);
+	}
+
+	@Override
+	public ClassSummaries getMethodFlows(Set<String> classes, String methodSignature) {
+		return snapshot.get().getMethodFlows(classes, methodSignature);
+	}
+
+	@Override
+	public ClassMethodSummaries getClassFlows(String clazz) {
+		return snapshot.get().getClassFlows(clazz);
+	}
+
+	@Override
+	public boolean mayHaveSummaryForMethod(String subsig) {
+		return true;
+	}
+
+	@Override
+	public ClassSummaries getSummaries() {
+		return snapshot.get().getSummaries();
+	}
+
+	@Override
+	public long getModificationCount() {
+		return snapshot.get().getModificationCount();
+	}
+
+	@Override
+	public boolean isMethodExcluded(String className, String subSignature) {
+		return snapshot.get().isMethodExcluded(className, subSignature);
+	}
+
+}
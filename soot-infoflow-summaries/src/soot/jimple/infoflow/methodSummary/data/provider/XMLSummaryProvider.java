@@ -7,6 +7,7 @@ import java.io.InputStreamReader;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.FileSystem;
 import java.nio.file.FileSystemNotFoundException;
 import java.nio.file.FileSystems;
@@ -14,12 +15,16 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.stream.Stream;
 
 import org.slf4j.Logger;
@@ -385,6 +390,43 @@ public class XMLSummaryProvider implements IMethodSummaryProvider {
 		return hasLoadingErrors;
 	}
 
+	/**
+	 * Computes a hash over the names and contents of all summary files from which
+	 * this provider loads its summaries. The hash changes whenever one of these
+	 * files changes.
+	 * 
+	 * @return The SHA-256 hash of the summary files in hexadecimal notation
+	 * @throws IOException Thrown if a summary file cannot be read
+	 */
+	public String getContentHash() throws IOException {
+		Map<String, Path> summaryFiles = new TreeMap<>();
+		if (files != null)
+			for (File f : files)
+				if (f.isFile() && f.getName().endsWith(".xml"))
+					summaryFiles.put(f.getName(), f.toPath());
+		if (pathes != null)
+			for (Path path : pathes)
+				if (getFileName(path).endsWith(".xml") && Files.isRegularFile(path))
+					summaryFiles.put(getFileName(path), path);
+
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			for (Map.Entry<String, Path> entry : summaryFiles.entrySet()) {
+				digest.update(entry.getKey().getBytes(StandardCharsets.UTF_8));
+				digest.update((byte) 0);
+				digest.update(Files.readAllBytes(entry.getValue()));
+				digest.update((byte) 0);
+			}
+
+			StringBuilder sb = new StringBuilder();
+			for (byte b : digest.digest())
+				sb.append(String.format("%02x", b));
+			return sb.toString();
+		} catch (NoSuchAlgorithmException e) {
+			throw new RuntimeException("SHA-256 is not supported", e);
+		}
+	}
+
 	private String fileToClass(File f) {
 		return fileToClass(f.getName());
 	}
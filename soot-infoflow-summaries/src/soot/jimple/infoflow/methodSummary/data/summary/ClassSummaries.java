@@ -53,9 +53,32 @@ public class ClassSummaries {
 	 * @return The summary object for the class with the given name
 	 */
 	public ClassMethodSummaries getOrCreateClassSummaries(String className) {
+		ClassMethodSummaries methodSummaries = getWritableClassSummaries(className);
+		if (methodSummaries != null)
+			return methodSummaries;
 		return summaries.computeIfAbsent(className, n -> new ClassMethodSummaries(className));
 	}
 
+	/**
+	 * Gets the flow summaries for the given class in a form that can be modified.
+	 * Immutable summaries, e.g., summaries that were taken over from a summary
+	 * provider during a merge, are replaced with a copy first.
+	 * 
+	 * @param className The name of the class for which to get the summaries
+	 * @return The modifiable flow summaries for the given class, or null if there
+	 *         are no summaries for the given class
+	 */
+	private ClassMethodSummaries getWritableClassSummaries(String className) {
+		ClassMethodSummaries methodSummaries = summaries.get(className);
+		if (methodSummaries instanceof ImmutableClassMethodSummaries) {
+			ClassMethodSummaries copy = new ClassMethodSummaries(className);
+			copy.merge(methodSummaries);
+			summaries.put(className, copy);
+			return copy;
+		}
+		return methodSummaries;
+	}
+
 	/**
 	 * Gets the flow summaries for the methods in the given class
 	 * 
@@ -176,7 +199,7 @@ public class ClassSummaries {
 		if (newSums == null || newSums.isEmpty())
 			return;
 
-		ClassMethodSummaries methodSummaries = summaries.get(className);
+		ClassMethodSummaries methodSummaries = getWritableClassSummaries(className);
 		if (methodSummaries == null)
 			summaries.put(className, new ClassMethodSummaries(className, newSums));
 		else
@@ -193,7 +216,7 @@ public class ClassSummaries {
 		if (newSums == null || newSums.isEmpty())
 			return;
 
-		ClassMethodSummaries methodSummaries = summaries.get(className);
+		ClassMethodSummaries methodSummaries = getWritableClassSummaries(className);
 		MethodSummaries ms = new MethodSummaries(newSums);
 		if (methodSummaries == null) {
 			methodSummaries = new ClassMethodSummaries(className, ms);
@@ -232,7 +255,7 @@ public class ClassSummaries {
 		if (summaries == null || summaries.isEmpty())
 			return false;
 
-		ClassMethodSummaries existingSummaries = this.summaries.get(summaries.getClassName());
+		ClassMethodSummaries existingSummaries = getWritableClassSummaries(summaries.getClassName());
 		if (existingSummaries == null) {
 			this.summaries.put(summaries.getClassName(), summaries);
 			return true;
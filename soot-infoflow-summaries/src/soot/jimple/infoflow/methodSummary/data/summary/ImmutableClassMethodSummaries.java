@@ -0,0 +1,64 @@
+package soot.jimple.infoflow.methodSummary.data.summary;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Immutable variant of the {@link ClassMethodSummaries} class
+ *
+ */
+public class ImmutableClassMethodSummaries extends ClassMethodSummaries {
+
+	/**
+	 * Creates an immutable view on the given summaries. The view shares the flows,
+	 * clears, and gaps with the given summaries, so they must not be modified
+	 * afterwards either.
+	 *
+	 * @param original The summaries for which to create the view
+	 */
+	public ImmutableClassMethodSummaries(ClassMethodSummaries original) {
+		super(original.getClassName(), new ImmutableMethodSummaries(original.getMethodSummaries()));
+		for (String intf : original.getInterfaces())
+			super.addInterface(intf);
+		super.setSuperClass(original.getSuperClass());
+		if (original.hasInterfaceInfo())
+			super.setInterface(original.isInterface());
+		super.setExclusiveForClass(original.isExclusiveForClass());
+	}
+
+	@Override
+	public boolean merge(MethodSummaries toMerge) {
+		throw new RuntimeException("This object is immutable");
+	}
+
+	@Override
+	public boolean merge(ClassMethodSummaries methodFlows) {
+		throw new RuntimeException("This object is immutable");
+	}
+
+	@Override
+	public Set<String> getInterfaces() {
+		return Collections.unmodifiableSet(super.getInterfaces());
+	}
+
+	@Override
+	public void addInterface(String className) {
+		throw new RuntimeException("This object is immutable");
+	}
+
+	@Override
+	public void setSuperClass(String superClass) {
+		throw new RuntimeException("This object is immutable");
+	}
+
+	@Override
+	public void setInterface(boolean isInterface) {
+		throw new RuntimeException("This object is immutable");
+	}
+
+	@Override
+	public void setExclusiveForClass(boolean isExclusiveForClass) {
+		throw new RuntimeException("This object is immutable");
+	}
+
+}
@@ -10,6 +10,28 @@ import java.util.Set;
  */
 public class ImmutableClassSummaries extends ClassSummaries {
 
+	/**
+	 * Creates a new, empty instance of the {@link ImmutableClassSummaries} class
+	 */
+	public ImmutableClassSummaries() {
+		super();
+	}
+
+	/**
+	 * Creates an immutable copy of the given summaries. The copy shares the
+	 * summaries of the individual classes and the meta data with the original.
+	 * 
+	 * @param original The summaries to copy
+	 */
+	public ImmutableClassSummaries(ClassSummaries original) {
+		super();
+		for (ClassMethodSummaries cms : original.getAllSummaries())
+			super.merge(cms);
+		for (String dependency : original.getDependencies())
+			super.addDependency(dependency);
+		super.setMetaData(original.getMetaData());
+	}
+
 	@Override
 	public boolean addDependency(String className) {
 		throw new RuntimeException("This object is immutable");
@@ -20,6 +42,24 @@ public class ImmutableClassSummaries extends ClassSummaries {
 		throw new RuntimeException("This object is immutable");
 	}
 
+	@Override
+	public boolean merge(ClassMethodSummaries summaries) {
+		throw new RuntimeException("This object is immutable");
+	}
+
+	@Override
+	public ClassMethodSummaries getOrCreateClassSummaries(String className) {
+		ClassMethodSummaries cms = getClassSummaries(className);
+		if (cms == null)
+			throw new RuntimeException("This object is immutable");
+		return cms;
+	}
+
+	@Override
+	public void setMetaData(SummaryMetaData metaData) {
+		throw new RuntimeException("This object is immutable");
+	}
+
 	@Override
 	public void merge(ClassSummaries summaries) {
 		throw new RuntimeException("This object is immutable");
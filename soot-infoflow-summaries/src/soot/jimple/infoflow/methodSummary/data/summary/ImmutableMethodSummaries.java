@@ -12,6 +12,28 @@ import soot.util.MultiMap;
  */
 public class ImmutableMethodSummaries extends MethodSummaries {
 
+	/**
+	 * Creates a new, empty instance of the {@link ImmutableMethodSummaries} class
+	 */
+	public ImmutableMethodSummaries() {
+		super();
+	}
+
+	/**
+	 * Creates an immutable view on the given summaries. The view shares its data
+	 * with the given summaries, so they must not be modified afterwards either.
+	 * 
+	 * @param original The summaries for which to create the view
+	 */
+	public ImmutableMethodSummaries(MethodSummaries original) {
+		super(original);
+	}
+
+	@Override
+	public void addExcludedMethod(String methodSignature) {
+		throw new RuntimeException("This object is immutable");
+	}
+
 	@Override
 	public boolean addClear(MethodClear clear) {
 		throw new RuntimeException("This object is immutable");
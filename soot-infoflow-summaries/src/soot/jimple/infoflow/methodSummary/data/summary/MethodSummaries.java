@@ -53,6 +53,16 @@ public class MethodSummaries implements Iterable<MethodFlow> {
 		this.gaps = gaps;
 	}
 
+	/**
+	 * Creates a new instance that shares all data with the given summaries
+	 * 
+	 * @param original The summaries whose data to share
+	 */
+	MethodSummaries(MethodSummaries original) {
+		this(original.flows, original.clears, original.gaps);
+		this.excludedMethods = original.excludedMethods;
+	}
+
 	/**
 	 * Converts a flat set of method flows into a map from method signature to set
 	 * of flows inside the respective method
@@ -568,12 +578,7 @@ public class MethodSummaries implements Iterable<MethodFlow> {
 	 * @param toRemove The flow summary to remove
 	 */
 	public void remove(MethodFlow toRemove) {
-		Set<MethodFlow> flowsForMethod = flows.get(toRemove.methodSig());
-		if (flowsForMethod != null) {
-			flowsForMethod.remove(toRemove);
-			if (flowsForMethod.isEmpty())
-				flows.remove(toRemove.methodSig());
-		}
+		flows.remove(toRemove.methodSig(), toRemove);
 	}
 
 	/**
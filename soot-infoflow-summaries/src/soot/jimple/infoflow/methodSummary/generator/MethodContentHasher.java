@@ -0,0 +1,454 @@
+package soot.jimple.infoflow.methodSummary.generator;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import soot.Body;
+import soot.Scene;
+import soot.SootClass;
+import soot.SootField;
+import soot.SootMethod;
+import soot.Trap;
+import soot.Unit;
+import soot.jimple.InstanceInvokeExpr;
+import soot.jimple.InvokeExpr;
+import soot.jimple.SpecialInvokeExpr;
+import soot.jimple.Stmt;
+
+/**
+ * Computes content hashes for methods in the current Soot scene. The hash of a
+ * method covers its own body and the bodies of all methods it transitively
+ * calls, so that the hash changes whenever a change in the code can change the
+ * summary of the method. Virtual calls are resolved with a class hierarchy
+ * analysis, i.e., all methods that override the callee are hashed as well. The
+ * declarations of the classes involved, including their fields and their
+ * super classes and interfaces, are also part of the hash. Recursive methods
+ * are handled by hashing each strongly connected component of the call graph
+ * as a whole.
+ *
+ * The traversal does not follow calls into library classes. Such calls are
+ * only covered by the signature of the callee in the body of the caller. If a
+ * method calls a method that should have a body, but whose body cannot be
+ * loaded, or if the code reachable from a method exceeds a size limit, the
+ * method has no hash and its summary is never cached.
+ */
+public class MethodContentHasher {
+
+	private static final Logger logger = LoggerFactory.getLogger(MethodContentHasher.class);
+
+	public static final int DEFAULT_MAX_METHODS = 10000;
+
+	/**
+	 * A method on the work stack of Tarjan's algorithm together with the callees
+	 * that still need to be processed
+	 */
+	private static class Frame {
+
+		private final SootMethod method;
+		private final Iterator<SootMethod> callees;
+
+		private Frame(SootMethod method, Iterator<SootMethod> callees) {
+			this.method = method;
+			this.callees = callees;
+		}
+
+	}
+
+	private final String salt;
+	private final int maxMethods;
+
+	private final Map<SootMethod, String> bodyHashes = new HashMap<>();
+	private final Map<SootMethod, String> componentHashes = new HashMap<>();
+	private final Map<SootMethod, Set<SootMethod>> callees = new HashMap<>();
+	private final Map<SootClass, String> declarationHashes = new HashMap<>();
+	private final Set<SootMethod> unhashableCallers = new HashSet<>();
+
+	// State of Tarjan's algorithm
+	private final Map<SootMethod, Integer> indices = new HashMap<>();
+	private final Map<SootMethod, Integer> lowLinks = new HashMap<>();
+	private final Deque<SootMethod> stack = new ArrayDeque<>();
+	private final Set<SootMethod> onStack = new HashSet<>();
+	private int nextIndex = 0;
+
+	/**
+	 * Creates a new instance of the {@link MethodContentHasher} class
+	 * 
+	 * @param salt Additional data that is included in every hash, e.g., the
+	 *             analysis options that influence the summaries
+	 */
+	public MethodContentHasher(String salt) {
+		this(salt, DEFAULT_MAX_METHODS);
+	}
+
+	/**
+	 * Creates a new instance of the {@link MethodContentHasher} class
+	 * 
+	 * @param salt       Additional data that is included in every hash, e.g., the
+	 *                   analysis options that influence the summaries
+	 * @param maxMethods The maximum number of methods that may be reachable from
+	 *                   a method. Methods that reach more methods have no hash.
+	 */
+	public MethodContentHasher(String salt, int maxMethods) {
+		this.salt = salt == null ? "" : salt;
+		this.maxMethods = maxMethods;
+	}
+
+	/**
+	 * Gets the content hash of the given method
+	 * 
+	 * @param sm      The method for which to get the hash
+	 * @param context Additional data that is included in this particular hash,
+	 *                e.g., the class on which the method is invoked
+	 * @return The content hash of the given method, or null if the method or some
+	 *         code reachable from it cannot be hashed
+	 */
+	public String getHash(SootMethod sm, String context) {
+		if (getBodyHash(sm) == null)
+			return null;
+
+		if (!componentHashes.containsKey(sm))
+			computeComponents(sm);
+		String componentHash = componentHashes.get(sm);
+		if (componentHash == null)
+			return null;
+
+		// The method is invoked on the context class, so its hierarchy matters as well
+		SootClass contextClass = context == null ? null : Scene.v().getSootClassUnsafe(context, false);
+		String contextHash = contextClass == null ? "" : getDeclarationHash(contextClass);
+		return hash(salt, context == null ? "" : context, contextHash, sm.getSignature(), componentHash);
+	}
+
+	/**
+	 * Computes the strongly connected components of the call graph that are
+	 * reachable from the given method. Call chains can be very deep, so we use an
+	 * explicit work stack instead of recursion.
+	 * 
+	 * @param root The method at which to start
+	 */
+	private void computeComponents(SootMethod root) {
+		final Deque<Frame> work = new ArrayDeque<>();
+		visit(root, work);
+		int visited = 1;
+
+		while (!work.isEmpty()) {
+			final Frame frame = work.peek();
+			final SootMethod sm = frame.method;
+			if (frame.callees.hasNext()) {
+				SootMethod callee = frame.callees.next();
+				if (!indices.containsKey(callee)) {
+					if (++visited > maxMethods) {
+						abortComponents(root);
+						return;
+					}
+					visit(callee, work);
+				} else if (onStack.contains(callee))
+					lowLinks.put(sm, Math.min(lowLinks.get(sm), indices.get(callee)));
+				continue;
+			}
+
+			// We have processed all callees of this method
+			work.pop();
+			if (!work.isEmpty()) {
+				SootMethod caller = work.peek().method;
+				lowLinks.put(caller, Math.min(lowLinks.get(caller), lowLinks.get(sm)));
+			}
+
+			// Is this the root of a component?
+			if (lowLinks.get(sm).equals(indices.get(sm))) {
+				List<SootMethod> component = new ArrayList<>();
+				SootMethod member;
+				do {
+					member = stack.pop();
+					onStack.remove(member);
+					component.add(member);
+				} while (member != sm);
+
+				String componentHash = hashComponent(component);
+				for (SootMethod m : component)
+					componentHashes.put(m, componentHash);
+			}
+		}
+	}
+
+	/**
+	 * Starts processing the given method in Tarjan's algorithm
+	 * 
+	 * @param sm   The method
+	 * @param work The work stack to which to add the method
+	 */
+	private void visit(SootMethod sm, Deque<Frame> work) {
+		indices.put(sm, nextIndex);
+		lowLinks.put(sm, nextIndex);
+		nextIndex++;
+		stack.push(sm);
+		onStack.add(sm);
+		work.push(new Frame(sm, getCallees(sm).iterator()));
+	}
+
+	/**
+	 * Gives up on the current run of Tarjan's algorithm. All methods whose
+	 * components are not complete yet have no hash.
+	 * 
+	 * @param root The method at which the run started
+	 */
+	private void abortComponents(SootMethod root) {
+		logger.warn(String.format("More than %d methods are reachable from %s, its summary will not be cached",
+				maxMethods, root.getSignature()));
+		for (SootMethod sm : stack)
+			componentHashes.put(sm, null);
+		stack.clear();
+		onStack.clear();
+	}
+
+	/**
+	 * Computes the hash of a strongly connected component from the bodies of its
+	 * members and the hashes of the components it calls
+	 * 
+	 * @param component The methods in the strongly connected component
+	 * @return The hash of the given component, or null if the component calls
+	 *         code that cannot be hashed
+	 */
+	private String hashComponent(List<SootMethod> component) {
+		Set<SootMethod> members = new HashSet<>(component);
+		List<String> memberHashes = new ArrayList<>(component.size());
+		Set<String> calleeHashes = new TreeSet<>();
+		for (SootMethod member : component) {
+			if (unhashableCallers.contains(member))
+				return null;
+			memberHashes.add(member.getSignature() + "=" + getBodyHash(member));
+			for (SootMethod callee : getCallees(member)) {
+				if (members.contains(callee))
+					continue;
+				String calleeHash = componentHashes.get(callee);
+				if (calleeHash == null)
+					return null;
+				calleeHashes.add(calleeHash);
+			}
+		}
+		Collections.sort(memberHashes);
+
+		List<String> data = new ArrayList<>(memberHashes.size() + calleeHashes.size());
+		data.addAll(memberHashes);
+		data.addAll(calleeHashes);
+		return hash(data.toArray(new String[data.size()]));
+	}
+
+	/**
+	 * Gets the methods that are called by the given method and whose bodies are
+	 * available. Calls to abstract or native methods and to methods in library
+	 * classes are covered by the body hash of the caller, which contains the
+	 * signature of the callee. Virtual calls may also reach all methods that
+	 * override the callee. If a callee cannot be resolved or its body cannot be
+	 * loaded, the caller is recorded as unhashable.
+	 * 
+	 * @param sm The caller
+	 * @return The callees of the given method
+	 */
+	private Set<SootMethod> getCallees(SootMethod sm) {
+		Set<SootMethod> methodCallees = callees.get(sm);
+		if (methodCallees != null)
+			return methodCallees;
+
+		Body body = getBody(sm);
+		if (body == null)
+			return Collections.emptySet();
+
+		methodCallees = new LinkedHashSet<>();
+		for (Unit u : body.getUnits()) {
+			Stmt stmt = (Stmt) u;
+			if (stmt.containsInvokeExpr()) {
+				InvokeExpr iexpr = stmt.getInvokeExpr();
+				SootMethod callee = iexpr.getMethodRef().tryResolve();
+				if (callee == null) {
+					unhashableCallers.add(sm);
+					continue;
+				}
+				addCallee(sm, methodCallees, callee);
+
+				if (iexpr instanceof InstanceInvokeExpr && !(iexpr instanceof SpecialInvokeExpr)) {
+					for (SootMethod override : getOverrides(callee))
+						addCallee(sm, methodCallees, override);
+				}
+			}
+		}
+		callees.put(sm, methodCallees);
+		return methodCallees;
+	}
+
+	private void addCallee(SootMethod caller, Set<SootMethod> methodCallees, SootMethod callee) {
+		// We do not follow calls into the libraries
+		if (callee.getDeclaringClass().isLibraryClass())
+			return;
+
+		// If the callee should have a body, but we cannot load it, we cannot tell
+		// whether the callee has changed
+		if (getBodyHash(callee) != null)
+			methodCallees.add(callee);
+		else if (callee.isPhantom() || callee.getDeclaringClass().isPhantom() || callee.isConcrete())
+			unhashableCallers.add(caller);
+	}
+
+	/**
+	 * Gets all concrete methods that a virtual call to the given method can reach
+	 * according to the class hierarchy
+	 * 
+	 * @param callee The callee as declared at the call site
+	 * @return The methods that override the given callee, including the callee
+	 *         itself if it is concrete
+	 */
+	private Collection<SootMethod> getOverrides(SootMethod callee) {
+		if (callee.isStatic() || callee.isPrivate() || callee.isConstructor() || callee.isFinal()
+				|| callee.getDeclaringClass().isFinal())
+			return Collections.emptySet();
+
+		try {
+			return Scene.v().getOrMakeFastHierarchy().resolveAbstractDispatch(callee.getDeclaringClass(), callee);
+		} catch (RuntimeException e) {
+			logger.warn(String.format("Could not resolve the overrides of %s", callee.getSignature()), e);
+			return Collections.emptySet();
+		}
+	}
+
+	/**
+	 * Gets the hash of the declaration of the given class. This hash covers the
+	 * modifiers and fields of the class, as well as the declarations of its super
+	 * class and its interfaces.
+	 * 
+	 * @param sc The class
+	 * @return The hash of the declaration of the given class
+	 */
+	private String getDeclarationHash(SootClass sc) {
+		String declarationHash = declarationHashes.get(sc);
+		if (declarationHash != null)
+			return declarationHash;
+
+		if (!sc.isPhantom() && sc.resolvingLevel() < SootClass.SIGNATURES) {
+			try {
+				Scene.v().forceResolve(sc.getName(), SootClass.SIGNATURES);
+			} catch (RuntimeException e) {
+				logger.warn(String.format("Could not load the declaration of %s", sc.getName()), e);
+			}
+		}
+
+		List<String> data = new ArrayList<>();
+		data.add(sc.getName() + " " + sc.getModifiers() + (sc.isPhantom() ? " phantom" : ""));
+		if (sc.hasSuperclass())
+			data.add(getDeclarationHash(sc.getSuperclass()));
+
+		Set<String> interfaceHashes = new TreeSet<>();
+		for (SootClass intf : sc.getInterfaces())
+			interfaceHashes.add(getDeclarationHash(intf));
+		data.addAll(interfaceHashes);
+
+		if (sc.resolvingLevel() >= SootClass.SIGNATURES) {
+			Set<String> fieldDeclarations = new TreeSet<>();
+			for (SootField sf : sc.getFields())
+				fieldDeclarations.add(sf.getDeclaration());
+			data.addAll(fieldDeclarations);
+		}
+
+		declarationHash = hash(data.toArray(new String[data.size()]));
+		declarationHashes.put(sc, declarationHash);
+		return declarationHash;
+	}
+
+	/**
+	 * Gets the hash of the body of the given method
+	 * 
+	 * @param sm The method
+	 * @return The hash of the body of the given method, or null if the method
+	 *         does not have a body
+	 */
+	private String getBodyHash(SootMethod sm) {
+		if (bodyHashes.containsKey(sm))
+			return bodyHashes.get(sm);
+
+		String bodyHash = null;
+		Body body = getBody(sm);
+		if (body != null) {
+			List<String> data = new ArrayList<>(body.getUnits().size() + body.getTraps().size() + 2);
+			data.add(sm.getSignature() + " " + sm.getModifiers());
+			data.add(getDeclarationHash(sm.getDeclaringClass()));
+
+			// The declarations of the classes whose fields we access
+			Set<String> fieldClassHashes = new TreeSet<>();
+			for (Unit u : body.getUnits()) {
+				data.add(u.toString());
+				Stmt stmt = (Stmt) u;
+				if (stmt.containsFieldRef())
+					fieldClassHashes.add(getDeclarationHash(stmt.getFieldRef().getFieldRef().declaringClass()));
+			}
+			for (Trap t : body.getTraps())
+				data.add(t.toString());
+			data.addAll(fieldClassHashes);
+			bodyHash = hash(data.toArray(new String[data.size()]));
+		}
+		bodyHashes.put(sm, bodyHash);
+		return bodyHash;
+	}
+
+	/**
+	 * Gets the body of the given method, loading it if necessary
+	 * 
+	 * @param sm The method
+	 * @return The body of the given method, or null if the method does not have a
+	 *         body
+	 */
+	private Body getBody(SootMethod sm) {
+		if (sm.hasActiveBody())
+			return sm.getActiveBody();
+		if (!sm.isConcrete() || sm.isPhantom() || sm.getDeclaringClass().isPhantom())
+			return null;
+
+		try {
+			SootClass sc = sm.getDeclaringClass();
+			if (sc.resolvingLevel() < SootClass.BODIES)
+				Scene.v().forceResolve(sc.getName(), SootClass.BODIES);
+			return sm.retrieveActiveBody();
+		} catch (RuntimeException e) {
+			logger.warn(String.format("Could not load the body of %s", sm.getSignature()), e);
+			return null;
+		}
+	}
+
+	/**
+	 * Computes a SHA-256 hash over the given strings
+	 * 
+	 * @param data The strings to hash
+	 * @return The hash in hexadecimal notation
+	 */
+	static String hash(String... data) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			for (String s : data) {
+				digest.update(s.getBytes(StandardCharsets.UTF_8));
+				digest.update((byte) 0);
+			}
+
+			StringBuilder sb = new StringBuilder();
+			for (byte b : digest.digest())
+				sb.append(String.format("%02x", b));
+			return sb.toString();
+		} catch (NoSuchAlgorithmException e) {
+			throw new RuntimeException("SHA-256 is not supported", e);
+		}
+	}
+
+}
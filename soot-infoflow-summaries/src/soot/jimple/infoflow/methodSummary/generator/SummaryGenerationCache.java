@@ -0,0 +1,143 @@
+package soot.jimple.infoflow.methodSummary.generator;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import soot.jimple.infoflow.methodSummary.data.summary.ClassMethodSummaries;
+import soot.jimple.infoflow.methodSummary.data.summary.MethodSummaries;
+import soot.jimple.infoflow.methodSummary.xml.SummaryReader;
+import soot.jimple.infoflow.methodSummary.xml.SummaryWriter;
+import soot.jimple.infoflow.methodSummary.xml.SummaryXMLException;
+
+/**
+ * Content-addressed store for the summaries of individual methods. The
+ * summaries are stored in the normal XML summary format in a local directory,
+ * one file per content hash as computed by the {@link MethodContentHasher}.
+ */
+public class SummaryGenerationCache {
+
+	private static final Logger logger = LoggerFactory.getLogger(SummaryGenerationCache.class);
+
+	private final File directory;
+
+	private int hits = 0;
+	private int misses = 0;
+
+	/**
+	 * Creates a new instance of the {@link SummaryGenerationCache} class
+	 *
+	 * @param directory The directory in which to store the cached summaries
+	 */
+	public SummaryGenerationCache(File directory) {
+		this.directory = directory;
+	}
+
+	/**
+	 * Gets the file in which the summaries with the given hash are stored
+	 *
+	 * @param hash The content hash of the method
+	 * @return The file for the given hash
+	 */
+	private File getFile(String hash) {
+		return new File(new File(directory, hash.substring(0, 2)), hash + ".xml");
+	}
+
+	/**
+	 * Loads the summaries for the method with the given content hash
+	 *
+	 * @param hash      The content hash of the method
+	 * @param className The name of the class for which the summaries were
+	 *                  generated
+	 * @return The cached summaries, or null if there are no summaries for the given
+	 *         hash in the cache
+	 */
+	public MethodSummaries load(String hash, String className) {
+		File file = getFile(hash);
+		if (!file.exists()) {
+			misses++;
+			return null;
+		}
+
+		// We do not write out empty summaries
+		ClassMethodSummaries summaries = new ClassMethodSummaries(className);
+		if (file.length() > 0) {
+			try {
+				new SummaryReader().read(file, summaries);
+			} catch (XMLStreamException | SummaryXMLException | IOException e) {
+				logger.warn(String.format("Could not read cached summary file %s", file), e);
+				misses++;
+				return null;
+			}
+		}
+		hits++;
+		return summaries.getMethodSummaries();
+	}
+
+	/**
+	 * Stores the summaries for the method with the given content hash
+	 *
+	 * @param hash      The content hash of the method
+	 * @param className The name of the class for which the summaries were
+	 *                  generated
+	 * @param summaries The summaries to store
+	 */
+	public void store(String hash, String className, MethodSummaries summaries) {
+		File file = getFile(hash);
+		File parentDir = file.getParentFile();
+		if (!parentDir.exists() && !parentDir.mkdirs()) {
+			logger.warn("Could not create summary cache directory {}", parentDir);
+			return;
+		}
+
+		// Write to a temporary file first, so that we never read incomplete files
+		try {
+			File tempFile = File.createTempFile(hash, ".tmp", parentDir);
+			try {
+				ClassMethodSummaries classSummaries = new ClassMethodSummaries(className, summaries);
+				if (!classSummaries.isEmpty())
+					new SummaryWriter().write(tempFile, classSummaries);
+				Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			} finally {
+				tempFile.delete();
+			}
+		} catch (IOException | XMLStreamException e) {
+			logger.warn(String.format("Could not write cached summary file %s", file), e);
+		}
+	}
+
+	/**
+	 * Gets the number of methods whose summaries were taken from the cache
+	 *
+	 * @return The number of cache hits
+	 */
+	public int getHits() {
+		return hits;
+	}
+
+	/**
+	 * Gets the number of methods whose summaries were not found in the cache
+	 *
+	 * @return The number of cache misses
+	 */
+	public int getMisses() {
+		return misses;
+	}
+
+	/**
+	 * Gets the share of lookups that were answered from the cache
+	 *
+	 * @return The cache hit rate between 0 and 1
+	 */
+	public double getHitRate() {
+		int total = hits + misses;
+		return total == 0 ? 0 : (double) hits / total;
+	}
+
+}
@@ -1,16 +1,23 @@
 package soot.jimple.infoflow.methodSummary.generator;
 
 import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.net.URISyntaxException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
@@ -35,8 +42,8 @@ import soot.jimple.infoflow.methodSummary.data.factory.SourceSinkFactory;
 import soot.jimple.infoflow.methodSummary.data.provider.EagerSummaryProvider;
 import soot.jimple.infoflow.methodSummary.data.provider.IMethodSummaryProvider;
 import soot.jimple.infoflow.methodSummary.data.provider.LazySummaryProvider;
-import soot.jimple.infoflow.methodSummary.data.provider.MemorySummaryProvider;
 import soot.jimple.infoflow.methodSummary.data.provider.MergingSummaryProvider;
+import soot.jimple.infoflow.methodSummary.data.provider.SnapshotSummaryProvider;
 import soot.jimple.infoflow.methodSummary.data.summary.ClassMethodSummaries;
 import soot.jimple.infoflow.methodSummary.data.summary.ClassSummaries;
 import soot.jimple.infoflow.methodSummary.data.summary.MethodFlow;
@@ -52,6 +59,7 @@ import soot.jimple.infoflow.nativeCallHandler.INativeCallHandler;
 import soot.jimple.infoflow.results.InfoflowResults;
 import soot.jimple.infoflow.solver.cfg.IInfoflowCFG;
 import soot.jimple.infoflow.taintWrappers.TaintWrapperList;
+import soot.jimple.infoflow.util.ByReferenceBoolean;
 import soot.options.Options;
 
 /**
@@ -75,7 +83,9 @@ public class SummaryGenerator {
 
 	protected SummaryTaintWrapper fallbackWrapper;
 	protected boolean fallbackWrapperInitialized = false;
-	protected MemorySummaryProvider onFlySummaryProvider = null;
+	protected SnapshotSummaryProvider onFlySummaryProvider = null;
+	protected final SummarySceneContext sceneContext = new SummarySceneContext();
+	protected SummaryGenerationCache summaryCache = null;
 
 	public SummaryGenerator() {
 		//
@@ -93,7 +103,7 @@ public class SummaryGenerator {
 			// Do we want to integrate summaries on the fly?
 			List<IMethodSummaryProvider> innerProviders = new ArrayList<>();
 			if (config.getApplySummariesOnTheFly()) {
-				onFlySummaryProvider = new MemorySummaryProvider();
+				onFlySummaryProvider = new SnapshotSummaryProvider();
 				innerProviders.add(onFlySummaryProvider);
 			}
 
@@ -150,6 +160,10 @@ public class SummaryGenerator {
 
 		private final String className;
 		private final Set<String> methods = new HashSet<>();
+		private final Map<String, String> methodHashes = new HashMap<>();
+
+		private String superClass = null;
+		private final Set<String> interfaces = new HashSet<>();
 
 		public ClassAnalysisTask(String className) {
 			this.className = className;
@@ -164,6 +178,21 @@ public class SummaryGenerator {
 			methods.add(signature);
 		}
 
+		/**
+		 * Copies the class hierarchy information that was recorded for this class
+		 * into the given summaries. This is necessary if the summaries were not
+		 * generated, but taken from the cache.
+		 * 
+		 * @param summaries The summaries that shall receive the hierarchy
+		 *                  information
+		 */
+		public void applyHierarchy(ClassMethodSummaries summaries) {
+			if (superClass != null && !summaries.hasSuperclass())
+				summaries.setSuperClass(superClass);
+			for (String intf : interfaces)
+				summaries.addInterface(intf);
+		}
+
 	}
 
 	/**
@@ -256,6 +285,10 @@ public class SummaryGenerator {
 			IClassSummaryHandler handler) {
 		G.reset();
 
+		// Summaries of methods that have not changed can be taken from the cache
+		summaryCache = config.getSummaryCacheDirectory() == null ? null
+				: new SummaryGenerationCache(new File(config.getSummaryCacheDirectory()));
+
 		// Check whether we have a wildcard in the target classes
 		boolean hasWildcard = false;
 		for (String className : classNames) {
@@ -352,9 +385,21 @@ public class SummaryGenerator {
 			}
 		}
 
+		// We need to compute the content hashes before we reset Soot
+		if (summaryCache != null)
+			computeMethodHashes(sortedTasks);
+
 		// Make sure that we don't have any strange leftovers
 		G.reset();
 
+		// If we re-use the Soot scene, we load all classes of this batch together
+		if (config.getReuseSootScene()) {
+			Set<String> batchClasses = new HashSet<>(realClasses.size());
+			for (ClassAnalysisTask analysisTask : realClasses)
+				batchClasses.add(analysisTask.className);
+			sceneContext.setBatchClasses(batchClasses);
+		}
+
 		// We share one gap manager across all method analyses
 		final GapManager gapManager = new GapManager();
 
@@ -381,8 +426,37 @@ public class SummaryGenerator {
 
 				curSummaries = new ClassMethodSummaries(className);
 				for (String methodSig : analysisTask.methods) {
-					MethodSummaries newSums = createMethodSummary(classpath, methodSig, className, gapManager,
-							new SummaryHierarchyGenerator(curSummaries));
+					// Check whether the method has changed since we last summarized it
+					final String methodHash = analysisTask.methodHashes.get(methodSig);
+					MethodSummaries newSums = null;
+					if (methodHash != null) {
+						newSums = summaryCache.load(methodHash, className);
+						if (newSums != null) {
+							logger.info(String.format("Took the method summary for %s from the cache", methodSig));
+							analysisTask.applyHierarchy(curSummaries);
+						}
+					}
+
+					if (newSums == null) {
+						final SummaryHierarchyGenerator hierarchyGenerator = new SummaryHierarchyGenerator(
+								curSummaries);
+						final ByReferenceBoolean completed = new ByReferenceBoolean();
+						newSums = createMethodSummary(classpath, methodSig, className, gapManager,
+								new ResultsAvailableHandler() {
+
+									@Override
+									public void onResultsAvailable(IInfoflowCFG cfg, InfoflowResults results) {
+										hierarchyGenerator.onResultsAvailable(cfg, results);
+										completed.value = results != null
+												&& results.getTerminationState() == InfoflowResults.TERMINATION_SUCCESS;
+									}
+
+								});
+
+						// Summaries of aborted analyses are incomplete and must not be cached
+						if (methodHash != null && completed.value)
+							summaryCache.store(methodHash, className, newSums);
+					}
 					if (handler != null) {
 						handler.onMethodFinished(methodSig, newSums);
 						if (onFlySummaryProvider != null)
@@ -410,18 +484,165 @@ public class SummaryGenerator {
 			if (handler != null)
 				handler.onClassFinished(curSummaries);
 			summaries.merge(curSummaries);
-
-			// Remove duplicate summaries on alias flows. We need to re-do this
-			// as we might have created new duplicates during the merge.
-			new SummaryFlowCompactor(curSummaries.getMethodSummaries()).compact();
 		}
 
+		// Remove duplicate summaries on alias flows. We need to re-do this
+		// as we might have created new duplicates during the merge.
+		compactSummaries(summaries);
+
+		if (summaryCache != null)
+			logger.info(String.format("Summary cache: %d hits, %d misses, hit rate %.2f%%", summaryCache.getHits(),
+					summaryCache.getMisses(), summaryCache.getHitRate() * 100));
+
 		// Calculate the dependencies
 		calculateDependencies(summaries);
 
 		return summaries;
 	}
 
+	/**
+	 * Computes the content hashes of the methods to analyze and records the class
+	 * hierarchy information that we need for methods whose summaries are taken
+	 * from the cache
+	 * 
+	 * @param tasks The analysis tasks
+	 */
+	private void computeMethodHashes(Collection<ClassAnalysisTask> tasks) {
+		long nanosBeforeHashing = System.nanoTime();
+
+		// Without the salt, we cannot tell whether a cached summary is still valid
+		final String salt = computeHashSalt();
+		if (salt == null)
+			return;
+		MethodContentHasher hasher = new MethodContentHasher(salt);
+
+		for (ClassAnalysisTask analysisTask : tasks) {
+			SootClass sc = Scene.v().getSootClass(analysisTask.className);
+			if (sc.hasSuperclass())
+				analysisTask.superClass = sc.getSuperclass().getName();
+			for (SootClass intf : sc.getInterfaces())
+				analysisTask.interfaces.add(intf.getName());
+
+			for (String methodSig : analysisTask.methods) {
+				SootMethod sm = Scene.v().grabMethod(methodSig);
+				if (sm != null) {
+					String methodHash = hasher.getHash(sm, analysisTask.className);
+					if (methodHash != null)
+						analysisTask.methodHashes.put(methodSig, methodHash);
+				}
+			}
+		}
+
+		logger.info(String.format("Computed the content hashes of the methods to analyze in %.2f seconds",
+				(System.nanoTime() - nanosBeforeHashing) / 1E9));
+	}
+
+	/**
+	 * Computes the data that is included in every content hash. Besides the code,
+	 * the summaries depend on the configuration and on the existing summaries that
+	 * are applied while generating new ones.
+	 * 
+	 * @return The salt for the content hashes, or null if the existing summaries
+	 *         could not be read
+	 */
+	private String computeHashSalt() {
+		StringBuilder salt = new StringBuilder();
+		serializeConfiguration(config, salt);
+		salt.append(';').append(substitutedWith);
+
+		try {
+			Set<String> additionalSummaryDirs = config.getAdditionalSummaryDirectories();
+			if (additionalSummaryDirs != null) {
+				for (String dir : new TreeSet<>(additionalSummaryDirs)) {
+					File dirFile = new File(dir);
+					salt.append(';').append(dirFile.exists() ? new LazySummaryProvider(dirFile).getContentHash() : "");
+				}
+			}
+			if (config.isUseDefaultSummaries())
+				salt.append(';')
+						.append(new LazySummaryProvider(TaintWrapperFactory.DEFAULT_SUMMARY_DIR).getContentHash());
+		} catch (IOException | URISyntaxException | RuntimeException e) {
+			logger.warn("Could not hash the existing summaries, the summary cache is disabled", e);
+			return null;
+		}
+		return MethodContentHasher.hash(salt.toString());
+	}
+
+	/**
+	 * Writes all options of the given configuration object into the given string
+	 * builder. Nested configuration objects are serialized recursively.
+	 * 
+	 * @param obj The configuration object or option value to serialize
+	 * @param sb  The string builder that receives the serialized data
+	 */
+	private static void serializeConfiguration(Object obj, StringBuilder sb) {
+		if (obj == null)
+			sb.append("null");
+		else if (obj instanceof String || obj instanceof Number || obj instanceof Boolean
+				|| obj instanceof Character || obj instanceof Enum)
+			sb.append(obj);
+		else if (obj instanceof Collection) {
+			List<String> elements = new ArrayList<>();
+			for (Object element : (Collection<?>) obj) {
+				StringBuilder elementSb = new StringBuilder();
+				serializeConfiguration(element, elementSb);
+				elements.add(elementSb.toString());
+			}
+
+			// Sets do not have a stable order
+			if (!(obj instanceof List))
+				Collections.sort(elements);
+			sb.append(elements);
+		} else if (obj.getClass().getName().startsWith("soot.jimple.infoflow.")) {
+			List<Field> fields = new ArrayList<>();
+			for (Class<?> clazz = obj.getClass(); clazz != Object.class; clazz = clazz.getSuperclass()) {
+				for (Field field : clazz.getDeclaredFields()) {
+					final int modifiers = field.getModifiers();
+					if (field.isSynthetic() || (Modifier.isStatic(modifiers) && Modifier.isFinal(modifiers)))
+						continue;
+
+					// The location of the cache does not change the summaries
+					if (field.getName().equals("summaryCacheDirectory"))
+						continue;
+					fields.add(field);
+				}
+			}
+			fields.sort(Comparator.comparing(f -> f.getDeclaringClass().getName() + "." + f.getName()));
+
+			sb.append(obj.getClass().getName()).append('{');
+			for (Field field : fields) {
+				field.setAccessible(true);
+				sb.append(field.getName()).append('=');
+				try {
+					serializeConfiguration(field.get(obj), sb);
+				} catch (IllegalAccessException e) {
+					throw new RuntimeException(String.format("Could not read option %s", field.getName()), e);
+				}
+				sb.append(';');
+			}
+			sb.append('}');
+		} else
+			sb.append(obj.getClass().getName());
+	}
+
+	/**
+	 * Compacts the flows of all classes in the given summaries in parallel
+	 * 
+	 * @param summaries The summaries to compact
+	 */
+	protected void compactSummaries(ClassSummaries summaries) {
+		List<MethodSummaries> methodSummaries = new ArrayList<>();
+		for (ClassMethodSummaries classSummaries : summaries.getAllSummaries())
+			methodSummaries.add(classSummaries.getMethodSummaries());
+
+		long nanosBeforeCompaction = System.nanoTime();
+		int numThreads = config.getMaxThreadNum() > 0 ? config.getMaxThreadNum()
+				: Runtime.getRuntime().availableProcessors();
+		SummaryFlowCompactor.compact(methodSummaries, numThreads);
+		logger.info(String.format("Compacted the summaries of %d classes in %.2f seconds", methodSummaries.size(),
+				(System.nanoTime() - nanosBeforeCompaction) / 1E9));
+	}
+
 	/**
 	 * Checks whether the given method shall be included in summary generation. If
 	 * so, it is added to the analysis task
@@ -618,6 +839,8 @@ public class SummaryGenerator {
 		final MethodSummaries summaries = new MethodSummaries();
 
 		final SummaryInfoflow infoflow = initInfoflow(summaries, gapManager);
+		if (config.getReuseSootScene())
+			infoflow.setSceneContext(sceneContext);
 
 		final SummaryTaintPropagationHandler listener = new SummaryTaintPropagationHandler(methodSig, parentClass,
 				gapManager);
@@ -662,8 +885,14 @@ public class SummaryGenerator {
 			throw e;
 		}
 
-		logger.info("Method summary for " + methodSig + " done in " + (System.nanoTime() - nanosBeforeMethod) / 1E9
-				+ " seconds");
+		final long methodNanos = System.nanoTime() - nanosBeforeMethod;
+		final long otherNanos = methodNanos - infoflow.getSceneSetupNanos() - infoflow.getCallgraphNanos()
+				- infoflow.getCodeOptimizationNanos();
+		logger.info(String.format(
+				"Method summary for %s done in %.2f seconds (scene setup: %.2f, callgraph: %.2f, "
+						+ "code optimization: %.2f, data flow analysis: %.2f)",
+				methodSig, methodNanos / 1E9, infoflow.getSceneSetupNanos() / 1E9, infoflow.getCallgraphNanos() / 1E9,
+				infoflow.getCodeOptimizationNanos() / 1E9, otherNanos / 1E9));
 		return summaries;
 	}
 
@@ -677,6 +906,11 @@ public class SummaryGenerator {
 		dEntryPointCreater.setSubstituteCallParams(true);
 		dEntryPointCreater.setIgnoreSystemClassParams(false);
 
+		// When we re-use the scene, the dummy main method of the previous method is
+		// still there
+		if (config.getReuseSootScene())
+			dEntryPointCreater.setOverwriteDummyMainMethod(true);
+
 		return dEntryPointCreater;
 	}
 
@@ -758,6 +992,16 @@ public class SummaryGenerator {
 		this.substitutedWith = substitutedWith;
 	}
 
+	/**
+	 * Gets the cache that was used in the last run of the summary generator
+	 * 
+	 * @return The summary cache that was used in the last run, or null if no
+	 *         cache was used
+	 */
+	public SummaryGenerationCache getSummaryCache() {
+		return summaryCache;
+	}
+
 	/**
 	 * Gets the configuration for this summary generator
 	 * 
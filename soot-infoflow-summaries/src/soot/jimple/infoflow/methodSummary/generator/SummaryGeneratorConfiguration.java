@@ -27,6 +27,8 @@ public class SummaryGeneratorConfiguration extends InfoflowConfiguration {
 
 	protected long classSummaryTimeout = -1;
 	private int repeatCount = 1;
+	protected boolean reuseSootScene = false;
+	protected String summaryCacheDirectory = null;
 
 	static {
 		SummaryGeneratorConfiguration.setMergeNeighbors(true);
@@ -75,6 +77,8 @@ public class SummaryGeneratorConfiguration extends InfoflowConfiguration {
 			}
 
 			this.classSummaryTimeout = summaryConfig.classSummaryTimeout;
+			this.reuseSootScene = summaryConfig.reuseSootScene;
+			this.summaryCacheDirectory = summaryConfig.summaryCacheDirectory;
 		}
 	}
 
@@ -304,6 +308,56 @@ public class SummaryGeneratorConfiguration extends InfoflowConfiguration {
 		this.classSummaryTimeout = classSummaryTimeout;
 	}
 
+	/**
+	 * Gets whether the summary generator shall load the Soot scene only once and
+	 * analyze all methods of a batch against it. Otherwise, Soot is reset and the
+	 * classpath is loaded again for every single method.
+	 * 
+	 * @return True if the Soot scene shall be shared between the methods of a
+	 *         batch, false otherwise
+	 */
+	public boolean getReuseSootScene() {
+		return reuseSootScene;
+	}
+
+	/**
+	 * Sets whether the summary generator shall load the Soot scene only once and
+	 * analyze all methods of a batch against it. Otherwise, Soot is reset and the
+	 * classpath is loaded again for every single method.
+	 * 
+	 * @param reuseSootScene True if the Soot scene shall be shared between the
+	 *                       methods of a batch, false otherwise
+	 */
+	public void setReuseSootScene(boolean reuseSootScene) {
+		this.reuseSootScene = reuseSootScene;
+	}
+
+	/**
+	 * Gets the directory in which the summary generator caches the summaries of
+	 * individual methods. The cache is keyed by a hash over the bodies of the
+	 * method and its callees, so that methods that have not changed since a
+	 * previous run need not be analyzed again.
+	 * 
+	 * @return The directory of the summary cache, or null if no cache shall be
+	 *         used
+	 */
+	public String getSummaryCacheDirectory() {
+		return summaryCacheDirectory;
+	}
+
+	/**
+	 * Sets the directory in which the summary generator caches the summaries of
+	 * individual methods. The cache is keyed by a hash over the bodies of the
+	 * method and its callees, so that methods that have not changed since a
+	 * previous run need not be analyzed again.
+	 * 
+	 * @param summaryCacheDirectory The directory of the summary cache, or null if
+	 *                              no cache shall be used
+	 */
+	public void setSummaryCacheDirectory(String summaryCacheDirectory) {
+		this.summaryCacheDirectory = summaryCacheDirectory;
+	}
+
 	@Override
 	public int hashCode() {
 		final int prime = 31;
@@ -316,6 +370,8 @@ public class SummaryGeneratorConfiguration extends InfoflowConfiguration {
 		result = prime * result + ((excludes == null) ? 0 : excludes.hashCode());
 		result = prime * result + (loadFullJAR ? 1231 : 1237);
 		result = prime * result + repeatCount;
+		result = prime * result + (reuseSootScene ? 1231 : 1237);
+		result = prime * result + ((summaryCacheDirectory == null) ? 0 : summaryCacheDirectory.hashCode());
 		result = prime * result + (summarizeHashCodeEquals ? 1231 : 1237);
 		result = prime * result + (useDefaultSummaries ? 1231 : 1237);
 		result = prime * result + (validateResults ? 1231 : 1237);
@@ -354,6 +410,13 @@ public class SummaryGeneratorConfiguration extends InfoflowConfiguration {
 			return false;
 		if (repeatCount != other.repeatCount)
 			return false;
+		if (reuseSootScene != other.reuseSootScene)
+			return false;
+		if (summaryCacheDirectory == null) {
+			if (other.summaryCacheDirectory != null)
+				return false;
+		} else if (!summaryCacheDirectory.equals(other.summaryCacheDirectory))
+			return false;
 		if (summarizeHashCodeEquals != other.summarizeHashCodeEquals)
 			return false;
 		if (useDefaultSummaries != other.useDefaultSummaries)
@@ -1,10 +1,22 @@
 package soot.jimple.infoflow.methodSummary.generator;
 
 import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import soot.G;
+import soot.MethodOrMethodContext;
+import soot.Scene;
+import soot.SootClass;
+import soot.SootMethod;
 import soot.jimple.infoflow.Infoflow;
 import soot.jimple.infoflow.InfoflowManager;
 import soot.jimple.infoflow.solver.IInfoflowSolver;
+import soot.jimple.infoflow.sourcesSinks.manager.ISourceSinkManager;
 import soot.options.Options;
 
 /**
@@ -15,8 +27,15 @@ import soot.options.Options;
  */
 public class SummaryInfoflow extends Infoflow {
 
+	private static final Logger logger = LoggerFactory.getLogger(SummaryInfoflow.class);
+
 	private InfoflowManager cachedManager = null;
 	private String libPath;
+	private SummarySceneContext sceneContext = null;
+
+	private long sceneSetupNanos = 0;
+	private long callgraphNanos = 0;
+	private long codeOptimizationNanos = 0;
 
 	public SummaryInfoflow() {
 		super();
@@ -47,7 +66,154 @@ public class SummaryInfoflow extends Infoflow {
 	@Override
 	protected void initializeSoot(String appPath, String libPath, Collection<String> classes, String extraSeed) {
 		this.libPath = libPath;
-		super.initializeSoot(appPath, libPath, classes, extraSeed);
+		long beforeSetup = System.nanoTime();
+		if (sceneContext != null && sceneContext.isInitializedFor(appPath, libPath))
+			reuseScene(appPath, libPath, classes, extraSeed);
+		else if (sceneContext != null) {
+			// Load all classes of the batch at once, so that the class hierarchy does
+			// not change between the methods
+			Set<String> allClasses = new HashSet<>(classes);
+			allClasses.addAll(sceneContext.getBatchClasses());
+			super.initializeSoot(appPath, libPath, allClasses, extraSeed);
+			sceneContext.markInitialized(appPath, libPath);
+
+			// Only the classes of the current method are application classes
+			for (String className : sceneContext.getBatchClasses()) {
+				if (!classes.contains(className)) {
+					SootClass sc = Scene.v().getSootClassUnsafe(className);
+					if (sc != null && sc.isApplicationClass())
+						sc.setLibraryClass();
+				}
+			}
+			markMethodApplicationClasses(classes);
+		} else
+			super.initializeSoot(appPath, libPath, classes, extraSeed);
+		sceneSetupNanos += System.nanoTime() - beforeSetup;
+	}
+
+	/**
+	 * Prepares the existing Soot scene for the analysis of the next method. The
+	 * classpath is not loaded again. Instead, we only undo the changes of the
+	 * previous analysis and discard the old callgraph.
+	 * 
+	 * @param appPath   The application path
+	 * @param libPath   The library path
+	 * @param classes   The classes required for analyzing the next method
+	 * @param extraSeed The extra seed for the next method
+	 */
+	private void reuseScene(String appPath, String libPath, Collection<String> classes, String extraSeed) {
+		logger.info("Re-using the existing Soot scene...");
+		sceneContext.restore();
+
+		// Apply the same options as for a fresh scene. The callgraph algorithm may
+		// depend on the extra seed, and Spark is off in a fresh scene.
+		Options.v().setPhaseOption("cg.spark", "enabled:false");
+		setSootOptions(appPath, libPath, extraSeed);
+
+		Scene.v().releaseCallGraph();
+		Scene.v().releasePointsToAnalysis();
+		Scene.v().releaseReachableMethods();
+		G.v().resetSpark();
+
+		boolean newClasses = false;
+		for (String className : classes) {
+			SootClass sc = Scene.v().getSootClassUnsafe(className, false);
+			if (sc == null || sc.resolvingLevel() < SootClass.BODIES) {
+				Scene.v().forceResolve(className, SootClass.BODIES);
+				newClasses = true;
+			}
+		}
+		markMethodApplicationClasses(classes);
+
+		// Classes that we have not seen before may change the class hierarchy
+		if (newClasses)
+			Scene.v().releaseFastHierarchy();
+	}
+
+	/**
+	 * Turns the given classes into application classes for the analysis of the
+	 * current method. The classes are recorded even if they already are
+	 * application classes, so that they are turned back into library classes
+	 * before the next method is analyzed.
+	 * 
+	 * @param classes The classes required for analyzing the current method
+	 */
+	private void markMethodApplicationClasses(Collection<String> classes) {
+		for (String className : classes) {
+			SootClass sc = Scene.v().getSootClassUnsafe(className, false);
+			if (sc != null) {
+				if (!sc.isApplicationClass())
+					sc.setApplicationClass();
+				sceneContext.addMethodApplicationClass(sc);
+			}
+		}
+	}
+
+	@Override
+	protected void constructCallgraph() {
+		long beforeCallgraph = System.nanoTime();
+		super.constructCallgraph();
+		callgraphNanos += System.nanoTime() - beforeCallgraph;
+	}
+
+	@Override
+	protected void eliminateDeadCode(ISourceSinkManager sourcesSinks) {
+		long beforeOptimization = System.nanoTime();
+
+		// The code optimizers change the method bodies in place. These changes are
+		// specific to the current entry point, so we need to be able to undo them.
+		if (sceneContext != null) {
+			if (Scene.v().hasCallGraph()) {
+				for (Iterator<MethodOrMethodContext> iter = Scene.v().getReachableMethods().listener(); iter
+						.hasNext();)
+					sceneContext.saveBody(iter.next().method());
+			} else {
+				for (SootClass sc : Scene.v().getApplicationClasses())
+					for (SootMethod sm : sc.getMethods())
+						sceneContext.saveBody(sm);
+			}
+		}
+
+		super.eliminateDeadCode(sourcesSinks);
+		codeOptimizationNanos += System.nanoTime() - beforeOptimization;
+	}
+
+	/**
+	 * Sets the context that allows this data flow tracker to re-use a Soot scene
+	 * that was loaded for a previous method. If no context is set, Soot is reset
+	 * and the classpath is loaded again for every analysis.
+	 * 
+	 * @param sceneContext The shared scene context, or null to always reset Soot
+	 */
+	public void setSceneContext(SummarySceneContext sceneContext) {
+		this.sceneContext = sceneContext;
+	}
+
+	/**
+	 * Gets the time spent on resetting Soot and loading the classpath
+	 * 
+	 * @return The time spent on setting up the Soot scene, in nanoseconds
+	 */
+	public long getSceneSetupNanos() {
+		return sceneSetupNanos;
+	}
+
+	/**
+	 * Gets the time spent on constructing the callgraph
+	 * 
+	 * @return The time spent on callgraph construction, in nanoseconds
+	 */
+	public long getCallgraphNanos() {
+		return callgraphNanos;
+	}
+
+	/**
+	 * Gets the time spent on constant propagation and dead code elimination
+	 * 
+	 * @return The time spent on code optimization, in nanoseconds
+	 */
+	public long getCodeOptimizationNanos() {
+		return codeOptimizationNanos;
 	}
 
 	@Override
@@ -0,0 +1,137 @@
+package soot.jimple.infoflow.methodSummary.generator;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import soot.Body;
+import soot.Scene;
+import soot.SootClass;
+import soot.SootMethod;
+
+/**
+ * State that is shared between the analyses of multiple methods when the
+ * summary generator re-uses the same Soot scene. The context remembers for
+ * which classpath the scene was loaded and which changes the analysis of a
+ * single method has made to the scene, so that these changes can be undone
+ * before the next method is analyzed.
+ */
+public class SummarySceneContext {
+
+	private Scene scene = null;
+	private String appPath = null;
+	private String libPath = null;
+
+	private final Set<String> batchClasses = new HashSet<>();
+	private final Map<SootMethod, Body> originalBodies = new HashMap<>();
+	private final Set<SootClass> methodApplicationClasses = new HashSet<>();
+
+	/**
+	 * Checks whether the current Soot scene has been loaded for the given
+	 * classpath
+	 *
+	 * @param appPath The application path
+	 * @param libPath The library path
+	 * @return True if the current Soot scene can be re-used for the given
+	 *         classpath, otherwise false
+	 */
+	public boolean isInitializedFor(String appPath, String libPath) {
+		// If someone has reset Soot in the meantime, we need to start over
+		if (scene == null || scene != Scene.v()) {
+			invalidate();
+			return false;
+		}
+		return equalsOrNull(this.appPath, appPath) && equalsOrNull(this.libPath, libPath);
+	}
+
+	private static boolean equalsOrNull(String a, String b) {
+		return a == null ? b == null : a.equals(b);
+	}
+
+	/**
+	 * Records that the current Soot scene has been loaded for the given classpath
+	 *
+	 * @param appPath The application path
+	 * @param libPath The library path
+	 */
+	public void markInitialized(String appPath, String libPath) {
+		this.scene = Scene.v();
+		this.appPath = appPath;
+		this.libPath = libPath;
+		this.originalBodies.clear();
+		this.methodApplicationClasses.clear();
+	}
+
+	/**
+	 * Forgets the current Soot scene. The next analysis will load the classpath
+	 * again.
+	 */
+	public void invalidate() {
+		this.scene = null;
+		this.appPath = null;
+		this.libPath = null;
+		this.originalBodies.clear();
+		this.methodApplicationClasses.clear();
+	}
+
+	/**
+	 * Sets the classes that are analyzed in the current batch. These classes are
+	 * loaded together when the scene is initialized.
+	 *
+	 * @param classes The classes that are analyzed in the current batch
+	 */
+	public void setBatchClasses(Collection<String> classes) {
+		batchClasses.clear();
+		if (classes != null)
+			batchClasses.addAll(classes);
+	}
+
+	/**
+	 * Gets the classes that are analyzed in the current batch
+	 *
+	 * @return The classes that are analyzed in the current batch
+	 */
+	public Set<String> getBatchClasses() {
+		return batchClasses;
+	}
+
+	/**
+	 * Saves a copy of the current body of the given method, unless a copy has
+	 * already been saved since the last call to {@link #restore()}
+	 *
+	 * @param sm The method whose body may be changed by the current analysis
+	 */
+	public void saveBody(SootMethod sm) {
+		if (!sm.hasActiveBody() || originalBodies.containsKey(sm))
+			return;
+		originalBodies.put(sm, (Body) sm.getActiveBody().clone());
+	}
+
+	/**
+	 * Records that the given class has been turned into an application class for
+	 * the analysis of the current method only
+	 *
+	 * @param sc The class that has been turned into an application class
+	 */
+	public void addMethodApplicationClass(SootClass sc) {
+		methodApplicationClasses.add(sc);
+	}
+
+	/**
+	 * Undoes all changes that the analysis of the last method has made to the
+	 * scene
+	 */
+	public void restore() {
+		for (Map.Entry<SootMethod, Body> entry : originalBodies.entrySet())
+			entry.getKey().setActiveBody(entry.getValue());
+		originalBodies.clear();
+
+		for (SootClass sc : methodApplicationClasses)
+			if (sc.isInScene() && sc.isApplicationClass())
+				sc.setLibraryClass();
+		methodApplicationClasses.clear();
+	}
+
+}
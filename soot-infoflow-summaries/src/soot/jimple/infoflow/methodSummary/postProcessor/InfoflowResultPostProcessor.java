@@ -1,15 +1,20 @@
 package soot.jimple.infoflow.methodSummary.postProcessor;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import heros.solver.Pair;
 import soot.ArrayType;
 import soot.Local;
 import soot.Scene;
@@ -36,7 +41,9 @@ import soot.jimple.infoflow.methodSummary.postProcessor.SummaryPathBuilder.Summa
 import soot.jimple.infoflow.methodSummary.taintWrappers.AccessPathFragment;
 import soot.jimple.infoflow.methodSummary.util.AliasUtils;
 import soot.jimple.infoflow.solver.executors.InterruptableExecutor;
+import soot.jimple.infoflow.threading.ParallelTaskRunner;
 import soot.jimple.infoflow.util.SootMethodRepresentationParser;
+import soot.util.HashMultiMap;
 import soot.util.MultiMap;
 
 public class InfoflowResultPostProcessor {
@@ -113,23 +120,11 @@ public class InfoflowResultPostProcessor {
 
 		// Do we have anything to analyze at all?
 		if (collectedAbstractions != null && !collectedAbstractions.isEmpty()) {
-			// Create a context-sensitive path builder. Without context-sensitivity,
-			// we get quite some false positives here.
-			InterruptableExecutor executor = new InterruptableExecutor(Runtime.getRuntime().availableProcessors(),
-					Runtime.getRuntime().availableProcessors(), 30, TimeUnit.SECONDS,
-					new LinkedBlockingQueue<Runnable>());
-			executor.setThreadFactory(new ThreadFactory() {
-
-				@Override
-				public Thread newThread(Runnable r) {
-					Thread thr = new Thread(r);
-					thr.setDaemon(true);
-					thr.setName("Post processing");
-					return thr;
-				}
-			});
-			SummaryPathBuilder pathBuilder = new SummaryPathBuilder(manager, executor);
-
+			// Collect the abstractions for which we need to reconstruct paths. We
+			// remember at which statements each abstraction was collected, so that we
+			// can map the source-to-sink connections back to these statements.
+			Set<AbstractionAtSink> sinkAbstractions = new HashSet<>();
+			MultiMap<Pair<AccessPath, Stmt>, Stmt> sinkStmts = new HashMultiMap<>();
 			for (Abstraction a : collectedAbstractions.keySet()) {
 				// If this abstraction is directly the source abstraction, we do not
 				// need to construct paths
@@ -143,58 +138,15 @@ public class InfoflowResultPostProcessor {
 										false));
 					}
 				} else {
-					// Get the source info and process the flow
-					pathBuilder.clear();
-					pathBuilder.reset();
-					pathBuilder.computeTaintPaths(
-							Collections.singleton(new AbstractionAtSink(null, a, a.getCurrentStmt())));
-
-					// Wait for the executor to complete all of its tasks
-					try {
-						executor.awaitCompletion();
-					} catch (InterruptedException e) {
-						logger.error("Could not wait for executor termination", e);
-					}
-
-					logger.info("Obtained {} source-to-sink connections.", pathBuilder.getResultInfos().size());
-
-					// Reconstruct the sources
-					for (Stmt stmt : collectedAbstractions.get(a)) {
-						abstractionCount++;
-
-						// If this abstraction is directly the source abstraction,
-						// we do not
-						// need to construct paths
-						if (a.getSourceContext() != null) {
-							continue;
-						}
-
-						for (SummaryResultInfo si : pathBuilder.getResultInfos()) {
-							final AccessPath sourceAP = si.getSourceInfo().getAccessPath();
-							final AccessPath sinkAP = si.getSinkInfo().getAccessPath();
-							final Stmt sourceStmt = si.getSourceInfo().getStmt();
-
-							// Check that we don't get any weird results
-							if (sourceAP == null || sinkAP == null)
-								throw new RuntimeException("Invalid access path");
-
-							// We only take flows which are not identity flows. If we have a flow from a gap
-							// parameter to the original method parameter, the access paths are equal, but
-							// that's ok in the case of aliasing.
-							boolean isAliasedField = gapManager.getGapForCall(sourceStmt) != null
-									&& isAliasedField(sinkAP, sourceAP, sourceStmt) && si.getSourceInfo().getIsAlias();
-							if (!sinkAP.equals(sourceAP) || isAliasedField) {
-								// Process the flow from this source
-								processFlowSource(flows, m, sinkAP, stmt, si.getSourceInfo());
-								analyzedPaths++;
-							}
-						}
-					}
-
-					// Free some memory
-					pathBuilder.clear();
+					Set<Stmt> stmts = collectedAbstractions.get(a);
+					sinkAbstractions.add(new AbstractionAtSink(null, a, a.getCurrentStmt()));
+					sinkStmts.putAll(new Pair<>(a.getAccessPath(), a.getCurrentStmt()), stmts);
+					abstractionCount += stmts.size();
 				}
 			}
+
+			if (!sinkAbstractions.isEmpty())
+				analyzedPaths = reconstructPaths(flows, m, sinkAbstractions, sinkStmts);
 		}
 
 		// Compact the flow set to remove paths that are over-approximations of
@@ -210,6 +162,105 @@ public class InfoflowResultPostProcessor {
 		return flows;
 	}
 
+	/**
+	 * Reconstructs the paths for all of the given abstractions at once and adds
+	 * the resulting flows to the given summary object. All abstractions share one
+	 * path builder, so that the paths of abstractions with the same sink are only
+	 * reconstructed once where they meet. The resulting flows are then created in
+	 * parallel, unless the configuration limits the analysis to a single thread.
+	 * 
+	 * @param flows            The method summary object in which to store the
+	 *                         detected flows. It must support concurrent additions.
+	 * @param m                The method for which the summaries are generated
+	 * @param sinkAbstractions The abstractions for which to reconstruct the paths
+	 * @param sinkStmts        The statements at which the abstractions were
+	 *                         collected, indexed by the access path and current
+	 *                         statement of the respective abstraction
+	 * @return The number of paths that were analyzed
+	 */
+	private int reconstructPaths(final MethodSummaries flows, final SootMethod m,
+			Set<AbstractionAtSink> sinkAbstractions, final MultiMap<Pair<AccessPath, Stmt>, Stmt> sinkStmts) {
+		// Create a context-sensitive path builder. Without context-sensitivity,
+		// we get quite some false positives here.
+		final int numThreads = config.getMaxThreadNum() > 0 ? config.getMaxThreadNum()
+				: Runtime.getRuntime().availableProcessors();
+		InterruptableExecutor executor = new InterruptableExecutor(numThreads, numThreads, 30, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<Runnable>());
+		executor.setThreadFactory(new ThreadFactory() {
+
+			@Override
+			public Thread newThread(Runnable r) {
+				Thread thr = new Thread(r);
+				thr.setDaemon(true);
+				thr.setName("Post processing");
+				return thr;
+			}
+		});
+
+		final List<SummaryResultInfo> resultInfos;
+		try {
+			SummaryPathBuilder pathBuilder = new SummaryPathBuilder(manager, executor);
+			pathBuilder.computeTaintPaths(sinkAbstractions);
+
+			// Wait for the executor to complete all of its tasks
+			try {
+				executor.awaitCompletion();
+			} catch (InterruptedException e) {
+				logger.error("Could not wait for executor termination", e);
+			}
+
+			Throwable exception = executor.getException();
+			if (exception != null)
+				throw new RuntimeException("An exception has occurred in the path reconstruction", exception);
+
+			resultInfos = new ArrayList<>(pathBuilder.getResultInfos());
+			logger.info("Obtained {} source-to-sink connections.", resultInfos.size());
+
+			// Free some memory
+			pathBuilder.clear();
+		} finally {
+			executor.shutdown();
+		}
+
+		// Create the flows for the source-to-sink connections
+		final AtomicInteger analyzedPaths = new AtomicInteger();
+		ParallelTaskRunner runner = new ParallelTaskRunner("Post processing", numThreads);
+		try {
+			runner.run(resultInfos.size(), new IntConsumer() {
+
+				@Override
+				public void accept(int i) {
+					SummaryResultInfo si = resultInfos.get(i);
+					final AccessPath sourceAP = si.getSourceInfo().getAccessPath();
+					final AccessPath sinkAP = si.getSinkInfo().getAccessPath();
+					final Stmt sourceStmt = si.getSourceInfo().getStmt();
+
+					// Check that we don't get any weird results
+					if (sourceAP == null || sinkAP == null)
+						throw new RuntimeException("Invalid access path");
+
+					// We only take flows which are not identity flows. If we have a flow from a gap
+					// parameter to the original method parameter, the access paths are equal, but
+					// that's ok in the case of aliasing.
+					boolean isAliasedField = gapManager.getGapForCall(sourceStmt) != null
+							&& isAliasedField(sinkAP, sourceAP, sourceStmt) && si.getSourceInfo().getIsAlias();
+					if (!sinkAP.equals(sourceAP) || isAliasedField) {
+						// Process the flow from this source at all statements at which the
+						// abstraction was collected
+						for (Stmt stmt : sinkStmts.get(new Pair<>(sinkAP, si.getSinkInfo().getStmt()))) {
+							processFlowSource(flows, m, sinkAP, stmt, si.getSourceInfo());
+							analyzedPaths.incrementAndGet();
+						}
+					}
+				}
+
+			});
+		} finally {
+			runner.shutdown();
+		}
+		return analyzedPaths.get();
+	}
+
 	/**
 	 * Checks whether the two given access paths may alias at the given statement
 	 * 
@@ -462,15 +513,18 @@ public class InfoflowResultPostProcessor {
 
 	private void debugMSG(FlowSource source, FlowSink sink, boolean isAlias) {
 		if (DEBUG) {
-			System.out.println("\nmethod: " + method);
-			System.out.println("source: " + source.toString());
-			System.out.println("sink  : " + sink.toString());
-			System.out.println("alias : " + isAlias);
+			// Flows are added concurrently, so we print each message in one go
+			StringBuilder sb = new StringBuilder();
+			sb.append("\nmethod: ").append(method).append("\n");
+			sb.append("source: ").append(source.toString()).append("\n");
+			sb.append("sink  : ").append(sink.toString()).append("\n");
+			sb.append("alias : ").append(isAlias).append("\n");
 			GapDefinition gap = sink.getGap();
 			if (gap != null)
-				System.out.println("gap : " + gap.getSignature());
+				sb.append("gap : ").append(gap.getSignature()).append("\n");
 
-			System.out.println("------------------------------------");
+			sb.append("------------------------------------");
+			System.out.println(sb.toString());
 		}
 	}
 
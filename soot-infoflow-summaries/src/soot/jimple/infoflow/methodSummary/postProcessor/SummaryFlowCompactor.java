@@ -1,17 +1,27 @@
 package soot.jimple.infoflow.methodSummary.postProcessor;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import soot.jimple.infoflow.methodSummary.data.sourceSink.AbstractFlowSinkSource;
 import soot.jimple.infoflow.methodSummary.data.summary.GapDefinition;
 import soot.jimple.infoflow.methodSummary.data.summary.MethodFlow;
 import soot.jimple.infoflow.methodSummary.data.summary.MethodSummaries;
+import soot.jimple.infoflow.methodSummary.data.summary.SourceSinkType;
 import soot.jimple.infoflow.methodSummary.taintWrappers.AccessPathFragment;
+import soot.jimple.infoflow.threading.ParallelTaskRunner;
 
 /**
  * Class for compacting a set of method flow summaries
@@ -21,9 +31,217 @@ import soot.jimple.infoflow.methodSummary.taintWrappers.AccessPathFragment;
  */
 public class SummaryFlowCompactor {
 
-	private static final Logger logger = LoggerFactory.getLogger(InfoflowResultPostProcessor.class);
+	private static final Logger logger = LoggerFactory.getLogger(SummaryFlowCompactor.class);
 
 	private final MethodSummaries summaries;
+	private final Set<MethodFlow> flowsToRemove = Collections.synchronizedSet(new HashSet<MethodFlow>());
+	private final AtomicInteger coarserFlowsRemoved = new AtomicInteger();
+
+	/**
+	 * Node in a trie over the fields of access paths
+	 */
+	private static class AccessPathTrieNode {
+
+		private Map<String, AccessPathTrieNode> children = null;
+		private int count = 0;
+
+		/**
+		 * For nodes in the trie over the source access paths, the index over the sinks
+		 * of the flows whose source access path ends at this node
+		 */
+		private SinkIndex sinks = null;
+
+		private AccessPathTrieNode getChild(String field, boolean create) {
+			AccessPathTrieNode child = children == null ? null : children.get(field);
+			if (child == null && create) {
+				if (children == null)
+					children = new HashMap<>();
+				child = new AccessPathTrieNode();
+				children.put(field, child);
+			}
+			return child;
+		}
+
+		/**
+		 * Walks down the trie along the given access path
+		 * 
+		 * @param accessPath The access path
+		 * @param delta      The value to add to the flow count of every node on the
+		 *                   way, or 0 if nothing shall be changed
+		 * @return The node at which the given access path ends, or null if no such
+		 *         node exists and delta is 0
+		 */
+		private AccessPathTrieNode walk(AccessPathFragment accessPath, int delta) {
+			AccessPathTrieNode curNode = this;
+			curNode.count += delta;
+			for (int i = 0; i < accessPath.length(); i++) {
+				curNode = curNode.getChild(accessPath.getField(i), delta != 0);
+				if (curNode == null)
+					return null;
+				curNode.count += delta;
+			}
+			return curNode;
+		}
+
+	}
+
+	/**
+	 * Index over the sink access paths of a set of flows
+	 */
+	private static class SinkIndex {
+
+		private final AccessPathTrieNode root = new AccessPathTrieNode();
+		private int nullCount = 0;
+
+		private void update(AccessPathFragment sinkAP, int delta) {
+			if (sinkAP == null)
+				nullCount += delta;
+			else
+				root.walk(sinkAP, delta);
+		}
+
+		/**
+		 * Checks whether there is a flow in this index whose sink access path has the
+		 * given access path as a prefix
+		 * 
+		 * @param sinkAP The sink access path to look for
+		 * @return True if there is a flow whose sink access path is more precise than
+		 *         the given one, otherwise false
+		 */
+		private boolean hasFinerSink(AccessPathFragment sinkAP) {
+			if (root.count + nullCount == 0)
+				return false;
+
+			// A missing access path is compatible with anything
+			if (sinkAP == null || nullCount > 0)
+				return true;
+			AccessPathTrieNode node = root.walk(sinkAP, 0);
+			return node != null && node.count > 0;
+		}
+
+	}
+
+	/**
+	 * Index over all flows that only differ in the access paths of their sources
+	 * and sinks. Only flows in the same bucket can be coarser than each other.
+	 */
+	private static class FlowBucket {
+
+		private final AccessPathTrieNode sourceRoot = new AccessPathTrieNode();
+		private final SinkIndex nullSources = new SinkIndex();
+
+		private void update(MethodFlow flow, int delta) {
+			final AccessPathFragment sourceAP = flow.source().getAccessPath();
+			final SinkIndex sinks;
+			if (sourceAP == null)
+				sinks = nullSources;
+			else {
+				AccessPathTrieNode node = sourceRoot.walk(sourceAP, delta);
+				if (node.sinks == null)
+					node.sinks = new SinkIndex();
+				sinks = node.sinks;
+			}
+			sinks.update(flow.sink().getAccessPath(), delta);
+		}
+
+		/**
+		 * Checks whether the given flow is coarser than any flow in this bucket. This
+		 * is the indexed equivalent of {@link MethodFlow#isCoarserThan(MethodFlow)}.
+		 * 
+		 * @param flow The flow to check
+		 * @return True if the bucket contains a flow that is more precise than the
+		 *         given one, otherwise false
+		 */
+		private boolean hasFinerFlow(MethodFlow flow) {
+			// Only sinks that taint sub fields can be coarser than other sinks
+			if (!flow.sink().taintSubFields())
+				return false;
+
+			final AccessPathFragment sinkAP = flow.sink().getAccessPath();
+			if (nullSources.hasFinerSink(sinkAP))
+				return true;
+
+			final AccessPathFragment sourceAP = flow.source().getAccessPath();
+			AccessPathTrieNode node = sourceAP == null ? sourceRoot : sourceRoot.walk(sourceAP, 0);
+			return node != null && hasFinerSink(node, sinkAP);
+		}
+
+		private static boolean hasFinerSink(AccessPathTrieNode node, AccessPathFragment sinkAP) {
+			if (node.count == 0)
+				return false;
+			if (node.sinks != null && node.sinks.hasFinerSink(sinkAP))
+				return true;
+			if (node.children != null)
+				for (AccessPathTrieNode child : node.children.values())
+					if (hasFinerSink(child, sinkAP))
+						return true;
+			return false;
+		}
+
+	}
+
+	/**
+	 * Key that identifies a bucket of flows. It contains everything that
+	 * {@link AbstractFlowSinkSource#isCoarserThan(AbstractFlowSinkSource)} compares
+	 * except for the access paths.
+	 */
+	private static class BucketKey {
+
+		private final SourceSinkType sourceType;
+		private final int sourceParamIdx;
+		private final String sourceBaseType;
+		private final GapDefinition sourceGap;
+		private final SourceSinkType sinkType;
+		private final int sinkParamIdx;
+		private final String sinkBaseType;
+		private final GapDefinition sinkGap;
+
+		private BucketKey(MethodFlow flow) {
+			final AbstractFlowSinkSource source = flow.source();
+			final AbstractFlowSinkSource sink = flow.sink();
+			this.sourceType = source.getType();
+			this.sourceParamIdx = source.getParameterIndex();
+			this.sourceBaseType = source.getBaseType();
+			this.sourceGap = source.getGap();
+			this.sinkType = sink.getType();
+			this.sinkParamIdx = sink.getParameterIndex();
+			this.sinkBaseType = sink.getBaseType();
+			this.sinkGap = sink.getGap();
+		}
+
+		@Override
+		public int hashCode() {
+			final int prime = 31;
+			int result = 1;
+			result = prime * result + ((sourceType == null) ? 0 : sourceType.hashCode());
+			result = prime * result + sourceParamIdx;
+			result = prime * result + ((sourceBaseType == null) ? 0 : sourceBaseType.hashCode());
+			result = prime * result + ((sourceGap == null) ? 0 : sourceGap.hashCode());
+			result = prime * result + ((sinkType == null) ? 0 : sinkType.hashCode());
+			result = prime * result + sinkParamIdx;
+			result = prime * result + ((sinkBaseType == null) ? 0 : sinkBaseType.hashCode());
+			result = prime * result + ((sinkGap == null) ? 0 : sinkGap.hashCode());
+			return result;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (obj == null || getClass() != obj.getClass())
+				return false;
+			BucketKey other = (BucketKey) obj;
+			return sourceType == other.sourceType && sourceParamIdx == other.sourceParamIdx
+					&& safeEquals(sourceBaseType, other.sourceBaseType) && safeEquals(sourceGap, other.sourceGap)
+					&& sinkType == other.sinkType && sinkParamIdx == other.sinkParamIdx
+					&& safeEquals(sinkBaseType, other.sinkBaseType) && safeEquals(sinkGap, other.sinkGap);
+		}
+
+		private static boolean safeEquals(Object o1, Object o2) {
+			return o1 == null ? o2 == null : o1.equals(o2);
+		}
+
+	}
 
 	/**
 	 * Creates a new instance of the SummaryFlowCompactor class
@@ -38,40 +256,137 @@ public class SummaryFlowCompactor {
 	 * Compacts the flow set
 	 */
 	public void compact() {
-		compactFlowSet();
-		removeDuplicateFlows();
-		compactGaps();
+		compact(1);
+	}
+
+	/**
+	 * Compacts the flow set. The flows of different methods are compacted in
+	 * parallel.
+	 * 
+	 * @param numThreads The maximum number of threads to use
+	 */
+	public void compact(int numThreads) {
+		compact(Collections.singleton(summaries), numThreads);
+	}
+
+	/**
+	 * Compacts all of the given flow sets. The flows of different methods are
+	 * compacted in parallel, regardless of the flow set to which they belong.
+	 * 
+	 * @param summaries  The flow sets to compact
+	 * @param numThreads The maximum number of threads to use
+	 */
+	public static void compact(Collection<MethodSummaries> summaries, int numThreads) {
+		if (summaries == null || summaries.isEmpty())
+			return;
+
+		// The flows of one method are never compared to the flows of another one
+		final List<SummaryFlowCompactor> compactors = new ArrayList<>(summaries.size());
+		final List<SummaryFlowCompactor> methodCompactors = new ArrayList<>();
+		final List<String> methodSigs = new ArrayList<>();
+		for (MethodSummaries curSummaries : summaries) {
+			if (curSummaries == null || !curSummaries.hasFlows())
+				continue;
+
+			SummaryFlowCompactor compactor = new SummaryFlowCompactor(curSummaries);
+			compactors.add(compactor);
+			for (String methodSig : curSummaries.getFlows().keySet()) {
+				methodCompactors.add(compactor);
+				methodSigs.add(methodSig);
+			}
+		}
+
+		ParallelTaskRunner runner = new ParallelTaskRunner("Summary compaction", numThreads);
+		try {
+			runner.run(methodSigs.size(), new IntConsumer() {
+
+				@Override
+				public void accept(int i) {
+					methodCompactors.get(i).compactMethod(methodSigs.get(i));
+				}
+
+			});
+
+			// Removing the flows and compacting the gaps changes the summaries, so we
+			// need to do it for every flow set on its own
+			runner.run(compactors.size(), new IntConsumer() {
+
+				@Override
+				public void accept(int i) {
+					SummaryFlowCompactor compactor = compactors.get(i);
+					for (MethodFlow flow : compactor.flowsToRemove)
+						compactor.summaries.remove(flow);
+					compactor.compactGaps();
+				}
+
+			});
+		} finally {
+			runner.shutdown();
+		}
+
+		int coarserFlowsRemoved = 0;
+		for (SummaryFlowCompactor compactor : compactors)
+			coarserFlowsRemoved += compactor.coarserFlowsRemoved.get();
+		logger.info("Removed {} flows in favour of more precise ones", coarserFlowsRemoved);
+	}
+
+	/**
+	 * Computes the flows that can be removed from the given method. This method
+	 * does not modify the flow set and can thus run in parallel for different
+	 * methods.
+	 * 
+	 * @param methodSig The signature of the method whose flows to compact
+	 */
+	private void compactMethod(String methodSig) {
+		Set<MethodFlow> methodFlows = summaries.getFlowsForMethod(methodSig);
+		if (methodFlows == null || methodFlows.size() < 2)
+			return;
+
+		List<MethodFlow> remainingFlows = compactFlowSet(methodFlows);
+		removeDuplicateFlows(remainingFlows);
 	}
 
 	/**
 	 * Compacts the flow set by removing flows that are over-approximations of
 	 * others
 	 * 
-	 * @param flows The flow set to compact
+	 * @param methodFlows The flows of a single method
+	 * @return The flows that are kept
 	 */
-	private void compactFlowSet() {
-		int flowsRemoved = 0;
-		boolean hasChanged = false;
-		do {
-			hasChanged = false;
-			for (Iterator<MethodFlow> flowIt = summaries.iterator(); flowIt.hasNext();) {
-				MethodFlow flow = flowIt.next();
-
-				// Check if there is a more precise flow
-				for (MethodFlow flow2 : summaries)
-					if (flow != flow2 && flow.isCoarserThan(flow2)) {
-						flowIt.remove();
-						flowsRemoved++;
-						hasChanged = true;
-						break;
-					}
-
-				if (hasChanged)
-					break;
+	private List<MethodFlow> compactFlowSet(Set<MethodFlow> methodFlows) {
+		// Index the flows
+		Map<BucketKey, FlowBucket> buckets = new HashMap<>();
+		List<MethodFlow> flows = new ArrayList<>(methodFlows);
+		List<FlowBucket> flowBuckets = new ArrayList<>(flows.size());
+		for (MethodFlow flow : flows) {
+			BucketKey key = new BucketKey(flow);
+			FlowBucket bucket = buckets.get(key);
+			if (bucket == null) {
+				bucket = new FlowBucket();
+				buckets.put(key, bucket);
 			}
-		} while (hasChanged);
+			bucket.update(flow, 1);
+			flowBuckets.add(bucket);
+		}
 
-		logger.info("Removed {} flows in favour of more precise ones", flowsRemoved);
+		// If a flow is kept, it will not become coarser than any other flow when
+		// more flows are removed. We therefore only need to look at each flow once.
+		List<MethodFlow> remainingFlows = new ArrayList<>(flows.size());
+		for (int i = 0; i < flows.size(); i++) {
+			MethodFlow flow = flows.get(i);
+			FlowBucket bucket = flowBuckets.get(i);
+
+			// Check if there is a more precise flow
+			bucket.update(flow, -1);
+			if (bucket.hasFinerFlow(flow)) {
+				flowsToRemove.add(flow);
+				coarserFlowsRemoved.incrementAndGet();
+			} else {
+				bucket.update(flow, 1);
+				remainingFlows.add(flow);
+			}
+		}
+		return remainingFlows;
 	}
 
 	/**
@@ -82,27 +397,83 @@ public class SummaryFlowCompactor {
 		if (summaries == null || !summaries.hasGaps())
 			return;
 
+		// Index the flows by gap
+		Map<GapDefinition, Set<MethodFlow>> inFlows = new HashMap<>();
+		Map<GapDefinition, AtomicInteger> outFlowCounts = new HashMap<>();
+		for (MethodFlow flow : summaries) {
+			GapDefinition sinkGap = flow.sink().getGap();
+			if (sinkGap != null) {
+				Set<MethodFlow> gapFlows = inFlows.get(sinkGap);
+				if (gapFlows == null) {
+					gapFlows = new HashSet<>();
+					inFlows.put(sinkGap, gapFlows);
+				}
+				gapFlows.add(flow);
+			}
+			for (GapDefinition gd : getOutGaps(flow))
+				getCounter(outFlowCounts, gd).incrementAndGet();
+		}
+
 		// If we only have incoming flows into a gap, but no outgoing ones, we
 		// can remove the gap and all its flows altogether
-		for (GapDefinition gd : summaries.getAllGaps()) {
-			if (summaries.getOutFlowsForGap(gd).isEmpty()) {
-				summaries.removeAll(summaries.getInFlowsForGap(gd));
+		Set<MethodFlow> removedFlows = new HashSet<>();
+		for (GapDefinition gd : new ArrayList<>(summaries.getAllGaps())) {
+			AtomicInteger outFlowCount = outFlowCounts.get(gd);
+			if (outFlowCount == null || outFlowCount.get() == 0) {
+				Set<MethodFlow> gapFlows = inFlows.get(gd);
+				if (gapFlows != null) {
+					for (MethodFlow flow : gapFlows) {
+						if (removedFlows.add(flow)) {
+							summaries.remove(flow);
+							for (GapDefinition outGap : getOutGaps(flow))
+								getCounter(outFlowCounts, outGap).decrementAndGet();
+						}
+					}
+				}
 				summaries.removeGap(gd);
 			}
 		}
 
 		// Remove all unused gaps that are never referenced
-		Set<GapDefinition> gaps = new HashSet<GapDefinition>(summaries.getAllGaps());
-		for (GapDefinition gd : gaps) {
-			boolean gapIsUsed = false;
-			for (MethodFlow flow : summaries.getAllFlows())
-				if (flow.source().getGap() == gd || flow.sink().getGap() == gd) {
-					gapIsUsed = true;
-					break;
-				}
-			if (!gapIsUsed)
+		Set<GapDefinition> usedGaps = new HashSet<>();
+		for (MethodFlow flow : summaries) {
+			if (flow.source().getGap() != null)
+				usedGaps.add(flow.source().getGap());
+			if (flow.sink().getGap() != null)
+				usedGaps.add(flow.sink().getGap());
+		}
+		for (GapDefinition gd : new ArrayList<>(summaries.getAllGaps()))
+			if (!usedGaps.contains(gd))
 				summaries.removeGap(gd);
+	}
+
+	/**
+	 * Gets the gaps for which the given flow is an outgoing flow. Aliasing flows
+	 * are outgoing flows for the gap at their sink as well.
+	 * 
+	 * @param flow The flow
+	 * @return The gaps for which the given flow is an outgoing flow
+	 */
+	private static Set<GapDefinition> getOutGaps(MethodFlow flow) {
+		GapDefinition sourceGap = flow.source().getGap();
+		GapDefinition sinkGap = flow.isAlias() ? flow.sink().getGap() : null;
+		if (sourceGap == null && sinkGap == null)
+			return Collections.emptySet();
+		Set<GapDefinition> gaps = new HashSet<>(2);
+		if (sourceGap != null)
+			gaps.add(sourceGap);
+		if (sinkGap != null)
+			gaps.add(sinkGap);
+		return gaps;
+	}
+
+	private static AtomicInteger getCounter(Map<GapDefinition, AtomicInteger> counters, GapDefinition gd) {
+		AtomicInteger counter = counters.get(gd);
+		if (counter == null) {
+			counter = new AtomicInteger();
+			counters.put(gd, counter);
 		}
+		return counter;
 	}
 
 	/**
@@ -110,29 +481,30 @@ public class SummaryFlowCompactor {
 	 * considered duplicate if the same flow already exists in reverse and is an
 	 * alias relationship, i.e., a flow that is valid in both directions.
 	 * 
-	 * @param summaries The set of summaries to clean up
+	 * @param methodFlows The flows of a single method that have not been removed
+	 *                    yet
 	 */
-	private void removeDuplicateFlows() {
-		outer: for (Iterator<MethodFlow> flowIt = summaries.iterator(); flowIt.hasNext();) {
-			MethodFlow curFlow = flowIt.next();
+	private void removeDuplicateFlows(List<MethodFlow> methodFlows) {
+		Set<MethodFlow> remainingFlows = new HashSet<>(methodFlows);
+		for (MethodFlow curFlow : methodFlows) {
+			if (!curFlow.isAlias())
+				continue;
 
 			// Check for the same flow in reverse
-			for (MethodFlow compFlow : summaries) {
-				if (curFlow != compFlow && compFlow.isAlias() && curFlow.isAlias()) {
-					if (curFlow.reverse().equals(compFlow)) {
-						// To make the results is reproducible, we introduce some
-						// rules on which flows we keep and which ones we delete
-						if (curFlow.source().getGap() == null && curFlow.sink().getGap() != null)
-							continue;
-						if (curFlow.source().getGap() == null && curFlow.sink().getGap() == null
-								&& compare(curFlow.source().getAccessPath(), compFlow.source().getAccessPath()) > 0)
-							continue;
-
-						flowIt.remove();
-						continue outer;
-					}
-				}
-			}
+			MethodFlow compFlow = curFlow.reverse();
+			if (compFlow.equals(curFlow) || !remainingFlows.contains(compFlow))
+				continue;
+
+			// To make the results is reproducible, we introduce some
+			// rules on which flows we keep and which ones we delete
+			if (curFlow.source().getGap() == null && curFlow.sink().getGap() != null)
+				continue;
+			if (curFlow.source().getGap() == null && curFlow.sink().getGap() == null
+					&& compare(curFlow.source().getAccessPath(), compFlow.source().getAccessPath()) > 0)
+				continue;
+
+			remainingFlows.remove(curFlow);
+			flowsToRemove.add(curFlow);
 		}
 	}
 
@@ -0,0 +1,178 @@
+package soot.jimple.infoflow.methodSummary.taintWrappers;
+
+import soot.SootField;
+import soot.Type;
+import soot.jimple.infoflow.methodSummary.data.sourceSink.FlowSink;
+import soot.jimple.infoflow.methodSummary.data.sourceSink.FlowSource;
+import soot.jimple.infoflow.methodSummary.data.summary.MethodFlow;
+
+/**
+ * A {@link MethodFlow} that has been bound to the current Soot scene. All
+ * information that is required for applying the flow and that would otherwise
+ * have to be parsed from strings over and over again is resolved once when the
+ * flow is bound.
+ */
+public class BoundMethodFlow {
+
+	private final MethodFlow flow;
+	private final MethodFlow originalFlow;
+	private final Type sourceBaseType;
+	private final SootField[] sourceFields;
+	private final int sourceParameterIndex;
+	private final Type sinkBaseType;
+	private final SootField[] sinkFields;
+	private final Type[] sinkFieldTypes;
+	private final int sinkParameterIndex;
+	private final Type sinkAssignmentType;
+	private final boolean reversible;
+
+	private volatile BoundMethodFlow reverseFlow = null;
+
+	BoundMethodFlow(MethodFlow flow, MethodFlow originalFlow, Type sourceBaseType, SootField[] sourceFields,
+			Type sinkBaseType, SootField[] sinkFields, Type[] sinkFieldTypes, Type sinkAssignmentType,
+			boolean reversible) {
+		this.flow = flow;
+		this.originalFlow = originalFlow;
+		this.sourceBaseType = sourceBaseType;
+		this.sourceFields = sourceFields;
+		this.sourceParameterIndex = flow.source().getParameterIndex();
+		this.sinkBaseType = sinkBaseType;
+		this.sinkFields = sinkFields;
+		this.sinkFieldTypes = sinkFieldTypes;
+		this.sinkParameterIndex = flow.sink().getParameterIndex();
+		this.sinkAssignmentType = sinkAssignmentType;
+		this.reversible = reversible;
+	}
+
+	/**
+	 * Gets the flow that is represented by this bound flow
+	 *
+	 * @return The flow represented by this bound flow
+	 */
+	public MethodFlow getFlow() {
+		return flow;
+	}
+
+	/**
+	 * Gets the flow from the summaries from which this bound flow was derived. For
+	 * a reverse flow, this is the flow that was reversed. Otherwise, it is the same
+	 * as {@link #getFlow()}.
+	 *
+	 * @return The flow from the summaries
+	 */
+	public MethodFlow getOriginalFlow() {
+		return originalFlow;
+	}
+
+	public FlowSource source() {
+		return flow.source();
+	}
+
+	public FlowSink sink() {
+		return flow.sink();
+	}
+
+	/**
+	 * Gets the type of the base object at the source of the flow
+	 *
+	 * @return The type of the base object at the source of the flow, or null if
+	 *         the flow does not restrict the base type
+	 */
+	public Type getSourceBaseType() {
+		return sourceBaseType;
+	}
+
+	/**
+	 * Gets the fields in the access path at the source of the flow
+	 *
+	 * @return The fields in the access path at the source of the flow, or null if
+	 *         the source has no access path or a field could not be resolved
+	 */
+	public SootField[] getSourceFields() {
+		return sourceFields;
+	}
+
+	/**
+	 * Gets the index of the parameter at the source of the flow
+	 *
+	 * @return The index of the parameter at the source of the flow, or -1 if the
+	 *         source is not a parameter
+	 */
+	public int getSourceParameterIndex() {
+		return sourceParameterIndex;
+	}
+
+	/**
+	 * Gets the base type at the sink of the flow
+	 *
+	 * @return The base type at the sink of the flow
+	 */
+	public Type getSinkBaseType() {
+		return sinkBaseType;
+	}
+
+	/**
+	 * Gets the fields in the access path at the sink of the flow
+	 *
+	 * @return The fields in the access path at the sink of the flow, or null if the
+	 *         sink has no access path or a field could not be resolved
+	 */
+	public SootField[] getSinkFields() {
+		return sinkFields;
+	}
+
+	/**
+	 * Gets the types of the fields in the access path at the sink of the flow
+	 *
+	 * @return The types of the fields in the access path at the sink of the flow,
+	 *         or null if the sink has no access path or a field could not be
+	 *         resolved
+	 */
+	public Type[] getSinkFieldTypes() {
+		return sinkFieldTypes;
+	}
+
+	/**
+	 * Gets the index of the parameter at the sink of the flow
+	 *
+	 * @return The index of the parameter at the sink of the flow, or -1 if the sink
+	 *         is not a parameter
+	 */
+	public int getSinkParameterIndex() {
+		return sinkParameterIndex;
+	}
+
+	/**
+	 * Gets the type of the value that is finally assigned at the sink of the flow.
+	 * For an access path a.b.c, this would be the type of "c".
+	 *
+	 * @return The type of the value that is assigned at the sink of the flow
+	 */
+	public Type getSinkAssignmentType() {
+		return sinkAssignmentType;
+	}
+
+	/**
+	 * Gets whether this flow denotes an aliasing relationship that can also be
+	 * applied in reverse
+	 *
+	 * @return True if this flow can be applied in reverse, otherwise false
+	 */
+	public boolean isReversible() {
+		return reversible;
+	}
+
+	BoundMethodFlow getReverseFlow() {
+		return reverseFlow;
+	}
+
+	void setReverseFlow(BoundMethodFlow reverseFlow) {
+		this.reverseFlow = reverseFlow;
+	}
+
+	@Override
+	public String toString() {
+		return flow.toString();
+	}
+
+}
@@ -0,0 +1,211 @@
+package soot.jimple.infoflow.methodSummary.taintWrappers;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import soot.jimple.infoflow.methodSummary.data.sourceSink.AbstractFlowSinkSource;
+import soot.jimple.infoflow.methodSummary.data.summary.GapDefinition;
+import soot.jimple.infoflow.methodSummary.data.summary.MethodFlow;
+import soot.jimple.infoflow.methodSummary.data.summary.MethodSummaries;
+
+/**
+ * Index over the flows of a {@link MethodSummaries} object that quickly finds
+ * the flows that can match a given taint. The flows are grouped by the gap,
+ * the kind, and the parameter index of their source, and then by the first
+ * field in the access path of their source. The index also contains the
+ * reverse flows of all aliasing flows.
+ *
+ * The index is an over-approximation. All flows it returns must still be
+ * checked against the taint.
+ */
+public class FlowIndex {
+
+	private static final int KIND_PARAMETER = 0;
+	private static final int KIND_FIELD = 1;
+	private static final int KIND_THIS = 2;
+	private static final int KIND_RETURN = 3;
+
+	/**
+	 * Group of flows whose sources have the same gap, kind, and parameter index
+	 */
+	private static class FlowGroup {
+
+		private final List<BoundMethodFlow> allFlows = new ArrayList<>();
+		private final List<BoundMethodFlow> flowsWithoutFields = new ArrayList<>();
+		private final Map<String, List<BoundMethodFlow>> flowsByFirstField = new HashMap<>();
+
+		private void add(BoundMethodFlow flow) {
+			allFlows.add(flow);
+			String firstField = flow.source().hasAccessPath() ? flow.source().getAccessPath().getField(0) : null;
+			if (firstField == null)
+				flowsWithoutFields.add(flow);
+			else {
+				List<BoundMethodFlow> flows = flowsByFirstField.get(firstField);
+				if (flows == null) {
+					flows = new ArrayList<>();
+					flowsByFirstField.put(firstField, flows);
+				}
+				flows.add(flow);
+			}
+		}
+
+		/**
+		 * Adds the flows from this group that can match the given taint to the given
+		 * list
+		 *
+		 * @param taint   The taint
+		 * @param matches The list to which to add the matching flows
+		 */
+		private void collect(Taint taint, List<BoundMethodFlow> matches) {
+			// A taint without fields can match any flow source if it taints the sub fields
+			final String firstField = taint.hasAccessPath() ? taint.getAccessPath().getField(0) : null;
+			if (firstField == null) {
+				matches.addAll(allFlows);
+				return;
+			}
+
+			matches.addAll(flowsWithoutFields);
+			List<BoundMethodFlow> flows = flowsByFirstField.get(firstField);
+			if (flows != null)
+				matches.addAll(flows);
+		}
+
+	}
+
+	/**
+	 * Key of a flow group
+	 */
+	private static class GroupKey {
+
+		private final GapDefinition gap;
+		private final int kind;
+		private final int parameterIdx;
+
+		private GroupKey(GapDefinition gap, int kind, int parameterIdx) {
+			this.gap = gap;
+			this.kind = kind;
+			this.parameterIdx = parameterIdx;
+		}
+
+		@Override
+		public int hashCode() {
+			final int prime = 31;
+			int result = 1;
+			result = prime * result + ((gap == null) ? 0 : gap.hashCode());
+			result = prime * result + kind;
+			result = prime * result + parameterIdx;
+			return result;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (obj == null || getClass() != obj.getClass())
+				return false;
+			GroupKey other = (GroupKey) obj;
+			if (kind != other.kind || parameterIdx != other.parameterIdx)
+				return false;
+			if (gap == null)
+				return other.gap == null;
+			return gap.equals(other.gap);
+		}
+
+	}
+
+	private final Map<GroupKey, FlowGroup> forwardFlows = new HashMap<>();
+	private final Map<GroupKey, FlowGroup> reverseFlows = new HashMap<>();
+
+	/**
+	 * Creates a new index over the given flows
+	 *
+	 * @param flows  The flows to index
+	 * @param binder The binder that binds the flows to the current scene
+	 */
+	public FlowIndex(MethodSummaries flows, SummaryBinder binder) {
+		for (MethodFlow flow : flows) {
+			BoundMethodFlow boundFlow = binder.bind(flow);
+			addFlow(forwardFlows, boundFlow);
+
+			BoundMethodFlow reverseFlow = binder.getReverseFlow(boundFlow);
+			if (reverseFlow != null)
+				addFlow(reverseFlows, reverseFlow);
+		}
+	}
+
+	private static void addFlow(Map<GroupKey, FlowGroup> groups, BoundMethodFlow flow) {
+		final AbstractFlowSinkSource source = flow.source();
+		final GroupKey key;
+		if (source.isParameter())
+			key = new GroupKey(source.getGap(), KIND_PARAMETER, source.getParameterIndex());
+		else if (source.isField())
+			key = new GroupKey(source.getGap(), KIND_FIELD, -1);
+		else if (source.isThis())
+			key = new GroupKey(source.getGap(), KIND_THIS, -1);
+		else if (source.isReturn())
+			key = new GroupKey(source.getGap(), KIND_RETURN, -1);
+		else {
+			// Such a source never matches a taint
+			return;
+		}
+
+		FlowGroup group = groups.get(key);
+		if (group == null) {
+			group = new FlowGroup();
+			groups.put(key, group);
+		}
+		group.add(flow);
+	}
+
+	/**
+	 * Gets the flows that can match the given taint
+	 *
+	 * @param taint The taint
+	 * @return The flows that can match the given taint
+	 */
+	public List<BoundMethodFlow> getForwardFlows(Taint taint) {
+		return getFlows(forwardFlows, taint);
+	}
+
+	/**
+	 * Gets the reverse aliasing flows that can match the given taint
+	 *
+	 * @param taint The taint
+	 * @return The reverse flows that can match the given taint
+	 */
+	public List<BoundMethodFlow> getReverseFlows(Taint taint) {
+		return getFlows(reverseFlows, taint);
+	}
+
+	private static List<BoundMethodFlow> getFlows(Map<GroupKey, FlowGroup> groups, Taint taint) {
+		if (groups.isEmpty())
+			return Collections.emptyList();
+
+		final GapDefinition gap = taint.getGap();
+		List<BoundMethodFlow> matches = new ArrayList<>();
+		if (taint.isParameter())
+			collect(groups, new GroupKey(gap, KIND_PARAMETER, taint.getParameterIndex()), taint, matches);
+		if (taint.isField() || taint.isGapBaseObject())
+			collect(groups, new GroupKey(gap, KIND_FIELD, -1), taint, matches);
+		if (taint.isField()) {
+			// Flows from "this" match any field taint
+			FlowGroup group = groups.get(new GroupKey(gap, KIND_THIS, -1));
+			if (group != null)
+				matches.addAll(group.allFlows);
+		}
+		if (gap != null || taint.isReturn())
+			collect(groups, new GroupKey(gap, KIND_RETURN, -1), taint, matches);
+		return matches;
+	}
+
+	private static void collect(Map<GroupKey, FlowGroup> groups, GroupKey key, Taint taint,
+			List<BoundMethodFlow> matches) {
+		FlowGroup group = groups.get(key);
+		if (group != null)
+			group.collect(taint, matches);
+	}
+
+}
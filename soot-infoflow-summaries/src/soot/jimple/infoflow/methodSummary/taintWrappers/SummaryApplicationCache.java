@@ -0,0 +1,139 @@
+package soot.jimple.infoflow.methodSummary.taintWrappers;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Cache for the results of applying method summaries to incoming taints. The
+ * results are stored as taints that are independent of a concrete call site, so
+ * that they can be re-used for every call to the same summarized method. The
+ * cache is bounded and evicts the least recently used entries first.
+ */
+public class SummaryApplicationCache {
+
+	public static final int DEFAULT_MAXIMUM_SIZE = 100000;
+
+	/**
+	 * Key that identifies a summary application
+	 */
+	private static class CacheKey {
+
+		private final String summaryKey;
+		private final Taint taint;
+		private final int hashCode;
+
+		private CacheKey(String summaryKey, Taint taint) {
+			this.summaryKey = summaryKey;
+			this.taint = taint;
+			this.hashCode = 31 * summaryKey.hashCode() + taint.hashCode();
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (obj == null || getClass() != obj.getClass())
+				return false;
+			CacheKey other = (CacheKey) obj;
+			return hashCode == other.hashCode && summaryKey.equals(other.summaryKey) && taint.equals(other.taint);
+		}
+
+	}
+
+	private final Cache<CacheKey, Set<Taint>> cache;
+	private volatile long modificationCount = 0;
+
+	private final AtomicInteger hits = new AtomicInteger();
+	private final AtomicInteger misses = new AtomicInteger();
+
+	/**
+	 * Creates a new instance of the {@link SummaryApplicationCache} class
+	 *
+	 * @param maximumSize The maximum number of entries in the cache
+	 */
+	public SummaryApplicationCache(int maximumSize) {
+		this.cache = CacheBuilder.newBuilder().maximumSize(maximumSize).build();
+	}
+
+	/**
+	 * Gets the cached result of applying the summaries with the given key to the
+	 * given taint
+	 *
+	 * @param summaryKey The key that identifies the summaries that were applied
+	 * @param taint      The incoming taint
+	 * @return The outgoing taints, or null if the result is not in the cache
+	 */
+	public Set<Taint> get(String summaryKey, Taint taint) {
+		Set<Taint> res = cache.getIfPresent(new CacheKey(summaryKey, taint));
+		if (res == null)
+			misses.incrementAndGet();
+		else
+			hits.incrementAndGet();
+		return res;
+	}
+
+	/**
+	 * Stores the result of applying the summaries with the given key to the given
+	 * taint
+	 *
+	 * @param summaryKey The key that identifies the summaries that were applied
+	 * @param taint      The incoming taint
+	 * @param result     The outgoing taints
+	 */
+	public void put(String summaryKey, Taint taint, Set<Taint> result) {
+		cache.put(new CacheKey(summaryKey, taint),
+				result == null || result.isEmpty() ? Collections.<Taint>emptySet() : result);
+	}
+
+	/**
+	 * Discards all cached results if the summaries have changed since the last
+	 * call to this method
+	 *
+	 * @param modificationCount The modification count of the summary provider
+	 */
+	public void validate(long modificationCount) {
+		if (this.modificationCount != modificationCount) {
+			synchronized (this) {
+				if (this.modificationCount != modificationCount) {
+					cache.invalidateAll();
+					this.modificationCount = modificationCount;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Discards all cached results
+	 */
+	public void invalidateAll() {
+		cache.invalidateAll();
+	}
+
+	/**
+	 * Gets the number of lookups that were answered from the cache
+	 *
+	 * @return The number of cache hits
+	 */
+	public int getHits() {
+		return hits.get();
+	}
+
+	/**
+	 * Gets the number of lookups that could not be answered from the cache
+	 *
+	 * @return The number of cache misses
+	 */
+	public int getMisses() {
+		return misses.get();
+	}
+
+}
@@ -0,0 +1,348 @@
+package soot.jimple.infoflow.methodSummary.taintWrappers;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+
+import soot.PrimType;
+import soot.RefType;
+import soot.Scene;
+import soot.SootClass;
+import soot.SootField;
+import soot.Type;
+import soot.jimple.infoflow.methodSummary.data.sourceSink.AbstractFlowSinkSource;
+import soot.jimple.infoflow.methodSummary.data.summary.MethodFlow;
+import soot.jimple.infoflow.methodSummary.data.summary.MethodSummaries;
+import soot.jimple.infoflow.methodSummary.data.summary.SourceSinkType;
+import soot.jimple.infoflow.util.TypeUtils;
+
+/**
+ * Binds the string-based method summaries to the Soot objects of the current
+ * scene. Field signatures and type names are only resolved once and then taken
+ * from a cache. Since the resolved objects belong to one Soot scene, a new
+ * binder must be created whenever the scene changes.
+ */
+public class SummaryBinder {
+
+	public static final int DEFAULT_MAXIMUM_INDICES = 10000;
+
+	private static final Pattern FIELD_SIG_PATTERN = Pattern.compile("^\\s*<(.*?):\\s*(.*?)>\\s*$");
+
+	private final ConcurrentMap<String, Type> types = new ConcurrentHashMap<>();
+	private final ConcurrentMap<String, SootField> fields = new ConcurrentHashMap<>();
+
+	// Flows are compared by identity, the summaries keep them alive for us
+	private final LoadingCache<MethodFlow, BoundMethodFlow> boundFlows = CacheBuilder.newBuilder().weakKeys()
+			.build(new CacheLoader<MethodFlow, BoundMethodFlow>() {
+
+				@Override
+				public BoundMethodFlow load(MethodFlow flow) throws Exception {
+					return createBoundFlow(flow, flow);
+				}
+
+			});
+
+	// The summaries are copied for every query, so we identify them by the
+	// summarized method instead
+	private final Cache<String, FlowIndex> flowIndices = CacheBuilder.newBuilder()
+			.maximumSize(DEFAULT_MAXIMUM_INDICES).build();
+	private volatile long modificationCount = 0;
+
+	/**
+	 * Gets the index over the flows in the given summaries
+	 *
+	 * @param summaryKey The key that identifies the summaries, or null if the index
+	 *                   shall not be cached
+	 * @param summaries  The summaries
+	 * @return The index over the flows in the given summaries
+	 */
+	public FlowIndex getFlowIndex(String summaryKey, MethodSummaries summaries) {
+		if (summaryKey == null)
+			return new FlowIndex(summaries, this);
+
+		FlowIndex index = flowIndices.getIfPresent(summaryKey);
+		if (index == null) {
+			index = new FlowIndex(summaries, this);
+			flowIndices.put(summaryKey, index);
+		}
+		return index;
+	}
+
+	/**
+	 * Discards all cached flow indices if the summaries have changed since the
+	 * last call to this method
+	 *
+	 * @param modificationCount The modification count of the summary provider
+	 */
+	public void validate(long modificationCount) {
+		if (this.modificationCount != modificationCount) {
+			synchronized (this) {
+				if (this.modificationCount != modificationCount) {
+					flowIndices.invalidateAll();
+					this.modificationCount = modificationCount;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Gets the bound representation of the given flow
+	 *
+	 * @param flow The flow to bind
+	 * @return The bound flow
+	 */
+	public BoundMethodFlow bind(MethodFlow flow) {
+		return boundFlows.getUnchecked(flow);
+	}
+
+	/**
+	 * Gets the bound representation of the reverse of the given flow
+	 *
+	 * @param flow The flow to reverse
+	 * @return The bound reverse flow if the given flow denotes an aliasing
+	 *         relationship and can thus be applied in reverse, null otherwise
+	 */
+	public BoundMethodFlow getReverseFlow(BoundMethodFlow flow) {
+		if (!flow.isReversible())
+			return null;
+
+		BoundMethodFlow reverseFlow = flow.getReverseFlow();
+		if (reverseFlow == null) {
+			reverseFlow = createBoundFlow(flow.getFlow().reverse(), flow.getFlow());
+			flow.setReverseFlow(reverseFlow);
+		}
+		return reverseFlow;
+	}
+
+	/**
+	 * Resolves all information in the given flow that is required for applying
+	 * the flow
+	 *
+	 * @param flow         The flow to bind
+	 * @param originalFlow The flow in the summaries from which the flow to bind
+	 *                     was derived
+	 * @return The bound flow
+	 */
+	private BoundMethodFlow createBoundFlow(MethodFlow flow, MethodFlow originalFlow) {
+		final AbstractFlowSinkSource source = flow.source();
+		final AbstractFlowSinkSource sink = flow.sink();
+		final SootField[] sourceFields = getFields(source.getAccessPath());
+		final SootField[] sinkFields = getFields(sink.getAccessPath());
+		final Type[] sinkFieldTypes = sinkFields == null ? null : getTypes(sink.getAccessPath(), sinkFields);
+		return new BoundMethodFlow(flow, originalFlow, getType(source.getBaseType()), sourceFields,
+				getType(sink.getBaseType()), sinkFields, sinkFieldTypes, getType(getAssignmentType(sink)),
+				isReversible(flow));
+	}
+
+	/**
+	 * Checks whether the given flow denotes an aliasing relationship and can thus
+	 * be applied in reverse
+	 *
+	 * @param flow The flow to check
+	 * @return True if the given flow works in both directions, false otherwise
+	 */
+	private boolean isReversible(MethodFlow flow) {
+		// Reverse flows can only be applied if the flow is an
+		// aliasing relationship
+		if (!flow.isAlias())
+			return false;
+
+		// Reverse flows can only be applied to heap objects
+		if (!canTypeAlias(flow.source().getLastFieldType()))
+			return false;
+		if (!canTypeAlias(flow.sink().getLastFieldType()))
+			return false;
+
+		// There cannot be any flows to the return values of
+		// gaps
+		if (flow.source().getGap() != null && flow.source().getType() == SourceSinkType.Return)
+			return false;
+		return true;
+	}
+
+	/**
+	 * Checks whether objects of the given type can have aliases
+	 *
+	 * @param type The type to check
+	 * @return True if objects of the given type can have aliases, otherwise false
+	 */
+	private boolean canTypeAlias(String type) {
+		Type tp = getType(type);
+		if (tp instanceof PrimType)
+			return false;
+		if (tp instanceof RefType)
+			if (((RefType) tp).getClassName().equals("java.lang.String"))
+				return false;
+		return true;
+	}
+
+	/**
+	 * Gets the type that is finally assigned when propagating this source or sink.
+	 * For an access path a.b.c, this would be the type of "c".
+	 *
+	 * @param srcSink The source or sink from which to get the propagation type
+	 * @return The type of the value which the access path of the given source or
+	 *         sink finally references
+	 */
+	private static String getAssignmentType(AbstractFlowSinkSource srcSink) {
+		if (!srcSink.hasAccessPath())
+			return srcSink.getBaseType();
+
+		// If we don't have explicit access path types, we use the declared
+		// types instead
+		final AccessPathFragment accessPath = srcSink.getAccessPath();
+		if (accessPath.getFieldTypes() == null && accessPath.getFields() != null) {
+			String[] ap = accessPath.getFields();
+			String apElement = ap[srcSink.getAccessPathLength() - 1];
+
+			Matcher matcher = FIELD_SIG_PATTERN.matcher(apElement);
+			if (matcher.find()) {
+				return matcher.group(1);
+			}
+		}
+
+		return accessPath.getFieldTypes() == null ? null
+				: accessPath.getFieldTypes()[srcSink.getAccessPathLength() - 1];
+	}
+
+	/**
+	 * Gets the Soot type with the given name
+	 *
+	 * @param typeName The name of the type
+	 * @return The Soot type with the given name, or null if the name is null or
+	 *         empty
+	 */
+	public Type getType(String typeName) {
+		if (typeName == null || typeName.isEmpty())
+			return null;
+
+		Type tp = types.get(typeName);
+		if (tp == null) {
+			tp = TypeUtils.getTypeFromString(typeName);
+			if (tp == null)
+				return null;
+			Type oldType = types.putIfAbsent(typeName, tp);
+			if (oldType != null)
+				tp = oldType;
+		}
+		return tp;
+	}
+
+	/**
+	 * Gets the field with the specified signature if it exists, otherwise returns
+	 * null
+	 *
+	 * @param fieldSig The signature of the field to retrieve
+	 * @return The field with the given signature if it exists, otherwise null
+	 */
+	public SootField getField(String fieldSig) {
+		if (fieldSig == null || fieldSig.equals(""))
+			return null;
+
+		SootField sf = fields.get(fieldSig);
+		if (sf == null) {
+			sf = resolveField(fieldSig);
+			if (sf != null) {
+				SootField oldField = fields.putIfAbsent(fieldSig, sf);
+				if (oldField != null)
+					sf = oldField;
+			}
+		}
+		return sf;
+	}
+
+	/**
+	 * Resolves the field with the specified signature in the current Soot scene.
+	 * If the field does not exist, it is created.
+	 *
+	 * @param fieldSig The signature of the field to retrieve
+	 * @return The field with the given signature, or null if the declaring class is
+	 *         not loaded
+	 */
+	private SootField resolveField(String fieldSig) {
+		SootField sf = Scene.v().grabField(fieldSig);
+		if (sf != null)
+			return sf;
+
+		// This field does not exist, so we need to create it
+		String className = fieldSig.substring(1);
+		className = className.substring(0, className.indexOf(":"));
+		SootClass sc = Scene.v().getSootClassUnsafe(className, true);
+		if (sc.resolvingLevel() < SootClass.SIGNATURES && !sc.isPhantom()) {
+			System.err.println("WARNING: Class not loaded: " + sc);
+			return null;
+		}
+
+		String type = fieldSig.substring(fieldSig.indexOf(": ") + 2);
+		type = type.substring(0, type.indexOf(" "));
+
+		String fieldName = fieldSig.substring(fieldSig.lastIndexOf(" ") + 1);
+		fieldName = fieldName.substring(0, fieldName.length() - 1);
+
+		return Scene.v().makeFieldRef(sc, fieldName, getType(type), false).resolve();
+	}
+
+	/**
+	 * Gets an array of fields with the specified signatures
+	 *
+	 * @param accessPath The access path from which to retrieve the list of the
+	 *                   field signatures
+	 * @return The Array of fields with the given signature if all exists, otherwise
+	 *         null
+	 */
+	public SootField[] getFields(AccessPathFragment accessPath) {
+		if (accessPath == null || accessPath.isEmpty())
+			return null;
+
+		String[] fieldSigs = accessPath.getFields();
+		if (fieldSigs == null || fieldSigs.length == 0)
+			return null;
+		SootField[] fields = new SootField[fieldSigs.length];
+		for (int i = 0; i < fieldSigs.length; i++) {
+			fields[i] = getField(fieldSigs[i]);
+			if (fields[i] == null)
+				return null;
+		}
+		return fields;
+	}
+
+	/**
+	 * Gets an array of types with the specified class names
+	 *
+	 * @param accessPath The access path from which to retrieve the field types
+	 * @param fields     The fields from which to get the types if we don't have any
+	 *                   explicit ones
+	 * @return The Array of fields with the given signature if all exists, otherwise
+	 *         null
+	 */
+	public Type[] getTypes(AccessPathFragment accessPath, SootField[] fields) {
+		if (accessPath == null || accessPath.isEmpty())
+			return null;
+
+		String[] fieldTypes = accessPath.getFieldTypes();
+		if (fieldTypes == null || fieldTypes.length == 0) {
+			// If we don't have type information, but fields, we can use the declared field
+			// types
+			if (fields != null && fields.length > 0) {
+				Type[] types = new Type[fields.length];
+				for (int i = 0; i < fields.length; i++)
+					types[i] = fields[i].getType();
+				return types;
+			}
+			return null;
+		}
+
+		// Parse the explicit type information
+		Type[] types = new Type[fieldTypes.length];
+		for (int i = 0; i < fieldTypes.length; i++)
+			types[i] = getType(fieldTypes[i]);
+		return types;
+	}
+
+}
@@ -1,14 +1,16 @@
 package soot.jimple.infoflow.methodSummary.taintWrappers;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
@@ -18,7 +20,6 @@ import heros.solver.Pair;
 import heros.solver.PathEdge;
 import soot.ArrayType;
 import soot.FastHierarchy;
-import soot.Hierarchy;
 import soot.Local;
 import soot.PrimType;
 import soot.RefType;
@@ -55,6 +56,7 @@ import soot.jimple.infoflow.solver.IFollowReturnsPastSeedsHandler;
 import soot.jimple.infoflow.taintWrappers.IReversibleTaintWrapper;
 import soot.jimple.infoflow.taintWrappers.ITaintPropagationWrapper;
 import soot.jimple.infoflow.util.ByReferenceBoolean;
+import soot.jimple.infoflow.util.HierarchyClosureIndex;
 import soot.jimple.infoflow.util.SootMethodRepresentationParser;
 import soot.jimple.infoflow.util.SystemClassHandler;
 import soot.jimple.infoflow.util.TypeUtils;
@@ -71,16 +73,20 @@ import soot.util.MultiMap;
 public class SummaryTaintWrapper implements IReversibleTaintWrapper {
 
 	private static final int MAX_HIERARCHY_DEPTH = 10;
+	private static final String DUMMY_CLASS_NAME = "<dummy>";
 
 	private InfoflowManager manager;
+	private SummaryBinder binder = new SummaryBinder();
+	private SummaryApplicationCache applicationCache = new SummaryApplicationCache(
+			SummaryApplicationCache.DEFAULT_MAXIMUM_SIZE);
 	private AtomicInteger wrapperHits = new AtomicInteger();
 	private AtomicInteger wrapperMisses = new AtomicInteger();
 	private boolean reportMissingSummaries = false;
 	private ITaintPropagationWrapper fallbackWrapper = null;
 
+	private final IMethodSummaryProvider provider;
 	protected IMethodSummaryProvider flows;
 
-	private Hierarchy hierarchy;
 	private FastHierarchy fastHierarchy;
 
 	private MultiMap<Pair<Abstraction, SootMethod>, AccessPathPropagator> userCodeTaints = new ConcurrentHashMultiMap<>();
@@ -439,8 +445,10 @@ public class SummaryTaintWrapper implements IReversibleTaintWrapper {
 						workSet.add(newPropagator);
 					}
 
-					// Apply the aggregated propagators
-					Set<AccessPath> resultAPs = applyFlowsIterative(flowsInTarget, new ArrayList<>(workSet));
+					// Apply the aggregated propagators. The flows of the original callee are
+					// merged from all summarized classes, so we only cache the index for gaps.
+					Set<AccessPath> resultAPs = applyFlowsIterative(flowsInTarget,
+							parentGap == null ? null : parentGap.getSignature(), new ArrayList<>(workSet));
 
 					// Propagate the access paths
 					if (resultAPs != null && !resultAPs.isEmpty()) {
@@ -503,6 +511,7 @@ public class SummaryTaintWrapper implements IReversibleTaintWrapper {
 	 * @param flows The flows loaded from disk
 	 */
 	public SummaryTaintWrapper(IMethodSummaryProvider flows) {
+		this.provider = flows;
 		this.flows = flows;
 	}
 
@@ -510,6 +519,19 @@ public class SummaryTaintWrapper implements IReversibleTaintWrapper {
 	public void initialize(InfoflowManager manager) {
 		this.manager = manager;
 
+		// Resolved fields and types are only valid for the current scene
+		this.binder = new SummaryBinder();
+
+		// Gap implementations depend on the class hierarchy of the scene
+		if (applicationCache != null)
+			applicationCache.invalidateAll();
+
+		// The provider may have received new summaries since the last analysis, and
+		// the cached responses refer to the classes of the old scene anyway. All
+		// queries of this analysis work on the same snapshot of the summaries.
+		this.flows = provider.getSnapshot();
+		methodToImplFlows.invalidateAll();
+
 		// Load all classes for which we have summaries to signatures
 		Set<String> loadableClasses = flows.getLoadableClasses();
 		if (loadableClasses != null) {
@@ -521,7 +543,6 @@ public class SummaryTaintWrapper implements IReversibleTaintWrapper {
 			loadClass(className);
 
 		// Get the hierarchy
-		this.hierarchy = Scene.v().getActiveHierarchy();
 		this.fastHierarchy = Scene.v().getOrMakeFastHierarchy();
 
 		// Register the taint propagation handler
@@ -569,8 +590,7 @@ public class SummaryTaintWrapper implements IReversibleTaintWrapper {
 			if (newTaints == null)
 				newTaints = new HashSet<>();
 
-			newTaints.add(new Taint(SourceSinkType.Field, -1, ap.getBaseType().toString(),
-					new AccessPathFragment(ap.getFields(), ap.getFieldTypes()), ap.getTaintSubFields()));
+			newTaints.add(createTaint(SourceSinkType.Field, -1, ap, null));
 		}
 
 		// Check whether a parameter is tainted
@@ -579,8 +599,7 @@ public class SummaryTaintWrapper implements IReversibleTaintWrapper {
 			if (newTaints == null)
 				newTaints = new HashSet<>();
 
-			newTaints.add(new Taint(SourceSinkType.Parameter, paramIdx, ap.getBaseType().toString(),
-					new AccessPathFragment(ap.getFields(), ap.getFieldTypes()), ap.getTaintSubFields()));
+			newTaints.add(createTaint(SourceSinkType.Parameter, paramIdx, ap, null));
 		}
 
 		// If we also match returned values, we must do this here
@@ -590,8 +609,7 @@ public class SummaryTaintWrapper implements IReversibleTaintWrapper {
 				if (newTaints == null)
 					newTaints = new HashSet<>();
 
-				newTaints.add(new Taint(SourceSinkType.Return, -1, ap.getBaseType().toString(),
-						new AccessPathFragment(ap.getFields(), ap.getFieldTypes()), ap.getTaintSubFields()));
+				newTaints.add(createTaint(SourceSinkType.Return, -1, ap, null));
 			}
 		}
 
@@ -617,8 +635,7 @@ public class SummaryTaintWrapper implements IReversibleTaintWrapper {
 				&& ap.getPlainValue() == sm.getActiveBody().getThisLocal()) {
 			if (res == null)
 				res = new HashSet<>();
-			res.add(new Taint(SourceSinkType.Field, -1, ap.getBaseType().toString(),
-					new AccessPathFragment(ap.getFields(), ap.getFieldTypes()), ap.getTaintSubFields(), gap));
+			res.add(createTaint(SourceSinkType.Field, -1, ap, gap));
 		}
 
 		// Check whether a parameter is tainted
@@ -626,8 +643,7 @@ public class SummaryTaintWrapper implements IReversibleTaintWrapper {
 		if (paramIdx >= 0) {
 			if (res == null)
 				res = new HashSet<>();
-			res.add(new Taint(SourceSinkType.Parameter, paramIdx, ap.getBaseType().toString(),
-					new AccessPathFragment(ap.getFields(), ap.getFieldTypes()), ap.getTaintSubFields(), gap));
+			res.add(createTaint(SourceSinkType.Parameter, paramIdx, ap, gap));
 		}
 
 		// Check whether the return value is tainted
@@ -636,14 +652,37 @@ public class SummaryTaintWrapper implements IReversibleTaintWrapper {
 			if (retStmt.getOp() == ap.getPlainValue()) {
 				if (res == null)
 					res = new HashSet<>();
-				res.add(new Taint(SourceSinkType.Return, -1, ap.getBaseType().toString(),
-						new AccessPathFragment(ap.getFields(), ap.getFieldTypes()), ap.getTaintSubFields(), gap));
+				res.add(createTaint(SourceSinkType.Return, -1, ap, gap));
 			}
 		}
 
 		return res;
 	}
 
+	/**
+	 * Creates a taint for the given access path. The taint keeps the Soot objects
+	 * from the access path, so that they need not be resolved again when the taint
+	 * is converted back into an access path.
+	 * 
+	 * @param type     The type of the taint
+	 * @param paramIdx The parameter index if the taint is on a parameter, otherwise
+	 *                 -1
+	 * @param ap       The access path from which to create the taint
+	 * @param gap      The gap in which the taint is valid, or null if the taint is
+	 *                 not inside a gap
+	 * @return The new taint
+	 */
+	private Taint createTaint(SourceSinkType type, int paramIdx, AccessPath ap, GapDefinition gap) {
+		SootField[] fields = ap.getFields();
+		Type[] fieldTypes = ap.getFieldTypes();
+		if (fields == null || fields.length == 0) {
+			fields = null;
+			fieldTypes = null;
+		}
+		return new Taint(type, paramIdx, ap.getBaseType().toString(), new AccessPathFragment(fields, fieldTypes),
+				ap.getTaintSubFields(), gap, ap.getBaseType(), fields, fieldTypes);
+	}
+
 	/**
 	 * Converts a taint back into an access path that is valid at the given
 	 * statement
@@ -654,9 +693,18 @@ public class SummaryTaintWrapper implements IReversibleTaintWrapper {
 	 */
 	protected AccessPath createAccessPathFromTaint(Taint t, Stmt stmt) {
 		// Convert the taints to Soot objects
-		SootField[] fields = safeGetFields(t.getAccessPath());
-		Type[] types = safeGetTypes(t.getAccessPath(), fields);
-		Type baseType = TypeUtils.getTypeFromString(t.getBaseType());
+		final SootField[] fields;
+		final Type[] types;
+		final Type baseType;
+		if (t.isBound()) {
+			fields = t.getBoundFields();
+			types = t.getBoundFieldTypes();
+			baseType = t.getBoundBaseType();
+		} else {
+			fields = binder.getFields(t.getAccessPath());
+			types = binder.getTypes(t.getAccessPath(), fields);
+			baseType = binder.getType(t.getBaseType());
+		}
 
 		// If the taint is a return value, we taint the left side of the
 		// assignment
@@ -717,9 +765,18 @@ public class SummaryTaintWrapper implements IReversibleTaintWrapper {
 	 */
 	private AccessPath createAccessPathInMethod(Taint t, SootMethod sm) {
 		// Convert the taints to Soot objects
-		SootField[] fields = safeGetFields(t.getAccessPath());
-		Type[] types = safeGetTypes(t.getAccessPath(), fields);
-		Type baseType = TypeUtils.getTypeFromString(t.getBaseType());
+		final SootField[] fields;
+		final Type[] types;
+		final Type baseType;
+		if (t.isBound()) {
+			fields = t.getBoundFields();
+			types = t.getBoundFieldTypes();
+			baseType = t.getBoundBaseType();
+		} else {
+			fields = binder.getFields(t.getAccessPath());
+			types = binder.getTypes(t.getAccessPath(), fields);
+			baseType = binder.getType(t.getBaseType());
+		}
 
 		// A return value cannot be propagated into a method
 		if (t.isReturn())
@@ -858,30 +915,132 @@ public class SummaryTaintWrapper implements IReversibleTaintWrapper {
 				continue;
 
 			// Check whether the incoming taint matches a clear
-			List<AccessPathPropagator> workList = new ArrayList<AccessPathPropagator>();
+			final String summaryKey = getSummaryKey(className, method, stmt);
 			for (Taint taint : taintsFromAP) {
 				boolean killTaint = false;
 				if (killIncomingTaint != null && flowsInCallee.hasClears()) {
 					for (MethodClear clear : flowsInCallee.getAllClears()) {
-						if (flowMatchesTaint(clear.getClearDefinition(), taint)) {
+						final AbstractFlowSinkSource clearDef = clear.getClearDefinition();
+						if (flowMatchesTaint(clearDef, clearDef.getParameterIndex(), null, taint)) {
 							killTaint = true;
 							break;
 						}
 					}
 				}
 
-				if (killTaint)
+				if (killTaint) {
 					killIncomingTaint.value = true;
-				else
-					workList.add(new AccessPathPropagator(taint, null, null, stmt, d1, taintedAbs));
+					continue;
+				}
+
+				// Apply the data flows until we reach a fixed point
+				Set<Taint> outTaints = applyFlowsCached(summaryKey, flowsInCallee,
+						new AccessPathPropagator(taint, null, null, stmt, d1, taintedAbs));
+
+				// The taints are independent of the call site, so we need to rebase them
+				if (outTaints != null) {
+					for (Taint outTaint : outTaints) {
+						AccessPath ap = createAccessPathFromTaint(outTaint, stmt);
+						if (ap != null) {
+							if (res == null)
+								res = new HashSet<>();
+							res.add(ap);
+						}
+					}
+				}
 			}
+		}
+		return res;
+	}
 
-			// Apply the data flows until we reach a fixed point
-			Set<AccessPath> resCallee = applyFlowsIterative(flowsInCallee, workList);
-			if (resCallee != null && !resCallee.isEmpty()) {
+	/**
+	 * Applies the given flow summaries to the taint of the given propagator. If the
+	 * result is available in the cache, the summaries are not applied again.
+	 * 
+	 * @param summaryKey    The key that identifies the summaries, or null if the
+	 *                      result shall not be cached
+	 * @param flowsInCallee The flow summaries for the callee
+	 * @param propagator    The incoming propagator
+	 * @return The taints that leave the summarized method
+	 */
+	private Set<Taint> applyFlowsCached(String summaryKey, MethodSummaries flowsInCallee,
+			AccessPathPropagator propagator) {
+		final Taint taint = propagator.getTaint();
+		final SummaryApplicationCache cache = this.applicationCache;
+		if (summaryKey != null && cache != null) {
+			cache.validate(flows.getModificationCount());
+			Set<Taint> cachedTaints = cache.get(summaryKey, taint);
+			if (cachedTaints != null)
+				return cachedTaints;
+		}
+
+		ByReferenceBoolean enteredUserCode = new ByReferenceBoolean();
+		Set<AccessPathPropagator> finished = applyFlowsIterative(flowsInCallee, summaryKey,
+				Collections.singletonList(propagator), enteredUserCode);
+		Set<Taint> outTaints = null;
+		if (finished != null) {
+			outTaints = new HashSet<>(finished.size());
+			for (AccessPathPropagator outPropagator : finished)
+				outTaints.add(outPropagator.getTaint());
+		}
+
+		// Flows into user code depend on the caller and are reported
+		// asynchronously, so we cannot cache them
+		if (summaryKey != null && cache != null && !enteredUserCode.value)
+			cache.put(summaryKey, taint, outTaints);
+		return outTaints;
+	}
+
+	/**
+	 * Gets a key that identifies the summaries that are applied for the given
+	 * callee
+	 * 
+	 * @param className The name of the class from which the summaries were taken
+	 * @param method    The callee
+	 * @param stmt      The call site
+	 * @return The key that identifies the summaries
+	 */
+	private String getSummaryKey(String className, SootMethod method, Stmt stmt) {
+		final String subsig = method.getSubSignature();
+		if (!className.equals(DUMMY_CLASS_NAME))
+			return className + ": " + subsig;
+
+		// These summaries were merged from all callees at the call site
+		if (stmt == null)
+			return null;
+		List<String> calleeClasses = new ArrayList<>();
+		for (SootMethod callee : manager.getICFG().getCalleesOfCallAt(stmt))
+			calleeClasses.add(callee.getDeclaringClass().getName());
+		Collections.sort(calleeClasses);
+		return calleeClasses + ": " + subsig;
+	}
+
+	/**
+	 * Iteratively applies all of the given flow summaries until a fixed point is
+	 * reached. if the flow enters user code, an analysis of the corresponding
+	 * method will be spawned.
+	 * 
+	 * @param flowsInCallee      The flow summaries for the given callee
+	 * @param summaryKey         The key that identifies the flow summaries, or
+	 *                           null if they cannot be identified
+	 * @param initialPropagators The incoming propagators on which to apply the
+	 *                           flow summaries
+	 * @return The set of outgoing access paths
+	 */
+	private Set<AccessPath> applyFlowsIterative(MethodSummaries flowsInCallee, String summaryKey,
+			List<AccessPathPropagator> initialPropagators) {
+		Set<AccessPathPropagator> finished = applyFlowsIterative(flowsInCallee, summaryKey, initialPropagators,
+				null);
+		if (finished == null)
+			return null;
+
+		Set<AccessPath> res = null;
+		for (AccessPathPropagator propagator : finished) {
+			AccessPath ap = createAccessPathFromTaint(propagator.getTaint(), propagator.getStmt());
+			if (ap != null) {
 				if (res == null)
 					res = new HashSet<>();
-				res.addAll(resCallee);
+				res.add(ap);
 			}
 		}
 		return res;
@@ -892,18 +1051,24 @@ public class SummaryTaintWrapper implements IReversibleTaintWrapper {
 	 * reached. if the flow enters user code, an analysis of the corresponding
 	 * method will be spawned.
 	 * 
-	 * @param flowsInCallee The flow summaries for the given callee
-	 * @param workList      The incoming propagators on which to apply the flow
-	 *                      summaries
-	 * @param aliasingQuery True if this query is for aliases, false if it is for
-	 *                      normal taint propagation.
-	 * @return The set of outgoing access paths
+	 * @param flowsInCallee      The flow summaries for the given callee
+	 * @param summaryKey         The key that identifies the flow summaries, or
+	 *                           null if they cannot be identified
+	 * @param initialPropagators The incoming propagators on which to apply the
+	 *                           flow summaries
+	 * @param enteredUserCode    Optional outgoing parameter that is set to true if
+	 *                           the flow has entered user code
+	 * @return The propagators that leave the summarized method
 	 */
-	private Set<AccessPath> applyFlowsIterative(MethodSummaries flowsInCallee, List<AccessPathPropagator> workList) {
-		Set<AccessPath> res = null;
-		Set<AccessPathPropagator> doneSet = new HashSet<AccessPathPropagator>(workList);
+	private Set<AccessPathPropagator> applyFlowsIterative(MethodSummaries flowsInCallee, String summaryKey,
+			List<AccessPathPropagator> initialPropagators, ByReferenceBoolean enteredUserCode) {
+		binder.validate(flows.getModificationCount());
+
+		Set<AccessPathPropagator> res = null;
+		Set<AccessPathPropagator> doneSet = new HashSet<AccessPathPropagator>(initialPropagators);
+		Deque<AccessPathPropagator> workList = new ArrayDeque<>(initialPropagators);
 		while (!workList.isEmpty()) {
-			final AccessPathPropagator curPropagator = workList.remove(0);
+			final AccessPathPropagator curPropagator = workList.poll();
 			final GapDefinition curGap = curPropagator.getGap();
 
 			// Make sure we don't have invalid data
@@ -912,6 +1077,7 @@ public class SummaryTaintWrapper implements IReversibleTaintWrapper {
 
 			// Get the correct set of flows to apply
 			MethodSummaries flowsInTarget = curGap == null ? flowsInCallee : getFlowSummariesForGap(curGap);
+			String targetKey = curGap == null ? summaryKey : curGap.getSignature();
 
 			// If we don't have summaries for the current gap, we look for
 			// implementations in the application code
@@ -923,6 +1089,8 @@ public class SummaryTaintWrapper implements IReversibleTaintWrapper {
 								&& implementor.isConcrete()) {
 							Set<AccessPathPropagator> implementorPropagators = spawnAnalysisIntoClientCode(implementor,
 									curPropagator);
+							if (enteredUserCode != null)
+								enteredUserCode.value = true;
 							if (implementorPropagators != null)
 								workList.addAll(implementorPropagators);
 						}
@@ -932,42 +1100,28 @@ public class SummaryTaintWrapper implements IReversibleTaintWrapper {
 
 			// Apply the flow summaries for other libraries
 			if (flowsInTarget != null && !flowsInTarget.isEmpty()) {
-				for (MethodFlow flow : flowsInTarget) {
-					// Apply the flow summary
+				// Only try the flows that can match the current taint
+				final FlowIndex flowIndex = binder.getFlowIndex(targetKey, flowsInTarget);
+				final Taint taint = curPropagator.getTaint();
+				Set<MethodFlow> appliedFlows = null;
+				for (BoundMethodFlow flow : flowIndex.getForwardFlows(taint)) {
 					AccessPathPropagator newPropagator = applyFlow(flow, curPropagator);
-					if (newPropagator == null) {
-						// Can we reverse the flow and apply it in the other direction?
-						flow = getReverseFlowForAlias(flow);
-						if (flow == null)
-							continue;
-
-						// Apply the reversed flow
-						newPropagator = applyFlow(flow, curPropagator);
-						if (newPropagator == null)
-							continue;
+					if (newPropagator != null) {
+						if (appliedFlows == null)
+							appliedFlows = Collections.newSetFromMap(new IdentityHashMap<>());
+						appliedFlows.add(flow.getFlow());
+						res = propagate(newPropagator, res, workList, doneSet);
 					}
+				}
 
-					// Propagate it
-					if (newPropagator.getParent() == null && newPropagator.getTaint().getGap() == null) {
-						AccessPath ap = createAccessPathFromTaint(newPropagator.getTaint(), newPropagator.getStmt());
-						if (ap == null)
-							continue;
-						else {
-							if (res == null)
-								res = new HashSet<>();
-							res.add(ap);
-						}
-					}
-					if (doneSet.add(newPropagator))
-						workList.add(newPropagator);
-
-					// If we have have tainted a heap field, we need to look for
-					// aliases as well
-					if (newPropagator.getTaint().hasAccessPath()) {
-						AccessPathPropagator backwardsPropagator = newPropagator.deriveInversePropagator();
-						if (doneSet.add(backwardsPropagator))
-							workList.add(backwardsPropagator);
-					}
+				// Flows that did not match can be reversed and applied in the other
+				// direction if they denote aliasing relationships
+				for (BoundMethodFlow flow : flowIndex.getReverseFlows(taint)) {
+					if (appliedFlows != null && appliedFlows.contains(flow.getOriginalFlow()))
+						continue;
+					AccessPathPropagator newPropagator = applyFlow(flow, curPropagator);
+					if (newPropagator != null)
+						res = propagate(newPropagator, res, workList, doneSet);
 				}
 			}
 		}
@@ -975,48 +1129,35 @@ public class SummaryTaintWrapper implements IReversibleTaintWrapper {
 	}
 
 	/**
-	 * Checks whether the given flow denotes an aliasing relationship and can thus
-	 * be applied in reverse
+	 * Records a propagator that was obtained by applying a flow summary
 	 * 
-	 * @param flow The flow to check
-	 * @return The reverse flow if the given flow works in both directions, null
-	 *         otherwise
+	 * @param newPropagator The new propagator
+	 * @param res           The propagators computed so far that leave the
+	 *                      summarized method
+	 * @param workList      The work list to which to add the new propagator
+	 * @param doneSet       The propagators that have already been scheduled
+	 * @return The propagators that leave the summarized method, including the new
+	 *         propagator if it does so
 	 */
-	private MethodFlow getReverseFlowForAlias(MethodFlow flow) {
-		// Reverse flows can only be applied if the flow is an
-		// aliasing relationship
-		if (!flow.isAlias())
-			return null;
-
-		// Reverse flows can only be applied to heap objects
-		if (!canTypeAlias(flow.source().getLastFieldType()))
-			return null;
-		if (!canTypeAlias(flow.sink().getLastFieldType()))
-			return null;
-
-		// There cannot be any flows to the return values of
-		// gaps
-		if (flow.source().getGap() != null && flow.source().getType() == SourceSinkType.Return)
-			return null;
-
-		// Reverse the flow if necessary
-		return flow.reverse();
-	}
-
-	/**
-	 * Checks whether objects of the given type can have aliases
-	 * 
-	 * @param type The type to check
-	 * @return True if objects of the given type can have aliases, otherwise false
-	 */
-	private boolean canTypeAlias(String type) {
-		Type tp = TypeUtils.getTypeFromString(type);
-		if (tp instanceof PrimType)
-			return false;
-		if (tp instanceof RefType)
-			if (((RefType) tp).getClassName().equals("java.lang.String"))
-				return false;
-		return true;
+	private Set<AccessPathPropagator> propagate(AccessPathPropagator newPropagator, Set<AccessPathPropagator> res,
+			Deque<AccessPathPropagator> workList, Set<AccessPathPropagator> doneSet) {
+		// Propagate it
+		if (newPropagator.getParent() == null && newPropagator.getTaint().getGap() == null) {
+			if (res == null)
+				res = new HashSet<>();
+			res.add(newPropagator);
+		}
+		if (doneSet.add(newPropagator))
+			workList.add(newPropagator);
+
+		// If we have have tainted a heap field, we need to look for
+		// aliases as well
+		if (newPropagator.getTaint().hasAccessPath()) {
+			AccessPathPropagator backwardsPropagator = newPropagator.deriveInversePropagator();
+			if (doneSet.add(backwardsPropagator))
+				workList.add(backwardsPropagator);
+		}
+		return res;
 	}
 
 	/**
@@ -1162,16 +1303,32 @@ public class SummaryTaintWrapper implements IReversibleTaintWrapper {
 			// Check the callgraph
 			if (stmt != null) {
 				// Check the callees reported by the ICFG
+				MethodSummaries calleeSummaries = null;
+				boolean copied = false;
 				for (SootMethod callee : manager.getICFG().getCalleesOfCallAt(stmt)) {
 					ClassMethodSummaries flows = this.flows.getMethodFlows(callee.getDeclaringClass(), subsig);
 					if (flows != null && !flows.isEmpty()) {
 						if (classSupported != null)
 							classSupported.value = true;
-						if (classSummaries == null)
-							classSummaries = new ClassSummaries();
-						classSummaries.merge("<dummy>", flows.getMethodSummaries());
+
+						// Do not merge into the summaries of the provider
+						if (calleeSummaries == null)
+							calleeSummaries = flows.getMethodSummaries();
+						else {
+							if (!copied) {
+								MethodSummaries oldSummaries = calleeSummaries;
+								calleeSummaries = new MethodSummaries();
+								calleeSummaries.merge(oldSummaries);
+								copied = true;
+							}
+							calleeSummaries.merge(flows.getMethodSummaries());
+						}
 					}
 				}
+				if (calleeSummaries != null) {
+					classSummaries = new ClassSummaries();
+					classSummaries.merge(DUMMY_CLASS_NAME, calleeSummaries);
+				}
 			}
 		}
 
@@ -1216,21 +1373,7 @@ public class SummaryTaintWrapper implements IReversibleTaintWrapper {
 		final String subSig = method.getSubSignature();
 		Set<SootMethod> implementors = new HashSet<SootMethod>();
 
-		List<SootClass> workList = new ArrayList<SootClass>();
-		workList.add(method.getDeclaringClass());
-		Set<SootClass> doneSet = new HashSet<SootClass>();
-
-		while (!workList.isEmpty()) {
-			SootClass curClass = workList.remove(0);
-			if (!doneSet.add(curClass))
-				continue;
-
-			if (curClass.isInterface()) {
-				workList.addAll(hierarchy.getImplementersOf(curClass));
-				workList.addAll(hierarchy.getSubinterfacesOf(curClass));
-			} else
-				workList.addAll(hierarchy.getSubclassesOf(curClass));
-
+		for (SootClass curClass : HierarchyClosureIndex.v().getSubtypesOfIncluding(method.getDeclaringClass())) {
 			SootMethod ifm = curClass.getMethodUnsafe(subSig);
 			if (ifm != null)
 				implementors.add(ifm);
@@ -1248,27 +1391,7 @@ public class SummaryTaintWrapper implements IReversibleTaintWrapper {
 	 * @return The children of the given class or interface
 	 */
 	private Set<SootClass> getAllChildClasses(SootClass sc) {
-		List<SootClass> workList = new ArrayList<SootClass>();
-		workList.add(sc);
-
-		Set<SootClass> doneSet = new HashSet<SootClass>();
-		Set<SootClass> classes = new HashSet<>();
-
-		while (!workList.isEmpty()) {
-			SootClass curClass = workList.remove(0);
-			if (!doneSet.add(curClass))
-				continue;
-
-			if (curClass.isInterface()) {
-				workList.addAll(hierarchy.getImplementersOf(curClass));
-				workList.addAll(hierarchy.getSubinterfacesOf(curClass));
-			} else {
-				workList.addAll(hierarchy.getSubclassesOf(curClass));
-				classes.add(curClass);
-			}
-		}
-
-		return classes;
+		return HierarchyClosureIndex.v().getSubclassesOfIncluding(sc);
 	}
 
 	/**
@@ -1279,26 +1402,7 @@ public class SummaryTaintWrapper implements IReversibleTaintWrapper {
 	 * @return The parents of the given class or interface
 	 */
 	private Set<SootClass> getAllParentClasses(SootClass sc) {
-		List<SootClass> workList = new ArrayList<SootClass>();
-		workList.add(sc);
-
-		Set<SootClass> doneSet = new HashSet<SootClass>();
-		Set<SootClass> classes = new HashSet<>();
-
-		while (!workList.isEmpty()) {
-			SootClass curClass = workList.remove(0);
-			if (!doneSet.add(curClass))
-				continue;
-
-			if (curClass.isInterface()) {
-				workList.addAll(hierarchy.getSuperinterfacesOf(curClass));
-			} else {
-				workList.addAll(hierarchy.getSuperclassesOf(curClass));
-				classes.add(curClass);
-			}
-		}
-
-		return classes;
+		return HierarchyClosureIndex.v().getSuperclassesOfIncluding(sc);
 	}
 
 	/**
@@ -1310,16 +1414,15 @@ public class SummaryTaintWrapper implements IReversibleTaintWrapper {
 	 *         summary to the given access path propagator. if the summary is not
 	 *         applicable, null is returned.
 	 */
-	private AccessPathPropagator applyFlow(MethodFlow flow, AccessPathPropagator propagator) {
+	private AccessPathPropagator applyFlow(BoundMethodFlow flow, AccessPathPropagator propagator) {
 		final AbstractFlowSinkSource flowSource = flow.source();
 		AbstractFlowSinkSource flowSink = flow.sink();
 		final Taint taint = propagator.getTaint();
 
 		// Make sure that the base type of the incoming taint and the one of
 		// the summary are compatible
-		boolean typesCompatible = flowSource.getBaseType() == null
-				|| isCastCompatible(TypeUtils.getTypeFromString(taint.getBaseType()),
-						TypeUtils.getTypeFromString(flowSource.getBaseType()));
+		boolean typesCompatible = flow.getSourceBaseType() == null
+				|| isCastCompatible(getAssignmentType(taint, -1), flow.getSourceBaseType());
 		if (!typesCompatible)
 			return null;
 
@@ -1348,7 +1451,7 @@ public class SummaryTaintWrapper implements IReversibleTaintWrapper {
 			taintGap = propagator.getGap();
 		}
 
-		boolean addTaint = flowMatchesTaint(flowSource, taint);
+		boolean addTaint = flowMatchesTaint(flowSource, flow.getSourceParameterIndex(), flow.getSourceFields(), taint);
 
 		// If we didn't find a match, there's little we can do
 		if (!addTaint)
@@ -1356,8 +1459,8 @@ public class SummaryTaintWrapper implements IReversibleTaintWrapper {
 
 		// Construct a new propagator
 		Taint newTaint = null;
-		if (flow.isCustom()) {
-			newTaint = addCustomSinkTaint(flow, taint, taintGap);
+		if (flow.getFlow().isCustom()) {
+			newTaint = addCustomSinkTaint(flow.getFlow(), taint, taintGap);
 		} else
 			newTaint = addSinkTaint(flow, taint, taintGap);
 		if (newTaint == null)
@@ -1370,23 +1473,27 @@ public class SummaryTaintWrapper implements IReversibleTaintWrapper {
 	/**
 	 * Checks whether the given source matches the given taint
 	 * 
-	 * @param flowSource The source to match
-	 * @param taint      The taint to match
+	 * @param flowSource   The source to match
+	 * @param parameterIdx The parameter index of the source
+	 * @param sourceFields The fields in the access path of the source, or null if
+	 *                     they have not been bound to the current scene
+	 * @param taint        The taint to match
 	 * @return True if the given source matches the given taint, otherwise false
 	 */
-	private boolean flowMatchesTaint(final AbstractFlowSinkSource flowSource, final Taint taint) {
+	private boolean flowMatchesTaint(final AbstractFlowSinkSource flowSource, final int parameterIdx,
+			final SootField[] sourceFields, final Taint taint) {
 		if (flowSource.isParameter() && taint.isParameter()) {
 			// Get the parameter index from the call and compare it to the
 			// parameter index in the flow summary
-			if (taint.getParameterIndex() == flowSource.getParameterIndex()) {
-				if (compareFields(taint, flowSource))
+			if (taint.getParameterIndex() == parameterIdx) {
+				if (compareFields(taint, flowSource, sourceFields))
 					return true;
 			}
 		} else if (flowSource.isField()) {
 			// Flows from a field can either be applied to the same field or
 			// the base object in total
 			boolean doTaint = (taint.isGapBaseObject() || taint.isField());
-			if (doTaint && compareFields(taint, flowSource))
+			if (doTaint && compareFields(taint, flowSource, sourceFields))
 				return true;
 		}
 		// We can have a flow from a local or a field
@@ -1394,12 +1501,12 @@ public class SummaryTaintWrapper implements IReversibleTaintWrapper {
 			return true;
 		// A value can also flow from the return value of a gap to somewhere
 		else if (flowSource.isReturn() && flowSource.getGap() != null && taint.getGap() != null
-				&& compareFields(taint, flowSource))
+				&& compareFields(taint, flowSource, sourceFields))
 			return true;
 		// For aliases, we over-approximate flows from the return edge to all
 		// possible exit nodes
 		else if (flowSource.isReturn() && flowSource.getGap() == null && taint.getGap() == null && taint.isReturn()
-				&& compareFields(taint, flowSource))
+				&& compareFields(taint, flowSource, sourceFields))
 			return true;
 		return false;
 	}
@@ -1471,12 +1578,14 @@ public class SummaryTaintWrapper implements IReversibleTaintWrapper {
 	 * Checks whether the fields mentioned in the given taint correspond to those of
 	 * the given flow source
 	 * 
-	 * @param taintedPath The tainted access path
-	 * @param flowSource  The flow source with which to compare the taint
+	 * @param taintedPath  The tainted access path
+	 * @param flowSource   The flow source with which to compare the taint
+	 * @param sourceFields The fields in the access path of the flow source, or null
+	 *                     if they have not been bound to the current scene
 	 * @return True if the given taint references the same fields as the given flow
 	 *         source, otherwise false
 	 */
-	private boolean compareFields(Taint taintedPath, AbstractFlowSinkSource flowSource) {
+	private boolean compareFields(Taint taintedPath, AbstractFlowSinkSource flowSource, SootField[] sourceFields) {
 		// if we have x.f....fn and the source is x.f'.f1'...f'n+1 and we don't
 		// taint sub, we can't have a match
 		if (taintedPath.getAccessPathLength() < flowSource.getAccessPathLength()) {
@@ -1484,7 +1593,16 @@ public class SummaryTaintWrapper implements IReversibleTaintWrapper {
 				return false;
 		}
 
-		// Compare the shared sub-path
+		// Compare the shared sub-path. If we have the Soot fields on both sides, we
+		// can compare them directly.
+		final SootField[] taintFields = taintedPath.isBound() ? taintedPath.getBoundFields() : null;
+		if (taintFields != null && sourceFields != null) {
+			for (int i = 0; i < taintFields.length && i < sourceFields.length; i++) {
+				if (taintFields[i] != sourceFields[i])
+					return false;
+			}
+			return true;
+		}
 		for (int i = 0; i < taintedPath.getAccessPathLength() && i < flowSource.getAccessPathLength(); i++) {
 			String taintField = taintedPath.getAccessPath().getField(i);
 			String sourceField = flowSource.getAccessPath().getField(i);
@@ -1495,116 +1613,6 @@ public class SummaryTaintWrapper implements IReversibleTaintWrapper {
 		return true;
 	}
 
-	/**
-	 * Gets the field with the specified signature if it exists, otherwise returns
-	 * null
-	 * 
-	 * @param fieldSig The signature of the field to retrieve
-	 * @return The field with the given signature if it exists, otherwise null
-	 */
-	private SootField safeGetField(String fieldSig) {
-		if (fieldSig == null || fieldSig.equals(""))
-			return null;
-
-		SootField sf = Scene.v().grabField(fieldSig);
-		if (sf != null)
-			return sf;
-
-		// This field does not exist, so we need to create it
-		String className = fieldSig.substring(1);
-		className = className.substring(0, className.indexOf(":"));
-		SootClass sc = Scene.v().getSootClassUnsafe(className, true);
-		if (sc.resolvingLevel() < SootClass.SIGNATURES && !sc.isPhantom()) {
-			System.err.println("WARNING: Class not loaded: " + sc);
-			return null;
-		}
-
-		String type = fieldSig.substring(fieldSig.indexOf(": ") + 2);
-		type = type.substring(0, type.indexOf(" "));
-
-		String fieldName = fieldSig.substring(fieldSig.lastIndexOf(" ") + 1);
-		fieldName = fieldName.substring(0, fieldName.length() - 1);
-
-		return Scene.v().makeFieldRef(sc, fieldName, TypeUtils.getTypeFromString(type), false).resolve();
-	}
-
-	/**
-	 * Gets an array of fields with the specified signatures
-	 * 
-	 * @param accessPath The access path from which to retrieve the list of the
-	 *                   field signatures
-	 * @return The Array of fields with the given signature if all exists, otherwise
-	 *         null
-	 */
-	private SootField[] safeGetFields(AccessPathFragment accessPath) {
-		if (accessPath == null || accessPath.isEmpty())
-			return null;
-		return safeGetFields(accessPath.getFields());
-	}
-
-	/**
-	 * Gets an array of fields with the specified signatures
-	 * 
-	 * @param fieldSigs , list of the field signatures to retrieve
-	 * @return The Array of fields with the given signature if all exists, otherwise
-	 *         null
-	 */
-	private SootField[] safeGetFields(String[] fieldSigs) {
-		if (fieldSigs == null || fieldSigs.length == 0)
-			return null;
-		SootField[] fields = new SootField[fieldSigs.length];
-		for (int i = 0; i < fieldSigs.length; i++) {
-			fields[i] = safeGetField(fieldSigs[i]);
-			if (fields[i] == null)
-				return null;
-		}
-		return fields;
-	}
-
-	/**
-	 * Gets an array of types with the specified class names
-	 * 
-	 * @param accessPath The access path from which to retrieve the field types
-	 * @param fields     The fields from which to get the types if we don't have any
-	 *                   explicit ones
-	 * @return The Array of fields with the given signature if all exists, otherwise
-	 *         null
-	 */
-	private Type[] safeGetTypes(AccessPathFragment accessPath, SootField[] fields) {
-		if (accessPath == null || accessPath.isEmpty())
-			return null;
-		return safeGetTypes(accessPath.getFieldTypes(), fields);
-	}
-
-	/**
-	 * Gets an array of types with the specified class names
-	 * 
-	 * @param fieldTypes , list of the type names to retrieve
-	 * @param fields     The fields from which to get the types if we don't have any
-	 *                   explicit ones
-	 * @return The Array of fields with the given signature if all exists, otherwise
-	 *         null
-	 */
-	private Type[] safeGetTypes(String[] fieldTypes, SootField[] fields) {
-		if (fieldTypes == null || fieldTypes.length == 0) {
-			// If we don't have type information, but fields, we can use the declared field
-			// types
-			if (fields != null && fields.length > 0) {
-				Type[] types = new Type[fields.length];
-				for (int i = 0; i < fields.length; i++)
-					types[i] = fields[i].getType();
-				return types;
-			}
-			return null;
-		}
-
-		// Parse the explicit type information
-		Type[] types = new Type[fieldTypes.length];
-		for (int i = 0; i < fieldTypes.length; i++)
-			types[i] = TypeUtils.getTypeFromString(fieldTypes[i]);
-		return types;
-	}
-
 	/**
 	 * Given the taint at the source and the flow, computes the taint at the sink.
 	 * This method allows custom extensions to the taint wrapper. The default
@@ -1629,19 +1637,20 @@ public class SummaryTaintWrapper implements IReversibleTaintWrapper {
 	 * @return The taint at the sink that is obtained when applying the given flow
 	 *         to the given source taint
 	 */
-	private Taint addSinkTaint(MethodFlow flow, Taint taint, GapDefinition gap) {
+	private Taint addSinkTaint(BoundMethodFlow flow, Taint taint, GapDefinition gap) {
 		final AbstractFlowSinkSource flowSource = flow.source();
 		final AbstractFlowSinkSource flowSink = flow.sink();
 		final boolean taintSubFields = flow.sink().taintSubFields();
-		final Boolean checkTypes = flow.getTypeChecking();
+		final Boolean checkTypes = flow.getFlow().getTypeChecking();
 
-		AccessPathFragment remainingFields = cutSubFields(flow, getRemainingFields(flowSource, taint));
+		AccessPathFragment uncutFields = getRemainingFields(flowSource, taint);
+		AccessPathFragment remainingFields = cutSubFields(flow.getFlow(), uncutFields);
 		AccessPathFragment appendedFields = AccessPathFragment.append(flowSink.getAccessPath(), remainingFields);
 
 		int lastCommonAPIdx = Math.min(flowSource.getAccessPathLength(), taint.getAccessPathLength());
 
-		Type sinkType = TypeUtils.getTypeFromString(getAssignmentType(flowSink));
-		Type taintType = TypeUtils.getTypeFromString(getAssignmentType(taint, lastCommonAPIdx - 1));
+		Type sinkType = flow.getSinkAssignmentType();
+		Type taintType = getAssignmentType(taint, lastCommonAPIdx - 1);
 
 		// For type checking, we need types
 		if ((checkTypes == null || checkTypes.booleanValue()) && sinkType != null && taintType != null) {
@@ -1692,9 +1701,64 @@ public class SummaryTaintWrapper implements IReversibleTaintWrapper {
 			sBaseType = flowSink.getBaseType();
 		}
 
+		// If we know the Soot objects for the sink and the remaining fields, the new
+		// taint is bound as well
+		final boolean newTaintSubFields = taintSubFields || taint.taintSubFields();
+		final boolean sinkBound = !flowSink.hasAccessPath() || flow.getSinkFields() != null;
+		if (taint.isBound() && sinkBound) {
+			SootField[] boundFields = flow.getSinkFields();
+			Type[] boundFieldTypes = flow.getSinkFieldTypes();
+			boolean bound = true;
+			if (boundFields != null) {
+				if (newBaseType == null)
+					bound = false;
+				else {
+					boundFieldTypes = Arrays.copyOf(boundFieldTypes, boundFieldTypes.length);
+					boundFieldTypes[boundFieldTypes.length - 1] = newBaseType;
+				}
+			}
+
+			// We can only take the remaining fields from the incoming taint if the
+			// cut has not replaced them with something else
+			if (bound && remainingFields != null && !remainingFields.isEmpty()) {
+				final SootField[] taintFields = taint.getBoundFields();
+				final Type[] taintFieldTypes = taint.getBoundFieldTypes();
+				if (remainingFields != uncutFields || taintFields == null || taintFieldTypes == null)
+					bound = false;
+				else {
+					int offset = flowSource.hasAccessPath() ? flowSource.getAccessPathLength() : 0;
+					int len = remainingFields.length();
+					boundFields = concat(boundFields, Arrays.copyOfRange(taintFields, offset, offset + len));
+					boundFieldTypes = concat(boundFieldTypes,
+							Arrays.copyOfRange(taintFieldTypes, offset, offset + len));
+				}
+			}
+
+			if (bound) {
+				Type boundBaseType = flowSink.hasAccessPath() ? flow.getSinkBaseType() : sinkType;
+				return new Taint(sourceSinkType, flow.getSinkParameterIndex(), sBaseType, appendedFields,
+						newTaintSubFields, gap, boundBaseType, boundFields, boundFieldTypes);
+			}
+		}
+
 		// Taint the correct fields
-		return new Taint(sourceSinkType, flowSink.getParameterIndex(), sBaseType, appendedFields,
-				taintSubFields || taint.taintSubFields(), gap);
+		return new Taint(sourceSinkType, flow.getSinkParameterIndex(), sBaseType, appendedFields, newTaintSubFields,
+				gap);
+	}
+
+	/**
+	 * Concatenates the two given arrays
+	 * 
+	 * @param first  The first array, may be null
+	 * @param second The second array
+	 * @return The concatenation of the two arrays
+	 */
+	private static <T> T[] concat(T[] first, T[] second) {
+		if (first == null || first.length == 0)
+			return second;
+		T[] res = Arrays.copyOf(first, first.length + second.length);
+		System.arraycopy(second, 0, res, first.length, second.length);
+		return res;
 	}
 
 	/**
@@ -1740,46 +1804,23 @@ public class SummaryTaintWrapper implements IReversibleTaintWrapper {
 	 *              refers to the base type
 	 * @return The type at the given index inside the access path
 	 */
-	private String getAssignmentType(Taint taint, int idx) {
+	private Type getAssignmentType(Taint taint, int idx) {
+		if (taint.isBound()) {
+			if (idx < 0)
+				return taint.getBoundBaseType();
+			final Type[] fieldTypes = taint.getBoundFieldTypes();
+			return fieldTypes == null ? null : fieldTypes[idx];
+		}
+
 		if (idx < 0)
-			return taint.getBaseType();
+			return binder.getType(taint.getBaseType());
 
 		final AccessPathFragment accessPath = taint.getAccessPath();
 		if (accessPath == null)
 			return null;
 		final String[] fieldTypes = accessPath.getFieldTypes();
 
-		return fieldTypes == null ? null : fieldTypes[idx];
-	}
-
-	/**
-	 * Gets the type that is finally assigned when propagating this source or sink.
-	 * For an access path a.b.c, this would be the type of "c".
-	 * 
-	 * @param srcSink The source or sink from which to get the propagation type
-	 * @return The type of the value which the access path of the given source or
-	 *         sink finally references
-	 */
-	private String getAssignmentType(AbstractFlowSinkSource srcSink) {
-		if (!srcSink.hasAccessPath())
-			return srcSink.getBaseType();
-
-		// If we don't have explicit access path types, we use the declared
-		// types instead
-		final AccessPathFragment accessPath = srcSink.getAccessPath();
-		if (accessPath.getFieldTypes() == null && accessPath.getFields() != null) {
-			String[] ap = accessPath.getFields();
-			String apElement = ap[srcSink.getAccessPathLength() - 1];
-
-			Pattern pattern = Pattern.compile("^\\s*<(.*?):\\s*(.*?)>\\s*$");
-			Matcher matcher = pattern.matcher(apElement);
-			if (matcher.find()) {
-				return matcher.group(1);
-			}
-		}
-
-		return accessPath.getFieldTypes() == null ? null
-				: accessPath.getFieldTypes()[srcSink.getAccessPathLength() - 1];
+		return fieldTypes == null ? null : binder.getType(fieldTypes[idx]);
 	}
 
 	/**
@@ -1850,7 +1891,7 @@ public class SummaryTaintWrapper implements IReversibleTaintWrapper {
 
 				// Check for classes excluded by meta data
 				ClassSummaries summaries = flows.getSummaries();
-				SummaryMetaData metaData = summaries.getMetaData();
+				SummaryMetaData metaData = summaries == null ? null : summaries.getMetaData();
 				if (metaData != null) {
 					if (metaData.isClassExclusive(targetClassName))
 						return true;
@@ -1908,6 +1949,36 @@ public class SummaryTaintWrapper implements IReversibleTaintWrapper {
 		return this.userCodeTaints.get(new Pair<>(abs, callee));
 	}
 
+	/**
+	 * Sets the maximum number of summary applications that are cached. The
+	 * cache maps a summarized method and an incoming taint to the outgoing taints,
+	 * independent of the concrete call site.
+	 * 
+	 * @param maximumSize The maximum number of cached summary applications, or 0
+	 *                    to disable the cache
+	 */
+	public void setApplicationCacheSize(int maximumSize) {
+		this.applicationCache = maximumSize > 0 ? new SummaryApplicationCache(maximumSize) : null;
+	}
+
+	/**
+	 * Gets the number of summary applications that were answered from the cache
+	 * 
+	 * @return The number of cache hits
+	 */
+	public int getApplicationCacheHits() {
+		return applicationCache == null ? 0 : applicationCache.getHits();
+	}
+
+	/**
+	 * Gets the number of summary applications that were not found in the cache
+	 * 
+	 * @return The number of cache misses
+	 */
+	public int getApplicationCacheMisses() {
+		return applicationCache == null ? 0 : applicationCache.getMisses();
+	}
+
 	@Override
 	public int getWrapperHits() {
 		return wrapperHits.get();
@@ -1958,7 +2029,8 @@ public class SummaryTaintWrapper implements IReversibleTaintWrapper {
 				continue;
 
 			// Apply the data flows until we reach a fixed point
-			Set<AccessPath> resCallee = applyFlowsIterative(flowsInCallee, workList);
+			Set<AccessPath> resCallee = applyFlowsIterative(flowsInCallee, getSummaryKey(className, method, stmt),
+					workList);
 			if (resCallee != null && !resCallee.isEmpty()) {
 				if (res == null)
 					res = new HashSet<>();
@@ -2009,7 +2081,7 @@ public class SummaryTaintWrapper implements IReversibleTaintWrapper {
 	 * @return The provider from which this taint wrapper loads it flows
 	 */
 	public IMethodSummaryProvider getProvider() {
-		return this.flows;
+		return this.provider;
 	}
 
 	@Override
@@ -2053,9 +2125,11 @@ public class SummaryTaintWrapper implements IReversibleTaintWrapper {
 
 			// Since we are scanning backwards, we need to reverse the flows
 			flowsInCallee = flowsInCallee.reverse();
+			String summaryKey = getSummaryKey(className, method, stmt);
 
 			// Apply the data flows until we reach a fixed point
-			Set<AccessPath> resCallee = applyFlowsIterative(flowsInCallee, workList);
+			Set<AccessPath> resCallee = applyFlowsIterative(flowsInCallee,
+					summaryKey == null ? null : "reverse " + summaryKey, workList);
 			if (resCallee != null && !resCallee.isEmpty()) {
 				if (res == null)
 					res = new HashSet<>();
@@ -1,5 +1,7 @@
 package soot.jimple.infoflow.methodSummary.taintWrappers;
 
+import soot.SootField;
+import soot.Type;
 import soot.jimple.infoflow.methodSummary.data.sourceSink.FlowSink;
 import soot.jimple.infoflow.methodSummary.data.summary.GapDefinition;
 import soot.jimple.infoflow.methodSummary.data.summary.SourceSinkType;
@@ -12,22 +14,114 @@ import soot.jimple.infoflow.methodSummary.data.summary.SourceSinkType;
  */
 public class Taint extends FlowSink implements Cloneable {
 
+	// Soot objects for the base type and the access path, if the taint has been
+	// bound to the current scene
+	private final boolean bound;
+	private final Type boundBaseType;
+	private final SootField[] boundFields;
+	private final Type[] boundFieldTypes;
+
 	public Taint(SourceSinkType type, int paramterIdx, String baseType, boolean taintSubFields) {
 		super(type, paramterIdx, baseType, taintSubFields);
+		this.bound = false;
+		this.boundBaseType = null;
+		this.boundFields = null;
+		this.boundFieldTypes = null;
 	}
 
 	public Taint(SourceSinkType type, int paramterIdx, String baseType, AccessPathFragment accessPath,
 			boolean taintSubFields) {
 		super(type, paramterIdx, baseType, accessPath, taintSubFields);
+		this.bound = false;
+		this.boundBaseType = null;
+		this.boundFields = null;
+		this.boundFieldTypes = null;
 	}
 
 	public Taint(SourceSinkType type, int paramterIdx, String baseType, AccessPathFragment accessPath,
 			boolean taintSubFields, GapDefinition gap) {
 		super(type, paramterIdx, baseType, accessPath, taintSubFields, gap);
+		this.bound = false;
+		this.boundBaseType = null;
+		this.boundFields = null;
+		this.boundFieldTypes = null;
+	}
+
+	/**
+	 * Creates a new taint that also carries the Soot objects for its base type and
+	 * access path, so that they need not be resolved from the strings again
+	 * 
+	 * @param type            The type of the taint
+	 * @param paramterIdx     The parameter index if the taint is on a parameter
+	 * @param baseType        The base type of the taint
+	 * @param accessPath      The access path of the taint
+	 * @param taintSubFields  True if the sub fields of the access path are tainted
+	 *                        as well
+	 * @param gap             The gap in which the taint is valid
+	 * @param boundBaseType   The Soot type for the base type
+	 * @param boundFields     The Soot fields for the access path, or null if the
+	 *                        access path is empty
+	 * @param boundFieldTypes The Soot types for the fields in the access path, or
+	 *                        null if the access path is empty
+	 */
+	public Taint(SourceSinkType type, int paramterIdx, String baseType, AccessPathFragment accessPath,
+			boolean taintSubFields, GapDefinition gap, Type boundBaseType, SootField[] boundFields,
+			Type[] boundFieldTypes) {
+		super(type, paramterIdx, baseType, accessPath, taintSubFields, gap);
+		this.bound = true;
+		this.boundBaseType = boundBaseType;
+		this.boundFields = boundFields;
+		this.boundFieldTypes = boundFieldTypes;
+	}
+
+	/**
+	 * Gets whether this taint carries the Soot objects for its base type and access
+	 * path
+	 * 
+	 * @return True if this taint has been bound to the current scene, false if the
+	 *         Soot objects must be resolved from the strings
+	 */
+	public boolean isBound() {
+		return bound;
+	}
+
+	/**
+	 * Gets the Soot type for the base type of this taint. Only valid if
+	 * {@link #isBound()} is true.
+	 * 
+	 * @return The Soot type for the base type of this taint
+	 */
+	public Type getBoundBaseType() {
+		return boundBaseType;
+	}
+
+	/**
+	 * Gets the Soot fields in the access path of this taint. Only valid if
+	 * {@link #isBound()} is true.
+	 * 
+	 * @return The Soot fields in the access path of this taint, or null if the
+	 *         access path is empty
+	 */
+	public SootField[] getBoundFields() {
+		return boundFields;
+	}
+
+	/**
+	 * Gets the Soot types of the fields in the access path of this taint. Only
+	 * valid if {@link #isBound()} is true.
+	 * 
+	 * @return The Soot types of the fields in the access path of this taint, or
+	 *         null if the access path is empty
+	 */
+	public Type[] getBoundFieldTypes() {
+		return boundFieldTypes;
 	}
 
 	@Override
 	public Taint clone() {
+		if (bound)
+			return new Taint(type, parameterIdx, baseType, accessPath, taintSubFields, null, boundBaseType,
+					boundFields, boundFieldTypes);
 		return new Taint(type, parameterIdx, baseType, accessPath, taintSubFields);
 	}
 
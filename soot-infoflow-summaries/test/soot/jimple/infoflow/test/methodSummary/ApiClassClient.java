@@ -165,6 +165,14 @@ public class ApiClassClient {
 		sink(t);
 	}
 
+	public void gapFlowUserCode2() {
+		ApiClass api = new ApiClass();
+		String s = stringSource();
+		api.makeStringUserCodeClass(new UserCodeClass(), s);
+		String t = api.makeStringUserCodeClass(new UserCodeClass(), s);
+		sink(t);
+	}
+
 	public void shiftTest() {
 		ApiClass api = new ApiClass();
 		String s = stringSource();
@@ -0,0 +1,223 @@
+package soot.jimple.infoflow.test.methodSummary.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.Collections;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import soot.G;
+import soot.Local;
+import soot.Modifier;
+import soot.RefType;
+import soot.Scene;
+import soot.SootClass;
+import soot.SootField;
+import soot.SootMethod;
+import soot.Type;
+import soot.VoidType;
+import soot.jimple.Jimple;
+import soot.jimple.JimpleBody;
+import soot.jimple.infoflow.methodSummary.generator.MethodContentHasher;
+import soot.options.Options;
+
+/**
+ * Tests that the content hashes of methods change whenever a change in the code
+ * can change the summaries
+ *
+ */
+public class MethodContentHasherTests {
+
+	private static final String CALLER_CLASS = "com.example.Caller";
+	private static final String BASE_CLASS = "com.example.Base";
+	private static final String SUB_CLASS = "com.example.Sub";
+
+	private SootMethod callerMethod;
+	private SootMethod baseMethod;
+
+	@Before
+	public void setUp() {
+		G.reset();
+		Options.v().set_allow_phantom_refs(true);
+		Options.v().set_prepend_classpath(true);
+		Scene.v().loadNecessaryClasses();
+
+		// The caller invokes run() on an object of type Base
+		SootClass baseClass = createClass(BASE_CLASS, null);
+		baseMethod = createMethod(baseClass, "run", false);
+		SootClass callerClass = createClass(CALLER_CLASS, null);
+		callerMethod = new SootMethod("call", Collections.<Type>singletonList(baseClass.getType()), VoidType.v(),
+				Modifier.PUBLIC | Modifier.STATIC);
+		callerClass.addMethod(callerMethod);
+
+		JimpleBody body = Jimple.v().newBody(callerMethod);
+		Local base = Jimple.v().newLocal("r0", baseClass.getType());
+		body.getLocals().add(base);
+		body.getUnits().add(Jimple.v().newIdentityStmt(base, Jimple.v().newParameterRef(baseClass.getType(), 0)));
+		body.getUnits().add(Jimple.v().newInvokeStmt(Jimple.v().newVirtualInvokeExpr(base, baseMethod.makeRef())));
+		body.getUnits().add(Jimple.v().newReturnVoidStmt());
+		callerMethod.setActiveBody(body);
+	}
+
+	private static SootClass createClass(String className, SootClass superClass) {
+		SootClass sc = new SootClass(className, Modifier.PUBLIC);
+		sc.setSuperclass(superClass == null ? Scene.v().getSootClass("java.lang.Object") : superClass);
+		Scene.v().addClass(sc);
+		sc.setApplicationClass();
+		return sc;
+	}
+
+	private static SootMethod createMethod(SootClass sc, String name, boolean withNop) {
+		SootMethod sm = new SootMethod(name, Collections.<Type>emptyList(), VoidType.v(), Modifier.PUBLIC);
+		sc.addMethod(sm);
+		sm.setActiveBody(createBody(sm, withNop));
+		return sm;
+	}
+
+	private static JimpleBody createBody(SootMethod sm, boolean withNop) {
+		JimpleBody body = Jimple.v().newBody(sm);
+		Local thisLocal = Jimple.v().newLocal("r0", sm.getDeclaringClass().getType());
+		body.getLocals().add(thisLocal);
+		body.getUnits().add(Jimple.v().newIdentityStmt(thisLocal,
+				Jimple.v().newThisRef(sm.getDeclaringClass().getType())));
+		if (withNop)
+			body.getUnits().add(Jimple.v().newNopStmt());
+		body.getUnits().add(Jimple.v().newReturnVoidStmt());
+		return body;
+	}
+
+	/**
+	 * Creates a static method that calls the given callee
+	 */
+	private static SootMethod createStaticMethod(SootClass sc, String name, SootMethod callee) {
+		SootMethod sm = new SootMethod(name, Collections.<Type>emptyList(), VoidType.v(),
+				Modifier.PUBLIC | Modifier.STATIC);
+		sc.addMethod(sm);
+
+		JimpleBody body = Jimple.v().newBody(sm);
+		if (callee != null)
+			body.getUnits().add(Jimple.v().newInvokeStmt(Jimple.v().newStaticInvokeExpr(callee.makeRef())));
+		body.getUnits().add(Jimple.v().newReturnVoidStmt());
+		sm.setActiveBody(body);
+		return sm;
+	}
+
+	/**
+	 * Creates a chain of static methods in which each method calls the next one
+	 *
+	 * @return The first method in the chain
+	 */
+	private static SootMethod createCallChain(int length) {
+		SootClass sc = createClass("com.example.Chain", null);
+		SootMethod callee = null;
+		for (int i = length - 1; i >= 0; i--)
+			callee = createStaticMethod(sc, "m" + i, callee);
+		return callee;
+	}
+
+	private String getHash() {
+		Scene.v().releaseFastHierarchy();
+		String hash = new MethodContentHasher("").getHash(callerMethod, CALLER_CLASS);
+		assertNotNull(hash);
+		return hash;
+	}
+
+	@Test
+	public void unchangedCodeTest() {
+		assertEquals(getHash(), getHash());
+	}
+
+	@Test
+	public void changedCalleeTest() {
+		String oldHash = getHash();
+		baseMethod.setActiveBody(createBody(baseMethod, true));
+		assertNotEquals(oldHash, getHash());
+	}
+
+	@Test
+	public void newOverrideTest() {
+		String oldHash = getHash();
+
+		// The virtual call may now also reach Sub.run()
+		createMethod(createClass(SUB_CLASS, Scene.v().getSootClass(BASE_CLASS)), "run", false);
+		String newHash = getHash();
+		assertNotEquals(oldHash, newHash);
+
+		// A change in the override must also change the hash
+		SootMethod subMethod = Scene.v().getSootClass(SUB_CLASS).getMethodByName("run");
+		subMethod.setActiveBody(createBody(subMethod, true));
+		assertNotEquals(newHash, getHash());
+	}
+
+	@Test
+	public void changedFieldDeclarationTest() {
+		String oldHash = getHash();
+		Scene.v().getSootClass(BASE_CLASS)
+				.addField(new SootField("data", RefType.v("java.lang.Object"), Modifier.PRIVATE));
+		assertNotEquals(oldHash, getHash());
+	}
+
+	@Test
+	public void changedSaltTest() {
+		Scene.v().releaseFastHierarchy();
+		assertNotEquals(new MethodContentHasher("a").getHash(callerMethod, CALLER_CLASS),
+				new MethodContentHasher("b").getHash(callerMethod, CALLER_CLASS));
+	}
+
+	@Test
+	public void deepCallChainTest() {
+		// Such a call chain is too deep for a recursive traversal
+		final int length = 50000;
+		SootMethod first = createCallChain(length);
+		String oldHash = new MethodContentHasher("", length).getHash(first, null);
+		assertNotNull(oldHash);
+
+		// A change at the end of the chain must change the hash
+		SootMethod last = Scene.v().getSootClass("com.example.Chain").getMethodByName("m" + (length - 1));
+		last.getActiveBody().getUnits().addFirst(Jimple.v().newNopStmt());
+		assertNotEquals(oldHash, new MethodContentHasher("", length).getHash(first, null));
+	}
+
+	@Test
+	public void sizeLimitTest() {
+		SootMethod first = createCallChain(100);
+		assertNull(new MethodContentHasher("", 50).getHash(first, null));
+		assertNotNull(new MethodContentHasher("", 100).getHash(first, null));
+	}
+
+	@Test
+	public void libraryCalleeTest() {
+		// We do not look into library code
+		Scene.v().getSootClass(BASE_CLASS).setLibraryClass();
+		String oldHash = getHash();
+		baseMethod.setActiveBody(createBody(baseMethod, true));
+		assertEquals(oldHash, getHash());
+	}
+
+	@Test
+	public void unhashableCalleeTest() {
+		// A callee in a missing class could change at any time
+		SootClass missingClass = new SootClass("com.example.Missing", Modifier.PUBLIC);
+		Scene.v().addClass(missingClass);
+		missingClass.setPhantomClass();
+		SootMethod missingMethod = new SootMethod("run", Collections.<Type>emptyList(), VoidType.v(),
+				Modifier.PUBLIC | Modifier.STATIC);
+		missingClass.addMethod(missingMethod);
+		missingMethod.setPhantom(true);
+
+		SootMethod caller = createStaticMethod(createClass("com.example.MissingCaller", null), "call",
+				missingMethod);
+		SootMethod transitiveCaller = createStaticMethod(Scene.v().getSootClass("com.example.MissingCaller"),
+				"callTransitively", caller);
+		Scene.v().releaseFastHierarchy();
+		MethodContentHasher hasher = new MethodContentHasher("");
+		assertNull(hasher.getHash(caller, null));
+		assertNull(hasher.getHash(transitiveCaller, null));
+		assertNotNull(hasher.getHash(callerMethod, CALLER_CLASS));
+	}
+
+}
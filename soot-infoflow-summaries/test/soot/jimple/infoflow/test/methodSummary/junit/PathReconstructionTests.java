@@ -0,0 +1,70 @@
+package soot.jimple.infoflow.test.methodSummary.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.Set;
+
+import org.junit.Test;
+
+import soot.jimple.infoflow.methodSummary.data.summary.MethodFlow;
+import soot.jimple.infoflow.methodSummary.generator.SummaryGenerator;
+
+/**
+ * Checks that the parallel path reconstruction in the result post processor
+ * generates the same flows as a sequential reconstruction on a single thread
+ *
+ */
+public class PathReconstructionTests extends TestHelper {
+
+	private static final String API_CLASS = "soot.jimple.infoflow.test.methodSummary.ApiClass";
+
+	private int maxThreadNum = -1;
+
+	@Override
+	protected SummaryGenerator getSummary() {
+		SummaryGenerator sg = super.getSummary();
+		sg.getConfig().setMaxThreadNum(maxThreadNum);
+		return sg;
+	}
+
+	private void checkSameFlows(String methodSignature) {
+		maxThreadNum = 1;
+		Set<MethodFlow> expected = createSummaries(methodSignature).getAllFlows();
+		assertFalse(expected.isEmpty());
+
+		maxThreadNum = Math.max(4, Runtime.getRuntime().availableProcessors());
+		for (int run = 0; run < 5; run++)
+			assertEquals(expected, createSummaries(methodSignature).getAllFlows());
+	}
+
+	@Test(timeout = 300000)
+	public void multipleReturnsTest() {
+		// The parameter reaches two of the three return statements
+		checkSameFlows("<" + API_CLASS
+				+ ": soot.jimple.infoflow.test.methodSummary.Data standardFlow4(int,java.lang.Object)>");
+	}
+
+	@Test(timeout = 300000)
+	public void multipleStaticReturnsTest() {
+		checkSameFlows("<" + API_CLASS
+				+ ": soot.jimple.infoflow.test.methodSummary.Data staticStandardFlow2(int,java.lang.Object)>");
+	}
+
+	@Test(timeout = 300000)
+	public void branchingReturnsTest() {
+		checkSameFlows(
+				"<" + API_CLASS + ": soot.jimple.infoflow.test.methodSummary.Data standardFlow7("
+						+ "soot.jimple.infoflow.test.methodSummary.Data)>");
+	}
+
+	@Test(timeout = 300000)
+	public void fieldsAndReturnTest() {
+		// Flows into fields and into the return value
+		checkSameFlows("<" + API_CLASS + ": soot.jimple.infoflow.test.methodSummary.Data paraToStaticVar2(int,"
+				+ "java.lang.Object)>");
+		checkSameFlows("<" + API_CLASS + ": soot.jimple.infoflow.test.methodSummary.Data mixedFlow1(int,"
+				+ "soot.jimple.infoflow.test.methodSummary.Data)>");
+	}
+
+}
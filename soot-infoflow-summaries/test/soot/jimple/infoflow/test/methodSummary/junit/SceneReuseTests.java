@@ -0,0 +1,59 @@
+package soot.jimple.infoflow.test.methodSummary.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import soot.Scene;
+import soot.jimple.infoflow.methodSummary.data.summary.ClassSummaries;
+import soot.jimple.infoflow.methodSummary.data.summary.MethodSummaries;
+import soot.jimple.infoflow.methodSummary.generator.SummaryGenerator;
+
+/**
+ * Tests that re-using the Soot scene across methods does not change the
+ * generated summaries
+ *
+ */
+public class SceneReuseTests extends TestHelper {
+
+	private static final List<String> CLASSES = Arrays.asList("soot.jimple.infoflow.test.methodSummary.ParaToReturn",
+			"soot.jimple.infoflow.test.methodSummary.ParaToField", "soot.jimple.infoflow.test.methodSummary.FieldToPara");
+
+	private ClassSummaries createSummaries(boolean reuseSootScene) {
+		SummaryGenerator sg = getSummary();
+		sg.getConfig().setReuseSootScene(reuseSootScene);
+
+		// We want to compare the summaries of every single method on its own
+		sg.getConfig().setApplySummariesOnTheFly(false);
+		return sg.createMethodSummaries(getExistingClasspath(), CLASSES);
+	}
+
+	@Test(timeout = 600000)
+	public void sameSummariesTest() {
+		ClassSummaries fresh = createSummaries(false);
+		ClassSummaries reused = createSummaries(true);
+
+		// Only the classes of the last method may still be application classes
+		int applicationClasses = 0;
+		for (String className : CLASSES)
+			if (Scene.v().getSootClass(className).isApplicationClass())
+				applicationClasses++;
+		assertEquals(1, applicationClasses);
+
+		for (String className : CLASSES) {
+			MethodSummaries freshSummaries = fresh.getMethodSummaries(className);
+			MethodSummaries reusedSummaries = reused.getMethodSummaries(className);
+			assertNotNull(freshSummaries);
+			assertNotNull(reusedSummaries);
+			assertFalse(freshSummaries.getAllFlows().isEmpty());
+			assertEquals(freshSummaries.getAllFlows(), reusedSummaries.getAllFlows());
+			assertEquals(freshSummaries.getAllClears(), reusedSummaries.getAllClears());
+		}
+	}
+
+}
@@ -0,0 +1,158 @@
+package soot.jimple.infoflow.test.methodSummary.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import soot.jimple.infoflow.methodSummary.data.provider.IMethodSummaryProvider;
+import soot.jimple.infoflow.methodSummary.data.provider.MergingSummaryProvider;
+import soot.jimple.infoflow.methodSummary.data.provider.SnapshotSummaryProvider;
+import soot.jimple.infoflow.methodSummary.data.sourceSink.FlowSink;
+import soot.jimple.infoflow.methodSummary.data.sourceSink.FlowSource;
+import soot.jimple.infoflow.methodSummary.data.summary.ClassMethodSummaries;
+import soot.jimple.infoflow.methodSummary.data.summary.ClassSummaries;
+import soot.jimple.infoflow.methodSummary.data.summary.MethodFlow;
+import soot.jimple.infoflow.methodSummary.data.summary.MethodSummaries;
+import soot.jimple.infoflow.methodSummary.data.summary.SourceSinkType;
+import soot.jimple.infoflow.methodSummary.data.summary.SummaryMetaData;
+
+/**
+ * Tests for the copy-on-write summary provider that is used for applying
+ * summaries on the fly
+ *
+ */
+public class SnapshotSummaryProviderTests {
+
+	private static final String OBJECT_TYPE = "java.lang.Object";
+
+	private static ClassMethodSummaries createSummaries(String className, String methodName) {
+		String subsig = "java.lang.Object " + methodName + "(java.lang.Object)";
+		MethodSummaries summaries = new MethodSummaries();
+		summaries.addFlow(new MethodFlow(subsig, new FlowSource(SourceSinkType.Parameter, 0, OBJECT_TYPE),
+				new FlowSink(SourceSinkType.Return, -1, OBJECT_TYPE, false), false, null, null));
+		return new ClassMethodSummaries(className, summaries);
+	}
+
+	@Test
+	public void pinnedSnapshotTest() {
+		SnapshotSummaryProvider provider = new SnapshotSummaryProvider();
+		provider.addSummary(createSummaries("com.example.A", "foo"));
+		IMethodSummaryProvider snapshot = provider.getSnapshot();
+		IMethodSummaryProvider merged = new MergingSummaryProvider(
+				Collections.<IMethodSummaryProvider>singletonList(provider)).getSnapshot();
+
+		provider.addSummary(createSummaries("com.example.A", "bar"));
+		provider.addSummary(createSummaries("com.example.B", "foo"));
+
+		// The live provider sees all summaries
+		assertEquals(3, provider.getModificationCount());
+		assertNotNull(provider.getMethodFlows("com.example.A", "java.lang.Object bar(java.lang.Object)"));
+		assertTrue(provider.supportsClass("com.example.B"));
+
+		// The snapshots only see the summaries that were there when they were taken
+		for (IMethodSummaryProvider pinned : new IMethodSummaryProvider[] { snapshot, merged }) {
+			assertEquals(1, pinned.getModificationCount());
+			assertEquals(1, pinned.getClassFlows("com.example.A").getMethodSummaries().getFlowCount());
+			assertNull(pinned.getMethodFlows("com.example.A", "java.lang.Object bar(java.lang.Object)"));
+			assertFalse(pinned.supportsClass("com.example.B"));
+		}
+	}
+
+	@Test
+	public void sharedClassesTest() {
+		SnapshotSummaryProvider provider = new SnapshotSummaryProvider();
+		provider.addSummary(createSummaries("com.example.A", "foo"));
+		ClassMethodSummaries classA = provider.getClassFlows("com.example.A");
+
+		// Adding another class must not copy the existing one
+		provider.addSummary(createSummaries("com.example.B", "foo"));
+		assertSame(classA, provider.getClassFlows("com.example.A"));
+	}
+
+	@Test
+	public void metaDataTest() {
+		ClassSummaries initial = new ClassSummaries();
+		initial.merge(createSummaries("com.example.A", "foo"));
+		SummaryMetaData metaData = new SummaryMetaData();
+		metaData.getExclusiveClasses().add("com.example.A");
+		initial.setMetaData(metaData);
+
+		SnapshotSummaryProvider provider = new SnapshotSummaryProvider(initial);
+		provider.addSummary(createSummaries("com.example.B", "foo"));
+		assertSame(metaData, provider.getSummaries().getMetaData());
+		assertEquals(2, provider.getSummaries().getClasses().size());
+	}
+
+	@Test
+	public void immutableSnapshotTest() {
+		SnapshotSummaryProvider provider = new SnapshotSummaryProvider();
+		provider.addSummary(createSummaries("com.example.A", "foo"));
+
+		// Neither the summaries of a single class nor all summaries can be modified
+		final ClassMethodSummaries classA = provider.getClassFlows("com.example.A");
+		assertImmutable(() -> classA.merge(createSummaries("com.example.A", "bar")));
+		assertImmutable(() -> classA.getMethodSummaries().merge(createSummaries("com.example.A", "bar")
+				.getMethodSummaries()));
+		assertImmutable(() -> classA.addInterface("com.example.I"));
+		final ClassSummaries all = provider.getSummaries();
+		assertImmutable(() -> all.merge(createSummaries("com.example.B", "foo")));
+		assertImmutable(() -> all.getOrCreateClassSummaries("com.example.B"));
+
+		assertEquals(1, provider.getClassFlows("com.example.A").getMethodSummaries().getFlowCount());
+		assertFalse(provider.supportsClass("com.example.B"));
+
+		// Clients can still merge the summaries into their own objects
+		ClassMethodSummaries copy = new ClassMethodSummaries("com.example.A");
+		copy.merge(classA);
+		copy.merge(createSummaries("com.example.A", "bar"));
+		assertEquals(2, copy.getMethodSummaries().getFlowCount());
+		assertEquals(1, provider.getClassFlows("com.example.A").getMethodSummaries().getFlowCount());
+	}
+
+	private static void assertImmutable(Runnable modification) {
+		try {
+			modification.run();
+			fail("Modification of an immutable snapshot succeeded");
+		} catch (RuntimeException e) {
+			// expected
+		}
+	}
+
+	@Test(timeout = 60000)
+	public void concurrentAdditionTest() throws InterruptedException {
+		final SnapshotSummaryProvider provider = new SnapshotSummaryProvider();
+		final int threadCount = 8;
+		final int methodCount = 100;
+		List<Thread> threads = new ArrayList<>();
+		for (int t = 0; t < threadCount; t++) {
+			final int threadId = t;
+			Thread thread = new Thread() {
+
+				@Override
+				public void run() {
+					for (int i = 0; i < methodCount; i++)
+						provider.addSummary(createSummaries("com.example.C" + (i % 10), "m" + threadId + "_" + i));
+				}
+
+			};
+			threads.add(thread);
+			thread.start();
+		}
+		for (Thread thread : threads)
+			thread.join();
+
+		assertEquals(threadCount * methodCount, provider.getModificationCount());
+		assertEquals(threadCount * methodCount, provider.getSummaries().getAllFlows().size());
+	}
+
+}
@@ -0,0 +1,76 @@
+package soot.jimple.infoflow.test.methodSummary.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.FileNotFoundException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.junit.Test;
+
+import soot.jimple.infoflow.Infoflow;
+import soot.jimple.infoflow.entryPointCreators.DefaultEntryPointCreator;
+import soot.jimple.infoflow.methodSummary.taintWrappers.SummaryApplicationCache;
+import soot.jimple.infoflow.methodSummary.taintWrappers.SummaryTaintWrapper;
+import soot.jimple.infoflow.test.junit.JUnitTests;
+
+/**
+ * Runs the tests for the summary taint wrapper without the cache for summary
+ * applications, and checks that the cache does not change the results
+ *
+ */
+public class SummaryApplicationCacheTests extends SummaryTaintWrapperTests {
+
+	private static final List<String> ENTRY_POINTS = Arrays.asList(
+			"<soot.jimple.infoflow.test.methodSummary.ApiClassClient: void paraFieldFieldReturnFlow()>",
+			"<soot.jimple.infoflow.test.methodSummary.ApiClassClient: void paraFieldSwapFieldReturnFlow()>",
+			"<soot.jimple.infoflow.test.methodSummary.ApiClassClient: void paraReturnFlow()>",
+			"<soot.jimple.infoflow.test.methodSummary.ApiClassClient: void flow1()>",
+			"<soot.jimple.infoflow.test.methodSummary.ApiClassClient: void gapFlow1()>",
+			"<soot.jimple.infoflow.test.methodSummary.ApiClassClient: void gapFlowUserCode1()>",
+			"<soot.jimple.infoflow.test.methodSummary.ApiClassClient: void gapFlowUserCode2()>",
+			"<soot.jimple.infoflow.test.methodSummary.ApiClassClient: void killTaint1()>",
+			"<soot.jimple.infoflow.test.methodSummary.ApiClassClient: void killTaint2()>");
+
+	private int cacheSize = 0;
+	private SummaryTaintWrapper lastWrapper = null;
+
+	@Override
+	protected Infoflow initInfoflow() throws FileNotFoundException, XMLStreamException {
+		Infoflow result = super.initInfoflow();
+		lastWrapper = (SummaryTaintWrapper) result.getTaintWrapper();
+		lastWrapper.setApplicationCacheSize(cacheSize);
+		return result;
+	}
+
+	private Set<String> computeFlows(int cacheSize) throws FileNotFoundException, XMLStreamException {
+		soot.G.reset();
+		this.cacheSize = cacheSize;
+		Infoflow infoflow = initInfoflow();
+		infoflow.getConfig().getAccessPathConfiguration().setAccessPathLength(3);
+		infoflow.computeInfoflow(appPath, libPath, new DefaultEntryPointCreator(ENTRY_POINTS), Arrays.asList(source),
+				Arrays.asList(sink));
+		return JUnitTests.getFlows(infoflow, false);
+	}
+
+	@Test(timeout = 300000)
+	public void sameFlowsTest() throws FileNotFoundException, XMLStreamException {
+		Set<String> expected = computeFlows(0);
+		assertFalse(expected.isEmpty());
+		assertEquals(0, lastWrapper.getApplicationCacheHits());
+
+		// The same taint flows into the same summarized method from several call
+		// sites, so we must see cache hits. The flows through user code in
+		// gapFlowUserCode2() can only be found if they were not cached at the first
+		// call site.
+		Set<String> cached = computeFlows(SummaryApplicationCache.DEFAULT_MAXIMUM_SIZE);
+		assertTrue(lastWrapper.getApplicationCacheHits() > 0);
+		assertEquals(expected, cached);
+	}
+
+}
@@ -0,0 +1,73 @@
+package soot.jimple.infoflow.test.methodSummary.junit;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+import soot.jimple.infoflow.methodSummary.data.sourceSink.FlowSink;
+import soot.jimple.infoflow.methodSummary.data.sourceSink.FlowSource;
+import soot.jimple.infoflow.methodSummary.data.summary.MethodFlow;
+import soot.jimple.infoflow.methodSummary.data.summary.MethodSummaries;
+import soot.jimple.infoflow.methodSummary.data.summary.SourceSinkType;
+import soot.jimple.infoflow.methodSummary.taintWrappers.AccessPathFragment;
+import soot.jimple.infoflow.methodSummary.taintWrappers.FlowIndex;
+import soot.jimple.infoflow.methodSummary.taintWrappers.SummaryBinder;
+
+/**
+ * Tests for caching the flow indices in the summary binder
+ *
+ */
+public class SummaryBinderTests {
+
+	private static final String METHOD_SUBSIG = "java.lang.Object bar(java.lang.Object)";
+	private static final String SUMMARY_KEY = "com.example.Foo: " + METHOD_SUBSIG;
+	private static final String OBJECT_TYPE = "java.lang.Object";
+
+	private static MethodSummaries createSummaries() {
+		MethodSummaries summaries = new MethodSummaries();
+		summaries.addFlow(new MethodFlow(METHOD_SUBSIG, new FlowSource(SourceSinkType.Parameter, 0, OBJECT_TYPE),
+				new FlowSink(SourceSinkType.Return, -1, OBJECT_TYPE, false), false, null, null));
+		summaries.addFlow(new MethodFlow(METHOD_SUBSIG, new FlowSource(SourceSinkType.Parameter, 0, OBJECT_TYPE),
+				new FlowSink(SourceSinkType.Field, -1, OBJECT_TYPE,
+						new AccessPathFragment(new String[] { "<com.example.Foo: java.lang.Object a>" },
+								new String[] { OBJECT_TYPE }),
+						false),
+				true, null, null));
+		return summaries;
+	}
+
+	@Test
+	public void indexReusedForCopiedSummariesTest() {
+		// The summary provider hands out a new copy of the summaries for every query
+		MethodSummaries summaries = createSummaries();
+		SummaryBinder binder = new SummaryBinder();
+		binder.validate(1);
+		FlowIndex index = binder.getFlowIndex(SUMMARY_KEY, summaries.filterForMethod(METHOD_SUBSIG));
+		assertSame(index, binder.getFlowIndex(SUMMARY_KEY, summaries.filterForMethod(METHOD_SUBSIG)));
+
+		// The same holds for the reversed summaries
+		FlowIndex reverseIndex = binder.getFlowIndex("reverse " + SUMMARY_KEY, summaries.reverse());
+		assertNotSame(index, reverseIndex);
+		assertSame(reverseIndex, binder.getFlowIndex("reverse " + SUMMARY_KEY, summaries.reverse()));
+
+		// Summaries without a key are never cached
+		assertNotSame(binder.getFlowIndex(null, summaries), binder.getFlowIndex(null, summaries));
+	}
+
+	@Test
+	public void indexDiscardedOnModificationTest() {
+		MethodSummaries summaries = createSummaries();
+		SummaryBinder binder = new SummaryBinder();
+		binder.validate(1);
+		FlowIndex index = binder.getFlowIndex(SUMMARY_KEY, summaries);
+
+		binder.validate(1);
+		assertSame(index, binder.getFlowIndex(SUMMARY_KEY, summaries));
+
+		// The provider has received new summaries
+		binder.validate(2);
+		assertNotSame(index, binder.getFlowIndex(SUMMARY_KEY, summaries));
+	}
+
+}
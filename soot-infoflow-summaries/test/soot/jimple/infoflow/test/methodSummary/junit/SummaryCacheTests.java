@@ -0,0 +1,77 @@
+package soot.jimple.infoflow.test.methodSummary.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import soot.jimple.infoflow.methodSummary.data.summary.ClassSummaries;
+import soot.jimple.infoflow.methodSummary.generator.SummaryGenerationCache;
+import soot.jimple.infoflow.methodSummary.generator.SummaryGenerator;
+
+/**
+ * Tests that the summary cache is invalidated whenever the configuration or
+ * the summaries used during generation change
+ *
+ */
+public class SummaryCacheTests extends TestHelper {
+
+	private static final List<String> CLASSES = Collections
+			.singletonList("soot.jimple.infoflow.test.methodSummary.ParaToField");
+
+	private File cacheDir;
+	private File summaryDir;
+
+	@Before
+	public void createDirectories() throws IOException {
+		cacheDir = Files.createTempDirectory("summaryCache").toFile();
+		summaryDir = Files.createTempDirectory("additionalSummaries").toFile();
+	}
+
+	private SummaryGenerationCache createSummaries(int accessPathLength) {
+		SummaryGenerator sg = getSummary();
+		sg.getConfig().setSummaryCacheDirectory(cacheDir.getAbsolutePath());
+		sg.getConfig().addAdditionalSummaryDirectory(summaryDir.getAbsolutePath());
+		sg.getConfig().getAccessPathConfiguration().setAccessPathLength(accessPathLength);
+
+		ClassSummaries summaries = sg.createMethodSummaries(getExistingClasspath(), CLASSES);
+		assertNotNull(summaries.getMethodSummaries(CLASSES.get(0)));
+		return sg.getSummaryCache();
+	}
+
+	@Test(timeout = 600000)
+	public void cacheInvalidationTest() throws IOException {
+		SummaryGenerationCache cache = createSummaries(5);
+		assertEquals(0, cache.getHits());
+		int methodCount = cache.getMisses();
+		assertTrue(methodCount > 0);
+
+		// Nothing has changed
+		cache = createSummaries(5);
+		assertEquals(methodCount, cache.getHits());
+		assertEquals(0, cache.getMisses());
+
+		// The summaries used during generation have changed
+		Files.write(new File(summaryDir, "com.example.Unused.xml").toPath(),
+				"<?xml version=\"1.0\" ?><summary fileFormatVersion=\"101\"><methods></methods></summary>"
+						.getBytes(StandardCharsets.UTF_8));
+		cache = createSummaries(5);
+		assertEquals(0, cache.getHits());
+
+		// The configuration has changed
+		cache = createSummaries(3);
+		assertEquals(0, cache.getHits());
+		cache = createSummaries(3);
+		assertEquals(methodCount, cache.getHits());
+	}
+
+}
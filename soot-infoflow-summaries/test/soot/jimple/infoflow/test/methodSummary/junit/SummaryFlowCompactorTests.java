@@ -0,0 +1,226 @@
+package soot.jimple.infoflow.test.methodSummary.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+import soot.jimple.infoflow.methodSummary.data.sourceSink.FlowSink;
+import soot.jimple.infoflow.methodSummary.data.sourceSink.FlowSource;
+import soot.jimple.infoflow.methodSummary.data.summary.GapDefinition;
+import soot.jimple.infoflow.methodSummary.data.summary.MethodFlow;
+import soot.jimple.infoflow.methodSummary.data.summary.MethodSummaries;
+import soot.jimple.infoflow.methodSummary.data.summary.SourceSinkType;
+import soot.jimple.infoflow.methodSummary.postProcessor.SummaryFlowCompactor;
+import soot.jimple.infoflow.methodSummary.taintWrappers.AccessPathFragment;
+
+/**
+ * Tests for the indexed summary flow compactor. The results are compared to
+ * the original fixed-point algorithm that compares all pairs of flows.
+ *
+ */
+public class SummaryFlowCompactorTests {
+
+	private static final String METHOD_SIG = "<com.example.Foo: java.lang.Object bar(java.lang.Object,java.lang.Object)>";
+	private static final String[] FIELDS = { "<com.example.Foo: java.lang.Object a>",
+			"<com.example.Foo: java.lang.Object b>", "<com.example.Foo: java.lang.Object c>" };
+	private static final String OBJECT_TYPE = "java.lang.Object";
+
+	/**
+	 * Creates a random set of flows for a single method. Calling this method twice
+	 * with the same seed yields two equal, but independent flow sets.
+	 *
+	 * @param seed The seed for the random number generator
+	 * @return The random flow set
+	 */
+	private static MethodSummaries createRandomSummaries(long seed) {
+		Random rnd = new Random(seed);
+		MethodSummaries summaries = new MethodSummaries();
+		GapDefinition[] gaps = new GapDefinition[2];
+		for (int i = 0; i < gaps.length; i++)
+			gaps[i] = summaries.getOrCreateGap(i, "<com.example.Callee: void gap" + i + "()>");
+
+		int numFlows = 10 + rnd.nextInt(40);
+		for (int i = 0; i < numFlows; i++) {
+			int sourceParam = rnd.nextInt(2);
+			GapDefinition sourceGap = rnd.nextInt(5) == 0 ? gaps[rnd.nextInt(gaps.length)] : null;
+			FlowSource source = new FlowSource(SourceSinkType.Parameter, sourceParam, OBJECT_TYPE,
+					randomAccessPath(rnd), sourceGap);
+
+			FlowSink sink;
+			boolean taintSubFields = rnd.nextBoolean();
+			GapDefinition sinkGap = rnd.nextInt(5) == 0 ? gaps[rnd.nextInt(gaps.length)] : null;
+			if (rnd.nextBoolean())
+				sink = new FlowSink(SourceSinkType.Return, -1, OBJECT_TYPE, randomAccessPath(rnd), taintSubFields,
+						sinkGap);
+			else
+				sink = new FlowSink(SourceSinkType.Parameter, rnd.nextInt(2), OBJECT_TYPE, randomAccessPath(rnd),
+						taintSubFields, sinkGap);
+
+			summaries.addFlow(new MethodFlow(METHOD_SIG, source, sink, rnd.nextInt(4) == 0, null, null));
+		}
+		return summaries;
+	}
+
+	private static AccessPathFragment randomAccessPath(Random rnd) {
+		int length = rnd.nextInt(4) - 1;
+		if (length < 0)
+			return null;
+		String[] fields = new String[length];
+		String[] types = new String[length];
+		for (int i = 0; i < length; i++) {
+			fields[i] = FIELDS[rnd.nextInt(FIELDS.length)];
+			types[i] = OBJECT_TYPE;
+		}
+		return new AccessPathFragment(fields, types);
+	}
+
+	@Test
+	public void randomEquivalenceTest() {
+		for (long seed = 0; seed < 500; seed++) {
+			MethodSummaries expected = createRandomSummaries(seed);
+			MethodSummaries actual = createRandomSummaries(seed);
+			assertEquals(expected.getAllFlows(), actual.getAllFlows());
+
+			new FixedPointCompactor(expected).compact();
+			new SummaryFlowCompactor(actual).compact();
+
+			assertEquals("Seed " + seed, expected.getAllFlows(), actual.getAllFlows());
+			assertEquals("Seed " + seed, new HashSet<>(expected.getAllGaps()), new HashSet<>(actual.getAllGaps()));
+		}
+	}
+
+	@Test
+	public void coarserFlowRemovedTest() {
+		MethodSummaries summaries = new MethodSummaries();
+		FlowSource source = new FlowSource(SourceSinkType.Parameter, 0, OBJECT_TYPE);
+		MethodFlow coarseFlow = new MethodFlow(METHOD_SIG, source, new FlowSink(SourceSinkType.Return, -1,
+				OBJECT_TYPE, new AccessPathFragment(new String[] { FIELDS[0] }, new String[] { OBJECT_TYPE }), true),
+				false, null, null);
+		MethodFlow preciseFlow = new MethodFlow(METHOD_SIG, source,
+				new FlowSink(SourceSinkType.Return, -1, OBJECT_TYPE, new AccessPathFragment(
+						new String[] { FIELDS[0], FIELDS[1] }, new String[] { OBJECT_TYPE, OBJECT_TYPE }), true),
+				false, null, null);
+		summaries.addFlow(coarseFlow);
+		summaries.addFlow(preciseFlow);
+
+		new SummaryFlowCompactor(summaries).compact(4);
+		assertEquals(1, summaries.getFlowCount());
+		assertTrue(summaries.getAllFlows().contains(preciseFlow));
+	}
+
+	/**
+	 * The original compaction algorithm that compares all pairs of flows until
+	 * it reaches a fixed point
+	 */
+	private static class FixedPointCompactor {
+
+		private final MethodSummaries summaries;
+
+		private FixedPointCompactor(MethodSummaries summaries) {
+			this.summaries = summaries;
+		}
+
+		private void compact() {
+			compactFlowSet();
+			removeDuplicateFlows();
+			compactGaps();
+		}
+
+		private void compactFlowSet() {
+			boolean hasChanged = false;
+			do {
+				hasChanged = false;
+				for (Iterator<MethodFlow> flowIt = summaries.iterator(); flowIt.hasNext();) {
+					MethodFlow flow = flowIt.next();
+
+					// Check if there is a more precise flow
+					for (MethodFlow flow2 : summaries)
+						if (flow != flow2 && flow.isCoarserThan(flow2)) {
+							flowIt.remove();
+							hasChanged = true;
+							break;
+						}
+
+					if (hasChanged)
+						break;
+				}
+			} while (hasChanged);
+		}
+
+		private void compactGaps() {
+			if (!summaries.hasGaps())
+				return;
+
+			for (GapDefinition gd : new ArrayList<>(summaries.getAllGaps())) {
+				if (summaries.getOutFlowsForGap(gd).isEmpty()) {
+					summaries.removeAll(summaries.getInFlowsForGap(gd));
+					summaries.removeGap(gd);
+				}
+			}
+
+			Set<GapDefinition> gaps = new HashSet<GapDefinition>(summaries.getAllGaps());
+			for (GapDefinition gd : gaps) {
+				boolean gapIsUsed = false;
+				for (MethodFlow flow : summaries.getAllFlows())
+					if (flow.source().getGap() == gd || flow.sink().getGap() == gd) {
+						gapIsUsed = true;
+						break;
+					}
+				if (!gapIsUsed)
+					summaries.removeGap(gd);
+			}
+		}
+
+		private void removeDuplicateFlows() {
+			outer: for (Iterator<MethodFlow> flowIt = summaries.iterator(); flowIt.hasNext();) {
+				MethodFlow curFlow = flowIt.next();
+
+				// Check for the same flow in reverse
+				for (MethodFlow compFlow : summaries) {
+					if (curFlow != compFlow && compFlow.isAlias() && curFlow.isAlias()) {
+						if (curFlow.reverse().equals(compFlow)) {
+							if (curFlow.source().getGap() == null && curFlow.sink().getGap() != null)
+								continue;
+							if (curFlow.source().getGap() == null && curFlow.sink().getGap() == null
+									&& compare(curFlow.source().getAccessPath(), compFlow.source().getAccessPath()) > 0)
+								continue;
+
+							flowIt.remove();
+							continue outer;
+						}
+					}
+				}
+			}
+		}
+
+		private int compare(AccessPathFragment accessPath, AccessPathFragment accessPath2) {
+			if (accessPath == null && accessPath2 == null)
+				return 0;
+			if (accessPath == null)
+				return -1;
+			if (accessPath2 == null)
+				return 1;
+			String[] fields1 = accessPath.getFields();
+			String[] fields2 = accessPath2.getFields();
+			if (fields1 == fields2)
+				return 0;
+			if (fields1 == null)
+				return -1;
+			if (fields2 == null)
+				return 1;
+			if (fields1.length > fields2.length)
+				return -1;
+			return Arrays.toString(fields1).compareTo(Arrays.toString(fields2));
+		}
+
+	}
+
+}
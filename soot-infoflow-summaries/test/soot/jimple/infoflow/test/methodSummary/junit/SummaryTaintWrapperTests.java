@@ -34,13 +34,13 @@ import soot.jimple.infoflow.taintWrappers.ITaintPropagationWrapper;
 import soot.options.Options;
 
 public class SummaryTaintWrapperTests {
-	private static String appPath, libPath;
+	protected static String appPath, libPath;
 
-	private String[] source = new String[] {
+	protected String[] source = new String[] {
 			"<soot.jimple.infoflow.test.methodSummary.ApiClassClient: java.lang.Object source()>",
 			"<soot.jimple.infoflow.test.methodSummary.ApiClassClient: int intSource()>",
 			"<soot.jimple.infoflow.test.methodSummary.ApiClassClient: java.lang.String stringSource()>" };
-	private String sink = "<soot.jimple.infoflow.test.methodSummary.ApiClassClient: void sink(java.lang.Object)>";
+	protected String sink = "<soot.jimple.infoflow.test.methodSummary.ApiClassClient: void sink(java.lang.Object)>";
 	private ITaintPropagationWrapper summaryWrapper;
 
 	@Before
@@ -146,6 +146,11 @@ public class SummaryTaintWrapperTests {
 		testFlowForMethod("<soot.jimple.infoflow.test.methodSummary.ApiClassClient: void gapFlowUserCode1()>");
 	}
 
+	@Test(timeout = 30000)
+	public void gapFlowUserCode2() {
+		testFlowForMethod("<soot.jimple.infoflow.test.methodSummary.ApiClassClient: void gapFlowUserCode2()>");
+	}
+
 	@Test(timeout = 30000)
 	public void transferStringThroughDataClass1() {
 		testFlowForMethod(
@@ -229,6 +229,24 @@ public abstract class TestHelper {
 		return appPath + System.getProperty("path.separator") + libPath;
 	}
 
+	/**
+	 * Gets the classpath to use for creating summaries, without the entries that do
+	 * not exist. Loading whole classes fails on such entries.
+	 * 
+	 * @return The classpath to use for creating summaries for whole classes
+	 */
+	protected String getExistingClasspath() {
+		StringBuilder sb = new StringBuilder();
+		for (String entry : getClasspath().split(File.pathSeparator)) {
+			if (new File(entry).exists()) {
+				if (sb.length() > 0)
+					sb.append(File.pathSeparator);
+				sb.append(entry);
+			}
+		}
+		return sb.toString();
+	}
+
 	/**
 	 * Creates a full summary for the given method
 	 * 
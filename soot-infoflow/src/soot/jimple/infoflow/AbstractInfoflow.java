@@ -187,7 +187,38 @@ public abstract class AbstractInfoflow implements IInfoflow {
 		// reset Soot:
 		logger.info("Resetting Soot...");
 		soot.G.reset();
+		setSootOptions(appPath, libPath, extraSeed);
 
+		// load all entryPoint classes with their bodies
+		for (String className : classes)
+			Scene.v().addBasicClass(className, SootClass.BODIES);
+		Scene.v().loadNecessaryClasses();
+		logger.info("Basic class loading done.");
+
+		boolean hasClasses = false;
+		for (String className : classes) {
+			SootClass c = Scene.v().forceResolve(className, SootClass.BODIES);
+			if (c != null) {
+				c.setApplicationClass();
+				if (!c.isPhantomClass() && !c.isPhantom())
+					hasClasses = true;
+			}
+		}
+		if (!hasClasses) {
+			logger.error("Only phantom classes loaded, skipping analysis...");
+			return;
+		}
+	}
+
+	/**
+	 * Configures the Soot options for the data flow analysis
+	 * 
+	 * @param appPath   The application path containing the analysis client
+	 * @param libPath   The Soot classpath containing the libraries
+	 * @param extraSeed The extra seed for the analysis, or an empty string if
+	 *                  there is none
+	 */
+	protected void setSootOptions(String appPath, String libPath, String extraSeed) {
 		Options.v().set_no_bodies_for_excluded(true);
 		Options.v().set_allow_phantom_refs(true);
 		if (config.getWriteOutputFiles())
@@ -264,26 +295,6 @@ public abstract class AbstractInfoflow implements IInfoflow {
 		// at the end of setting: load user settings:
 		if (sootConfig != null)
 			sootConfig.setSootOptions(Options.v(), config);
-
-		// load all entryPoint classes with their bodies
-		for (String className : classes)
-			Scene.v().addBasicClass(className, SootClass.BODIES);
-		Scene.v().loadNecessaryClasses();
-		logger.info("Basic class loading done.");
-
-		boolean hasClasses = false;
-		for (String className : classes) {
-			SootClass c = Scene.v().forceResolve(className, SootClass.BODIES);
-			if (c != null) {
-				c.setApplicationClass();
-				if (!c.isPhantomClass() && !c.isPhantom())
-					hasClasses = true;
-			}
-		}
-		if (!hasClasses) {
-			logger.error("Only phantom classes loaded, skipping analysis...");
-			return;
-		}
 	}
 
 	protected void setSourcePrec() {
@@ -37,6 +37,7 @@ import soot.jimple.infoflow.InfoflowConfiguration.CallgraphAlgorithm;
 import soot.jimple.infoflow.InfoflowConfiguration.CodeEliminationMode;
 import soot.jimple.infoflow.InfoflowConfiguration.DataFlowSolver;
 import soot.jimple.infoflow.InfoflowConfiguration.PathConfiguration;
+import soot.jimple.infoflow.InfoflowConfiguration.SchedulingStrategy;
 import soot.jimple.infoflow.InfoflowConfiguration.SolverConfiguration;
 import soot.jimple.infoflow.InfoflowConfiguration.StaticFieldTrackingMode;
 import soot.jimple.infoflow.aliasing.Aliasing;
@@ -46,6 +47,8 @@ import soot.jimple.infoflow.aliasing.LazyAliasingStrategy;
 import soot.jimple.infoflow.aliasing.NullAliasStrategy;
 import soot.jimple.infoflow.aliasing.PtsBasedAliasStrategy;
 import soot.jimple.infoflow.cfg.BiDirICFGFactory;
+import soot.jimple.infoflow.cfg.MethodSideEffectSummaries;
+import soot.jimple.infoflow.cfg.SinkDistances;
 import soot.jimple.infoflow.codeOptimization.DeadCodeEliminator;
 import soot.jimple.infoflow.codeOptimization.ICodeOptimizer;
 import soot.jimple.infoflow.data.Abstraction;
@@ -53,9 +56,11 @@ import soot.jimple.infoflow.data.AbstractionAtSink;
 import soot.jimple.infoflow.data.AccessPathFactory;
 import soot.jimple.infoflow.data.FlowDroidMemoryManager.PathDataErasureMode;
 import soot.jimple.infoflow.data.pathBuilders.BatchPathBuilder;
+import soot.jimple.infoflow.data.pathBuilders.ConcurrentAbstractionPathBuilder;
 import soot.jimple.infoflow.data.pathBuilders.DefaultPathBuilderFactory;
 import soot.jimple.infoflow.data.pathBuilders.IAbstractionPathBuilder;
 import soot.jimple.infoflow.data.pathBuilders.IAbstractionPathBuilder.OnPathBuilderResultAvailable;
+import soot.jimple.infoflow.data.pathBuilders.StreamingPathBuilder;
 import soot.jimple.infoflow.entryPointCreators.IEntryPointCreator;
 import soot.jimple.infoflow.globalTaints.GlobalTaintManager;
 import soot.jimple.infoflow.handlers.PostAnalysisHandler;
@@ -84,12 +89,15 @@ import soot.jimple.infoflow.solver.IInfoflowSolver;
 import soot.jimple.infoflow.solver.PredecessorShorteningMode;
 import soot.jimple.infoflow.solver.SolverPeerGroup;
 import soot.jimple.infoflow.solver.cfg.BackwardsInfoflowCFG;
+import soot.jimple.infoflow.solver.cfg.FrozenInfoflowCFG;
 import soot.jimple.infoflow.solver.cfg.IInfoflowCFG;
+import soot.jimple.infoflow.solver.cfg.InfoflowCFG;
 import soot.jimple.infoflow.solver.executors.InterruptableExecutor;
 import soot.jimple.infoflow.solver.gcSolver.GCSolverPeerGroup;
 import soot.jimple.infoflow.solver.memory.DefaultMemoryManagerFactory;
 import soot.jimple.infoflow.solver.memory.IMemoryManager;
 import soot.jimple.infoflow.solver.memory.IMemoryManagerFactory;
+import soot.jimple.infoflow.solver.sparseSolver.SparseInfoflowSolver;
 import soot.jimple.infoflow.sourcesSinks.manager.IOneSourceAtATimeManager;
 import soot.jimple.infoflow.sourcesSinks.manager.ISourceSinkManager;
 import soot.jimple.infoflow.threading.DefaultExecutorFactory;
@@ -131,6 +139,8 @@ public class Infoflow extends AbstractInfoflow {
 
 	protected SolverPeerGroup solverPeerGroup;
 
+	protected MethodSideEffectSummaries sideEffectSummaries = null;
+
 	/**
 	 * Creates a new instance of the InfoFlow class for analyzing plain Java code
 	 * without any references to APKs or the Android SDK.
@@ -276,6 +286,7 @@ public class Infoflow extends AbstractInfoflow {
 
 			// Build the callgraph
 			long beforeCallgraph = System.nanoTime();
+			sideEffectSummaries = null;
 			constructCallgraph();
 			performanceData
 					.setCallgraphConstructionSeconds((int) Math.round((System.nanoTime() - beforeCallgraph) / 1E9));
@@ -298,6 +309,9 @@ public class Infoflow extends AbstractInfoflow {
 			if (config.getEnableReflection()) {
 				releaseCallgraph();
 				constructCallgraph();
+
+				// The new callgraph may contain edges that our summaries do not know
+				sideEffectSummaries = null;
 			}
 
 			if (config.getCallgraphAlgorithm() != CallgraphAlgorithm.OnDemand)
@@ -314,6 +328,20 @@ public class Infoflow extends AbstractInfoflow {
 			IInfoflowCFG iCfg = icfgFactory.buildBiDirICFG(config.getCallgraphAlgorithm(),
 					config.getEnableExceptionTracking());
 
+			// Make sure that all phases share the same side-effect summaries
+			if (config.getCallgraphAlgorithm() != CallgraphAlgorithm.OnDemand) {
+				if (sideEffectSummaries == null) {
+					sideEffectSummaries = new MethodSideEffectSummaries();
+					sideEffectSummaries.compute();
+				}
+				if (iCfg instanceof InfoflowCFG)
+					((InfoflowCFG) iCfg).setSideEffectSummaries(sideEffectSummaries);
+
+				// Replace the ICFG with a compact copy for faster graph queries
+				if (config.getSolverConfiguration().getFrozenICFG() && iCfg instanceof InfoflowCFG)
+					iCfg = new FrozenInfoflowCFG((InfoflowCFG) iCfg);
+			}
+
 			// Check whether we need to run with one source at a time
 			IOneSourceAtATimeManager oneSourceAtATime = config.getOneSourceAtATime() && sourcesSinks != null
 					&& sourcesSinks instanceof IOneSourceAtATimeManager ? (IOneSourceAtATimeManager) sourcesSinks
@@ -353,6 +381,7 @@ public class Infoflow extends AbstractInfoflow {
 
 				// Initialize the data flow manager
 				manager = initializeInfoflowManager(sourcesSinks, iCfg, globalTaintManager);
+				manager.setSideEffectSummaries(sideEffectSummaries);
 
 				// Create the solver peer group
 				solverPeerGroup = new GCSolverPeerGroup();
@@ -426,8 +455,15 @@ public class Infoflow extends AbstractInfoflow {
 					int sinkCount = 0;
 					logger.info("Looking for sources and sinks...");
 
-					for (SootMethod sm : getMethodsForSeeds(iCfg))
-						sinkCount += scanMethodForSourcesSinks(sourcesSinks, forwardProblem, sm);
+					final boolean prioritizeBySink = config.getSolverConfiguration()
+							.getSchedulingStrategy() == SchedulingStrategy.SinkDistance;
+					Set<SootMethod> sinkMethods = prioritizeBySink ? new HashSet<>() : null;
+					for (SootMethod sm : getMethodsForSeeds(iCfg)) {
+						int methodSinkCount = scanMethodForSourcesSinks(sourcesSinks, forwardProblem, sm);
+						if (methodSinkCount > 0 && sinkMethods != null)
+							sinkMethods.add(sm);
+						sinkCount += methodSinkCount;
+					}
 
 					// We optionally also allow additional seeds to be specified
 					if (additionalSeeds != null)
@@ -437,6 +473,10 @@ public class Infoflow extends AbstractInfoflow {
 								logger.warn("Seed method {} has no active body", m);
 								continue;
 							}
+
+							// Additional seeds are split across the partitions just like sources
+							if (!isInSeedPartition(m, 0))
+								continue;
 							forwardProblem.addInitialSeeds(m.getActiveBody().getUnits().getFirst(),
 									Collections.singleton(forwardProblem.zeroValue()));
 						}
@@ -453,6 +493,14 @@ public class Infoflow extends AbstractInfoflow {
 					logger.info("Source lookup done, found {} sources and {} sinks.",
 							forwardProblem.getInitialSeeds().size(), sinkCount);
 
+					// Process the edges closest to the sinks first
+					if (prioritizeBySink && config.getCallgraphAlgorithm() != CallgraphAlgorithm.OnDemand) {
+						SinkDistances sinkDistances = new SinkDistances(sinkMethods);
+						forwardSolver.setSinkDistances(sinkDistances);
+						if (aliasingStrategy.getSolver() != null)
+							aliasingStrategy.getSolver().setSinkDistances(sinkDistances);
+					}
+
 					// Update the performance statistics
 					performanceData.setSourceCount(forwardProblem.getInitialSeeds().size());
 					performanceData.setSinkCount(sinkCount);
@@ -477,9 +525,28 @@ public class Infoflow extends AbstractInfoflow {
 						}
 					});
 
-					// Create the path builder
-					final IAbstractionPathBuilder builder = new BatchPathBuilder(manager,
-							pathBuilderFactory.createPathBuilder(manager, resultExecutor));
+					// Create the path builder. With a memory budget, we reconstruct the paths
+					// sink by sink and stream out the results as we go.
+					final IAbstractionPathBuilder innerBuilder = pathBuilderFactory.createPathBuilder(manager,
+							resultExecutor);
+					final IAbstractionPathBuilder builder;
+					if (config.getPathConfiguration().getPathReconstructionMemoryBudget() > 0
+							&& !config.getIncrementalResultReporting()
+							&& innerBuilder instanceof ConcurrentAbstractionPathBuilder) {
+						builder = new StreamingPathBuilder(manager, (ConcurrentAbstractionPathBuilder) innerBuilder);
+						builder.addResultAvailableHandler(new OnPathBuilderResultAvailable() {
+
+							@Override
+							public void onResultAvailable(ResultSourceInfo source, ResultSinkInfo sink) {
+								for (ResultsAvailableHandler handler : onResultsAvailable) {
+									if (handler instanceof ResultsAvailableHandler2)
+										((ResultsAvailableHandler2) handler).onSingleResultAvailable(source, sink);
+								}
+							}
+
+						});
+					} else
+						builder = new BatchPathBuilder(manager, innerBuilder);
 //					final IAbstractionPathBuilder builder = new DebuggingPathBuilder(pathBuilderFactory, manager);
 
 					// If we want incremental result reporting, we have to
@@ -826,26 +893,34 @@ public class Infoflow extends AbstractInfoflow {
 		// Create the path builder
 		memoryWatcher.addSolver(builder);
 		this.results = new InfoflowResults();
-		propagationResults.addResultAvailableHandler(new OnTaintPropagationResultAdded() {
 
-			@Override
-			public boolean onResultAvailable(AbstractionAtSink abs) {
-				builder.addResultAvailableHandler(new OnPathBuilderResultAvailable() {
+		// The path builder reports all of its results to the same handler, so we only
+		// register it once
+		builder.addResultAvailableHandler(new OnPathBuilderResultAvailable() {
 
-					@Override
-					public void onResultAvailable(ResultSourceInfo source, ResultSinkInfo sink) {
-						// Notify our external handlers
-						for (ResultsAvailableHandler handler : onResultsAvailable) {
-							if (handler instanceof ResultsAvailableHandler2) {
-								ResultsAvailableHandler2 handler2 = (ResultsAvailableHandler2) handler;
-								handler2.onSingleResultAvailable(source, sink);
-							}
-						}
-						results.addResult(sink, source);
+			@Override
+			public void onResultAvailable(ResultSourceInfo source, ResultSinkInfo sink) {
+				// Notify our external handlers
+				boolean reported = false;
+				for (ResultsAvailableHandler handler : onResultsAvailable) {
+					if (handler instanceof ResultsAvailableHandler2) {
+						ResultsAvailableHandler2 handler2 = (ResultsAvailableHandler2) handler;
+						handler2.onSingleResultAvailable(source, sink);
+						reported = true;
 					}
+				}
 
-				});
+				// If the result has already been streamed out, we might not need to keep it
+				if (!reported || !config.getOutputConfiguration().getDiscardStreamedResults())
+					results.addResult(sink, source);
+			}
 
+		});
+
+		propagationResults.addResultAvailableHandler(new OnTaintPropagationResultAdded() {
+
+			@Override
+			public boolean onResultAvailable(AbstractionAtSink abs) {
 				// Compute the result paths
 				builder.computeTaintPaths(Collections.singleton(abs));
 				return true;
@@ -869,6 +944,12 @@ public class Infoflow extends AbstractInfoflow {
 			logger.warn("Disabled flow-sensitive aliasing because we are running with "
 					+ "a flow-insensitive data flow solver");
 		}
+		if (config.getSolverConfiguration().getDataFlowSolver() == DataFlowSolver.SparseContextFlowSensitive
+				&& config.getImplicitFlowMode().trackControlFlowDependencies()) {
+			config.getSolverConfiguration().setDataFlowSolver(DataFlowSolver.ContextFlowSensitive);
+			logger.warn("Switched to the dense data flow solver because implicit flows depend on "
+					+ "conditional statements that the sparse solver would skip");
+		}
 	}
 
 	/**
@@ -1046,7 +1127,22 @@ public class Infoflow extends AbstractInfoflow {
 		switch (solverConfig.getDataFlowSolver()) {
 		case ContextFlowSensitive:
 			logger.info("Using context- and flow-sensitive solver");
-			return new soot.jimple.infoflow.solver.fastSolver.InfoflowSolver(problem, executor);
+			soot.jimple.infoflow.solver.fastSolver.InfoflowSolver fastSolver = new soot.jimple.infoflow.solver.fastSolver.InfoflowSolver(
+					problem, executor);
+			fastSolver.setIntraproceduralEdgeBudget(solverConfig.getIntraproceduralEdgeBudget());
+			return fastSolver;
+		case SparseContextFlowSensitive:
+			// The alias search depends on the turn unit, so we only run the taint
+			// propagation sparsely
+			if (problem instanceof InfoflowProblem) {
+				logger.info("Using sparse context- and flow-sensitive solver");
+				SparseInfoflowSolver sparseSolver = new SparseInfoflowSolver(problem, executor);
+				sparseSolver.setIntraproceduralEdgeBudget(solverConfig.getIntraproceduralEdgeBudget());
+				return sparseSolver;
+			} else {
+				logger.info("Using context- and flow-sensitive solver for the alias search");
+				return new soot.jimple.infoflow.solver.fastSolver.InfoflowSolver(problem, executor);
+			}
 		case FlowInsensitive:
 			logger.info("Using context-sensitive, but flow-insensitive solver");
 			return new soot.jimple.infoflow.solver.fastSolver.flowInsensitive.InfoflowSolver(problem, executor);
@@ -1077,9 +1173,20 @@ public class Infoflow extends AbstractInfoflow {
 	 * @param sourcesSinks The SourceSinkManager
 	 */
 	protected void eliminateDeadCode(ISourceSinkManager sourcesSinks) {
-		InfoflowManager dceManager = new InfoflowManager(config, null,
-				icfgFactory.buildBiDirICFG(config.getCallgraphAlgorithm(), config.getEnableExceptionTracking()), null,
-				null, null, new AccessPathFactory(config), null);
+		IInfoflowCFG dceCfg = icfgFactory.buildBiDirICFG(config.getCallgraphAlgorithm(),
+				config.getEnableExceptionTracking());
+		InfoflowManager dceManager = new InfoflowManager(config, null, dceCfg, null, null, null,
+				new AccessPathFactory(config), null);
+
+		// Compute the side-effect summaries. We share them with the taint analysis
+		// later on, since removing code keeps them sound.
+		if (config.getCallgraphAlgorithm() != CallgraphAlgorithm.OnDemand) {
+			sideEffectSummaries = new MethodSideEffectSummaries(dceManager, sourcesSinks, taintWrapper);
+			sideEffectSummaries.compute();
+			dceManager.setSideEffectSummaries(sideEffectSummaries);
+			if (dceCfg instanceof InfoflowCFG)
+				((InfoflowCFG) dceCfg).setSideEffectSummaries(sideEffectSummaries);
+		}
 
 		// We need to exclude the dummy main method and all other artificial methods
 		// that the entry point creator may have generated as well
@@ -1200,9 +1307,11 @@ public class Infoflow extends AbstractInfoflow {
 			// have no sink in the program, we don't need to perform any
 			// analysis
 			PatchingChain<Unit> units = m.getActiveBody().getUnits();
+			int unitIdx = 0;
 			for (Unit u : units) {
 				Stmt s = (Stmt) u;
-				if (sourcesSinks.getSourceInfo(s, manager) != null) {
+				boolean inPartition = isInSeedPartition(m, unitIdx++);
+				if (inPartition && sourcesSinks.getSourceInfo(s, manager) != null) {
 					forwardProblem.addInitialSeeds(u, Collections.singleton(forwardProblem.zeroValue()));
 					if (getConfig().getLogSourcesAndSinks())
 						collectedSources.add(s);
@@ -1220,6 +1329,25 @@ public class Infoflow extends AbstractInfoflow {
 		return sinkCount;
 	}
 
+	/**
+	 * Checks whether the statement at the given position in the given method
+	 * belongs to the partition of sources that shall be analyzed. The assignment
+	 * only depends on the method signature and the position of the statement, so
+	 * it is stable across processes that load the same program.
+	 * 
+	 * @param m       The method that contains the statement
+	 * @param unitIdx The position of the statement in the method body
+	 * @return True if the statement belongs to the current partition, otherwise
+	 *         false
+	 */
+	private boolean isInSeedPartition(SootMethod m, int unitIdx) {
+		final int partitionCount = getConfig().getSeedPartitionCount();
+		if (partitionCount <= 1)
+			return true;
+		int hash = 31 * m.getSignature().hashCode() + unitIdx;
+		return Math.floorMod(hash, partitionCount) == getConfig().getSeedPartition();
+	}
+
 	@Override
 	public InfoflowResults getResults() {
 		return results;
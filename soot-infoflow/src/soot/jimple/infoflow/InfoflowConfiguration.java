@@ -82,7 +82,74 @@ public class InfoflowConfiguration {
 		/**
 		 * Use the garbage-collecting solver
 		 */
-		GarbageCollecting
+		GarbageCollecting,
+
+		/**
+		 * Use a flow- and context-sensitive solver that moves taints directly to the
+		 * next statement that reads or writes the tainted local or static field
+		 */
+		SparseContextFlowSensitive
+	}
+
+	/**
+	 * Enumeration containing the supported file formats for writing out data flow
+	 * results
+	 */
+	public static enum ResultsFormat {
+		/**
+		 * Write the results as an XML document
+		 */
+		XML,
+
+		/**
+		 * Write the results in the compact binary format with a shared string table
+		 */
+		Binary,
+
+		/**
+		 * Write the results as a sequence of JSON objects, one per line
+		 */
+		JsonLines
+	}
+
+	/**
+	 * Enumeration containing the strategies with which the garbage-collecting
+	 * solver identifies the methods on which a given method depends
+	 */
+	public static enum GarbageCollectionReferenceProvider {
+		/**
+		 * Compute the transitive callees of a method when they are first requested
+		 */
+		OnDemand,
+
+		/**
+		 * Compute the transitive callees of all reachable methods before the taint
+		 * propagation starts
+		 */
+		AheadOfTime,
+
+		/**
+		 * Condense the callgraph into its strongly connected components and check
+		 * dependencies on the level of components
+		 */
+		StronglyConnectedComponents
+	}
+
+	/**
+	 * Enumeration containing the strategies with which the data flow solvers order
+	 * the path edges that are waiting to be processed
+	 */
+	public static enum SchedulingStrategy {
+		/**
+		 * Process the edges in the order in which they were scheduled
+		 */
+		FIFO,
+
+		/**
+		 * Process the edges in methods that are closer to a sink in the callgraph
+		 * first. This reduces the time until the first data flows are found.
+		 */
+		SinkDistance
 	}
 
 	/**
@@ -492,6 +559,7 @@ public class InfoflowConfiguration {
 		private int maxPathsPerAbstraction = 15;
 		private long pathReconstructionTimeout = 0;
 		private int pathReconstructionBatchSize = 5;
+		private long pathReconstructionMemoryBudget = 0;
 
 		/**
 		 * Copies the settings of the given configuration into this configuration object
@@ -507,6 +575,7 @@ public class InfoflowConfiguration {
 			this.maxPathsPerAbstraction = pathConfig.maxPathsPerAbstraction;
 			this.pathReconstructionTimeout = pathConfig.pathReconstructionTimeout;
 			this.pathReconstructionBatchSize = pathConfig.pathReconstructionBatchSize;
+			this.pathReconstructionMemoryBudget = pathConfig.pathReconstructionMemoryBudget;
 		}
 
 		/**
@@ -695,6 +764,36 @@ public class InfoflowConfiguration {
 			this.pathReconstructionBatchSize = pathReconstructionBatchSize;
 		}
 
+		/**
+		 * Gets the amount of memory in megabytes that the path reconstruction may use.
+		 * If this value is greater than zero, the paths are reconstructed sink by sink
+		 * and no further sinks are scheduled while the memory that has been allocated
+		 * since the current wave of sinks started exceeds this budget. Partial paths
+		 * are discarded as soon as the sinks to which they belong have been processed.
+		 * 
+		 * @return The memory budget for the path reconstruction in megabytes, or 0 to
+		 *         reconstruct the paths for all sinks in parallel
+		 */
+		public long getPathReconstructionMemoryBudget() {
+			return pathReconstructionMemoryBudget;
+		}
+
+		/**
+		 * Sets the amount of memory in megabytes that the path reconstruction may use.
+		 * If this value is greater than zero, the paths are reconstructed sink by sink
+		 * and no further sinks are scheduled while the memory that has been allocated
+		 * since the current wave of sinks started exceeds this budget. Partial paths
+		 * are discarded as soon as the sinks to which they belong have been processed.
+		 * 
+		 * @param pathReconstructionMemoryBudget The memory budget for the path
+		 *                                       reconstruction in megabytes, or 0 to
+		 *                                       reconstruct the paths for all sinks
+		 *                                       in parallel
+		 */
+		public void setPathReconstructionMemoryBudget(long pathReconstructionMemoryBudget) {
+			this.pathReconstructionMemoryBudget = pathReconstructionMemoryBudget;
+		}
+
 		/**
 		 * Gets whether the analysis must keep statements along the path
 		 * 
@@ -715,6 +814,8 @@ public class InfoflowConfiguration {
 			result = prime * result + maxPathsPerAbstraction;
 			result = prime * result + ((pathBuildingAlgorithm == null) ? 0 : pathBuildingAlgorithm.hashCode());
 			result = prime * result + pathReconstructionBatchSize;
+			result = prime * result
+					+ (int) (pathReconstructionMemoryBudget ^ (pathReconstructionMemoryBudget >>> 32));
 			result = prime * result + ((pathReconstructionMode == null) ? 0 : pathReconstructionMode.hashCode());
 			result = prime * result + (int) (pathReconstructionTimeout ^ (pathReconstructionTimeout >>> 32));
 			result = prime * result + (sequentialPathProcessing ? 1231 : 1237);
@@ -740,6 +841,8 @@ public class InfoflowConfiguration {
 				return false;
 			if (pathReconstructionBatchSize != other.pathReconstructionBatchSize)
 				return false;
+			if (pathReconstructionMemoryBudget != other.pathReconstructionMemoryBudget)
+				return false;
 			if (pathReconstructionMode != other.pathReconstructionMode)
 				return false;
 			if (pathReconstructionTimeout != other.pathReconstructionTimeout)
@@ -763,6 +866,8 @@ public class InfoflowConfiguration {
 		private boolean noCallGraphFraction = false;
 		private int maxCallersInOutputFile = 5;
 		private long resultSerializationTimeout = 0;
+		private boolean discardStreamedResults = false;
+		private ResultsFormat resultsFormat = ResultsFormat.XML;
 
 		/**
 		 * Copies the settings of the given configuration into this configuration object
@@ -774,6 +879,8 @@ public class InfoflowConfiguration {
 			this.noCallGraphFraction = outputConfig.noCallGraphFraction;
 			this.maxCallersInOutputFile = outputConfig.maxCallersInOutputFile;
 			this.resultSerializationTimeout = outputConfig.resultSerializationTimeout;
+			this.discardStreamedResults = outputConfig.discardStreamedResults;
+			this.resultsFormat = outputConfig.resultsFormat;
 		}
 
 		/**
@@ -863,6 +970,51 @@ public class InfoflowConfiguration {
 			this.noPassedValues = noPassedValues;
 		}
 
+		/**
+		 * Sets whether data flow results that have already been handed to an
+		 * incremental result handler shall be dropped from memory instead of being
+		 * collected in the final result object. This only has an effect if incremental
+		 * result reporting is enabled and at least one incremental result handler has
+		 * been registered, e.g., a streaming result writer.
+		 * 
+		 * @param discardStreamedResults True to drop results that have already been
+		 *                               reported incrementally, false to keep them in
+		 *                               the final result object
+		 */
+		public void setDiscardStreamedResults(boolean discardStreamedResults) {
+			this.discardStreamedResults = discardStreamedResults;
+		}
+
+		/**
+		 * Gets whether data flow results that have already been handed to an
+		 * incremental result handler shall be dropped from memory instead of being
+		 * collected in the final result object
+		 * 
+		 * @return True to drop results that have already been reported incrementally,
+		 *         false to keep them in the final result object
+		 */
+		public boolean getDiscardStreamedResults() {
+			return this.discardStreamedResults;
+		}
+
+		/**
+		 * Sets the file format in which the data flow results shall be written out
+		 * 
+		 * @param resultsFormat The file format for the data flow results
+		 */
+		public void setResultsFormat(ResultsFormat resultsFormat) {
+			this.resultsFormat = resultsFormat;
+		}
+
+		/**
+		 * Gets the file format in which the data flow results shall be written out
+		 * 
+		 * @return The file format for the data flow results
+		 */
+		public ResultsFormat getResultsFormat() {
+			return this.resultsFormat;
+		}
+
 		@Override
 		public int hashCode() {
 			final int prime = 31;
@@ -871,6 +1023,8 @@ public class InfoflowConfiguration {
 			result = prime * result + (noCallGraphFraction ? 1231 : 1237);
 			result = prime * result + (noPassedValues ? 1231 : 1237);
 			result = prime * result + (int) (resultSerializationTimeout ^ (resultSerializationTimeout >>> 32));
+			result = prime * result + (discardStreamedResults ? 1231 : 1237);
+			result = prime * result + ((resultsFormat == null) ? 0 : resultsFormat.hashCode());
 			return result;
 		}
 
@@ -891,6 +1045,10 @@ public class InfoflowConfiguration {
 				return false;
 			if (resultSerializationTimeout != other.resultSerializationTimeout)
 				return false;
+			if (discardStreamedResults != other.discardStreamedResults)
+				return false;
+			if (resultsFormat != other.resultsFormat)
+				return false;
 			return true;
 		}
 
@@ -908,6 +1066,11 @@ public class InfoflowConfiguration {
 		private int maxJoinPointAbstractions = 10;
 		private int maxCalleesPerCallSite = 75;
 		private int maxAbstractionPathLength = 100;
+		private GarbageCollectionReferenceProvider gcReferenceProvider = GarbageCollectionReferenceProvider.OnDemand;
+		private boolean generationalGarbageCollection = false;
+		private int intraproceduralEdgeBudget = 0;
+		private boolean frozenICFG = false;
+		private SchedulingStrategy schedulingStrategy = SchedulingStrategy.FIFO;
 
 		/**
 		 * Copies the settings of the given configuration into this configuration object
@@ -919,6 +1082,11 @@ public class InfoflowConfiguration {
 			this.maxJoinPointAbstractions = solverConfig.maxJoinPointAbstractions;
 			this.maxCalleesPerCallSite = solverConfig.maxCalleesPerCallSite;
 			this.maxAbstractionPathLength = solverConfig.maxAbstractionPathLength;
+			this.gcReferenceProvider = solverConfig.gcReferenceProvider;
+			this.generationalGarbageCollection = solverConfig.generationalGarbageCollection;
+			this.intraproceduralEdgeBudget = solverConfig.intraproceduralEdgeBudget;
+			this.frozenICFG = solverConfig.frozenICFG;
+			this.schedulingStrategy = solverConfig.schedulingStrategy;
 		}
 
 		/**
@@ -1021,11 +1189,131 @@ public class InfoflowConfiguration {
 			this.maxAbstractionPathLength = maxAbstractionPathLength;
 		}
 
+		/**
+		 * Gets the strategy with which the garbage-collecting solver identifies the
+		 * methods on which a given method depends
+		 * 
+		 * @return The strategy for identifying method dependencies in the
+		 *         garbage-collecting solver
+		 */
+		public GarbageCollectionReferenceProvider getGarbageCollectionReferenceProvider() {
+			return gcReferenceProvider;
+		}
+
+		/**
+		 * Sets the strategy with which the garbage-collecting solver identifies the
+		 * methods on which a given method depends. This option has no effect on the
+		 * other solvers.
+		 * 
+		 * @param gcReferenceProvider The strategy for identifying method dependencies
+		 *                            in the garbage-collecting solver
+		 */
+		public void setGarbageCollectionReferenceProvider(GarbageCollectionReferenceProvider gcReferenceProvider) {
+			this.gcReferenceProvider = gcReferenceProvider;
+		}
+
+		/**
+		 * Gets whether the garbage-collecting solver shall use a generational garbage
+		 * collector that sweeps incrementally and reacts to memory pressure
+		 * 
+		 * @return True if the garbage-collecting solver shall use a generational
+		 *         garbage collector, false otherwise
+		 */
+		public boolean getGenerationalGarbageCollection() {
+			return generationalGarbageCollection;
+		}
+
+		/**
+		 * Sets whether the garbage-collecting solver shall use a generational garbage
+		 * collector that sweeps incrementally and reacts to memory pressure. This
+		 * option has no effect on the other solvers.
+		 * 
+		 * @param generationalGarbageCollection True if the garbage-collecting solver
+		 *                                      shall use a generational garbage
+		 *                                      collector, false otherwise
+		 */
+		public void setGenerationalGarbageCollection(boolean generationalGarbageCollection) {
+			this.generationalGarbageCollection = generationalGarbageCollection;
+		}
+
+		/**
+		 * Gets the maximum number of intra-procedural edges that a single worker
+		 * thread processes inline before handing further edges to the executor
+		 * 
+		 * @return The maximum number of edges per task, or 0 if every edge is
+		 *         scheduled as a separate task
+		 */
+		public int getIntraproceduralEdgeBudget() {
+			return intraproceduralEdgeBudget;
+		}
+
+		/**
+		 * Sets the maximum number of intra-procedural edges that a single worker
+		 * thread processes inline before handing further edges to the executor. Edges
+		 * at call and return boundaries are always scheduled on the executor. This
+		 * option is only supported by the context- and flow-sensitive solver.
+		 * 
+		 * @param intraproceduralEdgeBudget The maximum number of edges per task, or 0
+		 *                                  to schedule every edge as a separate task
+		 */
+		public void setIntraproceduralEdgeBudget(int intraproceduralEdgeBudget) {
+			this.intraproceduralEdgeBudget = intraproceduralEdgeBudget;
+		}
+
+		/**
+		 * Gets whether the interprocedural control flow graph shall be frozen into a
+		 * compact, array-based representation before the taint analysis starts
+		 * 
+		 * @return True if the ICFG shall be frozen, false otherwise
+		 */
+		public boolean getFrozenICFG() {
+			return frozenICFG;
+		}
+
+		/**
+		 * Sets whether the interprocedural control flow graph shall be frozen into a
+		 * compact, array-based representation before the taint analysis starts. This
+		 * speeds up the graph queries of the solvers at the cost of building the
+		 * graph for all reachable methods upfront. This option has no effect with
+		 * the on-demand callgraph algorithm.
+		 * 
+		 * @param frozenICFG True if the ICFG shall be frozen, false otherwise
+		 */
+		public void setFrozenICFG(boolean frozenICFG) {
+			this.frozenICFG = frozenICFG;
+		}
+
+		/**
+		 * Gets the strategy with which the data flow solvers order the path edges
+		 * that are waiting to be processed
+		 * 
+		 * @return The strategy for ordering pending path edges
+		 */
+		public SchedulingStrategy getSchedulingStrategy() {
+			return schedulingStrategy;
+		}
+
+		/**
+		 * Sets the strategy with which the data flow solvers order the path edges
+		 * that are waiting to be processed. The scheduling strategy only affects the
+		 * order in which data flows are found, not the final results.
+		 * 
+		 * @param schedulingStrategy The strategy for ordering pending path edges
+		 */
+		public void setSchedulingStrategy(SchedulingStrategy schedulingStrategy) {
+			this.schedulingStrategy = schedulingStrategy;
+		}
+
 		@Override
 		public int hashCode() {
 			final int prime = 31;
 			int result = 1;
 			result = prime * result + ((dataFlowSolver == null) ? 0 : dataFlowSolver.hashCode());
+			result = prime * result + ((gcReferenceProvider == null) ? 0 : gcReferenceProvider.hashCode());
+			result = prime * result + (generationalGarbageCollection ? 1231 : 1237);
+			result = prime * result + intraproceduralEdgeBudget;
+			result = prime * result + (frozenICFG ? 1231 : 1237);
+			result = prime * result + ((schedulingStrategy == null) ? 0 : schedulingStrategy.hashCode());
 			result = prime * result + maxCalleesPerCallSite;
 			result = prime * result + maxJoinPointAbstractions;
 			result = prime * result + maxAbstractionPathLength;
@@ -1043,6 +1331,16 @@ public class InfoflowConfiguration {
 			SolverConfiguration other = (SolverConfiguration) obj;
 			if (dataFlowSolver != other.dataFlowSolver)
 				return false;
+			if (gcReferenceProvider != other.gcReferenceProvider)
+				return false;
+			if (generationalGarbageCollection != other.generationalGarbageCollection)
+				return false;
+			if (intraproceduralEdgeBudget != other.intraproceduralEdgeBudget)
+				return false;
+			if (frozenICFG != other.frozenICFG)
+				return false;
+			if (schedulingStrategy != other.schedulingStrategy)
+				return false;
 			if (maxCalleesPerCallSite != other.maxCalleesPerCallSite)
 				return false;
 			if (maxJoinPointAbstractions != other.maxJoinPointAbstractions)
@@ -1239,6 +1537,8 @@ public class InfoflowConfiguration {
 	private long dataFlowTimeout = 0;
 	private double memoryThreshold = 0.9d;
 	private boolean oneSourceAtATime = false;
+	private int seedPartition = 0;
+	private int seedPartitionCount = 1;
 
 	/**
 	 * Merges the given configuration options into this configuration object
@@ -1280,6 +1580,8 @@ public class InfoflowConfiguration {
 		this.dataFlowTimeout = config.dataFlowTimeout;
 		this.memoryThreshold = config.memoryThreshold;
 		this.oneSourceAtATime = config.oneSourceAtATime;
+		this.seedPartition = config.seedPartition;
+		this.seedPartitionCount = config.seedPartitionCount;
 	}
 
 	/**
@@ -1898,6 +2200,50 @@ public class InfoflowConfiguration {
 		this.oneSourceAtATime = oneSourceAtATime;
 	}
 
+	/**
+	 * Gets the partition of the sources that shall be analyzed. The sources are
+	 * split into {@link #getSeedPartitionCount()} disjoint partitions, and only the
+	 * sources in the given partition are used as seeds. This allows the analysis
+	 * to be distributed across multiple processes that each analyze one partition.
+	 * 
+	 * @return The zero-based index of the partition of sources to analyze
+	 */
+	public int getSeedPartition() {
+		return this.seedPartition;
+	}
+
+	/**
+	 * Gets the number of partitions into which the sources are split
+	 * 
+	 * @return The number of partitions into which the sources are split. If this
+	 *         value is 1, all sources are analyzed.
+	 */
+	public int getSeedPartitionCount() {
+		return this.seedPartitionCount;
+	}
+
+	/**
+	 * Restricts the analysis to a partition of the sources. The sources are split
+	 * into the given number of disjoint partitions, and only the sources in the
+	 * given partition are used as seeds. The split only depends on the methods
+	 * and statements of the sources, so every process that loads the same program
+	 * with the same configuration arrives at the same partitions.
+	 * 
+	 * @param seedPartition      The zero-based index of the partition of sources
+	 *                           to analyze
+	 * @param seedPartitionCount The number of partitions into which to split the
+	 *                           sources, or 1 to analyze all sources
+	 */
+	public void setSeedPartition(int seedPartition, int seedPartitionCount) {
+		if (seedPartitionCount < 1)
+			throw new IllegalArgumentException("The number of seed partitions must be positive");
+		if (seedPartition < 0 || seedPartition >= seedPartitionCount)
+			throw new IllegalArgumentException(
+					String.format("Invalid seed partition %d of %d", seedPartition, seedPartitionCount));
+		this.seedPartition = seedPartition;
+		this.seedPartitionCount = seedPartitionCount;
+	}
+
 	/**
 	 * Gets the configuration for dealing with the paths between source and sinks
 	 * 
@@ -1970,6 +2316,8 @@ public class InfoflowConfiguration {
 		logger.info("Taint analysis enabled: " + taintAnalysisEnabled);
 		if (oneSourceAtATime)
 			logger.info("Running with one source at a time");
+		if (seedPartitionCount > 1)
+			logger.info("Analyzing source partition {} of {}", seedPartition + 1, seedPartitionCount);
 		logger.info("Using alias algorithm " + aliasingAlgorithm);
 	}
 
@@ -2002,6 +2350,8 @@ public class InfoflowConfiguration {
 		temp = Double.doubleToLongBits(memoryThreshold);
 		result = prime * result + (int) (temp ^ (temp >>> 32));
 		result = prime * result + (oneSourceAtATime ? 1231 : 1237);
+		result = prime * result + seedPartition;
+		result = prime * result + seedPartitionCount;
 		result = prime * result + ((outputConfiguration == null) ? 0 : outputConfiguration.hashCode());
 		result = prime * result + ((pathConfiguration == null) ? 0 : pathConfiguration.hashCode());
 		result = prime * result + ((solverConfiguration == null) ? 0 : solverConfiguration.hashCode());
@@ -2070,6 +2420,10 @@ public class InfoflowConfiguration {
 			return false;
 		if (oneSourceAtATime != other.oneSourceAtATime)
 			return false;
+		if (seedPartition != other.seedPartition)
+			return false;
+		if (seedPartitionCount != other.seedPartitionCount)
+			return false;
 		if (outputConfiguration == null) {
 			if (other.outputConfiguration != null)
 				return false;
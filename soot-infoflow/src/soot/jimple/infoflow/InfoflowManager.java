@@ -2,6 +2,7 @@ package soot.jimple.infoflow;
 
 import soot.FastHierarchy;
 import soot.jimple.infoflow.aliasing.Aliasing;
+import soot.jimple.infoflow.cfg.MethodSideEffectSummaries;
 import soot.jimple.infoflow.data.AccessPathFactory;
 import soot.jimple.infoflow.globalTaints.GlobalTaintManager;
 import soot.jimple.infoflow.memory.IMemoryBoundedSolver;
@@ -30,6 +31,7 @@ public class InfoflowManager {
 	private final AccessPathFactory accessPathFactory;
 	private final GlobalTaintManager globalTaintManager;
 	private Aliasing aliasing;
+	private MethodSideEffectSummaries sideEffectSummaries;
 
 	protected InfoflowManager(InfoflowConfiguration config, IInfoflowSolver forwardSolver, IInfoflowCFG icfg,
 			ISourceSinkManager sourceSinkManager, ITaintPropagationWrapper taintWrapper, FastHierarchy hierarchy,
@@ -166,4 +168,23 @@ public class InfoflowManager {
 		return globalTaintManager;
 	}
 
+	/**
+	 * Gets the pre-computed side-effect summaries of the reachable methods
+	 * 
+	 * @return The pre-computed side-effect summaries, or null if no such summaries
+	 *         have been computed
+	 */
+	public MethodSideEffectSummaries getSideEffectSummaries() {
+		return sideEffectSummaries;
+	}
+
+	/**
+	 * Sets the pre-computed side-effect summaries of the reachable methods
+	 * 
+	 * @param sideEffectSummaries The pre-computed side-effect summaries
+	 */
+	public void setSideEffectSummaries(MethodSideEffectSummaries sideEffectSummaries) {
+		this.sideEffectSummaries = sideEffectSummaries;
+	}
+
 }
@@ -0,0 +1,390 @@
+package soot.jimple.infoflow.cfg;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import soot.MethodOrMethodContext;
+import soot.Scene;
+import soot.SootMethod;
+import soot.jimple.toolkits.callgraph.CallGraph;
+import soot.jimple.toolkits.callgraph.Edge;
+import soot.util.queue.QueueReader;
+
+/**
+ * Condensation of a callgraph into its strongly connected components (SCCs).
+ * The components are numbered in reverse topological order, i.e., all callees
+ * of a component have a smaller component id than the component itself.
+ * Iterating over the component ids in ascending order thus visits the
+ * callgraph bottom-up.
+ *
+ * The condensation is immutable once it has been constructed and can safely be
+ * shared between threads.
+ */
+public class CallGraphCondensation {
+
+	private static final int[] EMPTY_INT_ARRAY = new int[0];
+
+	private final SootMethod[] methods;
+	private final int[] methodNumberToIndex;
+
+	private final int[] componentOfMethod;
+	private final int[][] componentMembers;
+	private final int[][] componentSuccessors;
+	private final int[][] componentPredecessors;
+	private final boolean[] componentRecursive;
+	private final int[] componentHeight;
+
+	/**
+	 * Creates the condensation of the current callgraph in the Soot scene for all
+	 * reachable methods
+	 */
+	public CallGraphCondensation() {
+		this(Scene.v().getCallGraph(), getReachableMethods());
+	}
+
+	/**
+	 * Creates the condensation of the given callgraph
+	 *
+	 * @param callgraph The callgraph to condense
+	 * @param methods   The methods to include in the condensation. Edges to
+	 *                  methods that are not contained in this collection are
+	 *                  ignored.
+	 */
+	public CallGraphCondensation(CallGraph callgraph, Collection<SootMethod> methods) {
+		this.methods = methods.toArray(new SootMethod[methods.size()]);
+
+		// Build a dense index for the methods
+		int maxNumber = -1;
+		for (SootMethod sm : this.methods)
+			maxNumber = Math.max(maxNumber, sm.getNumber());
+		this.methodNumberToIndex = new int[maxNumber + 1];
+		Arrays.fill(methodNumberToIndex, -1);
+		for (int i = 0; i < this.methods.length; i++)
+			methodNumberToIndex[this.methods[i].getNumber()] = i;
+
+		// Build the adjacency lists
+		final int[][] callees = new int[this.methods.length][];
+		final boolean[] selfLoop = new boolean[this.methods.length];
+		for (int i = 0; i < this.methods.length; i++) {
+			int[] targets = new int[4];
+			int numTargets = 0;
+			if (callgraph != null) {
+				for (Iterator<Edge> edgeIt = callgraph.edgesOutOf(this.methods[i]); edgeIt.hasNext();) {
+					SootMethod tgt = edgeIt.next().tgt();
+					int tgtIdx = getMethodIndex(tgt);
+					if (tgtIdx < 0)
+						continue;
+					if (tgtIdx == i)
+						selfLoop[i] = true;
+					if (numTargets == targets.length)
+						targets = Arrays.copyOf(targets, targets.length * 2);
+					targets[numTargets++] = tgtIdx;
+				}
+			}
+			callees[i] = numTargets == 0 ? EMPTY_INT_ARRAY : Arrays.copyOf(targets, numTargets);
+		}
+
+		// Compute the strongly connected components
+		this.componentOfMethod = new int[this.methods.length];
+		List<int[]> members = computeComponents(callees);
+		final int numComponents = members.size();
+		this.componentMembers = members.toArray(new int[numComponents][]);
+
+		// Compute the edges between the components
+		this.componentSuccessors = new int[numComponents][];
+		this.componentRecursive = new boolean[numComponents];
+		final int[] predecessorCount = new int[numComponents];
+		final int[] lastSeen = new int[numComponents];
+		Arrays.fill(lastSeen, -1);
+		for (int c = 0; c < numComponents; c++) {
+			int[] succs = new int[4];
+			int numSuccs = 0;
+			for (int m : componentMembers[c]) {
+				if (selfLoop[m])
+					componentRecursive[c] = true;
+				for (int callee : callees[m]) {
+					int calleeComp = componentOfMethod[callee];
+					if (calleeComp == c || lastSeen[calleeComp] == c)
+						continue;
+					lastSeen[calleeComp] = c;
+					if (numSuccs == succs.length)
+						succs = Arrays.copyOf(succs, succs.length * 2);
+					succs[numSuccs++] = calleeComp;
+					predecessorCount[calleeComp]++;
+				}
+			}
+			if (componentMembers[c].length > 1)
+				componentRecursive[c] = true;
+			componentSuccessors[c] = numSuccs == 0 ? EMPTY_INT_ARRAY : Arrays.copyOf(succs, numSuccs);
+		}
+
+		// Compute the reverse edges
+		this.componentPredecessors = new int[numComponents][];
+		for (int c = 0; c < numComponents; c++)
+			componentPredecessors[c] = predecessorCount[c] == 0 ? EMPTY_INT_ARRAY : new int[predecessorCount[c]];
+		Arrays.fill(predecessorCount, 0);
+		for (int c = 0; c < numComponents; c++)
+			for (int succ : componentSuccessors[c])
+				componentPredecessors[succ][predecessorCount[succ]++] = c;
+
+		// Compute the height of each component in the condensed graph. Since all
+		// successors have smaller ids, a single pass suffices.
+		this.componentHeight = new int[numComponents];
+		for (int c = 0; c < numComponents; c++) {
+			int height = 0;
+			for (int succ : componentSuccessors[c])
+				height = Math.max(height, componentHeight[succ] + 1);
+			componentHeight[c] = height;
+		}
+	}
+
+	/**
+	 * Gets all methods that are reachable in the current callgraph
+	 *
+	 * @return All methods that are reachable in the current callgraph
+	 */
+	private static Collection<SootMethod> getReachableMethods() {
+		if (!Scene.v().hasCallGraph())
+			return Collections.emptyList();
+
+		List<SootMethod> reachableMethods = new ArrayList<>();
+		for (QueueReader<MethodOrMethodContext> rdr = Scene.v().getReachableMethods().listener(); rdr.hasNext();) {
+			SootMethod sm = rdr.next().method();
+			if (sm != null)
+				reachableMethods.add(sm);
+		}
+		return reachableMethods;
+	}
+
+	/**
+	 * Computes the strongly connected components using an iterative version of
+	 * Tarjan's algorithm. Tarjan's algorithm emits a component only after all
+	 * components reachable from it have been emitted, which gives us the reverse
+	 * topological order for free.
+	 *
+	 * @param callees The adjacency lists of the methods
+	 * @return The members of the components in the order in which they were
+	 *         discovered
+	 */
+	private List<int[]> computeComponents(int[][] callees) {
+		final int numMethods = callees.length;
+		final int[] index = new int[numMethods];
+		final int[] lowLink = new int[numMethods];
+		final boolean[] onStack = new boolean[numMethods];
+		Arrays.fill(index, -1);
+
+		final int[] sccStack = new int[numMethods];
+		int sccStackSize = 0;
+		final int[] callStack = new int[numMethods];
+		final int[] edgePos = new int[numMethods];
+		int callStackSize = 0;
+
+		List<int[]> components = new ArrayList<>();
+		int nextIndex = 0;
+		for (int root = 0; root < numMethods; root++) {
+			if (index[root] >= 0)
+				continue;
+
+			index[root] = lowLink[root] = nextIndex++;
+			sccStack[sccStackSize++] = root;
+			onStack[root] = true;
+			callStack[callStackSize++] = root;
+			edgePos[root] = 0;
+
+			while (callStackSize > 0) {
+				final int v = callStack[callStackSize - 1];
+				if (edgePos[v] < callees[v].length) {
+					// Process the next outgoing edge
+					final int w = callees[v][edgePos[v]++];
+					if (index[w] < 0) {
+						index[w] = lowLink[w] = nextIndex++;
+						sccStack[sccStackSize++] = w;
+						onStack[w] = true;
+						callStack[callStackSize++] = w;
+						edgePos[w] = 0;
+					} else if (onStack[w])
+						lowLink[v] = Math.min(lowLink[v], index[w]);
+				} else {
+					// All edges have been processed, return to the caller
+					callStackSize--;
+					if (callStackSize > 0) {
+						final int parent = callStack[callStackSize - 1];
+						lowLink[parent] = Math.min(lowLink[parent], lowLink[v]);
+					}
+
+					// Is this the root of a component?
+					if (lowLink[v] == index[v]) {
+						final int compId = components.size();
+						int size = 0;
+						while (sccStack[sccStackSize - 1 - size] != v)
+							size++;
+						size++;
+						int[] compMembers = new int[size];
+						for (int i = 0; i < size; i++) {
+							int w = sccStack[--sccStackSize];
+							onStack[w] = false;
+							componentOfMethod[w] = compId;
+							compMembers[i] = w;
+						}
+						components.add(compMembers);
+					}
+				}
+			}
+		}
+		return components;
+	}
+
+	/**
+	 * Gets the dense index of the given method inside this condensation
+	 *
+	 * @param method The method for which to get the index
+	 * @return The index of the given method, or -1 if the method is not part of
+	 *         this condensation
+	 */
+	public int getMethodIndex(SootMethod method) {
+		int number = method.getNumber();
+		if (number < 0 || number >= methodNumberToIndex.length)
+			return -1;
+		return methodNumberToIndex[number];
+	}
+
+	/**
+	 * Gets the method with the given dense index
+	 *
+	 * @param index The index of the method
+	 * @return The method with the given index
+	 */
+	public SootMethod getMethod(int index) {
+		return methods[index];
+	}
+
+	/**
+	 * Gets the number of methods in this condensation
+	 *
+	 * @return The number of methods in this condensation
+	 */
+	public int getMethodCount() {
+		return methods.length;
+	}
+
+	/**
+	 * Gets the number of strongly connected components in this condensation
+	 *
+	 * @return The number of strongly connected components
+	 */
+	public int getComponentCount() {
+		return componentMembers.length;
+	}
+
+	/**
+	 * Gets the id of the component that contains the given method
+	 *
+	 * @param method The method for which to get the component
+	 * @return The id of the component that contains the given method, or -1 if
+	 *         the method is not part of this condensation
+	 */
+	public int getComponentOf(SootMethod method) {
+		int idx = getMethodIndex(method);
+		return idx < 0 ? -1 : componentOfMethod[idx];
+	}
+
+	/**
+	 * Gets the id of the component that contains the method with the given dense
+	 * index
+	 *
+	 * @param methodIndex The dense index of the method
+	 * @return The id of the component that contains the given method
+	 */
+	public int getComponentOfIndex(int methodIndex) {
+		return componentOfMethod[methodIndex];
+	}
+
+	/**
+	 * Gets the dense indices of the methods inside the given component
+	 *
+	 * @param component The id of the component
+	 * @return The dense indices of the methods inside the given component. The
+	 *         caller must not modify the returned array.
+	 */
+	public int[] getComponentMembers(int component) {
+		return componentMembers[component];
+	}
+
+	/**
+	 * Gets the ids of the components that are directly called from the given
+	 * component. The component itself is never contained in the result.
+	 *
+	 * @param component The id of the component
+	 * @return The ids of the callee components. The caller must not modify the
+	 *         returned array.
+	 */
+	public int[] getSuccessors(int component) {
+		return componentSuccessors[component];
+	}
+
+	/**
+	 * Gets the ids of the components that directly call into the given component.
+	 * The component itself is never contained in the result.
+	 *
+	 * @param component The id of the component
+	 * @return The ids of the caller components. The caller must not modify the
+	 *         returned array.
+	 */
+	public int[] getPredecessors(int component) {
+		return componentPredecessors[component];
+	}
+
+	/**
+	 * Gets whether the given component contains a recursion, i.e., consists of
+	 * more than one method or has a method that calls itself
+	 *
+	 * @param component The id of the component
+	 * @return True if the given component is recursive, otherwise false
+	 */
+	public boolean isRecursive(int component) {
+		return componentRecursive[component];
+	}
+
+	/**
+	 * Gets the height of the given component in the condensed graph. Leaf
+	 * components have a height of zero. All successors of a component have a
+	 * strictly smaller height, so all components of the same height can be
+	 * processed in parallel.
+	 *
+	 * @param component The id of the component
+	 * @return The height of the given component
+	 */
+	public int getHeight(int component) {
+		return componentHeight[component];
+	}
+
+	/**
+	 * Groups the components by their height in the condensed graph
+	 *
+	 * @return An array in which the i-th element contains the ids of all
+	 *         components with height i
+	 */
+	public int[][] getComponentsByHeight() {
+		int maxHeight = -1;
+		for (int h : componentHeight)
+			maxHeight = Math.max(maxHeight, h);
+
+		int[] counts = new int[maxHeight + 1];
+		for (int h : componentHeight)
+			counts[h]++;
+		int[][] levels = new int[maxHeight + 1][];
+		for (int h = 0; h <= maxHeight; h++)
+			levels[h] = new int[counts[h]];
+		Arrays.fill(counts, 0);
+		for (int c = 0; c < componentHeight.length; c++) {
+			int h = componentHeight[c];
+			levels[h][counts[h]++] = c;
+		}
+		return levels;
+	}
+
+}
@@ -0,0 +1,484 @@
+package soot.jimple.infoflow.cfg;
+
+import java.util.BitSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import soot.Local;
+import soot.SootField;
+import soot.SootMethod;
+import soot.Unit;
+import soot.Value;
+import soot.ValueBox;
+import soot.jimple.ArrayRef;
+import soot.jimple.AssignStmt;
+import soot.jimple.DefinitionStmt;
+import soot.jimple.FieldRef;
+import soot.jimple.InvokeStmt;
+import soot.jimple.NewExpr;
+import soot.jimple.ParameterRef;
+import soot.jimple.StaticFieldRef;
+import soot.jimple.Stmt;
+import soot.jimple.ThisRef;
+import soot.jimple.ThrowStmt;
+import soot.jimple.infoflow.InfoflowManager;
+import soot.jimple.infoflow.sourcesSinks.manager.ISourceSinkManager;
+import soot.jimple.infoflow.taintWrappers.ITaintPropagationWrapper;
+import soot.jimple.infoflow.threading.ParallelTaskRunner;
+import soot.jimple.infoflow.util.SystemClassHandler;
+import soot.options.Options;
+
+/**
+ * Bottom-up summaries of the side effects of all reachable methods. The
+ * summaries are computed once over the strongly connected components of the
+ * callgraph. Each component inherits the effects of all of its transitive
+ * callees, so that queries can be answered in constant time without any depth
+ * limits.
+ *
+ * The summaries are computed on the code as it is at construction time. Code
+ * optimizers may remove statements afterwards, which keeps the summaries a
+ * sound over-approximation. If the callgraph is rebuilt, the summaries must be
+ * recomputed.
+ */
+public class MethodSideEffectSummaries {
+
+	/**
+	 * The method writes to an instance or static field
+	 */
+	public static final int FIELD_WRITE = 1;
+
+	/**
+	 * The method writes to an array element
+	 */
+	public static final int ARRAY_WRITE = 1 << 1;
+
+	/**
+	 * The method reads from its own "this" local
+	 */
+	public static final int READS_THIS = 1 << 2;
+
+	/**
+	 * The method reads from an instance or static field
+	 */
+	public static final int FIELD_READ = 1 << 3;
+
+	/**
+	 * The method contains a call to a sink
+	 */
+	public static final int CALLS_SINK = 1 << 4;
+
+	/**
+	 * The method contains a call that is handled by the taint wrapper
+	 */
+	public static final int CALLS_WRAPPED = 1 << 5;
+
+	private static final BitSet EMPTY_BITSET = new BitSet(0);
+
+	private final Logger logger = LoggerFactory.getLogger(getClass());
+
+	private final InfoflowManager manager;
+	private final ISourceSinkManager sourceSinkManager;
+	private final ITaintPropagationWrapper taintWrapper;
+
+	private CallGraphCondensation condensation;
+	private int[] componentFlags;
+	private BitSet[] componentStaticReads;
+	private BitSet[] componentStaticWrites;
+	private final Map<SootField, Integer> staticFieldIds = new ConcurrentHashMap<>();
+
+	/**
+	 * Creates a new instance of the {@link MethodSideEffectSummaries} class that
+	 * does not compute any information about sinks and taint wrappers
+	 */
+	public MethodSideEffectSummaries() {
+		this(null, null, null);
+	}
+
+	/**
+	 * Creates a new instance of the {@link MethodSideEffectSummaries} class
+	 *
+	 * @param manager           The data flow manager to use for querying the
+	 *                          source/sink manager. May be null if no
+	 *                          source/sink manager is given.
+	 * @param sourceSinkManager The source/sink manager for identifying calls to
+	 *                          sinks, or null to not compute sink information
+	 * @param taintWrapper      The taint wrapper for identifying wrapped calls, or
+	 *                          null to not compute information about wrapped
+	 *                          calls
+	 */
+	public MethodSideEffectSummaries(InfoflowManager manager, ISourceSinkManager sourceSinkManager,
+			ITaintPropagationWrapper taintWrapper) {
+		this.manager = manager;
+		this.sourceSinkManager = sourceSinkManager;
+		this.taintWrapper = taintWrapper;
+	}
+
+	/**
+	 * Computes the summaries for all methods that are reachable in the current
+	 * callgraph
+	 */
+	public void compute() {
+		compute(new CallGraphCondensation());
+	}
+
+	/**
+	 * Computes the summaries for all methods in the given callgraph condensation
+	 *
+	 * @param condensation The callgraph condensation
+	 */
+	public void compute(final CallGraphCondensation condensation) {
+		long beforeSummaries = System.nanoTime();
+		this.condensation = condensation;
+		ParallelTaskRunner runner = new ParallelTaskRunner("Side effect summaries");
+
+		// Scan all method bodies in parallel
+		final int numMethods = condensation.getMethodCount();
+		final int[] methodFlags = new int[numMethods];
+		final BitSet[] methodStaticReads = new BitSet[numMethods];
+		final BitSet[] methodStaticWrites = new BitSet[numMethods];
+		final boolean[] cutOff = new boolean[numMethods];
+		final AtomicInteger fieldIdCounter = new AtomicInteger();
+		final int numComponents = condensation.getComponentCount();
+		try {
+			runner.run(numMethods, new IntConsumer() {
+
+				@Override
+				public void accept(int m) {
+					scanMethod(condensation.getMethod(m), m, methodFlags, methodStaticReads, methodStaticWrites,
+							cutOff, fieldIdCounter);
+				}
+
+			});
+
+			// Propagate the effects bottom-up. All components of the same height are
+			// independent of each other.
+			componentFlags = new int[numComponents];
+			componentStaticReads = new BitSet[numComponents];
+			componentStaticWrites = new BitSet[numComponents];
+			for (final int[] level : condensation.getComponentsByHeight()) {
+				runner.run(level.length, new IntConsumer() {
+
+					@Override
+					public void accept(int i) {
+						mergeComponent(level[i], methodFlags, methodStaticReads, methodStaticWrites, cutOff);
+					}
+
+				});
+			}
+		} finally {
+			runner.shutdown();
+		}
+
+		logger.info("Computed side effect summaries for {} methods in {} components in {} seconds", numMethods,
+				numComponents, (System.nanoTime() - beforeSummaries) / 1E9);
+	}
+
+	/**
+	 * Scans the body of a single method for local side effects. Android stubs
+	 * only throw a stub exception, which never happens in practice. They are
+	 * marked as cut-off methods that neither have effects of their own nor
+	 * inherit the effects of their callees.
+	 */
+	private void scanMethod(SootMethod method, int idx, int[] methodFlags, BitSet[] methodStaticReads,
+			BitSet[] methodStaticWrites, boolean[] cutOff, AtomicInteger fieldIdCounter) {
+		if (!method.hasActiveBody())
+			return;
+		if (isAndroidStub(method)) {
+			cutOff[idx] = true;
+			return;
+		}
+
+		int flags = 0;
+		BitSet reads = null;
+		BitSet writes = null;
+		Local thisLocal = method.isStatic() ? null : method.getActiveBody().getThisLocal();
+		for (Unit u : method.getActiveBody().getUnits()) {
+			Stmt s = (Stmt) u;
+			if (s instanceof AssignStmt) {
+				AssignStmt assign = (AssignStmt) s;
+				Value leftOp = assign.getLeftOp();
+				Value rightOp = assign.getRightOp();
+
+				if (leftOp instanceof FieldRef)
+					flags |= FIELD_WRITE;
+				else if (leftOp instanceof ArrayRef)
+					flags |= ARRAY_WRITE;
+				if (rightOp instanceof FieldRef)
+					flags |= FIELD_READ;
+
+				if (leftOp instanceof StaticFieldRef) {
+					if (writes == null)
+						writes = new BitSet();
+					writes.set(getStaticFieldId(((StaticFieldRef) leftOp).getField(), fieldIdCounter));
+				}
+				if (rightOp instanceof StaticFieldRef) {
+					if (reads == null)
+						reads = new BitSet();
+					reads.set(getStaticFieldId(((StaticFieldRef) rightOp).getField(), fieldIdCounter));
+				}
+			}
+
+			// Check for reads of the "this" local
+			if (thisLocal != null && (flags & READS_THIS) == 0) {
+				for (ValueBox vb : s.getUseBoxes())
+					if (vb.getValue() == thisLocal) {
+						flags |= READS_THIS;
+						break;
+					}
+			}
+
+			// If this method calls another method for which we have a taint
+			// wrapper, we need to conservatively assume that the taint wrapper
+			// can do anything
+			if (taintWrapper != null && (flags & CALLS_WRAPPED) == 0 && taintWrapper.supportsCallee(s))
+				flags |= CALLS_WRAPPED;
+
+			if (sourceSinkManager != null && (flags & CALLS_SINK) == 0 && s.containsInvokeExpr()
+					&& sourceSinkManager.getSinkInfo(s, manager, null) != null)
+				flags |= CALLS_SINK;
+		}
+
+		methodFlags[idx] = flags;
+		methodStaticReads[idx] = reads;
+		methodStaticWrites[idx] = writes;
+	}
+
+	/**
+	 * Gets the dense numeric id of the given static field
+	 */
+	private int getStaticFieldId(SootField field, final AtomicInteger fieldIdCounter) {
+		Integer id = staticFieldIds.get(field);
+		if (id == null) {
+			Integer newId = fieldIdCounter.getAndIncrement();
+			id = staticFieldIds.putIfAbsent(field, newId);
+			if (id == null)
+				id = newId;
+		}
+		return id;
+	}
+
+	/**
+	 * Merges the local effects of all methods in the given component with the
+	 * effects of all callee components. Components that only consist of cut-off
+	 * methods do not inherit anything from their callees.
+	 */
+	private void mergeComponent(int comp, int[] methodFlags, BitSet[] methodStaticReads,
+			BitSet[] methodStaticWrites, boolean[] cutOff) {
+		int flags = 0;
+		BitSet reads = null;
+		BitSet writes = null;
+		boolean allCutOff = true;
+		for (int m : condensation.getComponentMembers(comp)) {
+			flags |= methodFlags[m];
+			reads = union(reads, methodStaticReads[m]);
+			writes = union(writes, methodStaticWrites[m]);
+			allCutOff &= cutOff[m];
+		}
+		if (!allCutOff) {
+			for (int succ : condensation.getSuccessors(comp)) {
+				flags |= componentFlags[succ];
+				reads = union(reads, componentStaticReads[succ]);
+				writes = union(writes, componentStaticWrites[succ]);
+			}
+		}
+
+		componentFlags[comp] = flags;
+		componentStaticReads[comp] = reads == null ? EMPTY_BITSET : reads;
+		componentStaticWrites[comp] = writes == null ? EMPTY_BITSET : writes;
+	}
+
+	/**
+	 * Computes the union of the two given bit sets. To save memory, bit sets are
+	 * shared between components where possible. Shared bit sets are never
+	 * modified.
+	 *
+	 * @param current The current bit set that is owned by the caller, or a shared
+	 *                bit set
+	 * @param other   The bit set to add
+	 * @return The union of both bit sets
+	 */
+	private BitSet union(BitSet current, BitSet other) {
+		if (other == null || other.isEmpty())
+			return current;
+		if (current == null || current.isEmpty())
+			return other;
+		if (current == other)
+			return current;
+
+		// Check whether the other set is already contained
+		BitSet diff = (BitSet) other.clone();
+		diff.andNot(current);
+		if (diff.isEmpty())
+			return current;
+
+		// Check whether we can just use the other set
+		diff = (BitSet) current.clone();
+		diff.andNot(other);
+		if (diff.isEmpty())
+			return other;
+
+		BitSet result = (BitSet) current.clone();
+		result.or(other);
+		return result;
+	}
+
+	/**
+	 * Checks whether the given method is a library stub method that only throws a
+	 * stub exception
+	 *
+	 * @param method The method to check
+	 * @return True if the given method is an Android library stub, false otherwise
+	 */
+	public static boolean isAndroidStub(SootMethod method) {
+		if (!(Options.v().src_prec() == Options.src_prec_apk && method.getDeclaringClass().isLibraryClass()
+				&& SystemClassHandler.v().isClassInSystemPackage(method.getDeclaringClass())))
+			return false;
+
+		// Check whether there is only a single throw statement
+		for (Unit u : method.getActiveBody().getUnits()) {
+			if (u instanceof DefinitionStmt) {
+				DefinitionStmt defStmt = (DefinitionStmt) u;
+				if (!(defStmt.getRightOp() instanceof ThisRef) && !(defStmt.getRightOp() instanceof ParameterRef)
+						&& !(defStmt.getRightOp() instanceof NewExpr))
+					return false;
+			} else if (u instanceof InvokeStmt) {
+				InvokeStmt stmt = (InvokeStmt) u;
+
+				// Check for exception constructor invocations
+				SootMethod callee = stmt.getInvokeExpr().getMethod();
+				if (!callee.getSubSignature().equals("void <init>(java.lang.String)"))
+					// Check for super class constructor invocation
+					if (!(method.getDeclaringClass().hasSuperclass()
+							&& callee.getDeclaringClass() == method.getDeclaringClass().getSuperclass()
+							&& callee.getName().equals("<init>")))
+						return false;
+			} else if (!(u instanceof ThrowStmt))
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Gets the transitive effect flags of the given method
+	 *
+	 * @param method The method for which to get the flags
+	 * @return The transitive effect flags of the given method, or -1 if the method
+	 *         is not known to these summaries
+	 */
+	public int getFlags(SootMethod method) {
+		if (condensation == null)
+			return -1;
+		int comp = condensation.getComponentOf(method);
+		return comp < 0 ? -1 : componentFlags[comp];
+	}
+
+	/**
+	 * Checks whether the given method or one of its transitive callees has at
+	 * least one of the given effects. Methods without a body have no effects.
+	 * Unknown methods with a body are conservatively assumed to have all effects.
+	 *
+	 * @param method The method to check
+	 * @param mask   The effects to look for as a bit mask of the constants in this
+	 *               class
+	 * @return True if the given method may have at least one of the given effects,
+	 *         otherwise false
+	 */
+	public boolean hasAnyEffect(SootMethod method, int mask) {
+		if (!method.hasActiveBody())
+			return false;
+		int flags = getFlags(method);
+		return flags < 0 || (flags & mask) != 0;
+	}
+
+	/**
+	 * Checks whether the given method or one of its transitive callees writes to a
+	 * field
+	 *
+	 * @param method The method to check
+	 * @return True if the given method may write to a field, otherwise false
+	 */
+	public boolean hasSideEffects(SootMethod method) {
+		return hasAnyEffect(method, FIELD_WRITE);
+	}
+
+	/**
+	 * Checks whether the given method or one of its transitive callees has
+	 * side-effects or calls a sink method
+	 *
+	 * @param method The method to check
+	 * @return True if the given method or one of its transitive callees has
+	 *         side-effects or calls a sink method, otherwise false.
+	 */
+	public boolean hasSideEffectsOrCallsSink(SootMethod method) {
+		return hasAnyEffect(method, FIELD_WRITE | ARRAY_WRITE | CALLS_WRAPPED | CALLS_SINK);
+	}
+
+	/**
+	 * Checks whether the given method or one of its transitive callees has
+	 * side-effects or reads its "this" object
+	 *
+	 * @param method The method to check
+	 * @return True if the given method or one of its transitive callees has
+	 *         side-effects or reads its "this" object, otherwise false.
+	 */
+	public boolean hasSideEffectsOrReadsThis(SootMethod method) {
+		return hasAnyEffect(method, FIELD_WRITE | ARRAY_WRITE | READS_THIS);
+	}
+
+	/**
+	 * Checks whether the given method or one of its transitive callees reads the
+	 * given static field
+	 *
+	 * @param method The method to check
+	 * @param field  The static field to look for
+	 * @return True if the given method may read the given static field, otherwise
+	 *         false
+	 */
+	public boolean isStaticFieldRead(SootMethod method, SootField field) {
+		return checkStaticFieldUse(method, field, componentStaticReads);
+	}
+
+	/**
+	 * Checks whether the given method or one of its transitive callees writes to
+	 * the given static field
+	 *
+	 * @param method The method to check
+	 * @param field  The static field to look for
+	 * @return True if the given method may write to the given static field,
+	 *         otherwise false
+	 */
+	public boolean isStaticFieldWritten(SootMethod method, SootField field) {
+		return checkStaticFieldUse(method, field, componentStaticWrites);
+	}
+
+	private boolean checkStaticFieldUse(SootMethod method, SootField field, BitSet[] uses) {
+		if (!method.hasActiveBody())
+			return false;
+		if (condensation == null)
+			return true;
+		int comp = condensation.getComponentOf(method);
+		if (comp < 0)
+			return true;
+
+		// If no reachable method references the field, there can be no use
+		Integer fieldId = staticFieldIds.get(field);
+		if (fieldId == null)
+			return false;
+		return uses[comp].get(fieldId);
+	}
+
+	/**
+	 * Gets the callgraph condensation on which these summaries were computed
+	 *
+	 * @return The callgraph condensation on which these summaries were computed
+	 */
+	public CallGraphCondensation getCondensation() {
+		return condensation;
+	}
+
+}
@@ -0,0 +1,100 @@
+package soot.jimple.infoflow.cfg;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+
+import soot.Scene;
+import soot.SootMethod;
+import soot.jimple.toolkits.callgraph.CallGraph;
+import soot.jimple.toolkits.callgraph.Edge;
+
+/**
+ * Distance of each method in the callgraph to the nearest method that contains
+ * a sink. Since taints can both flow into callees and return to callers, the
+ * distance is measured along callgraph edges in either direction.
+ *
+ * The distances are immutable once they have been computed and can safely be
+ * shared between threads.
+ */
+public class SinkDistances {
+
+	/**
+	 * Distance of methods from which no sink can be reached
+	 */
+	public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+	private final int[] distances;
+
+	/**
+	 * Computes the sink distances on the current callgraph in the Soot scene
+	 *
+	 * @param sinkMethods The methods that contain at least one sink
+	 */
+	public SinkDistances(Collection<SootMethod> sinkMethods) {
+		this(Scene.v().getCallGraph(), sinkMethods);
+	}
+
+	/**
+	 * Computes the sink distances on the given callgraph
+	 *
+	 * @param callgraph   The callgraph
+	 * @param sinkMethods The methods that contain at least one sink
+	 */
+	public SinkDistances(CallGraph callgraph, Collection<SootMethod> sinkMethods) {
+		distances = new int[Scene.v().getMethodNumberer().size() + 1];
+		Arrays.fill(distances, UNREACHABLE);
+
+		// Breadth-first search starting at all sink methods at once
+		ArrayDeque<SootMethod> workList = new ArrayDeque<>();
+		for (SootMethod sm : sinkMethods) {
+			if (sm.getNumber() < distances.length && distances[sm.getNumber()] != 0) {
+				distances[sm.getNumber()] = 0;
+				workList.add(sm);
+			}
+		}
+		while (!workList.isEmpty()) {
+			SootMethod sm = workList.poll();
+			int newDistance = distances[sm.getNumber()] + 1;
+			for (Iterator<Edge> edgeIt = callgraph.edgesOutOf(sm); edgeIt.hasNext();)
+				visit(edgeIt.next().tgt(), newDistance, workList);
+			for (Iterator<Edge> edgeIt = callgraph.edgesInto(sm); edgeIt.hasNext();)
+				visit(edgeIt.next().src(), newDistance, workList);
+		}
+	}
+
+	/**
+	 * Records the given distance for the given method if the method has not been
+	 * visited before
+	 *
+	 * @param sm       The method
+	 * @param distance The distance of the method to the nearest sink
+	 * @param workList The work list to which to add the method if it is new
+	 */
+	private void visit(SootMethod sm, int distance, ArrayDeque<SootMethod> workList) {
+		if (sm == null)
+			return;
+		int number = sm.getNumber();
+		if (number < distances.length && distances[number] == UNREACHABLE) {
+			distances[number] = distance;
+			workList.add(sm);
+		}
+	}
+
+	/**
+	 * Gets the callgraph distance from the given method to the nearest sink
+	 *
+	 * @param sm The method
+	 * @return The callgraph distance from the given method to the nearest sink,
+	 *         or {@link #UNREACHABLE} if no sink can be reached from the given
+	 *         method
+	 */
+	public int getDistance(SootMethod sm) {
+		if (sm == null)
+			return UNREACHABLE;
+		int number = sm.getNumber();
+		return number < distances.length ? distances[number] : UNREACHABLE;
+	}
+
+}
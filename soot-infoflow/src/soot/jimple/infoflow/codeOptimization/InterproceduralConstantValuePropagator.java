@@ -33,28 +33,24 @@ import soot.Trap;
 import soot.Type;
 import soot.Unit;
 import soot.Value;
-import soot.ValueBox;
 import soot.VoidType;
 import soot.dexpler.DalvikThrowAnalysis;
 import soot.javaToJimple.LocalGenerator;
-import soot.jimple.ArrayRef;
 import soot.jimple.AssignStmt;
 import soot.jimple.Constant;
-import soot.jimple.DefinitionStmt;
-import soot.jimple.FieldRef;
 import soot.jimple.IdentityStmt;
 import soot.jimple.IfStmt;
 import soot.jimple.IntConstant;
 import soot.jimple.InvokeExpr;
 import soot.jimple.InvokeStmt;
 import soot.jimple.Jimple;
-import soot.jimple.NewExpr;
 import soot.jimple.ParameterRef;
 import soot.jimple.ReturnStmt;
 import soot.jimple.Stmt;
 import soot.jimple.ThisRef;
 import soot.jimple.ThrowStmt;
 import soot.jimple.infoflow.InfoflowManager;
+import soot.jimple.infoflow.cfg.MethodSideEffectSummaries;
 import soot.jimple.infoflow.entryPointCreators.BaseEntryPointCreator;
 import soot.jimple.infoflow.entryPointCreators.IEntryPointCreator;
 import soot.jimple.infoflow.entryPointCreators.SimulatedCodeElementTag;
@@ -85,6 +81,7 @@ public class InterproceduralConstantValuePropagator extends SceneTransformer {
 	private boolean removeSideEffectFreeMethods = true;
 	private boolean excludeSystemClasses = true;
 
+	protected MethodSideEffectSummaries sideEffectSummaries = null;
 	protected final Map<SootMethod, Boolean> methodSideEffects = new ConcurrentHashMap<>();
 	protected final Map<SootMethod, Boolean> methodSinks = new ConcurrentHashMap<>();
 	protected final Map<SootMethod, Boolean> methodFieldReads = new ConcurrentHashMap<>();
@@ -586,91 +583,22 @@ public class InterproceduralConstantValuePropagator extends SceneTransformer {
 	}
 
 	/**
-	 * Checks whether the given method or one of its transitive callees has
-	 * side-effects or calls a sink method
-	 * 
-	 * @param method The method to check
-	 * @return True if the given method or one of its transitive callees has
-	 *         side-effects or calls a sink method, otherwise false.
-	 */
-	private boolean hasSideEffectsOrCallsSink(SootMethod method) {
-		return hasSideEffectsOrCallsSink(method, new HashSet<SootMethod>());
-	}
-
-	/**
-	 * Checks whether the given method or one of its transitive callees has
-	 * side-effects or calls a sink method
+	 * Gets the bottom-up side-effect summaries of all reachable methods. If the
+	 * data flow manager does not provide pre-computed summaries, they are
+	 * computed once for this code optimizer.
 	 * 
-	 * @param method  The method to check
-	 * @param runList A set to receive all methods that have already been processed
-	 * @param cache   The cache in which to store the results
-	 * @return True if the given method or one of its transitive callees has
-	 *         side-effects or calls a sink method, otherwise false.
+	 * @return The side-effect summaries of all reachable methods
 	 */
-	private boolean hasSideEffectsOrCallsSink(SootMethod method, Set<SootMethod> runList) {
-		// Without a body, we cannot say much
-		if (!method.hasActiveBody())
-			return false;
-
-		// Do we already have an entry?
-		Boolean hasSideEffects = methodSideEffects.get(method);
-		if (hasSideEffects != null)
-			return hasSideEffects;
-
-		Boolean hasSink = methodSinks.get(method);
-		if (hasSink != null)
-			return hasSink;
-
-		// Do not process the same method twice
-		if (!runList.add(method))
-			return false;
-
-		// If this is an Android stub method that just throws a stub exception,
-		// this will never happen in practice and can be removed
-		if (methodIsAndroidStub(method)) {
-			methodSideEffects.put(method, false);
-			return false;
-		}
-
-		// Scan for references to this variable
-		for (Unit u : method.getActiveBody().getUnits()) {
-			if (u instanceof AssignStmt) {
-				AssignStmt assign = (AssignStmt) u;
-				if (assign.getLeftOp() instanceof FieldRef || assign.getLeftOp() instanceof ArrayRef) {
-					methodSideEffects.put(method, true);
-					return true;
-				}
-			}
-
-			Stmt s = (Stmt) u;
-
-			// If this method calls another method for which we have a taint
-			// wrapper, we need to conservatively assume that the taint wrapper
-			// can do anything
-			if (taintWrapper != null && taintWrapper.supportsCallee(s)) {
-				methodSideEffects.put(method, true);
-				return true;
-			}
-
-			if (s.containsInvokeExpr()) {
-				// If this method calls a sink, we need to keep it
-				if (sourceSinkManager != null && sourceSinkManager.getSinkInfo((Stmt) u, manager, null) != null) {
-					methodSinks.put(method, true);
-					return true;
-				}
-
-				// Check the callees
-				for (Iterator<Edge> edgeIt = Scene.v().getCallGraph().edgesOutOf(u); edgeIt.hasNext();) {
-					Edge e = edgeIt.next();
-					if (hasSideEffectsOrCallsSink(e.getTgt().method(), runList))
-						return true;
-				}
+	private MethodSideEffectSummaries getSideEffectSummaries() {
+		if (sideEffectSummaries == null) {
+			if (manager != null && manager.getSideEffectSummaries() != null)
+				sideEffectSummaries = manager.getSideEffectSummaries();
+			else {
+				sideEffectSummaries = new MethodSideEffectSummaries(manager, sourceSinkManager, taintWrapper);
+				sideEffectSummaries.compute();
 			}
 		}
-
-		// Variable is not read
-		methodSideEffects.put(method, false);
-		return false;
+		return sideEffectSummaries;
 	}
 
 	/**
@@ -681,109 +609,26 @@ public class InterproceduralConstantValuePropagator extends SceneTransformer {
 	 * @return True if the given method or one of its transitive callees has
 	 *         side-effects or calls a sink method, otherwise false.
 	 */
-	private boolean hasSideEffectsOrReadsThis(SootMethod method) {
-		return hasSideEffectsOrReadsThis(method, new HashSet<SootMethod>());
+	private boolean hasSideEffectsOrCallsSink(SootMethod method) {
+		// Methods that we have identified as sinks or wrapped methods on the way
+		// must be kept
+		if (methodSideEffects.containsKey(method) || methodSinks.containsKey(method))
+			return true;
+		return getSideEffectSummaries().hasSideEffectsOrCallsSink(method);
 	}
 
 	/**
 	 * Checks whether the given method or one of its transitive callees has
-	 * side-effects or calls a sink method
-	 * 
-	 * @param method  The method to check
-	 * @param runList A set to receive all methods that have already been processed
-	 * @param cache   The cache in which to store the results
-	 * @return True if the given method or one of its transitive callees has
-	 *         side-effects or calls a sink method, otherwise false.
-	 */
-	private boolean hasSideEffectsOrReadsThis(SootMethod method, Set<SootMethod> runList) {
-		// Without a body, we cannot say much
-		if (!method.hasActiveBody())
-			return false;
-
-		// Do we already have an entry?
-		Boolean hasSideEffects = methodSideEffects.get(method);
-		if (hasSideEffects != null)
-			return hasSideEffects;
-
-		// Do not process the same method twice
-		if (!runList.add(method))
-			return false;
-
-		// If this is an Android stub method that just throws a stub exception,
-		// this will never happen in practice and can be removed
-		if (methodIsAndroidStub(method)) {
-			methodSideEffects.put(method, false);
-			return false;
-		}
-
-		// Scan for references to this variable
-		Local thisLocal = method.isStatic() ? null : method.getActiveBody().getThisLocal();
-		for (Unit u : method.getActiveBody().getUnits()) {
-			if (u instanceof AssignStmt) {
-				AssignStmt assign = (AssignStmt) u;
-				if (assign.getLeftOp() instanceof FieldRef || assign.getLeftOp() instanceof ArrayRef) {
-					methodSideEffects.put(method, true);
-					return true;
-				}
-			}
-
-			Stmt s = (Stmt) u;
-
-			// If this statement uses the "this" local, we have to
-			// conservatively assume that is can read data
-			if (thisLocal != null)
-				for (ValueBox vb : s.getUseBoxes())
-					if (vb.getValue() == thisLocal)
-						return true;
-
-			if (s.containsInvokeExpr()) {
-				// Check the callees
-				for (Iterator<Edge> edgeIt = Scene.v().getCallGraph().edgesOutOf(u); edgeIt.hasNext();) {
-					Edge e = edgeIt.next();
-					if (hasSideEffectsOrReadsThis(e.getTgt().method(), runList))
-						return true;
-				}
-			}
-		}
-
-		// Variable is not read
-		methodSideEffects.put(method, false);
-		return false;
-	}
-
-	/**
-	 * Checks whether the given method is a library stub method
+	 * side-effects or reads its "this" object
 	 * 
 	 * @param method The method to check
-	 * @return True if the given method is an Android library stub, false otherwise
+	 * @return True if the given method or one of its transitive callees has
+	 *         side-effects or reads its "this" object, otherwise false.
 	 */
-	private boolean methodIsAndroidStub(SootMethod method) {
-		if (!(Options.v().src_prec() == Options.src_prec_apk && method.getDeclaringClass().isLibraryClass()
-				&& SystemClassHandler.v().isClassInSystemPackage(method.getDeclaringClass())))
-			return false;
-
-		// Check whether there is only a single throw statement
-		for (Unit u : method.getActiveBody().getUnits()) {
-			if (u instanceof DefinitionStmt) {
-				DefinitionStmt defStmt = (DefinitionStmt) u;
-				if (!(defStmt.getRightOp() instanceof ThisRef) && !(defStmt.getRightOp() instanceof ParameterRef)
-						&& !(defStmt.getRightOp() instanceof NewExpr))
-					return false;
-			} else if (u instanceof InvokeStmt) {
-				InvokeStmt stmt = (InvokeStmt) u;
-
-				// Check for exception constructor invocations
-				SootMethod callee = stmt.getInvokeExpr().getMethod();
-				if (!callee.getSubSignature().equals("void <init>(java.lang.String)"))
-					// Check for super class constructor invocation
-					if (!(method.getDeclaringClass().hasSuperclass()
-							&& callee.getDeclaringClass() == method.getDeclaringClass().getSuperclass()
-							&& callee.getName().equals("<init>")))
-						return false;
-			} else if (!(u instanceof ThrowStmt))
-				return false;
-		}
-		return true;
+	private boolean hasSideEffectsOrReadsThis(SootMethod method) {
+		if (methodSideEffects.containsKey(method))
+			return true;
+		return getSideEffectSummaries().hasSideEffectsOrReadsThis(method);
 	}
 
 	/**
@@ -38,6 +38,15 @@ public class AtomicBitSet {
     	return array.length();
     }
 
+    /**
+     * Gets the number of bits that can be stored in this bit set
+     * 
+     * @return The number of bits in this bit set
+     */
+    public int capacity() {
+    	return array.length() * 32;
+    }
+
     public boolean get(long n) {
         int bit = 1 << n;
         int idx = (int) (n >>> 5);
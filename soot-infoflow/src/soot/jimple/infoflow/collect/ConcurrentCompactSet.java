@@ -0,0 +1,182 @@
+package soot.jimple.infoflow.collect;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+import gnu.trove.strategy.HashingStrategy;
+
+/**
+ * Lock-free set that is optimized for a small number of elements. Up to
+ * {@link #ARRAY_THRESHOLD} elements are kept in a plain array that is replaced
+ * atomically on every insertion. Larger sets are moved into a hash map. The
+ * equality of the elements is defined by a {@link HashingStrategy}.
+ *
+ * Iterators never throw a {@link java.util.ConcurrentModificationException}.
+ * As long as the set is small, an iterator works on a snapshot of the set.
+ * Afterwards, iterators are weakly consistent. Elements cannot be removed.
+ *
+ * @param <E> The type of the elements in the set
+ */
+public class ConcurrentCompactSet<E> extends AbstractSet<E> {
+
+	/**
+	 * The maximum number of elements that are stored in an array
+	 */
+	public static final int ARRAY_THRESHOLD = 8;
+
+	@SuppressWarnings("rawtypes")
+	private static final AtomicReferenceFieldUpdater<ConcurrentCompactSet, Object> STATE_UPDATER = AtomicReferenceFieldUpdater
+			.newUpdater(ConcurrentCompactSet.class, Object.class, "state");
+
+	/**
+	 * Key for the hash map that applies the hashing strategy of the set
+	 */
+	private static class Key<E> {
+
+		private final E element;
+		private final HashingStrategy<E> strategy;
+
+		private Key(E element, HashingStrategy<E> strategy) {
+			this.element = element;
+			this.strategy = strategy;
+		}
+
+		@Override
+		public int hashCode() {
+			return strategy.computeHashCode(element);
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (!(obj instanceof Key))
+				return false;
+			return strategy.equals(element, ((Key<E>) obj).element);
+		}
+
+	}
+
+	private final HashingStrategy<E> strategy;
+
+	/**
+	 * Either an Object[] with the elements of the set or a
+	 * {@link ConcurrentHashMap} from keys to elements
+	 */
+	private volatile Object state;
+
+	/**
+	 * Creates a new, empty set
+	 *
+	 * @param strategy The strategy that defines when two elements are equal
+	 */
+	public ConcurrentCompactSet(HashingStrategy<E> strategy) {
+		this.strategy = strategy;
+		this.state = new Object[0];
+	}
+
+	/**
+	 * Creates a new set with a single element
+	 *
+	 * @param strategy The strategy that defines when two elements are equal
+	 * @param element  The first element of the set
+	 */
+	public ConcurrentCompactSet(HashingStrategy<E> strategy, E element) {
+		this.strategy = strategy;
+		this.state = new Object[] { element };
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public boolean add(E e) {
+		while (true) {
+			Object curState = state;
+			if (curState instanceof Object[]) {
+				Object[] elements = (Object[]) curState;
+				for (Object element : elements)
+					if (strategy.equals((E) element, e))
+						return false;
+
+				Object newState;
+				if (elements.length < ARRAY_THRESHOLD) {
+					Object[] newElements = Arrays.copyOf(elements, elements.length + 1);
+					newElements[elements.length] = e;
+					newState = newElements;
+				} else {
+					ConcurrentHashMap<Key<E>, E> map = new ConcurrentHashMap<>(elements.length * 4);
+					for (Object element : elements)
+						map.put(new Key<>((E) element, strategy), (E) element);
+					map.put(new Key<>(e, strategy), e);
+					newState = map;
+				}
+
+				// If another thread has changed the set in the meantime, we start over
+				if (STATE_UPDATER.compareAndSet(this, curState, newState))
+					return true;
+			} else {
+				ConcurrentHashMap<Key<E>, E> map = (ConcurrentHashMap<Key<E>, E>) curState;
+				return map.putIfAbsent(new Key<>(e, strategy), e) == null;
+			}
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public boolean contains(Object o) {
+		Object curState = state;
+		if (curState instanceof Object[]) {
+			for (Object element : (Object[]) curState)
+				if (element == o || strategy.equals((E) element, (E) o))
+					return true;
+			return false;
+		}
+		return ((ConcurrentHashMap<Key<E>, E>) curState).containsKey(new Key<>((E) o, strategy));
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public Iterator<E> iterator() {
+		Object curState = state;
+		if (curState instanceof Object[]) {
+			final Object[] elements = (Object[]) curState;
+			return new Iterator<E>() {
+
+				private int idx = 0;
+
+				@Override
+				public boolean hasNext() {
+					return idx < elements.length;
+				}
+
+				@Override
+				public E next() {
+					if (idx >= elements.length)
+						throw new NoSuchElementException();
+					return (E) elements[idx++];
+				}
+
+			};
+		}
+		return ((ConcurrentHashMap<Key<E>, E>) curState).values().iterator();
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public int size() {
+		Object curState = state;
+		if (curState instanceof Object[])
+			return ((Object[]) curState).length;
+		return ((ConcurrentHashMap<Key<E>, E>) curState).size();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+}
@@ -0,0 +1,196 @@
+package soot.jimple.infoflow.collect;
+
+import java.util.Arrays;
+
+/**
+ * Immutable set of non-negative integers that is stored as a sorted sequence of
+ * disjoint, non-adjacent intervals. This is a compact representation for sets
+ * that contain long runs of consecutive numbers, e.g., reachability sets over
+ * components that have been numbered in depth-first order.
+ */
+public class IntervalIntSet {
+
+	public static final IntervalIntSet EMPTY = new IntervalIntSet(new int[0]);
+
+	/**
+	 * The intervals as pairs of (inclusive start, exclusive end)
+	 */
+	private final int[] runs;
+
+	private IntervalIntSet(int[] runs) {
+		this.runs = runs;
+	}
+
+	/**
+	 * Creates a set that contains exactly one element
+	 *
+	 * @param value The element
+	 * @return The new set
+	 */
+	public static IntervalIntSet singleton(int value) {
+		return new IntervalIntSet(new int[] { value, value + 1 });
+	}
+
+	/**
+	 * Computes the union of the given sets and the given additional element
+	 *
+	 * @param value The additional element to include, or a negative number to not
+	 *              include any additional element
+	 * @param sets  The sets to merge
+	 * @return The union of all given sets and the given element
+	 */
+	public static IntervalIntSet union(int value, IntervalIntSet... sets) {
+		// Count the runs
+		int numRuns = value >= 0 ? 1 : 0;
+		IntervalIntSet largest = null;
+		for (IntervalIntSet set : sets) {
+			numRuns += set.runs.length / 2;
+			if (largest == null || set.runs.length > largest.runs.length)
+				largest = set;
+		}
+		if (numRuns == 0)
+			return EMPTY;
+
+		// If the new element is already contained in the only set, we can re-use it
+		if (sets.length == 1 && (value < 0 || sets[0].contains(value)))
+			return sets[0];
+
+		// Collect all runs and sort them by their start
+		long[] packed = new long[numRuns];
+		int pos = 0;
+		if (value >= 0)
+			packed[pos++] = ((long) value << 32) | (value + 1);
+		for (IntervalIntSet set : sets)
+			for (int i = 0; i < set.runs.length; i += 2)
+				packed[pos++] = ((long) set.runs[i] << 32) | set.runs[i + 1];
+		Arrays.sort(packed);
+
+		// Merge overlapping and adjacent runs
+		int[] merged = new int[numRuns * 2];
+		int numMerged = 0;
+		int curStart = (int) (packed[0] >>> 32);
+		int curEnd = (int) packed[0];
+		for (int i = 1; i < packed.length; i++) {
+			int start = (int) (packed[i] >>> 32);
+			int end = (int) packed[i];
+			if (start <= curEnd)
+				curEnd = Math.max(curEnd, end);
+			else {
+				merged[numMerged++] = curStart;
+				merged[numMerged++] = curEnd;
+				curStart = start;
+				curEnd = end;
+			}
+		}
+		merged[numMerged++] = curStart;
+		merged[numMerged++] = curEnd;
+
+		// If the union did not add anything to the largest input set, we share it
+		if (largest != null && largest.runs.length == numMerged
+				&& Arrays.equals(largest.runs, Arrays.copyOf(merged, numMerged)))
+			return largest;
+		return new IntervalIntSet(Arrays.copyOf(merged, numMerged));
+	}
+
+	/**
+	 * Checks whether this set contains the given value
+	 *
+	 * @param value The value to look for
+	 * @return True if this set contains the given value, otherwise false
+	 */
+	public boolean contains(int value) {
+		int lo = 0;
+		int hi = runs.length / 2 - 1;
+		while (lo <= hi) {
+			int mid = (lo + hi) >>> 1;
+			if (value < runs[mid * 2])
+				hi = mid - 1;
+			else if (value >= runs[mid * 2 + 1])
+				lo = mid + 1;
+			else
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Gets the number of intervals in this set
+	 *
+	 * @return The number of intervals in this set
+	 */
+	public int getRunCount() {
+		return runs.length / 2;
+	}
+
+	/**
+	 * Gets the inclusive start of the interval with the given index
+	 *
+	 * @param run The index of the interval
+	 * @return The first element of the interval
+	 */
+	public int getRunStart(int run) {
+		return runs[run * 2];
+	}
+
+	/**
+	 * Gets the exclusive end of the interval with the given index
+	 *
+	 * @param run The index of the interval
+	 * @return The first element after the interval
+	 */
+	public int getRunEnd(int run) {
+		return runs[run * 2 + 1];
+	}
+
+	/**
+	 * Gets the number of elements in this set
+	 *
+	 * @return The number of elements in this set
+	 */
+	public int size() {
+		int size = 0;
+		for (int i = 0; i < runs.length; i += 2)
+			size += runs[i + 1] - runs[i];
+		return size;
+	}
+
+	/**
+	 * Gets whether this set is empty
+	 *
+	 * @return True if this set is empty, otherwise false
+	 */
+	public boolean isEmpty() {
+		return runs.length == 0;
+	}
+
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(runs);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null || getClass() != obj.getClass())
+			return false;
+		return Arrays.equals(runs, ((IntervalIntSet) obj).runs);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder("{");
+		for (int i = 0; i < runs.length; i += 2) {
+			if (i > 0)
+				sb.append(", ");
+			sb.append(runs[i]);
+			if (runs[i + 1] - runs[i] > 1) {
+				sb.append("..");
+				sb.append(runs[i + 1] - 1);
+			}
+		}
+		sb.append("}");
+		return sb.toString();
+	}
+
+}
@@ -14,14 +14,15 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
-import gnu.trove.set.hash.TCustomHashSet;
 import gnu.trove.strategy.HashingStrategy;
 import soot.SootMethod;
 import soot.Unit;
 import soot.jimple.Stmt;
 import soot.jimple.infoflow.InfoflowConfiguration;
 import soot.jimple.infoflow.collect.AtomicBitSet;
+import soot.jimple.infoflow.collect.ConcurrentCompactSet;
 import soot.jimple.infoflow.solver.cfg.IInfoflowCFG.UnitContainer;
 import soot.jimple.infoflow.solver.fastSolver.FastSolverLinkedNode;
 import soot.jimple.infoflow.sourcesSinks.definitions.ISourceSinkDefinition;
@@ -74,9 +75,13 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 	 */
 	protected boolean dependsOnCutAP = false;
 
-	protected AtomicBitSet pathFlags = null;
+	protected volatile AtomicBitSet pathFlags = null;
 	protected int propagationPathLength = 0;
 
+	@SuppressWarnings("rawtypes")
+	private static final AtomicReferenceFieldUpdater<Abstraction, Set> NEIGHBORS_UPDATER = AtomicReferenceFieldUpdater
+			.newUpdater(Abstraction.class, Set.class, "neighbors");
+
 	public static class NeighborHashingStrategy implements HashingStrategy<Abstraction> {
 
 		private static final long serialVersionUID = 4836518478381414909L;
@@ -536,23 +541,29 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 				&& this.predecessor == originalAbstraction.predecessor)
 			return false;
 
-		synchronized (this) {
-			if (neighbors == null)
-				neighbors = new TCustomHashSet<Abstraction>(NeighborHashingStrategy.INSTANCE);
-			else if (InfoflowConfiguration.getMergeNeighbors()) {
-				// Check if we already have an identical neighbor
-				for (Abstraction nb : neighbors) {
-					if (nb == originalAbstraction)
-						return false;
-					if (originalAbstraction.predecessor == nb.predecessor
-							&& originalAbstraction.currentStmt == nb.currentStmt
-							&& originalAbstraction.correspondingCallSite == nb.correspondingCallSite) {
-						return false;
-					}
+		Set<Abstraction> nbs = this.neighbors;
+		if (nbs == null) {
+			// Publish a new set that already contains the neighbor. If another thread
+			// was faster, we add the neighbor to that thread's set instead.
+			if (NEIGHBORS_UPDATER.compareAndSet(this, null,
+					new ConcurrentCompactSet<Abstraction>(NeighborHashingStrategy.INSTANCE, originalAbstraction)))
+				return true;
+			nbs = this.neighbors;
+		} else if (InfoflowConfiguration.getMergeNeighbors()) {
+			// Check if we already have an identical neighbor. Without a lock, two
+			// threads may still register identical neighbors at the same time. This
+			// only costs a bit of redundant work during path reconstruction.
+			for (Abstraction nb : nbs) {
+				if (nb == originalAbstraction)
+					return false;
+				if (originalAbstraction.predecessor == nb.predecessor
+						&& originalAbstraction.currentStmt == nb.currentStmt
+						&& originalAbstraction.correspondingCallSite == nb.correspondingCallSite) {
+					return false;
 				}
 			}
-			return this.neighbors.add(originalAbstraction);
 		}
+		return nbs.add(originalAbstraction);
 	}
 
 	public void setCorrespondingCallSite(Stmt callSite) {
@@ -598,25 +609,55 @@ public class Abstraction implements Cloneable, FastSolverLinkedNode<Abstraction,
 	 *         before, otherwise false
 	 */
 	public boolean registerPathFlag(int id, int maxSize) {
-		if (pathFlags == null || pathFlags.size() < maxSize) {
-			synchronized (this) {
-				if (pathFlags == null) {
-					// Make sure that the field is set only after the
-					// constructor
-					// is done and the object is fully usable
-					AtomicBitSet pf = new AtomicBitSet(maxSize);
-					pathFlags = pf;
-				} else if (pathFlags.size() < maxSize) {
-					AtomicBitSet pf = new AtomicBitSet(maxSize);
-					for (int i = 0; i < pathFlags.size(); i++) {
-						if (pathFlags.get(i))
-							pf.set(i);
-					}
-					pathFlags = pf;
-				}
+		boolean added = false;
+		while (true) {
+			AtomicBitSet pf = pathFlags;
+			if (pf == null || pf.capacity() < maxSize) {
+				growPathFlags(maxSize);
+				continue;
+			}
+
+			// If the bit set is still in place after we have set our bit, the bit
+			// was either set before the bit set was replaced, or it will be copied
+			// over by the thread that replaces it. Otherwise, we set it again on the
+			// new bit set.
+			added |= pf.set(id);
+			if (pathFlags == pf)
+				return added;
+		}
+	}
+
+	/**
+	 * Replaces the path flags with a bit set of at least the given capacity that
+	 * contains all bits of the previous one
+	 * 
+	 * @param maxSize The minimum capacity of the new bit set
+	 */
+	private synchronized void growPathFlags(int maxSize) {
+		AtomicBitSet pf = pathFlags;
+		if (pf != null && pf.capacity() >= maxSize)
+			return;
+
+		// Make sure that the field is set only after the new bit set is fully
+		// initialized
+		AtomicBitSet newFlags = new AtomicBitSet(maxSize);
+		copyPathFlags(pf, newFlags);
+		pathFlags = newFlags;
+
+		// Other threads may have set bits on the old bit set after we copied it,
+		// but before they saw the new one. Copy these bits as well. We hold the
+		// lock until we are done, so that the next replacement copies from a
+		// complete bit set.
+		copyPathFlags(pf, newFlags);
+	}
+
+	private static void copyPathFlags(AtomicBitSet from, AtomicBitSet to) {
+		if (from != null) {
+			for (int i = 0; i < from.capacity(); i++) {
+				if (from.get(i))
+					to.set(i);
 			}
 		}
-		return pathFlags.set(id);
 	}
 
 	public Abstraction injectSourceContext(SourceContext sourceContext) {
@@ -0,0 +1,325 @@
+package soot.jimple.infoflow.data;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import heros.solver.Pair;
+import soot.jimple.Stmt;
+import soot.jimple.infoflow.InfoflowConfiguration;
+import soot.jimple.infoflow.InfoflowConfiguration.PathConfiguration;
+import soot.jimple.infoflow.sourcesSinks.definitions.ISourceSinkDefinition;
+
+/**
+ * Variant of the {@link SourceContextAndPath} that stores the taint propagation
+ * path and the call stack as persistent linked lists. Extending a path only
+ * allocates a single node that points to the path it was created from, i.e.,
+ * all paths that were derived from the same partial path share that part of
+ * the path. The resulting data structure is a DAG that is rooted at the sinks.
+ *
+ * To avoid scanning the complete path for loops on every extension, each path
+ * node carries a small bit set of the hash codes of all abstractions on the
+ * path. The path only needs to be scanned if the bit of the new abstraction is
+ * already set.
+ */
+public class SharedSuffixSourceContextAndPath extends SourceContextAndPath {
+
+	/**
+	 * Immutable node in a persistent list. New elements are added in front of an
+	 * existing node without modifying that node.
+	 *
+	 * @param <T> The type of the elements in the list
+	 */
+	private static class Node<T> {
+
+		private final T element;
+		private final Node<T> parent;
+		private final int size;
+		private final int hashCode;
+		private final long filterLow;
+		private final long filterHigh;
+
+		private Node(T element, Node<T> parent) {
+			this.element = element;
+			this.parent = parent;
+			this.size = parent == null ? 1 : parent.size + 1;
+			this.hashCode = 31 * (parent == null ? 0 : parent.hashCode) + element.hashCode();
+
+			// Record the element in the filter
+			int bit = filterBit(element);
+			long low = parent == null ? 0 : parent.filterLow;
+			long high = parent == null ? 0 : parent.filterHigh;
+			if (bit < 64)
+				low |= 1L << bit;
+			else
+				high |= 1L << (bit - 64);
+			this.filterLow = low;
+			this.filterHigh = high;
+		}
+
+		/**
+		 * Checks whether the filter indicates that an element equal to the given one
+		 * might be contained in the list. If this method returns false, there is no
+		 * such element.
+		 *
+		 * @param element The element to look for
+		 * @return True if an element equal to the given one might be contained in the
+		 *         list, false if there definitely is no such element
+		 */
+		private boolean mayContain(T element) {
+			int bit = filterBit(element);
+			if (bit < 64)
+				return (filterLow & (1L << bit)) != 0;
+			return (filterHigh & (1L << (bit - 64))) != 0;
+		}
+
+		private static int filterBit(Object element) {
+			int h = element.hashCode();
+			h ^= h >>> 16;
+			h *= 0x85ebca6b;
+			h ^= h >>> 13;
+			return h & 127;
+		}
+
+		/**
+		 * Checks whether the list that starts at this node contains the same elements
+		 * as the list that starts at the given node
+		 *
+		 * @param other The other list
+		 * @return True if both lists contain the same elements in the same order,
+		 *         otherwise false
+		 */
+		private boolean sameElements(Node<T> other) {
+			Node<T> n1 = this;
+			Node<T> n2 = other;
+			while (n1 != n2) {
+				// Once we reach a shared suffix, the remainder is equal anyway
+				if (n1 == null || n2 == null)
+					return false;
+				if (n1.size != n2.size || n1.hashCode != n2.hashCode)
+					return false;
+				if (!n1.element.equals(n2.element))
+					return false;
+				n1 = n1.parent;
+				n2 = n2.parent;
+			}
+			return true;
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (obj == null || getClass() != obj.getClass())
+				return false;
+			return sameElements((Node<T>) obj);
+		}
+
+	}
+
+	private Node<Abstraction> pathHead = null;
+	private Node<Stmt> callStackHead = null;
+	private int hashCode = 0;
+
+	public SharedSuffixSourceContextAndPath(ISourceSinkDefinition definition, AccessPath value, Stmt stmt) {
+		this(definition, value, stmt, null);
+	}
+
+	public SharedSuffixSourceContextAndPath(ISourceSinkDefinition definition, AccessPath value, Stmt stmt,
+			Object userData) {
+		super(definition, value, stmt, userData);
+	}
+
+	@Override
+	public List<Stmt> getPath() {
+		if (pathHead == null)
+			return Collections.<Stmt>emptyList();
+		List<Stmt> stmtPath = new ArrayList<>(pathHead.size);
+		for (Node<Abstraction> n = pathHead; n != null; n = n.parent) {
+			Abstraction abs = n.element;
+			if (abs.getCurrentStmt() != null)
+				stmtPath.add(abs.getCurrentStmt());
+		}
+		return stmtPath;
+	}
+
+	@Override
+	public List<Abstraction> getAbstractionPath() {
+		if (pathHead == null)
+			return null;
+
+		List<Abstraction> reversePath = new ArrayList<>(pathHead.size);
+		for (Node<Abstraction> n = pathHead; n != null; n = n.parent)
+			reversePath.add(n.element);
+		return reversePath;
+	}
+
+	@Override
+	public SourceContextAndPath extendPath(Abstraction abs, PathConfiguration pathConfig) {
+		if (abs == null)
+			return this;
+
+		// If we have no data at all, there is nothing we can do here
+		if (abs.getCurrentStmt() == null && abs.getCorrespondingCallSite() == null)
+			return this;
+
+		// If we don't track paths and have nothing to put on the stack, there
+		// is no need to create a new object
+		final boolean trackPath = pathConfig == null ? true : pathConfig.getPathReconstructionMode().reconstructPaths();
+		if (abs.getCorrespondingCallSite() == null && !trackPath)
+			return this;
+
+		SharedSuffixSourceContextAndPath scap = null;
+		if (trackPath && abs.getCurrentStmt() != null) {
+			if (pathHead != null) {
+				// All abstractions that would close a loop are equal to the new
+				// abstraction. Neighbors are only registered for equal abstractions as
+				// well. If the filter does not know the new abstraction, we can thus
+				// skip the scan.
+				if (pathHead.mayContain(abs) && containsLoop(abs))
+					return null;
+
+				// We cannot leave the same method at two different sites
+				Abstraction topAbs = pathHead.element;
+				if (topAbs.equals(abs) && topAbs.getCorrespondingCallSite() != null
+						&& topAbs.getCorrespondingCallSite() == abs.getCorrespondingCallSite()
+						&& topAbs.getCurrentStmt() != abs.getCurrentStmt())
+					return null;
+			}
+
+			if (pathConfig != null && pathConfig.getMaxPathLength() > 0 && pathHead != null
+					&& pathHead.size >= pathConfig.getMaxPathLength())
+				return null;
+
+			// Extend the propagation path
+			scap = clone();
+			scap.pathHead = new Node<>(abs, pathHead);
+		}
+
+		// Extend the call stack
+		if (abs.getCorrespondingCallSite() != null && abs.getCorrespondingCallSite() != abs.getCurrentStmt()) {
+			if (pathConfig != null && pathConfig.getMaxCallStackSize() > 0 && callStackHead != null
+					&& callStackHead.size >= pathConfig.getMaxCallStackSize())
+				return null;
+			if (scap == null)
+				scap = clone();
+			scap.callStackHead = new Node<>(abs.getCorrespondingCallSite(), callStackHead);
+		}
+
+		this.neighborCounter = abs.getNeighbors() == null ? 0 : abs.getNeighbors().size();
+		return scap == null ? this : scap;
+	}
+
+	/**
+	 * Checks whether adding the given abstraction to the current path would close
+	 * a loop
+	 *
+	 * @param abs The abstraction to add
+	 * @return True if the path already contains the given abstraction, one of its
+	 *         neighbors, or an equal abstraction at the same statement
+	 */
+	private boolean containsLoop(Abstraction abs) {
+		for (Node<Abstraction> n = pathHead; n != null; n = n.parent) {
+			Abstraction a = n.element;
+			if (a == abs)
+				return true;
+
+			// Do not run into loops. If we come back to the same
+			// abstraction, we don't got on with a neighbor
+			if (a.getNeighbors() != null && a.getNeighbors().contains(abs))
+				return true;
+
+			// If this is exactly the same abstraction as one we have
+			// seen before, we skip it. Otherwise, we would run through
+			// loops infinitely.
+			if (a.getCurrentStmt() == abs.getCurrentStmt()
+					&& a.getCorrespondingCallSite() == abs.getCorrespondingCallSite() && a.equals(abs))
+				return true;
+		}
+		return false;
+	}
+
+	@Override
+	public Pair<SourceContextAndPath, Stmt> popTopCallStackItem() {
+		if (callStackHead == null)
+			return null;
+
+		SharedSuffixSourceContextAndPath scap = clone();
+		scap.callStackHead = callStackHead.parent;
+		return new Pair<>(scap, callStackHead.element);
+	}
+
+	@Override
+	public boolean isCallStackEmpty() {
+		return callStackHead == null;
+	}
+
+	/**
+	 * Gets an object that represents the current call stack. Two paths have equal
+	 * call stack keys if and only if their call stacks contain the same call sites
+	 * in the same order.
+	 *
+	 * @return The key of the current call stack, or null if the call stack is
+	 *         empty
+	 */
+	public Object getCallStackKey() {
+		return callStackHead;
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		if (this == other)
+			return true;
+		if (other == null || getClass() != other.getClass())
+			return false;
+		SharedSuffixSourceContextAndPath scap = (SharedSuffixSourceContextAndPath) other;
+
+		if (this.hashCode != 0 && scap.hashCode != 0 && this.hashCode != scap.hashCode)
+			return false;
+
+		if (this.callStackHead == null) {
+			if (scap.callStackHead != null)
+				return false;
+		} else if (scap.callStackHead == null || !this.callStackHead.sameElements(scap.callStackHead))
+			return false;
+
+		if (!InfoflowConfiguration.getPathAgnosticResults() && pathHead != null && scap.pathHead != null) {
+			if (!this.pathHead.sameElements(scap.pathHead))
+				return false;
+		}
+
+		// The inherited path and call stack are never set on this class, so the
+		// base class only compares the source context
+		return super.equals(other);
+	}
+
+	@Override
+	public int hashCode() {
+		if (hashCode != 0)
+			return hashCode;
+
+		final int prime = 31;
+		int result = super.hashCode();
+		if (!InfoflowConfiguration.getPathAgnosticResults())
+			result = prime * result + ((pathHead == null) ? 0 : pathHead.hashCode);
+		result = prime * result + ((callStackHead == null) ? 0 : callStackHead.hashCode);
+		this.hashCode = result;
+		return hashCode;
+	}
+
+	@Override
+	public SharedSuffixSourceContextAndPath clone() {
+		final SharedSuffixSourceContextAndPath scap = new SharedSuffixSourceContextAndPath(definition, accessPath,
+				stmt, userData);
+		scap.pathHead = pathHead;
+		scap.callStackHead = callStackHead;
+		return scap;
+	}
+
+}
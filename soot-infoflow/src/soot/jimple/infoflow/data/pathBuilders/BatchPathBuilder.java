@@ -111,6 +111,11 @@ public class BatchPathBuilder extends AbstractAbstractionPathBuilder {
 		innerBuilder.reset();
 	}
 
+	@Override
+	public void addResultAvailableHandler(OnPathBuilderResultAvailable handler) {
+		innerBuilder.addResultAvailableHandler(handler);
+	}
+
 	@Override
 	public void addStatusListener(IMemoryBoundedSolverStatusNotification listener) {
 		innerBuilder.addStatusListener(listener);
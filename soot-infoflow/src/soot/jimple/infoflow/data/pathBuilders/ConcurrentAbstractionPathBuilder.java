@@ -147,6 +147,14 @@ public abstract class ConcurrentAbstractionPathBuilder extends AbstractAbstracti
 		this.notificationListeners.add(listener);
 	}
 
+	/**
+	 * Releases the partial paths that the builder has cached. This method must only
+	 * be called when no path reconstruction tasks are running.
+	 */
+	protected void releasePathCache() {
+		// By default, we do not cache anything
+	}
+
 	/**
 	 * Gets the executor that runs the tasks for the path reconstruction
 	 * 
@@ -153,6 +153,11 @@ public class ContextInsensitivePathBuilder extends ConcurrentAbstractionPathBuil
 		return true;
 	}
 
+	@Override
+	protected void releasePathCache() {
+		pathCache.clear();
+	}
+
 	@Override
 	public void runIncrementalPathCompuation() {
 		Set<AbstractionAtSink> incrementalAbs = new HashSet<>();
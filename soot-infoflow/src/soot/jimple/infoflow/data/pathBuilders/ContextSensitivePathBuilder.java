@@ -1,14 +1,24 @@
 package soot.jimple.infoflow.data.pathBuilders;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import heros.solver.Pair;
 import soot.jimple.Stmt;
+import soot.jimple.infoflow.InfoflowConfiguration;
 import soot.jimple.infoflow.InfoflowManager;
 import soot.jimple.infoflow.collect.ConcurrentIdentityHashMultiMap;
 import soot.jimple.infoflow.data.Abstraction;
 import soot.jimple.infoflow.data.AbstractionAtSink;
+import soot.jimple.infoflow.data.SharedSuffixSourceContextAndPath;
 import soot.jimple.infoflow.data.SourceContext;
 import soot.jimple.infoflow.data.SourceContextAndPath;
 import soot.jimple.infoflow.results.InfoflowResults;
@@ -21,12 +31,129 @@ import soot.jimple.infoflow.solver.executors.InterruptableExecutor;
  * is context-sensitive which makes it more precise than the
  * {@link ContextInsensitivePathBuilder}, but also a bit slower.
  * 
+ * Paths that reach the same abstraction with the same call stack are extended
+ * only once. All further paths that reach such a state are merged into it.
+ * 
  * @author Steven Arzt
  */
 public class ContextSensitivePathBuilder extends ConcurrentAbstractionPathBuilder {
 
 	protected ConcurrentIdentityHashMultiMap<Abstraction, SourceContextAndPath> pathCache = new ConcurrentIdentityHashMultiMap<>();
 
+	/**
+	 * Modes in which identical states of the path reconstruction are shared
+	 */
+	private enum StateSharing {
+		/**
+		 * Every path is a separate result and is extended on its own
+		 */
+		None,
+
+		/**
+		 * All paths that reach the same abstraction with the same call stack from the
+		 * same sink share one path node and one task
+		 */
+		PerSink,
+
+		/**
+		 * All paths that reach the same abstraction with the same call stack share
+		 * one path node and one task, regardless of the sink at which they started
+		 */
+		AllSinks
+	}
+
+	/**
+	 * A state of the path reconstruction, i.e., an abstraction together with the
+	 * call stack under which it has been reached. The remainder of the path
+	 * reconstruction only depends on this state. If states are shared between
+	 * sinks, every state records the states from which it has been reached and the
+	 * sinks at which it has been created, so that the sources found below the
+	 * state can be reported for every sink that reaches it.
+	 */
+	private static class PathState {
+
+		private final Abstraction abstraction;
+		private final Object callStack;
+		private final SourceContextAndPath path;
+		private final boolean perSink;
+		private final int hashCode;
+
+		private final List<PathState> parents;
+		private final List<SourceContextAndPath> roots;
+		private final Set<PathState> sourcesBelow;
+
+		/**
+		 * Creates a new path reconstruction state
+		 * 
+		 * @param abstraction The abstraction that has been reached
+		 * @param path        The path on which the abstraction has been reached
+		 * @param sharing     The mode in which states are shared
+		 * @param parent      The state from which this state has been reached, or null
+		 *                    if this state has been created at a sink
+		 */
+		private PathState(Abstraction abstraction, SharedSuffixSourceContextAndPath path, StateSharing sharing,
+				PathState parent) {
+			this.abstraction = abstraction;
+			this.callStack = path.getCallStackKey();
+			this.path = path;
+			this.perSink = sharing == StateSharing.PerSink;
+
+			int result = System.identityHashCode(abstraction);
+			result = 31 * result + Objects.hashCode(callStack);
+			if (perSink)
+				result = 31 * result + Objects.hash(path.getDefinition(), path.getAccessPath(), path.getStmt(),
+						path.getUserData());
+			this.hashCode = result;
+
+			if (sharing == StateSharing.AllSinks) {
+				this.parents = new ArrayList<>(1);
+				this.roots = new ArrayList<>(1);
+				this.sourcesBelow = new HashSet<>();
+				if (parent == null)
+					roots.add(path);
+				else
+					parents.add(parent);
+			} else {
+				this.parents = null;
+				this.roots = null;
+				this.sourcesBelow = null;
+			}
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (obj == null || getClass() != obj.getClass())
+				return false;
+			PathState other = (PathState) obj;
+			if (abstraction != other.abstraction || hashCode != other.hashCode)
+				return false;
+			if (!Objects.equals(callStack, other.callStack))
+				return false;
+			if (perSink) {
+				if (path.getStmt() != other.path.getStmt())
+					return false;
+				if (!Objects.equals(path.getDefinition(), other.path.getDefinition()))
+					return false;
+				if (!Objects.equals(path.getAccessPath(), other.path.getAccessPath()))
+					return false;
+				if (!Objects.equals(path.getUserData(), other.path.getUserData()))
+					return false;
+			}
+			return true;
+		}
+
+	}
+
+	private final StateSharing stateSharing;
+	private final ConcurrentMap<PathState, PathState> pathStates = new ConcurrentHashMap<>();
+
 	/**
 	 * Creates a new instance of the {@link ContextSensitivePathBuilder} class
 	 * 
@@ -36,6 +163,29 @@ public class ContextSensitivePathBuilder extends ConcurrentAbstractionPathBuilde
 	 */
 	public ContextSensitivePathBuilder(InfoflowManager manager, InterruptableExecutor executor) {
 		super(manager, executor);
+		this.stateSharing = getStateSharing(manager == null ? null : manager.getConfig());
+	}
+
+	/**
+	 * Decides in which way identical path reconstruction states can be shared.
+	 * If every path is a separate result, nothing can be shared. If paths are not
+	 * reported, the path up to a state does not matter and states can be shared
+	 * between sinks. Otherwise, the path is part of the result, so only paths
+	 * from the same sink can be shared. When results are reported incrementally,
+	 * new neighbors are followed from the cached paths of their sink, so states
+	 * are not shared between sinks either.
+	 * 
+	 * @param config The data flow configuration
+	 * @return The mode in which states can be shared
+	 */
+	private StateSharing getStateSharing(InfoflowConfiguration config) {
+		if (!InfoflowConfiguration.getPathAgnosticResults())
+			return StateSharing.None;
+		if (pathConfig != null && pathConfig.getPathReconstructionMode().reconstructPaths())
+			return StateSharing.PerSink;
+		if (config != null && config.getIncrementalResultReporting())
+			return StateSharing.PerSink;
+		return StateSharing.AllSinks;
 	}
 
 	/**
@@ -45,53 +195,108 @@ public class ContextSensitivePathBuilder extends ConcurrentAbstractionPathBuilde
 	 */
 	protected class SourceFindingTask implements Runnable {
 		private final Abstraction abstraction;
-
+		private final SourceContextAndPath path;
+		private final PathState state;
+
+		/**
+		 * Creates a task that processes all paths that are currently known for the
+		 * given abstraction
+		 * 
+		 * @param abstraction The abstraction whose paths to extend
+		 */
 		public SourceFindingTask(Abstraction abstraction) {
+			this(abstraction, null);
+		}
+
+		/**
+		 * Creates a task that only processes a single path for the given abstraction.
+		 * Paths that are added later on are processed by their own tasks, so no path
+		 * is extended more than once.
+		 * 
+		 * @param abstraction The abstraction whose path to extend
+		 * @param path        The path to extend, or null to process all paths of the
+		 *                    given abstraction
+		 */
+		public SourceFindingTask(Abstraction abstraction, SourceContextAndPath path) {
+			this(abstraction, path, null);
+		}
+
+		/**
+		 * Creates a task that extends the shared path of the given path
+		 * reconstruction state
+		 * 
+		 * @param abstraction The abstraction whose path to extend
+		 * @param path        The path to extend
+		 * @param state       The state that the given path has reached, or null if
+		 *                    states are not shared
+		 */
+		private SourceFindingTask(Abstraction abstraction, SourceContextAndPath path, PathState state) {
 			this.abstraction = abstraction;
+			this.path = path;
+			this.state = state;
 		}
 
 		@Override
 		public void run() {
-			final Set<SourceContextAndPath> paths = pathCache.get(abstraction);
 			final Abstraction pred = abstraction.getPredecessor();
+			if (pred == null)
+				return;
+
+			if (path != null)
+				processPath(path, pred);
+			else {
+				final Set<SourceContextAndPath> paths = pathCache.get(abstraction);
+				if (paths != null) {
+					for (SourceContextAndPath scap : paths)
+						processPath(scap, pred);
+				}
+			}
+		}
 
-			if (pred != null && paths != null) {
-				for (SourceContextAndPath scap : paths) {
-					// Process the predecessor
-					if (processPredecessor(scap, pred)) {
-						// Schedule the predecessor
-						scheduleDependentTask(new SourceFindingTask(pred));
-					}
+		/**
+		 * Extends the given path with the given predecessor and its neighbors
+		 * 
+		 * @param scap The path to extend
+		 * @param pred The predecessor of the current abstraction
+		 */
+		private void processPath(SourceContextAndPath scap, Abstraction pred) {
+			// Process the predecessor
+			SourceFindingTask task = processPredecessor(scap, pred);
+			if (task != null) {
+				// Schedule the predecessor
+				scheduleDependentTask(task);
+			}
 
-					// Process the predecessor's neighbors
-					if (pred.getNeighbors() != null) {
-						for (Abstraction neighbor : pred.getNeighbors()) {
-							if (processPredecessor(scap, neighbor)) {
-								// Schedule the predecessor
-								scheduleDependentTask(new SourceFindingTask(neighbor));
-							}
-						}
+			// Process the predecessor's neighbors
+			if (pred.getNeighbors() != null) {
+				for (Abstraction neighbor : pred.getNeighbors()) {
+					task = processPredecessor(scap, neighbor);
+					if (task != null) {
+						// Schedule the predecessor
+						scheduleDependentTask(task);
 					}
 				}
 			}
 		}
 
-		private boolean processPredecessor(SourceContextAndPath scap, Abstraction pred) {
+		private SourceFindingTask processPredecessor(SourceContextAndPath scap, Abstraction pred) {
 			// Shortcut: If this a call-to-return node, we should not enter and
 			// immediately leave again for performance reasons.
 			if (pred.getCurrentStmt() != null && pred.getCurrentStmt() == pred.getCorrespondingCallSite()) {
 				SourceContextAndPath extendedScap = scap.extendPath(pred, pathConfig);
 				if (extendedScap == null)
-					return false;
+					return null;
 
+				if (state != null)
+					return addSharedPath(state, pred, extendedScap);
 				checkForSource(pred, extendedScap);
-				return pathCache.put(pred, extendedScap);
+				return pathCache.put(pred, extendedScap) ? new SourceFindingTask(pred, extendedScap) : null;
 			}
 
 			// If we enter a method, we put it on the stack
 			SourceContextAndPath extendedScap = scap.extendPath(pred, pathConfig);
 			if (extendedScap == null)
-				return false;
+				return null;
 
 			// Do we process a method return?
 			if (pred.getCurrentStmt() != null && pred.getCurrentStmt().containsInvokeExpr()) {
@@ -102,7 +307,7 @@ public class ContextSensitivePathBuilder extends ConcurrentAbstractionPathBuilde
 					Stmt topCallStackItem = pathAndItem.getO2();
 					// Make sure that we don't follow an unrealizable path
 					if (topCallStackItem != pred.getCurrentStmt())
-						return false;
+						return null;
 
 					// We have returned from a function
 					extendedScap = pathAndItem.getO1();
@@ -110,15 +315,18 @@ public class ContextSensitivePathBuilder extends ConcurrentAbstractionPathBuilde
 			}
 
 			// Add the new path
-			checkForSource(pred, extendedScap);
+			if (state == null)
+				checkForSource(pred, extendedScap);
 
 			final int maxPaths = pathConfig.getMaxPathsPerAbstraction();
 			if (maxPaths > 0) {
 				Set<SourceContextAndPath> existingPaths = pathCache.get(pred);
 				if (existingPaths != null && existingPaths.size() > maxPaths)
-					return false;
+					return null;
 			}
-			return pathCache.put(pred, extendedScap);
+			if (state != null)
+				return addSharedPath(state, pred, extendedScap);
+			return pathCache.put(pred, extendedScap) ? new SourceFindingTask(pred, extendedScap) : null;
 		}
 
 		@Override
@@ -126,6 +334,7 @@ public class ContextSensitivePathBuilder extends ConcurrentAbstractionPathBuilde
 			final int prime = 31;
 			int result = 1;
 			result = prime * result + ((abstraction == null) ? 0 : abstraction.hashCode());
+			result = prime * result + ((path == null) ? 0 : path.hashCode());
 			return result;
 		}
 
@@ -140,11 +349,106 @@ public class ContextSensitivePathBuilder extends ConcurrentAbstractionPathBuilde
 			SourceFindingTask other = (SourceFindingTask) obj;
 			if (abstraction != other.abstraction)
 				return false;
+			if (path != other.path)
+				return false;
 			return true;
 		}
 
 	}
 
+	/**
+	 * Registers the given path for the state that it reaches. If the state is new,
+	 * the given path becomes the shared path of the state. Otherwise, the path is
+	 * merged into the existing state and need not be extended any further.
+	 * 
+	 * @param parent The state from which the given path was extended, or null if
+	 *               the path starts at a sink
+	 * @param abs    The abstraction that the path has reached
+	 * @param scap   The path
+	 * @return The task for extending the path, or null if no further processing is
+	 *         required
+	 */
+	private SourceFindingTask addSharedPath(PathState parent, Abstraction abs, SourceContextAndPath scap) {
+		PathState state = new PathState(abs, (SharedSuffixSourceContextAndPath) scap, stateSharing, parent);
+		PathState existingState = pathStates.putIfAbsent(state, state);
+		if (existingState != null) {
+			if (stateSharing == StateSharing.AllSinks)
+				joinState(existingState, parent, scap);
+			return null;
+		}
+
+		pathCache.put(abs, scap);
+		if (abs.getPredecessor() == null) {
+			if (stateSharing == StateSharing.AllSinks)
+				propagateSource(state, state);
+			else
+				checkForSource(abs, scap);
+			return null;
+		}
+		return new SourceFindingTask(abs, scap, state);
+	}
+
+	/**
+	 * Records that an existing state has been reached again, either from another
+	 * state or from another sink. All sources that have already been found below
+	 * the existing state are reported for the new predecessor.
+	 * 
+	 * @param state  The existing state
+	 * @param parent The state from which the existing state has been reached
+	 *               again, or null if it has been reached from a sink
+	 * @param root   The path that has reached the existing state
+	 */
+	private void joinState(PathState state, PathState parent, SourceContextAndPath root) {
+		List<PathState> sources;
+		synchronized (state) {
+			if (parent != null)
+				state.parents.add(parent);
+			else if (!state.roots.contains(root))
+				state.roots.add(root);
+			else
+				return;
+			if (state.sourcesBelow.isEmpty())
+				return;
+			sources = new ArrayList<>(state.sourcesBelow);
+		}
+
+		for (PathState source : sources) {
+			if (parent != null)
+				propagateSource(parent, source);
+			else
+				checkForSource(source.abstraction, root);
+		}
+	}
+
+	/**
+	 * Reports the given source for all sinks from which the given state can be
+	 * reached
+	 * 
+	 * @param start  The state at which to start the search for sinks
+	 * @param source The state of the source abstraction
+	 */
+	private void propagateSource(PathState start, PathState source) {
+		Deque<PathState> worklist = new ArrayDeque<>();
+		worklist.add(start);
+		while (!worklist.isEmpty()) {
+			PathState curState = worklist.poll();
+			List<PathState> parents;
+			List<SourceContextAndPath> roots;
+			synchronized (curState) {
+				if (!curState.sourcesBelow.add(source))
+					continue;
+				parents = curState.parents.isEmpty() ? Collections.<PathState>emptyList()
+						: new ArrayList<>(curState.parents);
+				roots = curState.roots.isEmpty() ? Collections.<SourceContextAndPath>emptyList()
+						: new ArrayList<>(curState.roots);
+			}
+
+			for (SourceContextAndPath root : roots)
+				checkForSource(source.abstraction, root);
+			worklist.addAll(parents);
+		}
+	}
+
 	/**
 	 * Checks whether the given abstraction is a source. If so, a result entry is
 	 * created.
@@ -201,13 +505,15 @@ public class ContextSensitivePathBuilder extends ConcurrentAbstractionPathBuilde
 
 	@Override
 	protected Runnable getTaintPathTask(final AbstractionAtSink abs) {
-		SourceContextAndPath scap = new SourceContextAndPath(abs.getSinkDefinition(),
+		SourceContextAndPath scap = new SharedSuffixSourceContextAndPath(abs.getSinkDefinition(),
 				abs.getAbstraction().getAccessPath(), abs.getSinkStmt());
 		scap = scap.extendPath(abs.getAbstraction(), pathConfig);
 
+		if (stateSharing != StateSharing.None)
+			return addSharedPath(null, abs.getAbstraction(), scap);
 		if (pathCache.put(abs.getAbstraction(), scap))
 			if (!checkForSource(abs.getAbstraction(), scap))
-				return new SourceFindingTask(abs.getAbstraction());
+				return new SourceFindingTask(abs.getAbstraction(), scap);
 		return null;
 	}
 
@@ -221,4 +527,10 @@ public class ContextSensitivePathBuilder extends ConcurrentAbstractionPathBuilde
 		return true;
 	}
 
+	@Override
+	protected void releasePathCache() {
+		pathCache.clear();
+		pathStates.clear();
+	}
+
 }
@@ -0,0 +1,222 @@
+package soot.jimple.infoflow.data.pathBuilders;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import soot.jimple.Stmt;
+import soot.jimple.infoflow.InfoflowManager;
+import soot.jimple.infoflow.data.AbstractionAtSink;
+import soot.jimple.infoflow.memory.ISolverTerminationReason;
+import soot.jimple.infoflow.results.InfoflowResults;
+import soot.jimple.infoflow.solver.executors.InterruptableExecutor;
+
+/**
+ * Path builder that forwards its requests to a concurrent path builder sink by
+ * sink. The sinks with the least abstractions are processed first, so that the
+ * cheap results become available early. New sinks are only submitted while the
+ * current wave of sinks is smaller than the configured batch size and the
+ * memory that has been allocated since the wave started is below the configured
+ * budget. Since the path reconstruction runs asynchronously, the builder gives
+ * the running tasks some time after every submission and checks the memory
+ * again before it submits the next sink. Once a wave has completed, the path
+ * cache of the inner builder is cleared, because all sinks that share its
+ * entries are done. The inner builder is reset before every wave.
+ *
+ * Results are reported to the handlers of this builder as soon as the inner
+ * path builder finds them.
+ *
+ */
+public class StreamingPathBuilder extends AbstractAbstractionPathBuilder {
+
+	/**
+	 * The time in milliseconds for which to wait for the running tasks after
+	 * submitting a sink, before the memory consumption is checked again
+	 */
+	private static final long MEMORY_POLL_INTERVAL = 20;
+
+	private final ConcurrentAbstractionPathBuilder innerBuilder;
+	private ISolverTerminationReason terminationReason = null;
+
+	public StreamingPathBuilder(InfoflowManager manager, ConcurrentAbstractionPathBuilder innerBuilder) {
+		super(manager);
+		this.innerBuilder = innerBuilder;
+	}
+
+	@Override
+	public void computeTaintPaths(Set<AbstractionAtSink> res) {
+		if (res == null || res.isEmpty())
+			return;
+
+		// Group the abstractions by sink
+		Map<Stmt, List<AbstractionAtSink>> sinkToAbs = new LinkedHashMap<>();
+		for (AbstractionAtSink abs : res) {
+			List<AbstractionAtSink> absAtSink = sinkToAbs.get(abs.getSinkStmt());
+			if (absAtSink == null) {
+				absAtSink = new ArrayList<>();
+				sinkToAbs.put(abs.getSinkStmt(), absAtSink);
+			}
+			absAtSink.add(abs);
+		}
+
+		// Process the cheap sinks first
+		List<List<AbstractionAtSink>> sinks = new ArrayList<>(sinkToAbs.values());
+		sinkToAbs = null;
+		Collections.sort(sinks, new Comparator<List<AbstractionAtSink>>() {
+
+			@Override
+			public int compare(List<AbstractionAtSink> o1, List<AbstractionAtSink> o2) {
+				return Integer.compare(o1.size(), o2.size());
+			}
+
+		});
+
+		final long memoryBudget = pathConfig.getPathReconstructionMemoryBudget();
+		final int batchSize = Math.max(1, pathConfig.getPathReconstructionBatchSize());
+		logger.info("Reconstructing paths for {} sinks with a memory budget of {} MB", sinks.size(), memoryBudget);
+
+		int waveSize = 0;
+		int doneSinks = 0;
+		long waveStartMemory = 0;
+		for (int i = 0; i < sinks.size(); i++) {
+			if (innerBuilder.isKilled())
+				break;
+
+			// Do not overload the executor. We wait for the current wave to complete
+			// before we submit more sinks.
+			if (waveSize > 0 && (waveSize >= batchSize
+					|| (memoryBudget > 0 && getUsedMemory() - waveStartMemory > memoryBudget))) {
+				completeWave();
+				doneSinks += waveSize;
+				waveSize = 0;
+				logger.info("Path reconstruction completed for {} of {} sinks", doneSinks, sinks.size());
+
+				// Do not start a new wave after a timeout or when running out of memory
+				if (innerBuilder.isKilled())
+					break;
+			}
+
+			// Start a new wave
+			if (waveSize == 0) {
+				innerBuilder.reset();
+				waveStartMemory = getUsedMemory();
+			}
+
+			List<AbstractionAtSink> sink = sinks.get(i);
+			sinks.set(i, null);
+			innerBuilder.computeTaintPaths(new HashSet<>(sink));
+			waveSize++;
+
+			// Give the new tasks the chance to allocate their memory before we check
+			// whether we may submit another sink into the current wave
+			if (memoryBudget > 0 && waveSize < batchSize)
+				awaitWaveProgress();
+		}
+		if (waveSize > 0)
+			completeWave();
+	}
+
+	/**
+	 * Waits for the path reconstruction tasks of the current wave of sinks to make
+	 * some progress. This method returns as soon as all tasks have completed or
+	 * the polling interval has elapsed.
+	 */
+	private void awaitWaveProgress() {
+		try {
+			innerBuilder.getExecutor().pollCompletion(MEMORY_POLL_INTERVAL, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			logger.error("Could not wait for executor progress", e);
+		}
+	}
+
+	/**
+	 * Waits for the path reconstruction tasks of the current wave of sinks to
+	 * complete and releases the memory that is no longer required afterwards
+	 */
+	private void completeWave() {
+		final InterruptableExecutor resultExecutor = innerBuilder.getExecutor();
+		try {
+			// The path reconstruction should stop on time anyway. In case it doesn't, we
+			// make sure that we don't get stuck.
+			long pathTimeout = pathConfig.getPathReconstructionTimeout();
+			if (pathTimeout > 0)
+				resultExecutor.awaitCompletion(pathTimeout + 20, TimeUnit.SECONDS);
+			else
+				resultExecutor.awaitCompletion();
+		} catch (InterruptedException e) {
+			logger.error("Could not wait for executor termination", e);
+		}
+		resultExecutor.reset();
+
+		// Save the termination reason
+		if (this.terminationReason == null)
+			this.terminationReason = innerBuilder.getTerminationReason();
+		else
+			this.terminationReason = this.terminationReason.combine(innerBuilder.getTerminationReason());
+
+		// The cached paths of the completed sinks are no longer required
+		innerBuilder.releasePathCache();
+	}
+
+	/**
+	 * Gets the amount of memory that is currently in use
+	 *
+	 * @return The used memory in megabytes
+	 */
+	private static long getUsedMemory() {
+		Runtime runtime = Runtime.getRuntime();
+		return (runtime.totalMemory() - runtime.freeMemory()) / 1000 / 1000;
+	}
+
+	@Override
+	public InfoflowResults getResults() {
+		return innerBuilder.getResults();
+	}
+
+	@Override
+	public void addResultAvailableHandler(OnPathBuilderResultAvailable handler) {
+		innerBuilder.addResultAvailableHandler(handler);
+	}
+
+	@Override
+	public void runIncrementalPathCompuation() {
+		innerBuilder.runIncrementalPathCompuation();
+	}
+
+	@Override
+	public void forceTerminate(ISolverTerminationReason reason) {
+		innerBuilder.forceTerminate(reason);
+	}
+
+	@Override
+	public boolean isTerminated() {
+		return innerBuilder.isTerminated();
+	}
+
+	@Override
+	public boolean isKilled() {
+		return innerBuilder.isKilled();
+	}
+
+	@Override
+	public ISolverTerminationReason getTerminationReason() {
+		return terminationReason;
+	}
+
+	@Override
+	public void reset() {
+		innerBuilder.reset();
+	}
+
+	@Override
+	public void addStatusListener(IMemoryBoundedSolverStatusNotification listener) {
+		innerBuilder.addStatusListener(listener);
+	}
+
+}
@@ -0,0 +1,261 @@
+package soot.jimple.infoflow.distributed;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import soot.jimple.infoflow.InfoflowConfiguration;
+import soot.jimple.infoflow.results.InfoflowResults;
+import soot.jimple.infoflow.results.binary.BinaryResultsReader;
+import soot.jimple.infoflow.results.binary.BinaryResultsWriter;
+import soot.jimple.infoflow.results.xml.InfoflowResultsReader;
+import soot.jimple.infoflow.results.xml.InfoflowResultsSerializer;
+import soot.jimple.infoflow.results.xml.SerializedInfoflowResults;
+
+/**
+ * Coordinator that distributes a data flow analysis across multiple worker
+ * processes. Every worker loads the complete program, but only uses one
+ * partition of the sources as seeds (see
+ * {@link InfoflowConfiguration#setSeedPartition(int, int)}). The worker
+ * reconstructs the paths for its own results and writes them into a results
+ * file. The coordinator merges these files into a single result.
+ *
+ * The protocol between coordinator and workers is file-based. Each worker is
+ * started from a command template in which the placeholders
+ * {@value #PLACEHOLDER_PARTITION}, {@value #PLACEHOLDER_PARTITION_COUNT}, and
+ * {@value #PLACEHOLDER_OUTPUT} are replaced with the one-based partition
+ * number, the number of partitions, and the file into which the worker shall
+ * write its results. A worker has succeeded if it terminates with exit code 0
+ * and has created a non-empty results file. To run the workers on other
+ * machines, the command template can invoke a remote shell, as long as the
+ * results directory is shared between the machines.
+ *
+ * Sources and additional seeds are split across the workers. Sinks are not,
+ * i.e., every worker reports the sink count of the complete program. If a
+ * worker fails, the merged results carry the
+ * {@link InfoflowResults#TERMINATION_PARTIAL_RESULTS} flag.
+ */
+public class DistributedAnalysisCoordinator {
+
+	private static final Logger logger = LoggerFactory.getLogger(DistributedAnalysisCoordinator.class);
+
+	public static final String PLACEHOLDER_PARTITION = "{partition}";
+	public static final String PLACEHOLDER_PARTITION_COUNT = "{partitions}";
+	public static final String PLACEHOLDER_OUTPUT = "{output}";
+
+	private final List<String> workerCommand;
+	private final int workerCount;
+	private File workingDirectory = null;
+	private long workerTimeout = 0;
+
+	private final List<Integer> failedWorkers = new ArrayList<>();
+
+	/**
+	 * Creates a new instance of the {@link DistributedAnalysisCoordinator} class
+	 *
+	 * @param workerCommand The command template for starting a worker process
+	 * @param workerCount   The number of worker processes to start
+	 */
+	public DistributedAnalysisCoordinator(List<String> workerCommand, int workerCount) {
+		if (workerCount < 1)
+			throw new IllegalArgumentException("At least one worker is required");
+		this.workerCommand = workerCommand;
+		this.workerCount = workerCount;
+	}
+
+	/**
+	 * Starts the worker processes, waits for them to terminate, and merges their
+	 * results
+	 *
+	 * @return The merged results of all workers that have terminated
+	 *         successfully. If at least one worker has failed, the termination
+	 *         state of the merged results is marked as partial.
+	 * @throws IOException          Thrown if a worker could not be started or if
+	 *                              the results directory could not be created
+	 * @throws InterruptedException Thrown if the coordinator was interrupted while
+	 *                              waiting for the workers
+	 */
+	public SerializedInfoflowResults run() throws IOException, InterruptedException {
+		failedWorkers.clear();
+		File resultsDir = workingDirectory;
+		if (resultsDir == null)
+			resultsDir = Files.createTempDirectory("flowdroid-workers").toFile();
+		else if (!resultsDir.exists() && !resultsDir.mkdirs())
+			throw new IOException(String.format("Could not create directory %s", resultsDir));
+
+		// Start all workers
+		logger.info("Starting {} worker processes...", workerCount);
+		Process[] workers = new Process[workerCount];
+		File[] resultFiles = new File[workerCount];
+		SerializedInfoflowResults mergedResults = new SerializedInfoflowResults();
+		try {
+			for (int i = 0; i < workerCount; i++) {
+				resultFiles[i] = new File(resultsDir, String.format("worker-%d.results", i + 1));
+				resultFiles[i].delete();
+
+				ProcessBuilder pb = new ProcessBuilder(getWorkerCommand(i, resultFiles[i]));
+				pb.redirectErrorStream(true);
+				pb.redirectOutput(new File(resultsDir, String.format("worker-%d.log", i + 1)));
+				workers[i] = pb.start();
+			}
+
+			// Wait for the workers and collect their results
+			final long deadline = workerTimeout > 0 ? System.nanoTime() + TimeUnit.SECONDS.toNanos(workerTimeout)
+					: 0;
+			for (int i = 0; i < workerCount; i++) {
+				if (!waitForWorker(workers[i], deadline)) {
+					logger.error("Worker {} did not terminate in time", i + 1);
+					workers[i].destroyForcibly();
+					failedWorkers.add(i + 1);
+					continue;
+				}
+				if (workers[i].exitValue() != 0 || !resultFiles[i].exists() || resultFiles[i].length() == 0) {
+					logger.error("Worker {} failed with exit code {}", i + 1, workers[i].exitValue());
+					failedWorkers.add(i + 1);
+					continue;
+				}
+
+				SerializedInfoflowResults workerResults = readResults(resultFiles[i]);
+				if (workerResults == null)
+					failedWorkers.add(i + 1);
+				else
+					mergedResults.addPartition(workerResults);
+			}
+		} finally {
+			// Do not leave any workers behind if we could not start all of them or
+			// were interrupted while waiting
+			for (Process worker : workers) {
+				if (worker != null && worker.isAlive())
+					worker.destroyForcibly();
+			}
+		}
+
+		logger.info("{} of {} workers completed successfully", workerCount - failedWorkers.size(), workerCount);
+		if (!failedWorkers.isEmpty())
+			mergedResults.setTerminationState(
+					mergedResults.getTerminationState() | InfoflowResults.TERMINATION_PARTIAL_RESULTS);
+		return mergedResults;
+	}
+
+	/**
+	 * Waits for the given worker process to terminate
+	 *
+	 * @param worker   The worker process
+	 * @param deadline The point in time (in nanoseconds) until which to wait, or 0
+	 *                 to wait indefinitely
+	 * @return True if the worker has terminated, false if the deadline has passed
+	 * @throws InterruptedException Thrown if the current thread was interrupted
+	 */
+	private boolean waitForWorker(Process worker, long deadline) throws InterruptedException {
+		if (deadline == 0) {
+			worker.waitFor();
+			return true;
+		}
+		long remaining = deadline - System.nanoTime();
+		return worker.waitFor(Math.max(remaining, 0), TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Builds the command line for the worker with the given index
+	 *
+	 * @param workerIdx  The zero-based index of the worker
+	 * @param resultFile The file into which the worker shall write its results
+	 * @return The command line for the worker
+	 */
+	private List<String> getWorkerCommand(int workerIdx, File resultFile) {
+		List<String> cmd = new ArrayList<>(workerCommand.size());
+		for (String arg : workerCommand)
+			cmd.add(arg.replace(PLACEHOLDER_PARTITION, Integer.toString(workerIdx + 1))
+					.replace(PLACEHOLDER_PARTITION_COUNT, Integer.toString(workerCount))
+					.replace(PLACEHOLDER_OUTPUT, resultFile.getAbsolutePath()));
+		return cmd;
+	}
+
+	/**
+	 * Reads the results file of a worker, regardless of whether it has been
+	 * written in the XML or binary format
+	 *
+	 * @param resultFile The results file
+	 * @return The results in the given file, or null if the file could not be read
+	 */
+	private SerializedInfoflowResults readResults(File resultFile) {
+		String fileName = resultFile.getAbsolutePath();
+		try {
+			if (BinaryResultsReader.isBinaryResultsFile(fileName))
+				return new BinaryResultsReader().readResults(fileName);
+			return new InfoflowResultsReader().readResults(fileName);
+		} catch (IOException | XMLStreamException e) {
+			logger.error(String.format("Could not read worker results from %s", fileName), e);
+			return null;
+		}
+	}
+
+	/**
+	 * Sets the directory in which the workers shall place their results and log
+	 * files. If no directory is set, a temporary directory is used.
+	 *
+	 * @param workingDirectory The directory for the results and log files of the
+	 *                         workers
+	 */
+	public void setWorkingDirectory(File workingDirectory) {
+		this.workingDirectory = workingDirectory;
+	}
+
+	/**
+	 * Sets the time in seconds after which the coordinator stops waiting for the
+	 * workers. Workers that are still running afterwards are killed.
+	 *
+	 * @param workerTimeout The timeout for the workers in seconds, or 0 to wait
+	 *                      indefinitely
+	 */
+	public void setWorkerTimeout(long workerTimeout) {
+		this.workerTimeout = workerTimeout;
+	}
+
+	/**
+	 * Gets the one-based numbers of the workers that did not deliver any results
+	 * in the last run
+	 *
+	 * @return The numbers of the workers that failed
+	 */
+	public List<Integer> getFailedWorkers() {
+		return Collections.unmodifiableList(failedWorkers);
+	}
+
+	public static void main(String[] args) throws IOException, InterruptedException, XMLStreamException {
+		if (args.length < 3) {
+			System.out.println("Usage: DistributedAnalysisCoordinator <workers> <output file> <worker command...>");
+			System.out.println(String.format("The worker command may contain the placeholders %s, %s, and %s.",
+					PLACEHOLDER_PARTITION, PLACEHOLDER_PARTITION_COUNT, PLACEHOLDER_OUTPUT));
+			System.out.println("Output files ending in .fdr are written in the binary format, all others as XML.");
+			return;
+		}
+
+		DistributedAnalysisCoordinator coordinator = new DistributedAnalysisCoordinator(
+				Arrays.asList(args).subList(2, args.length), Integer.parseInt(args[0]));
+		SerializedInfoflowResults results = coordinator.run();
+		if (coordinator.getFailedWorkers().size() == coordinator.workerCount) {
+			System.err.println("No worker has delivered any results");
+			System.exit(1);
+		}
+
+		String outputFile = args[1];
+		if (outputFile.endsWith(".fdr"))
+			new BinaryResultsWriter().serialize(results, outputFile);
+		else
+			new InfoflowResultsSerializer().serialize(results, outputFile);
+		if (!coordinator.getFailedWorkers().isEmpty())
+			System.exit(2);
+	}
+
+}
@@ -1,18 +1,26 @@
 package soot.jimple.infoflow.globalTaints;
 
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntConsumer;
 
 import heros.solver.PathEdge;
 import soot.MethodOrMethodContext;
 import soot.Scene;
+import soot.SootField;
 import soot.SootMethod;
 import soot.Unit;
 import soot.ValueBox;
 import soot.jimple.StaticFieldRef;
 import soot.jimple.Stmt;
+import soot.jimple.infoflow.collect.ConcurrentHashSet;
 import soot.jimple.infoflow.data.Abstraction;
 import soot.jimple.infoflow.solver.IInfoflowSolver;
+import soot.jimple.infoflow.threading.ParallelTaskRunner;
 import soot.util.queue.QueueReader;
 
 /**
@@ -25,9 +33,15 @@ import soot.util.queue.QueueReader;
  */
 public class GlobalTaintManager {
 
-	private final Set<Abstraction> globalTaintState = new HashSet<>();
+	private final Set<Abstraction> globalTaintState = new ConcurrentHashSet<>();
 	private final Set<IInfoflowSolver> solvers;
 
+	/**
+	 * Index from static fields to the statements that read them. The index is
+	 * built when the first global taint is registered.
+	 */
+	private volatile Map<SootField, Set<Stmt>> staticFieldReaders = null;
+
 	public GlobalTaintManager(Set<IInfoflowSolver> solvers) {
 		this.solvers = solvers;
 	}
@@ -46,39 +60,90 @@ public class GlobalTaintManager {
 		if (globalTaintState.add(abs) && solvers != null && !solvers.isEmpty()) {
 			// Find statements that read the given taint. At the moment, we only support
 			// taints on static field here.
-			Set<Stmt> injectionPoints = new HashSet<>();
-			QueueReader<MethodOrMethodContext> methodListener = Scene.v().getReachableMethods().listener();
-			MethodOrMethodContext mmoc;
-			while (methodListener.hasNext() && (mmoc = methodListener.next()) != null) {
-				SootMethod sm = mmoc.method();
-				if (sm != null && sm.isConcrete()) {
+			SootField firstField = abs.getAccessPath().getFirstField();
+			Set<Stmt> injectionPoints = firstField == null ? null : getStaticFieldReaders().get(firstField);
+
+			// Notify the solvers of the new taint abstraction
+			if (injectionPoints != null && !injectionPoints.isEmpty()) {
+				for (IInfoflowSolver solver : solvers) {
+					for (Stmt stmt : injectionPoints)
+						solver.processEdge(new PathEdge<>(solver.getTabulationProblem().zeroValue(), stmt, abs));
+				}
+			}
+
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Gets the index from static fields to the statements that read them. If the
+	 * index does not exist yet, it is created.
+	 * 
+	 * @return The index from static fields to the statements that read them
+	 */
+	private Map<SootField, Set<Stmt>> getStaticFieldReaders() {
+		Map<SootField, Set<Stmt>> readers = staticFieldReaders;
+		if (readers == null) {
+			synchronized (this) {
+				readers = staticFieldReaders;
+				if (readers == null) {
+					readers = buildStaticFieldReaders();
+					staticFieldReaders = readers;
+				}
+			}
+		}
+		return readers;
+	}
+
+	/**
+	 * Scans all reachable methods for reads of static fields
+	 * 
+	 * @return The index from static fields to the statements that read them
+	 */
+	private Map<SootField, Set<Stmt>> buildStaticFieldReaders() {
+		final List<SootMethod> methods = new ArrayList<>();
+		QueueReader<MethodOrMethodContext> methodListener = Scene.v().getReachableMethods().listener();
+		MethodOrMethodContext mmoc;
+		while (methodListener.hasNext() && (mmoc = methodListener.next()) != null) {
+			SootMethod sm = mmoc.method();
+			if (sm != null && sm.isConcrete())
+				methods.add(sm);
+		}
+
+		final ConcurrentHashMap<SootField, Set<Stmt>> readers = new ConcurrentHashMap<>();
+		ParallelTaskRunner runner = new ParallelTaskRunner("FlowDroid static field index");
+		try {
+			runner.run(methods.size(), new IntConsumer() {
+
+				@Override
+				public void accept(int idx) {
+					SootMethod sm = methods.get(idx);
 					for (Unit u : sm.getActiveBody().getUnits()) {
 						if (u instanceof Stmt) {
 							Stmt stmt = (Stmt) u;
 							for (ValueBox vb : stmt.getUseBoxes()) {
 								if (vb.getValue() instanceof StaticFieldRef) {
-									StaticFieldRef fieldRef = (StaticFieldRef) vb.getValue();
-									if (abs.getAccessPath().firstFieldMatches(fieldRef.getField())) {
-										injectionPoints.add(stmt);
+									SootField field = ((StaticFieldRef) vb.getValue()).getField();
+									Set<Stmt> fieldReaders = readers.get(field);
+									if (fieldReaders == null) {
+										fieldReaders = new ConcurrentHashSet<>();
+										Set<Stmt> oldReaders = readers.putIfAbsent(field, fieldReaders);
+										if (oldReaders != null)
+											fieldReaders = oldReaders;
 									}
+									fieldReaders.add(stmt);
 								}
 							}
 						}
 					}
 				}
-			}
-
-			// Notify the solvers of the new taint abstraction
-			if (!injectionPoints.isEmpty()) {
-				for (IInfoflowSolver solver : solvers) {
-					for (Stmt stmt : injectionPoints)
-						solver.processEdge(new PathEdge<>(solver.getTabulationProblem().zeroValue(), stmt, abs));
-				}
-			}
 
-			return true;
+			});
+		} finally {
+			runner.shutdown();
 		}
-		return false;
+		return Collections.unmodifiableMap(readers);
 	}
 
 }
\ No newline at end of file
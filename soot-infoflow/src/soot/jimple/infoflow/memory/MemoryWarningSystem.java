@@ -62,6 +62,7 @@ public class MemoryWarningSystem {
 
 	private final Set<OnMemoryThresholdReached> listeners = new HashSet<>();
 	private final static NotificationListener memoryListener;
+	private static boolean listenerRegistered = false;
 	private boolean isClosed = false;
 
 	private long threshold;
@@ -72,7 +73,12 @@ public class MemoryWarningSystem {
 
 		@Override
 		public int compare(MemoryWarningSystem o1, MemoryWarningSystem o2) {
-			return Long.compare(o1.threshold, o2.threshold);
+			int r = Long.compare(o1.threshold, o2.threshold);
+			if (r == 0 && o1 != o2) {
+				// Different warning systems may share the same threshold
+				r = Integer.compare(System.identityHashCode(o1), System.identityHashCode(o2));
+			}
+			return r;
 		}
 	});
 
@@ -86,6 +92,16 @@ public class MemoryWarningSystem {
 				}
 			}
 		};
+		registerListener();
+	}
+
+	/**
+	 * Registers the global listener for memory notifications with the JVM if it is
+	 * not already registered. Callers must hold the lock on the warning systems.
+	 */
+	private static void registerListener() {
+		if (listenerRegistered)
+			return;
 
 		MemoryMXBean memoryBean = ManagementFactory.getMemoryMXBean();
 		((NotificationEmitter) memoryBean).addNotificationListener(memoryListener, new NotificationFilter() {
@@ -98,7 +114,37 @@ public class MemoryWarningSystem {
 			}
 
 		}, null);
+		listenerRegistered = true;
+	}
+
+	/**
+	 * Removes the global listener for memory notifications from the JVM. Callers
+	 * must hold the lock on the warning systems.
+	 */
+	private static void unregisterListener() {
+		if (!listenerRegistered)
+			return;
+
+		MemoryMXBean memoryBean = ManagementFactory.getMemoryMXBean();
+		try {
+			((NotificationEmitter) memoryBean).removeNotificationListener(memoryListener);
+		} catch (ListenerNotFoundException e) {
+			// Doesn't matter, we wanted to get rid of it anyway
+		}
+		listenerRegistered = false;
+	}
 
+	/**
+	 * Checks whether the global listener for memory notifications is currently
+	 * registered with the JVM
+	 * 
+	 * @return True if the JVM notifies the warning systems about memory shortages,
+	 *         false otherwise
+	 */
+	public static boolean isListenerRegistered() {
+		synchronized (warningSystems) {
+			return listenerRegistered;
+		}
 	}
 
 	private static long triggerNotification() {
@@ -191,6 +237,7 @@ public class MemoryWarningSystem {
 			logger.info(MessageFormat.format("Registered a memory warning system for {0} MiB",
 					(threshold / 1024D / 1024D)));
 			warningSystems.add(this);
+			registerListener();
 			MemoryUsage usage = tenuredGenPool.getUsage();
 			long threshold = warningSystems.iterator().next().threshold;
 			boolean useOwnImplementation = !tenuredGenPool.isUsageThresholdSupported();
@@ -272,13 +319,11 @@ public class MemoryWarningSystem {
 		logger.info("Shutting down the memory warning system...");
 		synchronized (warningSystems) {
 			warningSystems.remove(this);
-		}
 
-		MemoryMXBean memoryBean = ManagementFactory.getMemoryMXBean();
-		try {
-			((NotificationEmitter) memoryBean).removeNotificationListener(memoryListener);
-		} catch (ListenerNotFoundException e) {
-			// Doesn't matter, we wanted to get rid of it anyway
+			// The listener is shared by all warning systems, so we may only remove it
+			// once nobody is waiting for notifications anymore
+			if (warningSystems.isEmpty())
+				unregisterListener();
 		}
 		isClosed = true;
 	}
@@ -43,6 +43,7 @@ public class InfoflowResults {
 	public final static int TERMINATION_DATA_FLOW_OOM = 2;
 	public final static int TERMINATION_PATH_RECONSTRUCTION_TIMEOUT = 4;
 	public final static int TERMINATION_PATH_RECONSTRUCTION_OOM = 8;
+	public final static int TERMINATION_PARTIAL_RESULTS = 16;
 
 	private static final Logger logger = LoggerFactory.getLogger(InfoflowResults.class);
 
@@ -481,6 +482,17 @@ public class InfoflowResults {
 				|| ((terminationState & TERMINATION_PATH_RECONSTRUCTION_OOM) == TERMINATION_PATH_RECONSTRUCTION_OOM);
 	}
 
+	/**
+	 * Gets whether some parts of the analysis did not deliver any results, e.g.,
+	 * because a worker process of a distributed analysis has failed
+	 * 
+	 * @return True if the results are incomplete because parts of the analysis
+	 *         have failed, otherwise false
+	 */
+	public boolean isPartial() {
+		return (terminationState & TERMINATION_PARTIAL_RESULTS) == TERMINATION_PARTIAL_RESULTS;
+	}
+
 	/**
 	 * Gets the performance data on this FlowDroid run
 	 * 
@@ -0,0 +1,54 @@
+package soot.jimple.infoflow.results.binary;
+
+/**
+ * Constants for the compact binary results format.
+ *
+ * A binary results file starts with the magic number and the format version.
+ * It then contains a sequence of records, each starting with a record tag, and
+ * ends with the {@link #RECORD_END} tag. Sources and sinks consist of the
+ * statement, the containing method, the line number (-1 if unknown), the
+ * category, and the access path. Elements on a propagation path only consist of
+ * the statement, the method, and the access path. All integers are written as
+ * unsigned variable-length quantities with seven bits per byte. Line numbers
+ * and performance data are signed and use a zigzag encoding. Strings are
+ * deduplicated using a string table that is built on the fly. Whenever a
+ * string is referenced for the first time, its UTF-8 data is written inline
+ * and it receives the next free index. Later references only write the index.
+ */
+class BinaryResultsConstants {
+
+	/**
+	 * The magic number at the beginning of each binary results file ("FDRB")
+	 */
+	public static final int MAGIC = 0x46445242;
+
+	public static final int FILE_FORMAT_VERSION = 1;
+
+	public static final int RECORD_END = 0;
+	public static final int RECORD_RESULT = 1;
+	public static final int RECORD_PERFORMANCE_DATA = 2;
+	public static final int RECORD_TERMINATION_STATE = 3;
+
+	/**
+	 * String reference to <code>null</code>
+	 */
+	public static final int STRING_NULL = 0;
+
+	/**
+	 * String reference that is followed by a new string
+	 */
+	public static final int STRING_NEW = 1;
+
+	/**
+	 * Offset that is added to the index of a known string
+	 */
+	public static final int STRING_INDEX_OFFSET = 2;
+
+	public static final int AP_NONE = 0;
+	public static final int AP_PRESENT = 1;
+	public static final int AP_TAINT_SUBFIELDS = 2;
+
+	private BinaryResultsConstants() {
+	}
+
+}
@@ -0,0 +1,259 @@
+package soot.jimple.infoflow.results.binary;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import soot.jimple.infoflow.results.InfoflowPerformanceData;
+import soot.jimple.infoflow.results.xml.SerializedAccessPath;
+import soot.jimple.infoflow.results.xml.SerializedInfoflowResults;
+import soot.jimple.infoflow.results.xml.SerializedPathElement;
+import soot.jimple.infoflow.results.xml.SerializedSinkInfo;
+import soot.jimple.infoflow.results.xml.SerializedSourceInfo;
+
+/**
+ * Class for reading FlowDroid results from the compact binary format. See
+ * {@link BinaryResultsConstants} for a description of the format.
+ */
+public class BinaryResultsReader {
+
+	private InputStream in;
+	private final List<String> stringTable = new ArrayList<>();
+	private byte[] buffer = new byte[256];
+
+	/**
+	 * Checks whether the given file is a binary results file
+	 *
+	 * @param fileName The file to check
+	 * @return True if the given file starts with the magic number of the binary
+	 *         results format, otherwise false
+	 * @throws IOException Thrown if the file could not be read
+	 */
+	public static boolean isBinaryResultsFile(String fileName) throws IOException {
+		try (InputStream in = new FileInputStream(fileName)) {
+			int magic = 0;
+			for (int i = 0; i < 4; i++) {
+				int b = in.read();
+				if (b < 0)
+					return false;
+				magic = (magic << 8) | b;
+			}
+			return magic == BinaryResultsConstants.MAGIC;
+		}
+	}
+
+	/**
+	 * Reads a binary file containing data flow results into a data object
+	 *
+	 * @param fileName The file from which to read the data flows
+	 * @return The data flow result object read from the given file
+	 * @throws IOException Thrown if the file could not be read or is not a valid
+	 *                     binary results file
+	 */
+	public SerializedInfoflowResults readResults(String fileName) throws IOException {
+		try (InputStream in = new BufferedInputStream(new FileInputStream(fileName))) {
+			this.in = in;
+			this.stringTable.clear();
+			return readResults();
+		} finally {
+			this.in = null;
+			this.stringTable.clear();
+		}
+	}
+
+	/**
+	 * Reads the data flow results from the current input stream
+	 *
+	 * @return The data flow result object
+	 * @throws IOException Thrown if the data could not be read
+	 */
+	private SerializedInfoflowResults readResults() throws IOException {
+		int magic = 0;
+		for (int i = 0; i < 4; i++)
+			magic = (magic << 8) | readByte();
+		if (magic != BinaryResultsConstants.MAGIC)
+			throw new IOException("Not a binary FlowDroid results file");
+
+		SerializedInfoflowResults results = new SerializedInfoflowResults();
+		int version = readInt();
+		if (version > BinaryResultsConstants.FILE_FORMAT_VERSION)
+			throw new IOException(String.format("Unsupported binary results format version %d", version));
+		results.setFileFormatVersion(version);
+
+		while (true) {
+			int record = readInt();
+			switch (record) {
+			case BinaryResultsConstants.RECORD_END:
+				return results;
+			case BinaryResultsConstants.RECORD_TERMINATION_STATE:
+				results.setTerminationState(readInt());
+				break;
+			case BinaryResultsConstants.RECORD_RESULT:
+				readResult(results);
+				break;
+			case BinaryResultsConstants.RECORD_PERFORMANCE_DATA:
+				readPerformanceData(results.getOrCreatePerformanceData());
+				break;
+			default:
+				throw new IOException(String.format("Invalid record type %d in binary results file", record));
+			}
+		}
+	}
+
+	/**
+	 * Reads a sink and all of its sources
+	 *
+	 * @param results The result object to which to add the data flows
+	 * @throws IOException Thrown if the data could not be read
+	 */
+	private void readResult(SerializedInfoflowResults results) throws IOException {
+		String sinkStmt = readString();
+		String sinkMethod = readString();
+		int sinkLineNumber = readSignedInt();
+		String sinkCategory = readString();
+		SerializedSinkInfo sink = new SerializedSinkInfo(readAccessPath(), sinkStmt, sinkMethod, sinkLineNumber,
+				sinkCategory);
+
+		int sourceCount = readInt();
+		for (int i = 0; i < sourceCount; i++) {
+			String sourceStmt = readString();
+			String sourceMethod = readString();
+			int sourceLineNumber = readSignedInt();
+			String sourceCategory = readString();
+			SerializedAccessPath sourceAP = readAccessPath();
+
+			int pathLength = readInt();
+			List<SerializedPathElement> path = null;
+			if (pathLength > 0) {
+				path = new ArrayList<>(pathLength);
+				for (int j = 0; j < pathLength; j++) {
+					String stmt = readString();
+					String method = readString();
+					path.add(new SerializedPathElement(readAccessPath(), stmt, method));
+				}
+			}
+			results.addResult(new SerializedSourceInfo(sourceAP, sourceStmt, sourceMethod, sourceLineNumber,
+					sourceCategory, path), sink);
+		}
+	}
+
+	/**
+	 * Reads an access path
+	 *
+	 * @return The access path, or <code>null</code> if no access path was stored
+	 * @throws IOException Thrown if the data could not be read
+	 */
+	private SerializedAccessPath readAccessPath() throws IOException {
+		int flags = readInt();
+		if ((flags & BinaryResultsConstants.AP_PRESENT) == 0)
+			return null;
+
+		String base = readString();
+		String baseType = readString();
+		int fieldCount = readInt();
+		String[] fields = new String[fieldCount];
+		String[] types = new String[fieldCount];
+		for (int i = 0; i < fieldCount; i++) {
+			fields[i] = readString();
+			types[i] = readString();
+		}
+		return new SerializedAccessPath(base, baseType, (flags & BinaryResultsConstants.AP_TAINT_SUBFIELDS) != 0,
+				fields, types);
+	}
+
+	/**
+	 * Reads the performance data
+	 *
+	 * @param perfData The object into which to read the performance data
+	 * @throws IOException Thrown if the data could not be read
+	 */
+	private void readPerformanceData(InfoflowPerformanceData perfData) throws IOException {
+		perfData.setCallgraphConstructionSeconds(readSignedInt());
+		perfData.setTaintPropagationSeconds(readSignedInt());
+		perfData.setPathReconstructionSeconds(readSignedInt());
+		perfData.setTotalRuntimeSeconds(readSignedInt());
+		perfData.setMaxMemoryConsumption(readSignedInt());
+		perfData.setSourceCount(readSignedInt());
+		perfData.setSinkCount(readSignedInt());
+	}
+
+	/**
+	 * Reads a string reference and resolves it against the string table
+	 *
+	 * @return The string
+	 * @throws IOException Thrown if the data could not be read
+	 */
+	private String readString() throws IOException {
+		int ref = readInt();
+		if (ref == BinaryResultsConstants.STRING_NULL)
+			return null;
+		if (ref == BinaryResultsConstants.STRING_NEW) {
+			int length = readInt();
+			if (buffer.length < length)
+				buffer = new byte[Math.max(length, buffer.length * 2)];
+			int pos = 0;
+			while (pos < length) {
+				int read = in.read(buffer, pos, length - pos);
+				if (read < 0)
+					throw new EOFException("Unexpected end of binary results file");
+				pos += read;
+			}
+			String value = new String(buffer, 0, length, StandardCharsets.UTF_8);
+			stringTable.add(value);
+			return value;
+		}
+
+		int idx = ref - BinaryResultsConstants.STRING_INDEX_OFFSET;
+		if (idx >= stringTable.size())
+			throw new IOException(String.format("Invalid string reference %d in binary results file", idx));
+		return stringTable.get(idx);
+	}
+
+	/**
+	 * Reads a signed integer
+	 *
+	 * @return The integer
+	 * @throws IOException Thrown if the data could not be read
+	 */
+	private int readSignedInt() throws IOException {
+		int value = readInt();
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	/**
+	 * Reads a variable-length integer
+	 *
+	 * @return The integer
+	 * @throws IOException Thrown if the data could not be read
+	 */
+	private int readInt() throws IOException {
+		int value = 0;
+		int shift = 0;
+		int b;
+		do {
+			b = readByte();
+			value |= (b & 0x7F) << shift;
+			shift += 7;
+		} while ((b & 0x80) != 0 && shift < 35);
+		return value;
+	}
+
+	/**
+	 * Reads a single byte
+	 *
+	 * @return The byte as an unsigned value
+	 * @throws IOException Thrown if the data could not be read
+	 */
+	private int readByte() throws IOException {
+		int b = in.read();
+		if (b < 0)
+			throw new EOFException("Unexpected end of binary results file");
+		return b;
+	}
+
+}
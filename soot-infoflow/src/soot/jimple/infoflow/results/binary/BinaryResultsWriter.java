@@ -0,0 +1,360 @@
+package soot.jimple.infoflow.results.binary;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import soot.jimple.Stmt;
+import soot.jimple.infoflow.InfoflowConfiguration;
+import soot.jimple.infoflow.data.AccessPath;
+import soot.jimple.infoflow.results.AbstractResultSourceSinkInfo;
+import soot.jimple.infoflow.results.InfoflowPerformanceData;
+import soot.jimple.infoflow.results.InfoflowResults;
+import soot.jimple.infoflow.results.ResultSinkInfo;
+import soot.jimple.infoflow.results.ResultSourceInfo;
+import soot.jimple.infoflow.results.xml.AbstractSerializedSourceSink;
+import soot.jimple.infoflow.results.xml.SerializedAccessPath;
+import soot.jimple.infoflow.results.xml.SerializedInfoflowResults;
+import soot.jimple.infoflow.results.xml.SerializedPathElement;
+import soot.jimple.infoflow.results.xml.SerializedSinkInfo;
+import soot.jimple.infoflow.results.xml.SerializedSourceInfo;
+import soot.jimple.infoflow.solver.cfg.IInfoflowCFG;
+
+/**
+ * Class for writing FlowDroid results in the compact binary format. Method
+ * signatures, statements and types are stored only once in a string table.
+ * See {@link BinaryResultsConstants} for a description of the format.
+ */
+public class BinaryResultsWriter {
+
+	protected final IInfoflowCFG icfg;
+	protected final InfoflowConfiguration config;
+	protected boolean serializeTaintPath = true;
+
+	private OutputStream out;
+	private final Map<String, Integer> stringTable = new HashMap<>();
+
+	/**
+	 * Creates a new instance of the {@link BinaryResultsWriter} class for writing
+	 * data flow results that have been loaded from an external storage
+	 */
+	public BinaryResultsWriter() {
+		this(null, null);
+	}
+
+	/**
+	 * Creates a new instance of the {@link BinaryResultsWriter} class
+	 *
+	 * @param cfg    The control flow graph to be used for obtaining additional
+	 *               information such as the methods containing source or sink
+	 *               statements
+	 * @param config The configuration of the data flow
+	 */
+	public BinaryResultsWriter(IInfoflowCFG cfg, InfoflowConfiguration config) {
+		this.icfg = cfg;
+		this.config = config;
+	}
+
+	/**
+	 * Serializes the given FlowDroid result object into the given file
+	 *
+	 * @param results  The result object to serialize
+	 * @param fileName The target file name
+	 * @throws IOException Thrown if the target file could not be written
+	 */
+	public void serialize(InfoflowResults results, String fileName) throws IOException {
+		try (OutputStream out = new BufferedOutputStream(new FileOutputStream(fileName))) {
+			begin(out);
+
+			if (results != null) {
+				writeTerminationState(results.getTerminationState());
+				if (!results.isEmpty()) {
+					for (ResultSinkInfo sink : results.getResults().keySet()) {
+						Set<ResultSourceInfo> sources = results.getResults().get(sink);
+						writeInt(BinaryResultsConstants.RECORD_RESULT);
+						writeSourceSink(sink);
+						writeInt(sources.size());
+						for (ResultSourceInfo source : sources)
+							writeSourceInfo(source);
+					}
+				}
+				writePerformanceData(results.getPerformanceData());
+			}
+
+			end();
+		}
+	}
+
+	/**
+	 * Serializes the given data flow results that have been loaded from an
+	 * external storage into the given file
+	 *
+	 * @param results  The result object to serialize
+	 * @param fileName The target file name
+	 * @throws IOException Thrown if the target file could not be written
+	 */
+	public void serialize(SerializedInfoflowResults results, String fileName) throws IOException {
+		try (OutputStream out = new BufferedOutputStream(new FileOutputStream(fileName))) {
+			begin(out);
+
+			writeTerminationState(results.getTerminationState());
+			for (SerializedSinkInfo sink : results.getResults().keySet()) {
+				Set<SerializedSourceInfo> sources = results.getResults().get(sink);
+				writeInt(BinaryResultsConstants.RECORD_RESULT);
+				writeSerializedSourceSink(sink, true);
+				writeInt(sources.size());
+				for (SerializedSourceInfo source : sources) {
+					writeSerializedSourceSink(source, true);
+
+					List<SerializedPathElement> path = serializeTaintPath ? source.getPropagationPath() : null;
+					writeInt(path == null ? 0 : path.size());
+					if (path != null)
+						for (SerializedPathElement element : path)
+							writeSerializedSourceSink(element, false);
+				}
+			}
+			writePerformanceData(results.getPerformanceData());
+
+			end();
+		}
+	}
+
+	/**
+	 * Starts writing a new binary results file
+	 *
+	 * @param out The stream into which to write the data
+	 * @throws IOException Thrown if the data could not be written
+	 */
+	private void begin(OutputStream out) throws IOException {
+		this.out = out;
+		this.stringTable.clear();
+
+		int magic = BinaryResultsConstants.MAGIC;
+		out.write(magic >>> 24);
+		out.write(magic >>> 16);
+		out.write(magic >>> 8);
+		out.write(magic);
+		writeInt(BinaryResultsConstants.FILE_FORMAT_VERSION);
+	}
+
+	/**
+	 * Finishes the current binary results file
+	 *
+	 * @throws IOException Thrown if the data could not be written
+	 */
+	private void end() throws IOException {
+		writeInt(BinaryResultsConstants.RECORD_END);
+		out.flush();
+		out = null;
+		stringTable.clear();
+	}
+
+	/**
+	 * Writes out the given data flow source including its propagation path
+	 *
+	 * @param source The source to write out
+	 * @throws IOException Thrown if the data could not be written
+	 */
+	private void writeSourceInfo(ResultSourceInfo source) throws IOException {
+		writeSourceSink(source);
+
+		Stmt[] path = serializeTaintPath ? source.getPath() : null;
+		writeInt(path == null ? 0 : path.length);
+		if (path != null) {
+			AccessPath[] pathAPs = source.getPathAccessPaths();
+			for (int i = 0; i < path.length; i++) {
+				writeStmt(path[i]);
+				writeAccessPath(pathAPs == null ? null : pathAPs[i]);
+			}
+		}
+	}
+
+	/**
+	 * Writes out the statement, the line number, the category, and the access
+	 * path of the given source or sink
+	 *
+	 * @param info The source or sink to write out
+	 * @throws IOException Thrown if the data could not be written
+	 */
+	private void writeSourceSink(AbstractResultSourceSinkInfo info) throws IOException {
+		Stmt stmt = info.getStmt();
+		writeStmt(stmt);
+		writeSignedInt(config != null && config.getEnableLineNumbers() && stmt != null
+				? stmt.getJavaSourceStartLineNumber()
+				: -1);
+		writeString(info.getDefinition() == null || info.getDefinition().getCategory() == null ? null
+				: info.getDefinition().getCategory().getHumanReadableDescription());
+		writeAccessPath(info.getAccessPath());
+	}
+
+	/**
+	 * Writes out the given statement and the method that contains it
+	 *
+	 * @param stmt The statement to write out
+	 * @throws IOException Thrown if the data could not be written
+	 */
+	private void writeStmt(Stmt stmt) throws IOException {
+		writeString(stmt == null ? null : stmt.toString());
+		writeString(icfg == null || stmt == null ? null : icfg.getMethodOf(stmt).getSignature());
+	}
+
+	/**
+	 * Writes out the given access path
+	 *
+	 * @param ap The access path to write out
+	 * @throws IOException Thrown if the data could not be written
+	 */
+	private void writeAccessPath(AccessPath ap) throws IOException {
+		if (ap == null) {
+			writeInt(BinaryResultsConstants.AP_NONE);
+			return;
+		}
+
+		writeInt(BinaryResultsConstants.AP_PRESENT
+				| (ap.getTaintSubFields() ? BinaryResultsConstants.AP_TAINT_SUBFIELDS : 0));
+		writeString(ap.getPlainValue() == null ? null : ap.getPlainValue().toString());
+		writeString(ap.getBaseType() == null ? null : ap.getBaseType().toString());
+		writeInt(ap.getFieldCount());
+		for (int i = 0; i < ap.getFieldCount(); i++) {
+			writeString(ap.getFields()[i].toString());
+			writeString(ap.getFieldTypes()[i].toString());
+		}
+	}
+
+	/**
+	 * Writes out a source, sink, or path element that has been loaded from an
+	 * external storage
+	 *
+	 * @param info           The element to write out
+	 * @param isSourceOrSink True if the element is a source or sink, false if it
+	 *                       is an element on a propagation path
+	 * @throws IOException Thrown if the data could not be written
+	 */
+	private void writeSerializedSourceSink(AbstractSerializedSourceSink info, boolean isSourceOrSink)
+			throws IOException {
+		writeString(info.getStatement());
+		writeString(info.getMethod());
+		if (isSourceOrSink) {
+			writeSignedInt(info.getLineNumber());
+			writeString(info.getCategory());
+		}
+
+		SerializedAccessPath ap = info.getAccessPath();
+		if (ap == null) {
+			writeInt(BinaryResultsConstants.AP_NONE);
+			return;
+		}
+		writeInt(BinaryResultsConstants.AP_PRESENT
+				| (ap.getTaintSubFields() ? BinaryResultsConstants.AP_TAINT_SUBFIELDS : 0));
+		writeString(ap.getBase());
+		writeString(ap.getBaseType());
+		String[] fields = ap.getFields();
+		String[] types = ap.getTypes();
+		int fieldCount = fields == null ? 0 : fields.length;
+		writeInt(fieldCount);
+		for (int i = 0; i < fieldCount; i++) {
+			writeString(fields[i]);
+			writeString(types == null || i >= types.length ? null : types[i]);
+		}
+	}
+
+	/**
+	 * Writes out the termination state of the data flow analysis
+	 *
+	 * @param terminationState The termination state
+	 * @throws IOException Thrown if the data could not be written
+	 */
+	private void writeTerminationState(int terminationState) throws IOException {
+		writeInt(BinaryResultsConstants.RECORD_TERMINATION_STATE);
+		writeInt(terminationState);
+	}
+
+	/**
+	 * Writes out the given performance data
+	 *
+	 * @param performanceData The performance data to write out
+	 * @throws IOException Thrown if the data could not be written
+	 */
+	private void writePerformanceData(InfoflowPerformanceData performanceData) throws IOException {
+		if (performanceData == null || performanceData.isEmpty())
+			return;
+
+		writeInt(BinaryResultsConstants.RECORD_PERFORMANCE_DATA);
+		writeSignedInt(performanceData.getCallgraphConstructionSeconds());
+		writeSignedInt(performanceData.getTaintPropagationSeconds());
+		writeSignedInt(performanceData.getPathReconstructionSeconds());
+		writeSignedInt(performanceData.getTotalRuntimeSeconds());
+		writeSignedInt(performanceData.getMaxMemoryConsumption());
+		writeSignedInt(performanceData.getSourceCount());
+		writeSignedInt(performanceData.getSinkCount());
+	}
+
+	/**
+	 * Writes a reference to the given string into the output. If the string has
+	 * not been written before, its contents are written as well.
+	 *
+	 * @param value The string to write
+	 * @throws IOException Thrown if the data could not be written
+	 */
+	private void writeString(String value) throws IOException {
+		if (value == null) {
+			writeInt(BinaryResultsConstants.STRING_NULL);
+			return;
+		}
+
+		Integer idx = stringTable.get(value);
+		if (idx != null) {
+			writeInt(idx + BinaryResultsConstants.STRING_INDEX_OFFSET);
+			return;
+		}
+
+		stringTable.put(value, stringTable.size());
+		byte[] data = value.getBytes(StandardCharsets.UTF_8);
+		writeInt(BinaryResultsConstants.STRING_NEW);
+		writeInt(data.length);
+		out.write(data);
+	}
+
+	/**
+	 * Writes out the given signed integer. Negative numbers are mapped to odd
+	 * numbers to keep them compact.
+	 *
+	 * @param value The value to write
+	 * @throws IOException Thrown if the data could not be written
+	 */
+	private void writeSignedInt(int value) throws IOException {
+		writeInt((value << 1) ^ (value >> 31));
+	}
+
+	/**
+	 * Writes out the given non-negative integer as a variable-length quantity
+	 *
+	 * @param value The value to write
+	 * @throws IOException Thrown if the data could not be written
+	 */
+	private void writeInt(int value) throws IOException {
+		while ((value & ~0x7F) != 0) {
+			out.write((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.write(value);
+	}
+
+	/**
+	 * Sets whether the taint propagation path shall be serialized along with the
+	 * respective data flow result
+	 *
+	 * @param serialize True if taint propagation paths shall be serialized,
+	 *                  otherwise false
+	 */
+	public void setSerializeTaintPath(boolean serialize) {
+		this.serializeTaintPath = serialize;
+	}
+
+}
@@ -0,0 +1,56 @@
+package soot.jimple.infoflow.results.binary;
+
+import java.io.IOException;
+
+import javax.xml.stream.XMLStreamException;
+
+import soot.jimple.infoflow.results.xml.InfoflowResultsReader;
+import soot.jimple.infoflow.results.xml.InfoflowResultsSerializer;
+import soot.jimple.infoflow.results.xml.SerializedInfoflowResults;
+
+/**
+ * Converter between the XML results format and the compact binary results
+ * format
+ */
+public class ResultsFormatConverter {
+
+	/**
+	 * Converts the given XML results file into the binary format
+	 *
+	 * @param xmlFile    The XML file to read
+	 * @param binaryFile The binary file to write
+	 * @throws XMLStreamException Thrown if the XML file is invalid
+	 * @throws IOException        Thrown if one of the files could not be accessed
+	 */
+	public static void xmlToBinary(String xmlFile, String binaryFile) throws XMLStreamException, IOException {
+		SerializedInfoflowResults results = new InfoflowResultsReader().readResults(xmlFile);
+		new BinaryResultsWriter().serialize(results, binaryFile);
+	}
+
+	/**
+	 * Converts the given binary results file into the XML format
+	 *
+	 * @param binaryFile The binary file to read
+	 * @param xmlFile    The XML file to write
+	 * @throws XMLStreamException Thrown if the XML data cannot be written
+	 * @throws IOException        Thrown if one of the files could not be accessed
+	 */
+	public static void binaryToXml(String binaryFile, String xmlFile) throws XMLStreamException, IOException {
+		SerializedInfoflowResults results = new BinaryResultsReader().readResults(binaryFile);
+		new InfoflowResultsSerializer().serialize(results, xmlFile);
+	}
+
+	public static void main(String[] args) throws XMLStreamException, IOException {
+		if (args.length != 2) {
+			System.out.println("Usage: ResultsFormatConverter <input file> <output file>");
+			System.out.println("Binary input files are converted to XML and vice versa.");
+			return;
+		}
+
+		if (BinaryResultsReader.isBinaryResultsFile(args[0]))
+			binaryToXml(args[0], args[1]);
+		else
+			xmlToBinary(args[0], args[1]);
+	}
+
+}
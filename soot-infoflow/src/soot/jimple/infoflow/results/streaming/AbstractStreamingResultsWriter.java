@@ -0,0 +1,314 @@
+package soot.jimple.infoflow.results.streaming;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import heros.solver.Pair;
+import soot.jimple.infoflow.handlers.ResultsAvailableHandler2;
+import soot.jimple.infoflow.results.InfoflowResults;
+import soot.jimple.infoflow.results.ResultSinkInfo;
+import soot.jimple.infoflow.results.ResultSourceInfo;
+import soot.jimple.infoflow.solver.cfg.IInfoflowCFG;
+
+/**
+ * Abstract base class for result handlers that append each data flow result to
+ * an output file as soon as it has been found, instead of writing out all
+ * results at the end of the analysis. This requires incremental result
+ * reporting to be enabled in the data flow configuration. The output is
+ * flushed after a configurable number of results or a configurable amount of
+ * time, whichever comes first, so that results become visible to external
+ * tools while the analysis is still running.
+ *
+ * Every source-to-sink connection is written only once, even if the path
+ * builder reports it multiple times. When the analysis has finished, all
+ * results that have not been reported individually, e.g., because incremental
+ * result reporting is disabled, are written out as well. Duplicates are
+ * detected on the equality of the source and sink objects. A 64-bit key that
+ * is combined from their hash codes serves as a cheap pre-filter, so that the
+ * full comparison is only necessary if the key has already been seen.
+ */
+public abstract class AbstractStreamingResultsWriter implements ResultsAvailableHandler2, Closeable {
+
+	private static final Logger logger = LoggerFactory.getLogger(AbstractStreamingResultsWriter.class);
+
+	private final String fileName;
+	private OutputStream out;
+	private boolean closed = false;
+
+	private int flushInterval = 1;
+	private long flushIntervalMillis = 1000;
+
+	private final LongHashSet writtenKeys = new LongHashSet();
+	private final Set<Pair<ResultSinkInfo, ResultSourceInfo>> writtenPairs = new HashSet<>();
+	private int writtenResults = 0;
+	private int unflushedResults = 0;
+	private long lastFlush = 0;
+
+	/**
+	 * Creates a new instance of the {@link AbstractStreamingResultsWriter} class
+	 *
+	 * @param fileName The name of the file into which to write the results
+	 */
+	public AbstractStreamingResultsWriter(String fileName) {
+		this.fileName = fileName;
+	}
+
+	@Override
+	public synchronized boolean onSingleResultAvailable(ResultSourceInfo source, ResultSinkInfo sink) {
+		try {
+			ensureOpen();
+			if (out == null)
+				return true;
+			if (!writeResultOnce(source, sink))
+				return true;
+			unflushedResults++;
+
+			// Make the results visible from time to time
+			long now = System.currentTimeMillis();
+			if (unflushedResults >= flushInterval || now - lastFlush >= flushIntervalMillis)
+				flush();
+		} catch (IOException e) {
+			logger.error("Could not write data flow result", e);
+		}
+		return true;
+	}
+
+	@Override
+	public synchronized void onResultsAvailable(IInfoflowCFG cfg, InfoflowResults results) {
+		try {
+			ensureOpen();
+			if (out == null)
+				return;
+
+			// Write out everything that we have not received incrementally
+			if (results != null && !results.isEmpty()) {
+				for (ResultSinkInfo sink : results.getResults().keySet())
+					for (ResultSourceInfo source : results.getResults().get(sink))
+						writeResultOnce(source, sink);
+			}
+
+			writeFooter(results);
+			flush();
+		} catch (IOException e) {
+			logger.error("Could not finish data flow result file", e);
+		} finally {
+			close();
+		}
+	}
+
+	/**
+	 * Writes the given result unless the same source-to-sink connection has
+	 * already been written before
+	 *
+	 * @param source The source at which the data flow starts
+	 * @param sink   The sink at which the data flow ends
+	 * @return True if the result has been written, false if it was a duplicate
+	 * @throws IOException Thrown if the data cannot be written
+	 */
+	private boolean writeResultOnce(ResultSourceInfo source, ResultSinkInfo sink) throws IOException {
+		// A new key means a new connection. Otherwise, the key may be shared by a
+		// different connection, so we need to check the connection itself.
+		long key = ((long) sink.hashCode() << 32) | (source.hashCode() & 0xFFFFFFFFL);
+		Pair<ResultSinkInfo, ResultSourceInfo> pair = new Pair<>(sink, source);
+		if (writtenKeys.add(key))
+			writtenPairs.add(pair);
+		else if (!writtenPairs.add(pair))
+			return false;
+		writeResult(source, sink);
+		writtenResults++;
+		return true;
+	}
+
+	/**
+	 * Opens the output file and writes the header if this has not happened yet
+	 *
+	 * @throws IOException Thrown if the output file cannot be opened
+	 */
+	private void ensureOpen() throws IOException {
+		if (out == null && !closed) {
+			out = new BufferedOutputStream(new FileOutputStream(fileName));
+			writeHeader(out);
+			lastFlush = System.currentTimeMillis();
+		}
+	}
+
+	/**
+	 * Flushes all pending results to disk
+	 *
+	 * @throws IOException Thrown if the results could not be written
+	 */
+	protected void flush() throws IOException {
+		flushWriter();
+		out.flush();
+		unflushedResults = 0;
+		lastFlush = System.currentTimeMillis();
+	}
+
+	@Override
+	public synchronized void close() {
+		if (closed)
+			return;
+		closed = true;
+		if (out != null) {
+			try {
+				closeWriter();
+				out.close();
+			} catch (IOException e) {
+				logger.error("Could not close data flow result file", e);
+			}
+			out = null;
+		}
+	}
+
+	/**
+	 * Writes the beginning of the output file
+	 *
+	 * @param out The stream into which to write the data
+	 * @throws IOException Thrown if the data cannot be written
+	 */
+	protected abstract void writeHeader(OutputStream out) throws IOException;
+
+	/**
+	 * Appends a single data flow result to the output file
+	 *
+	 * @param source The source at which the data flow starts
+	 * @param sink   The sink at which the data flow ends
+	 * @throws IOException Thrown if the data cannot be written
+	 */
+	protected abstract void writeResult(ResultSourceInfo source, ResultSinkInfo sink) throws IOException;
+
+	/**
+	 * Writes the end of the output file once the data flow analysis has finished
+	 *
+	 * @param results The final results of the data flow analysis. This object may
+	 *                not contain the individual data flows that have already been
+	 *                written out.
+	 * @throws IOException Thrown if the data cannot be written
+	 */
+	protected abstract void writeFooter(InfoflowResults results) throws IOException;
+
+	/**
+	 * Passes all data that is buffered by the concrete writer on to the underlying
+	 * stream
+	 *
+	 * @throws IOException Thrown if the data cannot be written
+	 */
+	protected abstract void flushWriter() throws IOException;
+
+	/**
+	 * Releases all resources held by the concrete writer before the underlying
+	 * stream is closed
+	 *
+	 * @throws IOException Thrown if the data cannot be written
+	 */
+	protected abstract void closeWriter() throws IOException;
+
+	/**
+	 * Sets after how many results the output shall be flushed to disk
+	 *
+	 * @param flushInterval The number of results after which to flush the output
+	 */
+	public void setFlushInterval(int flushInterval) {
+		this.flushInterval = Math.max(1, flushInterval);
+	}
+
+	/**
+	 * Sets the maximum time that a result may remain in the output buffer before
+	 * it is flushed to disk. Note that the time is only checked when new results
+	 * arrive.
+	 *
+	 * @param flushIntervalMillis The maximum time between two flushes in
+	 *                            milliseconds
+	 */
+	public void setFlushIntervalMillis(long flushIntervalMillis) {
+		this.flushIntervalMillis = flushIntervalMillis;
+	}
+
+	/**
+	 * Gets the number of results that have been written so far
+	 *
+	 * @return The number of results that have been written so far
+	 */
+	public synchronized int getWrittenResults() {
+		return writtenResults;
+	}
+
+	/**
+	 * Gets the name of the file into which the results are written
+	 *
+	 * @return The name of the output file
+	 */
+	public String getFileName() {
+		return fileName;
+	}
+
+	/**
+	 * Minimal open-addressing hash set of primitive long values
+	 */
+	private static class LongHashSet {
+
+		private static final long FREE = 0;
+
+		private long[] table = new long[1024];
+		private boolean containsFree = false;
+		private int size = 0;
+
+		/**
+		 * Adds the given value to this set
+		 *
+		 * @param value The value to add
+		 * @return True if the value was not contained in the set before, otherwise
+		 *         false
+		 */
+		public boolean add(long value) {
+			// The marker for free slots is tracked separately
+			if (value == FREE) {
+				if (containsFree)
+					return false;
+				containsFree = true;
+				return true;
+			}
+
+			int mask = table.length - 1;
+			int idx = mix(value) & mask;
+			while (table[idx] != FREE) {
+				if (table[idx] == value)
+					return false;
+				idx = (idx + 1) & mask;
+			}
+			table[idx] = value;
+			if (++size * 2 > table.length)
+				grow();
+			return true;
+		}
+
+		private void grow() {
+			long[] oldTable = table;
+			table = new long[oldTable.length * 2];
+			int mask = table.length - 1;
+			for (long value : oldTable) {
+				if (value != FREE) {
+					int idx = mix(value) & mask;
+					while (table[idx] != FREE)
+						idx = (idx + 1) & mask;
+					table[idx] = value;
+				}
+			}
+		}
+
+		private static int mix(long value) {
+			long h = value * 0x9E3779B97F4A7C15L;
+			return (int) (h ^ (h >>> 32));
+		}
+
+	}
+
+}
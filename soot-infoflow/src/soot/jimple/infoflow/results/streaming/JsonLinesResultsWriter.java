@@ -0,0 +1,276 @@
+package soot.jimple.infoflow.results.streaming;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import soot.jimple.Stmt;
+import soot.jimple.infoflow.InfoflowConfiguration;
+import soot.jimple.infoflow.data.AccessPath;
+import soot.jimple.infoflow.results.AbstractResultSourceSinkInfo;
+import soot.jimple.infoflow.results.InfoflowPerformanceData;
+import soot.jimple.infoflow.results.InfoflowResults;
+import soot.jimple.infoflow.results.ResultSinkInfo;
+import soot.jimple.infoflow.results.ResultSourceInfo;
+import soot.jimple.infoflow.solver.cfg.IInfoflowCFG;
+
+/**
+ * Streaming result writer that produces line-delimited JSON. Every data flow
+ * result is written as one self-contained JSON object on a separate line. When
+ * the analysis has finished, a final summary line with the termination state
+ * and the performance data is appended.
+ */
+public class JsonLinesResultsWriter extends AbstractStreamingResultsWriter {
+
+	public static final int FILE_FORMAT_VERSION = 100;
+
+	protected final InfoflowConfiguration config;
+	protected IInfoflowCFG icfg;
+	protected boolean serializeTaintPath = true;
+
+	private Writer writer;
+
+	/**
+	 * Creates a new instance of the {@link JsonLinesResultsWriter} class
+	 *
+	 * @param fileName The name of the file into which to write the results
+	 * @param config   The configuration of the data flow
+	 */
+	public JsonLinesResultsWriter(String fileName, InfoflowConfiguration config) {
+		this(fileName, null, config);
+	}
+
+	/**
+	 * Creates a new instance of the {@link JsonLinesResultsWriter} class
+	 *
+	 * @param fileName The name of the file into which to write the results
+	 * @param cfg      The control flow graph to be used for obtaining additional
+	 *                 information such as the methods containing source or sink
+	 *                 statements
+	 * @param config   The configuration of the data flow
+	 */
+	public JsonLinesResultsWriter(String fileName, IInfoflowCFG cfg, InfoflowConfiguration config) {
+		super(fileName);
+		this.icfg = cfg;
+		this.config = config;
+	}
+
+	@Override
+	protected void writeHeader(OutputStream out) throws IOException {
+		writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+		StringBuilder sb = new StringBuilder();
+		sb.append("{\"type\":\"header\",\"fileFormatVersion\":");
+		sb.append(FILE_FORMAT_VERSION);
+		sb.append("}\n");
+		writer.write(sb.toString());
+	}
+
+	@Override
+	protected void writeResult(ResultSourceInfo source, ResultSinkInfo sink) throws IOException {
+		StringBuilder sb = new StringBuilder();
+		sb.append("{\"type\":\"result\",\"sink\":");
+		appendSourceSinkInfo(sink, sb);
+		sb.append(",\"source\":");
+		appendSourceSinkInfo(source, sb);
+
+		if (serializeTaintPath && source.getPath() != null) {
+			sb.append(",\"path\":[");
+			Stmt[] path = source.getPath();
+			AccessPath[] pathAPs = source.getPathAccessPaths();
+			for (int i = 0; i < path.length; i++) {
+				if (i > 0)
+					sb.append(',');
+				sb.append("{\"statement\":");
+				appendString(path[i].toString(), sb);
+				if (icfg != null) {
+					sb.append(",\"method\":");
+					appendString(icfg.getMethodOf(path[i]).getSignature(), sb);
+				}
+				if (pathAPs != null && pathAPs[i] != null) {
+					sb.append(",\"accessPath\":");
+					appendAccessPath(pathAPs[i], sb);
+				}
+				sb.append('}');
+			}
+			sb.append(']');
+		}
+		sb.append("}\n");
+		writer.write(sb.toString());
+	}
+
+	@Override
+	protected void writeFooter(InfoflowResults results) throws IOException {
+		StringBuilder sb = new StringBuilder();
+		sb.append("{\"type\":\"summary\"");
+		sb.append(",\"results\":");
+		sb.append(getWrittenResults());
+		if (results != null) {
+			sb.append(",\"terminationState\":");
+			sb.append(results.getTerminationState());
+
+			InfoflowPerformanceData performanceData = results.getPerformanceData();
+			if (performanceData != null && !performanceData.isEmpty()) {
+				sb.append(",\"performanceData\":{");
+				sb.append("\"callgraphConstructionSeconds\":");
+				sb.append(performanceData.getCallgraphConstructionSeconds());
+				sb.append(",\"taintPropagationSeconds\":");
+				sb.append(performanceData.getTaintPropagationSeconds());
+				sb.append(",\"pathReconstructionSeconds\":");
+				sb.append(performanceData.getPathReconstructionSeconds());
+				sb.append(",\"totalRuntimeSeconds\":");
+				sb.append(performanceData.getTotalRuntimeSeconds());
+				sb.append(",\"maxMemoryConsumption\":");
+				sb.append(performanceData.getMaxMemoryConsumption());
+				sb.append(",\"sourceCount\":");
+				sb.append(performanceData.getSourceCount());
+				sb.append(",\"sinkCount\":");
+				sb.append(performanceData.getSinkCount());
+				sb.append('}');
+			}
+		}
+		sb.append("}\n");
+		writer.write(sb.toString());
+	}
+
+	@Override
+	protected void flushWriter() throws IOException {
+		writer.flush();
+	}
+
+	@Override
+	protected void closeWriter() throws IOException {
+		writer.flush();
+	}
+
+	/**
+	 * Appends the JSON representation of the given source or sink to the given
+	 * string builder
+	 *
+	 * @param info The source or sink information to write out
+	 * @param sb   The string builder to which to append the data
+	 */
+	protected void appendSourceSinkInfo(AbstractResultSourceSinkInfo info, StringBuilder sb) {
+		sb.append("{\"statement\":");
+		appendString(info.getStmt().toString(), sb);
+		if (config.getEnableLineNumbers()) {
+			sb.append(",\"lineNumber\":");
+			sb.append(info.getStmt().getJavaSourceStartLineNumber());
+		}
+		if (info.getDefinition() != null && info.getDefinition().getCategory() != null) {
+			sb.append(",\"category\":");
+			appendString(info.getDefinition().getCategory().getHumanReadableDescription(), sb);
+		}
+		if (icfg != null) {
+			sb.append(",\"method\":");
+			appendString(icfg.getMethodOf(info.getStmt()).getSignature(), sb);
+		}
+		if (info.getAccessPath() != null) {
+			sb.append(",\"accessPath\":");
+			appendAccessPath(info.getAccessPath(), sb);
+		}
+		sb.append('}');
+	}
+
+	/**
+	 * Appends the JSON representation of the given access path to the given string
+	 * builder
+	 *
+	 * @param accessPath The access path to write out
+	 * @param sb         The string builder to which to append the data
+	 */
+	protected void appendAccessPath(AccessPath accessPath, StringBuilder sb) {
+		sb.append('{');
+		boolean first = true;
+		if (accessPath.getPlainValue() != null) {
+			sb.append("\"value\":");
+			appendString(accessPath.getPlainValue().toString(), sb);
+			first = false;
+		}
+		if (accessPath.getBaseType() != null) {
+			if (!first)
+				sb.append(',');
+			sb.append("\"type\":");
+			appendString(accessPath.getBaseType().toString(), sb);
+			first = false;
+		}
+		if (!first)
+			sb.append(',');
+		sb.append("\"taintSubFields\":");
+		sb.append(accessPath.getTaintSubFields());
+
+		if (accessPath.getFieldCount() > 0) {
+			sb.append(",\"fields\":[");
+			for (int i = 0; i < accessPath.getFieldCount(); i++) {
+				if (i > 0)
+					sb.append(',');
+				sb.append("{\"value\":");
+				appendString(accessPath.getFields()[i].toString(), sb);
+				sb.append(",\"type\":");
+				appendString(accessPath.getFieldTypes()[i].toString(), sb);
+				sb.append('}');
+			}
+			sb.append(']');
+		}
+		sb.append('}');
+	}
+
+	/**
+	 * Appends the given string as an escaped JSON string literal
+	 *
+	 * @param value The string to append
+	 * @param sb    The string builder to which to append the data
+	 */
+	protected static void appendString(String value, StringBuilder sb) {
+		sb.append('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			switch (c) {
+			case '"':
+				sb.append("\\\"");
+				break;
+			case '\\':
+				sb.append("\\\\");
+				break;
+			case '\n':
+				sb.append("\\n");
+				break;
+			case '\r':
+				sb.append("\\r");
+				break;
+			case '\t':
+				sb.append("\\t");
+				break;
+			default:
+				if (c < 0x20) {
+					sb.append(String.format("\\u%04x", (int) c));
+				} else
+					sb.append(c);
+			}
+		}
+		sb.append('"');
+	}
+
+	/**
+	 * Sets the interprocedural control flow graph that shall be used for obtaining
+	 * the methods containing the statements in the results
+	 *
+	 * @param icfg The interprocedural control flow graph
+	 */
+	public void setICFG(IInfoflowCFG icfg) {
+		this.icfg = icfg;
+	}
+
+	/**
+	 * Sets whether the taint propagation path shall be serialized along with the
+	 * respective data flow result
+	 *
+	 * @param serialize True if taint propagation paths shall be serialized,
+	 *                  otherwise false
+	 */
+	public void setSerializeTaintPath(boolean serialize) {
+		this.serializeTaintPath = serialize;
+	}
+
+}
@@ -6,11 +6,13 @@ package soot.jimple.infoflow.results.xml;
  * @author Steven Arzt
  *
  */
-class AbstractSerializedSourceSink {
+public class AbstractSerializedSourceSink {
 	
 	private final SerializedAccessPath accessPath;
 	private final String statement;
 	private final String method;
+	private final int lineNumber;
+	private final String category;
 	
 	/**
 	 * Creates a new instance of the AbstractSerializedSourceSink class
@@ -20,9 +22,26 @@ class AbstractSerializedSourceSink {
 	 */
 	protected AbstractSerializedSourceSink(SerializedAccessPath ap,
 			String statement, String method) {
+		this(ap, statement, method, -1, null);
+	}
+	
+	/**
+	 * Creates a new instance of the AbstractSerializedSourceSink class
+	 * @param ap The tainted access path at this source or sink
+	 * @param statement The statement that represents this source or sink
+	 * @param method The method containing the source or sink statement
+	 * @param lineNumber The line number of the statement in the source code, or
+	 * -1 if it is unknown
+	 * @param category The human-readable category of the source or sink, or
+	 * null if it is unknown
+	 */
+	protected AbstractSerializedSourceSink(SerializedAccessPath ap,
+			String statement, String method, int lineNumber, String category) {
 		this.accessPath = ap;
 		this.statement = statement;
 		this.method = method;
+		this.lineNumber = lineNumber;
+		this.category = category;
 	}
 	
 	@Override
@@ -35,6 +54,9 @@ class AbstractSerializedSourceSink {
 				+ ((statement == null) ? 0 : statement.hashCode());
 		result = prime * result
 				+ ((method == null) ? 0 : method.hashCode());
+		result = prime * result + lineNumber;
+		result = prime * result
+				+ ((category == null) ? 0 : category.hashCode());
 		return result;
 	}
 	
@@ -62,6 +84,13 @@ class AbstractSerializedSourceSink {
 				return false;
 		} else if (!method.equals(other.method))
 			return false;
+		if (lineNumber != other.lineNumber)
+			return false;
+		if (category == null) {
+			if (other.category != null)
+				return false;
+		} else if (!category.equals(other.category))
+			return false;
 		return true;
 	}
 	
@@ -88,5 +117,22 @@ class AbstractSerializedSourceSink {
 	public String getMethod() {
 		return this.method;
 	}
+	
+	/**
+	 * Gets the line number of the source or sink statement in the source code
+	 * @return The line number of the source or sink statement, or -1 if it is
+	 * unknown
+	 */
+	public int getLineNumber() {
+		return this.lineNumber;
+	}
+	
+	/**
+	 * Gets the human-readable category of the source or sink
+	 * @return The category of the source or sink, or null if it is unknown
+	 */
+	public String getCategory() {
+		return this.category;
+	}
 
 }
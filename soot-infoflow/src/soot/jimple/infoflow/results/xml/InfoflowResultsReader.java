@@ -6,12 +6,14 @@ import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Stack;
+import java.util.regex.Pattern;
 
 import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamReader;
 
 import soot.jimple.infoflow.results.InfoflowPerformanceData;
+import soot.jimple.infoflow.results.InfoflowResults;
 
 /**
  * Class for reading data flow results back into data objects
@@ -44,14 +46,18 @@ public class InfoflowResultsReader {
 
 			String statement = null;
 			String method = null;
+			int lineNumber = -1;
+			String category = null;
+			String pathStatement = null;
+			String pathMethod = null;
 			String apValue = null;
 			String apValueType = null;
 			boolean apTaintSubFields = false;
 			List<String> apFields = new ArrayList<>();
 			List<String> apTypes = new ArrayList<>();
 			SerializedAccessPath ap = null;
+			SerializedAccessPath pathAp = null;
 			SerializedSinkInfo sink = null;
-			SerializedSourceInfo source = null;
 			List<SerializedPathElement> pathElements = new ArrayList<>();
 
 			Stack<State> stateStack = new Stack<>();
@@ -70,6 +76,8 @@ public class InfoflowResultsReader {
 					// Load the attributes of the root node
 					results.setFileFormatVersion(
 							int2Str(getAttributeByName(reader, XmlConstants.Attributes.fileFormatVersion)));
+					results.setTerminationState(
+							str2TerminationState(getAttributeByName(reader, XmlConstants.Attributes.terminationState)));
 				} else if (reader.getLocalName().equals(XmlConstants.Tags.results) && reader.isStartElement()
 						&& stateStack.peek() == State.dataFlowResults) {
 					stateStack.push(State.results);
@@ -82,6 +90,10 @@ public class InfoflowResultsReader {
 
 					// Read the attributes
 					statement = getAttributeByName(reader, XmlConstants.Attributes.statement);
+					method = getAttributeByName(reader, XmlConstants.Attributes.method);
+					lineNumber = int2Str(getAttributeByName(reader, XmlConstants.Attributes.linenumber));
+					category = getOptionalAttribute(reader, XmlConstants.Attributes.category);
+					ap = null;
 				} else if (reader.getLocalName().equals(XmlConstants.Tags.accessPath) && reader.isStartElement()) {
 					stateStack.push(State.accessPath);
 
@@ -106,7 +118,7 @@ public class InfoflowResultsReader {
 					String type = getAttributeByName(reader, XmlConstants.Attributes.type);
 					if (value != null && !value.isEmpty() && type != null && !type.isEmpty()) {
 						apFields.add(value);
-						apTypes.add(value);
+						apTypes.add(type);
 					}
 				} else if (reader.getLocalName().equals(XmlConstants.Tags.sources) && reader.isStartElement()
 						&& stateStack.peek() == State.result) {
@@ -118,19 +130,21 @@ public class InfoflowResultsReader {
 					// Read the attributes
 					statement = getAttributeByName(reader, XmlConstants.Attributes.statement);
 					method = getAttributeByName(reader, XmlConstants.Attributes.method);
+					lineNumber = int2Str(getAttributeByName(reader, XmlConstants.Attributes.linenumber));
+					category = getOptionalAttribute(reader, XmlConstants.Attributes.category);
+					ap = null;
+					pathElements = new ArrayList<>();
 				} else if (reader.getLocalName().equals(XmlConstants.Tags.taintPath) && reader.isStartElement()
 						&& stateStack.peek() == State.source) {
 					stateStack.push(State.taintPath);
-
-					// Clear the old state
-					pathElements.clear();
 				} else if (reader.getLocalName().equals(XmlConstants.Tags.pathElement) && reader.isStartElement()
-						&& stateStack.peek() == State.source) {
-					stateStack.push(State.taintPath);
+						&& stateStack.peek() == State.taintPath) {
+					stateStack.push(State.pathElement);
 
 					// Read the attributes
-					statement = getAttributeByName(reader, XmlConstants.Attributes.statement);
-					method = getAttributeByName(reader, XmlConstants.Attributes.method);
+					pathStatement = getAttributeByName(reader, XmlConstants.Attributes.statement);
+					pathMethod = getAttributeByName(reader, XmlConstants.Attributes.method);
+					pathAp = null;
 				} else if (reader.getLocalName().equals(XmlConstants.Tags.performanceData) && reader.isStartElement()
 						&& stateStack.peek() == State.dataFlowResults) {
 					stateStack.push(State.performanceData);
@@ -138,14 +152,21 @@ public class InfoflowResultsReader {
 						&& stateStack.peek() == State.performanceData) {
 					stateStack.push(State.performanceEntry);
 
-					// We need a performance data object
-					if (perfData == null)
-						perfData = results.getOrCreatePerformanceData();
-
 					// Read the attributes
 					String perfName = getAttributeByName(reader, XmlConstants.Attributes.name);
 					String perfValue = getAttributeByName(reader, XmlConstants.Attributes.value);
 
+					// Streamed result files record the termination state at the end, because
+					// it is not yet known when the root element is written
+					if (perfName.equals(XmlConstants.Attributes.terminationState)) {
+						results.setTerminationState(str2TerminationState(perfValue));
+						continue;
+					}
+
+					// We need a performance data object
+					if (perfData == null)
+						perfData = results.getOrCreatePerformanceData();
+
 					switch (perfName) {
 					case XmlConstants.Values.PERF_CALLGRAPH_SECONDS:
 						perfData.setCallgraphConstructionSeconds(Integer.parseInt(perfValue));
@@ -172,18 +193,21 @@ public class InfoflowResultsReader {
 				} else if (reader.isEndElement()) {
 					stateStack.pop();
 
-					if (reader.getLocalName().equals(XmlConstants.Tags.accessPath))
-						ap = new SerializedAccessPath(apValue, apValueType, apTaintSubFields,
-								apFields.toArray(new String[apFields.size()]),
+					if (reader.getLocalName().equals(XmlConstants.Tags.accessPath)) {
+						SerializedAccessPath curAp = new SerializedAccessPath(apValue, apValueType,
+								apTaintSubFields, apFields.toArray(new String[apFields.size()]),
 								apTypes.toArray(new String[apTypes.size()]));
-					else if (reader.getLocalName().equals(XmlConstants.Tags.sink))
-						sink = new SerializedSinkInfo(ap, statement, method);
+						if (stateStack.peek() == State.pathElement)
+							pathAp = curAp;
+						else
+							ap = curAp;
+					} else if (reader.getLocalName().equals(XmlConstants.Tags.sink))
+						sink = new SerializedSinkInfo(ap, statement, method, lineNumber, category);
 					else if (reader.getLocalName().equals(XmlConstants.Tags.source))
-						source = new SerializedSourceInfo(ap, statement, method, pathElements);
-					else if (reader.getLocalName().equals(XmlConstants.Tags.result))
-						results.addResult(source, sink);
+						results.addResult(new SerializedSourceInfo(ap, statement, method, lineNumber, category,
+								pathElements.isEmpty() ? null : pathElements), sink);
 					else if (reader.getLocalName().equals(XmlConstants.Tags.pathElement))
-						pathElements.add(new SerializedPathElement(ap, statement, method));
+						pathElements.add(new SerializedPathElement(pathAp, pathStatement, pathMethod));
 				}
 			}
 
@@ -207,6 +231,71 @@ public class InfoflowResultsReader {
 		return Integer.valueOf(value);
 	}
 
+	/**
+	 * Converts the human-readable termination state from the XML file back into
+	 * the flags from {@link InfoflowResults}. Combined states list their flags
+	 * separated by {@link InfoflowResultsSerializer#TERMINATION_STATE_SEPARATOR}.
+	 * 
+	 * @param value The termination state as written in the XML file
+	 * @return The termination state flags
+	 * @throws XMLStreamException Thrown if the termination state is invalid
+	 */
+	private int str2TerminationState(String value) throws XMLStreamException {
+		// Old files do not record the termination state at all
+		if (value == null || value.isEmpty())
+			return InfoflowResults.TERMINATION_SUCCESS;
+
+		int state = InfoflowResults.TERMINATION_SUCCESS;
+		for (String flag : value.split(Pattern.quote(InfoflowResultsSerializer.TERMINATION_STATE_SEPARATOR))) {
+			switch (flag.trim()) {
+			case XmlConstants.Values.TERMINATION_SUCCESS:
+				break;
+			case XmlConstants.Values.TERMINATION_DATA_FLOW_TIMEOUT:
+				state |= InfoflowResults.TERMINATION_DATA_FLOW_TIMEOUT;
+				break;
+			case XmlConstants.Values.TERMINATION_DATA_FLOW_OOM:
+				state |= InfoflowResults.TERMINATION_DATA_FLOW_OOM;
+				break;
+			case XmlConstants.Values.TERMINATION_PATH_RECONSTRUCTION_TIMEOUT:
+				state |= InfoflowResults.TERMINATION_PATH_RECONSTRUCTION_TIMEOUT;
+				break;
+			case XmlConstants.Values.TERMINATION_PATH_RECONSTRUCTION_OOM:
+				state |= InfoflowResults.TERMINATION_PATH_RECONSTRUCTION_OOM;
+				break;
+			case XmlConstants.Values.TERMINATION_PARTIAL_RESULTS:
+				state |= InfoflowResults.TERMINATION_PARTIAL_RESULTS;
+				break;
+			case XmlConstants.Values.TERMINATION_UNKNOWN:
+				// Older versions wrote "Unknown" for combined states. We do not know
+				// what went wrong, but the analysis did not succeed.
+				state |= InfoflowResults.TERMINATION_PARTIAL_RESULTS;
+				break;
+			default:
+				// Flags without a name are written as numbers
+				try {
+					state |= Integer.parseInt(flag.trim());
+				} catch (NumberFormatException ex) {
+					throw new XMLStreamException(String.format("Invalid termination state %s", value), ex);
+				}
+				break;
+			}
+		}
+		return state;
+	}
+
+	/**
+	 * Gets the value of the XML attribute with the specified id
+	 * 
+	 * @param reader The reader from which to get the XML data
+	 * @param id     The attribute id for which to get the data
+	 * @return The data of the given attribute if it exists, otherwise
+	 *         <code>null</code>
+	 */
+	private String getOptionalAttribute(XMLStreamReader reader, String id) {
+		String value = getAttributeByName(reader, id);
+		return value.isEmpty() ? null : value;
+	}
+
 	/**
 	 * Gets the value of the XML attribute with the specified id
 	 * 
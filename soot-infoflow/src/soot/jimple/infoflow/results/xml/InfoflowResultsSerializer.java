@@ -3,6 +3,8 @@ package soot.jimple.infoflow.results.xml;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.Collection;
+import java.util.List;
 
 import javax.xml.stream.XMLOutputFactory;
 import javax.xml.stream.XMLStreamException;
@@ -27,14 +29,35 @@ public class InfoflowResultsSerializer {
 
 	public static final int FILE_FORMAT_VERSION = 102;
 
+	/**
+	 * The separator between the flags of a termination state in which multiple
+	 * flags are set
+	 */
+	public static final String TERMINATION_STATE_SEPARATOR = "|";
+
+	private static final int[] TERMINATION_FLAGS = { InfoflowResults.TERMINATION_DATA_FLOW_TIMEOUT,
+			InfoflowResults.TERMINATION_DATA_FLOW_OOM, InfoflowResults.TERMINATION_PATH_RECONSTRUCTION_TIMEOUT,
+			InfoflowResults.TERMINATION_PATH_RECONSTRUCTION_OOM, InfoflowResults.TERMINATION_PARTIAL_RESULTS };
+	private static final String[] TERMINATION_FLAG_NAMES = { XmlConstants.Values.TERMINATION_DATA_FLOW_TIMEOUT,
+			XmlConstants.Values.TERMINATION_DATA_FLOW_OOM, XmlConstants.Values.TERMINATION_PATH_RECONSTRUCTION_TIMEOUT,
+			XmlConstants.Values.TERMINATION_PATH_RECONSTRUCTION_OOM, XmlConstants.Values.TERMINATION_PARTIAL_RESULTS };
+
 	protected boolean serializeTaintPath = true;
 	protected IInfoflowCFG icfg;
 	protected InfoflowConfiguration config;
 	protected long startTime = 0;
 
+	/**
+	 * Creates a new instance of the InfoflowResultsSerializer class for writing
+	 * data flow results that have been loaded from an external storage
+	 */
+	public InfoflowResultsSerializer() {
+		this(null, null);
+	}
+
 	/**
 	 * Creates a new instance of the InfoflowResultsSerializer class
-	 * 
+	 *
 	 * @param config The configuration of the data flow
 	 */
 	public InfoflowResultsSerializer(InfoflowConfiguration config) {
@@ -94,28 +117,104 @@ public class InfoflowResultsSerializer {
 		}
 	}
 
+	/**
+	 * Serializes the given data flow results that have been loaded from an
+	 * external storage into the given file
+	 * 
+	 * @param results  The result object to serialize
+	 * @param fileName The target file name
+	 * @throws XMLStreamException Thrown if the XML data cannot be written
+	 * @throws IOException        Thrown if the target file could not be written
+	 */
+	public void serialize(SerializedInfoflowResults results, String fileName)
+			throws XMLStreamException, IOException {
+		try (OutputStream out = new FileOutputStream(fileName)) {
+			XMLOutputFactory factory = XMLOutputFactory.newInstance();
+			XMLStreamWriter writer = factory.createXMLStreamWriter(out, "UTF-8");
+
+			writer.writeStartDocument("UTF-8", "1.0");
+			writer.writeStartElement(XmlConstants.Tags.root);
+			writer.writeAttribute(XmlConstants.Attributes.fileFormatVersion, FILE_FORMAT_VERSION + "");
+			writer.writeAttribute(XmlConstants.Attributes.terminationState,
+					terminationStateToString(results.getTerminationState()));
+
+			// Write out the data flow results
+			if (!results.isEmpty()) {
+				writer.writeStartElement(XmlConstants.Tags.results);
+				for (SerializedSinkInfo sink : results.getResults().keySet()) {
+					writer.writeStartElement(XmlConstants.Tags.result);
+
+					writer.writeStartElement(XmlConstants.Tags.sink);
+					writeSerializedSourceSink(sink, writer);
+					writer.writeEndElement();
+
+					writer.writeStartElement(XmlConstants.Tags.sources);
+					for (SerializedSourceInfo source : results.getResults().get(sink)) {
+						writer.writeStartElement(XmlConstants.Tags.source);
+						writeSerializedSourceSink(source, writer);
+
+						List<SerializedPathElement> path = source.getPropagationPath();
+						if (serializeTaintPath && path != null && !path.isEmpty()) {
+							writer.writeStartElement(XmlConstants.Tags.taintPath);
+							for (SerializedPathElement element : path) {
+								writer.writeStartElement(XmlConstants.Tags.pathElement);
+								writeSerializedSourceSink(element, writer);
+								writer.writeEndElement();
+							}
+							writer.writeEndElement();
+						}
+						writer.writeEndElement();
+					}
+					writer.writeEndElement();
+
+					writer.writeEndElement();
+				}
+				writer.writeEndElement();
+			}
+
+			// Write out performance data
+			InfoflowPerformanceData performanceData = results.getPerformanceData();
+			if (performanceData != null && !performanceData.isEmpty()) {
+				writer.writeStartElement(XmlConstants.Tags.performanceData);
+				writePerformanceData(performanceData, writer);
+				writer.writeEndElement();
+			}
+
+			writer.writeEndDocument();
+			writer.close();
+		}
+	}
+
 	/**
 	 * Converts the termination state from the enumeration to a human-readable
-	 * string
+	 * string. If multiple flags are set, their names are separated by
+	 * {@link #TERMINATION_STATE_SEPARATOR}. Flags without a name are written as
+	 * numbers.
 	 * 
 	 * @param terminationState The termination state
 	 * @return A human-readable version of the termination state
 	 */
-	private String terminationStateToString(int terminationState) {
-		switch (terminationState) {
-		case InfoflowResults.TERMINATION_SUCCESS:
-			return "Success";
-		case InfoflowResults.TERMINATION_DATA_FLOW_TIMEOUT:
-			return "DataFlowTimeout";
-		case InfoflowResults.TERMINATION_DATA_FLOW_OOM:
-			return "DataFlowOutOfMemory";
-		case InfoflowResults.TERMINATION_PATH_RECONSTRUCTION_TIMEOUT:
-			return "PathReconstructionTimeout";
-		case InfoflowResults.TERMINATION_PATH_RECONSTRUCTION_OOM:
-			return "PathReconstructionOfMemory";
-		default:
-			return "Unknown";
+	protected String terminationStateToString(int terminationState) {
+		if (terminationState == InfoflowResults.TERMINATION_SUCCESS)
+			return XmlConstants.Values.TERMINATION_SUCCESS;
+
+		StringBuilder sb = new StringBuilder();
+		int remaining = terminationState;
+		for (int i = 0; i < TERMINATION_FLAGS.length; i++) {
+			int flag = TERMINATION_FLAGS[i];
+			if ((remaining & flag) == flag) {
+				if (sb.length() > 0)
+					sb.append(TERMINATION_STATE_SEPARATOR);
+				sb.append(TERMINATION_FLAG_NAMES[i]);
+				remaining &= ~flag;
+			}
 		}
+		if (remaining != 0) {
+			if (sb.length() > 0)
+				sb.append(TERMINATION_STATE_SEPARATOR);
+			sb.append(remaining);
+		}
+		return sb.toString();
 	}
 
 	/**
@@ -126,7 +225,7 @@ public class InfoflowResultsSerializer {
 	 * @param writer          The stream writer into which to write the data
 	 * @throws XMLStreamException Thrown if the XML data cannot be written
 	 */
-	private void writePerformanceData(InfoflowPerformanceData performanceData, XMLStreamWriter writer)
+	protected void writePerformanceData(InfoflowPerformanceData performanceData, XMLStreamWriter writer)
 			throws XMLStreamException {
 		writePerformanceEntry(XmlConstants.Values.PERF_CALLGRAPH_SECONDS,
 				performanceData.getCallgraphConstructionSeconds(), writer);
@@ -170,19 +269,31 @@ public class InfoflowResultsSerializer {
 	 * @throws XMLStreamException Thrown if the XML data cannot be written
 	 */
 	protected void writeDataFlows(InfoflowResults results, XMLStreamWriter writer) throws XMLStreamException {
-		for (ResultSinkInfo sink : results.getResults().keySet()) {
-			writer.writeStartElement(XmlConstants.Tags.result);
-			writeSinkInfo(sink, writer);
-
-			// Write out the sources
-			writer.writeStartElement(XmlConstants.Tags.sources);
-			for (ResultSourceInfo src : results.getResults().get(sink))
-				writeSourceInfo(src, writer);
-			writer.writeEndElement();
+		for (ResultSinkInfo sink : results.getResults().keySet())
+			writeDataFlow(sink, results.getResults().get(sink), writer);
+	}
 
-			writer.writeEndElement();
-		}
+	/**
+	 * Writes a single result element for the given sink and its sources into the
+	 * given XML stream writer
+	 * 
+	 * @param sink    The sink at which the data flows end
+	 * @param sources The sources from which the data flows originate
+	 * @param writer  The stream writer into which to write the result
+	 * @throws XMLStreamException Thrown if the XML data cannot be written
+	 */
+	protected void writeDataFlow(ResultSinkInfo sink, Collection<ResultSourceInfo> sources, XMLStreamWriter writer)
+			throws XMLStreamException {
+		writer.writeStartElement(XmlConstants.Tags.result);
+		writeSinkInfo(sink, writer);
 
+		// Write out the sources
+		writer.writeStartElement(XmlConstants.Tags.sources);
+		for (ResultSourceInfo src : sources)
+			writeSourceInfo(src, writer);
+		writer.writeEndElement();
+
+		writer.writeEndElement();
 	}
 
 	/**
@@ -309,6 +420,56 @@ public class InfoflowResultsSerializer {
 		writer.writeEndElement();
 	}
 
+	/**
+	 * Writes the attributes and the access path of a source, sink, or path
+	 * element that has been loaded from an external storage into the given XML
+	 * stream writer
+	 * 
+	 * @param info   The element to write out
+	 * @param writer The stream writer into which to write the data
+	 * @throws XMLStreamException Thrown if the XML data cannot be written
+	 */
+	private void writeSerializedSourceSink(AbstractSerializedSourceSink info, XMLStreamWriter writer)
+			throws XMLStreamException {
+		if (info.getStatement() != null)
+			writer.writeAttribute(XmlConstants.Attributes.statement, info.getStatement());
+		if (info.getLineNumber() >= 0)
+			writer.writeAttribute(XmlConstants.Attributes.linenumber, String.valueOf(info.getLineNumber()));
+		if (info.getCategory() != null)
+			writer.writeAttribute(XmlConstants.Attributes.category, info.getCategory());
+		if (info.getMethod() != null && !info.getMethod().isEmpty())
+			writer.writeAttribute(XmlConstants.Attributes.method, info.getMethod());
+
+		SerializedAccessPath accessPath = info.getAccessPath();
+		if (accessPath == null)
+			return;
+
+		writer.writeStartElement(XmlConstants.Tags.accessPath);
+		if (accessPath.getBase() != null)
+			writer.writeAttribute(XmlConstants.Attributes.value, accessPath.getBase());
+		if (accessPath.getBaseType() != null)
+			writer.writeAttribute(XmlConstants.Attributes.type, accessPath.getBaseType());
+		writer.writeAttribute(XmlConstants.Attributes.taintSubFields,
+				accessPath.getTaintSubFields() ? XmlConstants.Values.TRUE : XmlConstants.Values.FALSE);
+
+		// Write out the fields
+		String[] fields = accessPath.getFields();
+		String[] types = accessPath.getTypes();
+		if (fields != null && fields.length > 0) {
+			writer.writeStartElement(XmlConstants.Tags.fields);
+			for (int i = 0; i < fields.length; i++) {
+				writer.writeStartElement(XmlConstants.Tags.field);
+				writer.writeAttribute(XmlConstants.Attributes.value, fields[i]);
+				if (types != null && i < types.length && types[i] != null)
+					writer.writeAttribute(XmlConstants.Attributes.type, types[i]);
+				writer.writeEndElement();
+			}
+			writer.writeEndElement();
+		}
+
+		writer.writeEndElement();
+	}
+
 	/**
 	 * Sets whether the taint propagation path shall be serialized along with the
 	 * respective data flow result
@@ -27,7 +27,7 @@ public class SerializedAccessPath {
 	 * @param fields The sequence of fields
 	 * @param types The types of the fields
 	 */
-	SerializedAccessPath(String base, String baseType, boolean taintSubFields,
+	public SerializedAccessPath(String base, String baseType, boolean taintSubFields,
 			String[] fields, String [] types) {
 		this.base = base;
 		this.baseType = baseType;
@@ -3,6 +3,7 @@ package soot.jimple.infoflow.results.xml;
 import java.util.Set;
 
 import soot.jimple.infoflow.results.InfoflowPerformanceData;
+import soot.jimple.infoflow.results.InfoflowResults;
 import soot.util.HashMultiMap;
 import soot.util.MultiMap;
 
@@ -18,11 +19,12 @@ public class SerializedInfoflowResults {
 	private int fileFormatVersion = -1;
 	private final MultiMap<SerializedSinkInfo, SerializedSourceInfo> results = new HashMultiMap<>();
 	private InfoflowPerformanceData performanceData = null;
+	private int terminationState = InfoflowResults.TERMINATION_SUCCESS;
 
 	/**
 	 * Creates a new instance of the SerializedInfoflowResults class
 	 */
-	SerializedInfoflowResults() {
+	public SerializedInfoflowResults() {
 
 	}
 
@@ -32,7 +34,7 @@ public class SerializedInfoflowResults {
 	 * @param version The format version of the XML file from which this data was
 	 *                read
 	 */
-	void setFileFormatVersion(int version) {
+	public void setFileFormatVersion(int version) {
 		this.fileFormatVersion = version;
 	}
 
@@ -42,10 +44,38 @@ public class SerializedInfoflowResults {
 	 * @param source The source from which the data flow originated
 	 * @param sink   The sink at which the data flow arrived
 	 */
-	void addResult(SerializedSourceInfo source, SerializedSinkInfo sink) {
+	public void addResult(SerializedSourceInfo source, SerializedSinkInfo sink) {
 		this.results.put(sink, source);
 	}
 
+	/**
+	 * Adds all data flow results from the given data object to this one. The
+	 * termination states are combined and the performance data is added up.
+	 * 
+	 * @param other The data object whose results to add to this one
+	 */
+	public void addAll(SerializedInfoflowResults other) {
+		this.results.putAll(other.results);
+		this.terminationState |= other.terminationState;
+		if (other.performanceData != null)
+			getOrCreatePerformanceData().add(other.performanceData);
+	}
+
+	/**
+	 * Adds the results of another partition of the same analysis to this data
+	 * object. In contrast to {@link #addAll(SerializedInfoflowResults)}, this
+	 * method takes into account that all partitions have scanned the same program
+	 * for sinks. The sink count is therefore not added up.
+	 * 
+	 * @param other The results of the other partition
+	 */
+	public void addPartition(SerializedInfoflowResults other) {
+		int sinkCount = performanceData == null ? -1 : performanceData.getSinkCount();
+		addAll(other);
+		if (other.performanceData != null)
+			performanceData.setSinkCount(Math.max(sinkCount, other.performanceData.getSinkCount()));
+	}
+
 	/**
 	 * Gets the number of data flow results in this object
 	 * 
@@ -60,6 +90,27 @@ public class SerializedInfoflowResults {
 		return cnt;
 	}
 
+	/**
+	 * Gets the state in which the data flow analysis has terminated
+	 * 
+	 * @return The termination state as a combination of the
+	 *         <code>TERMINATION_*</code> flags in {@link InfoflowResults}
+	 */
+	public int getTerminationState() {
+		return terminationState;
+	}
+
+	/**
+	 * Sets the state in which the data flow analysis has terminated
+	 * 
+	 * @param terminationState The termination state as a combination of the
+	 *                         <code>TERMINATION_*</code> flags in
+	 *                         {@link InfoflowResults}
+	 */
+	public void setTerminationState(int terminationState) {
+		this.terminationState = terminationState;
+	}
+
 	/**
 	 * Gets the performance statistics for this FlowDroid run
 	 * 
@@ -76,7 +127,7 @@ public class SerializedInfoflowResults {
 	 * 
 	 * @return The performance statistics for this FlowDroid run
 	 */
-	InfoflowPerformanceData getOrCreatePerformanceData() {
+	public InfoflowPerformanceData getOrCreatePerformanceData() {
 		if (performanceData == null)
 			performanceData = new InfoflowPerformanceData();
 		return performanceData;
@@ -89,6 +140,7 @@ public class SerializedInfoflowResults {
 		result = prime * result + fileFormatVersion;
 		result = prime * result + ((performanceData == null) ? 0 : performanceData.hashCode());
 		result = prime * result + ((results == null) ? 0 : results.hashCode());
+		result = prime * result + terminationState;
 		return result;
 	}
 
@@ -113,6 +165,8 @@ public class SerializedInfoflowResults {
 				return false;
 		} else if (!results.equals(other.results))
 			return false;
+		if (terminationState != other.terminationState)
+			return false;
 		return true;
 	}
 
@@ -9,7 +9,7 @@ package soot.jimple.infoflow.results.xml;
  */
 public class SerializedPathElement extends AbstractSerializedSourceSink {
 
-	SerializedPathElement(SerializedAccessPath ap, String statement,
+	public SerializedPathElement(SerializedAccessPath ap, String statement,
 			String method) {
 		super(ap, statement, method);
 	}
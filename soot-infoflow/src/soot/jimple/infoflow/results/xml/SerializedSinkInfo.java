@@ -9,10 +9,15 @@ package soot.jimple.infoflow.results.xml;
  */
 public class SerializedSinkInfo extends AbstractSerializedSourceSink {
 
-	SerializedSinkInfo(SerializedAccessPath accessPath, String statement,
+	public SerializedSinkInfo(SerializedAccessPath accessPath, String statement,
 			String method) {
 		super(accessPath, statement, method);
 	}
 
+	public SerializedSinkInfo(SerializedAccessPath accessPath, String statement,
+			String method, int lineNumber, String category) {
+		super(accessPath, statement, method, lineNumber, category);
+	}
+
 	
 }
@@ -14,14 +14,20 @@ public class SerializedSourceInfo extends AbstractSerializedSourceSink {
 	
 	private List<SerializedPathElement> propagationPath = null;
 	
-	SerializedSourceInfo(SerializedAccessPath accessPath, String statement,
+	public SerializedSourceInfo(SerializedAccessPath accessPath, String statement,
 			String method) {
 		this(accessPath, statement, method, null);
 	}
 	
-	SerializedSourceInfo(SerializedAccessPath accessPath, String statement,
+	public SerializedSourceInfo(SerializedAccessPath accessPath, String statement,
 			String method, List<SerializedPathElement> propagationPath) {
-		super(accessPath, statement, method);
+		this(accessPath, statement, method, -1, null, propagationPath);
+	}
+	
+	public SerializedSourceInfo(SerializedAccessPath accessPath, String statement,
+			String method, int lineNumber, String category,
+			List<SerializedPathElement> propagationPath) {
+		super(accessPath, statement, method, lineNumber, category);
 		this.propagationPath = propagationPath;
 	}
 	
@@ -0,0 +1,112 @@
+package soot.jimple.infoflow.results.xml;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collections;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import soot.jimple.infoflow.results.InfoflowPerformanceData;
+import soot.jimple.infoflow.results.InfoflowResults;
+import soot.jimple.infoflow.results.ResultSinkInfo;
+import soot.jimple.infoflow.results.ResultSourceInfo;
+import soot.jimple.infoflow.results.streaming.AbstractStreamingResultsWriter;
+
+/**
+ * Streaming result writer that produces the same XML format as the
+ * {@link InfoflowResultsSerializer}, but appends every result as a separate
+ * result element as soon as it becomes available. Since the termination state
+ * is not known when the root element is written, it is recorded as a
+ * performance entry at the end of the file, from which the
+ * {@link InfoflowResultsReader} picks it up.
+ */
+public class StreamingXmlResultsWriter extends AbstractStreamingResultsWriter {
+
+	private final InfoflowResultsSerializer serializer;
+	private XMLStreamWriter writer;
+
+	/**
+	 * Creates a new instance of the {@link StreamingXmlResultsWriter} class
+	 *
+	 * @param fileName   The name of the file into which to write the results
+	 * @param serializer The serializer that defines how individual data flows are
+	 *                   written out
+	 */
+	public StreamingXmlResultsWriter(String fileName, InfoflowResultsSerializer serializer) {
+		super(fileName);
+		this.serializer = serializer;
+	}
+
+	@Override
+	protected void writeHeader(OutputStream out) throws IOException {
+		try {
+			XMLOutputFactory factory = XMLOutputFactory.newInstance();
+			writer = factory.createXMLStreamWriter(out, "UTF-8");
+
+			writer.writeStartDocument("UTF-8", "1.0");
+			writer.writeStartElement(XmlConstants.Tags.root);
+			writer.writeAttribute(XmlConstants.Attributes.fileFormatVersion,
+					InfoflowResultsSerializer.FILE_FORMAT_VERSION + "");
+			writer.writeStartElement(XmlConstants.Tags.results);
+		} catch (XMLStreamException e) {
+			throw new IOException("Could not write XML header", e);
+		}
+	}
+
+	@Override
+	protected void writeResult(ResultSourceInfo source, ResultSinkInfo sink) throws IOException {
+		try {
+			serializer.writeDataFlow(sink, Collections.singleton(source), writer);
+		} catch (XMLStreamException e) {
+			throw new IOException("Could not write data flow result", e);
+		}
+	}
+
+	@Override
+	protected void writeFooter(InfoflowResults results) throws IOException {
+		try {
+			// Close the results element
+			writer.writeEndElement();
+
+			// Write out performance data
+			writer.writeStartElement(XmlConstants.Tags.performanceData);
+			if (results != null) {
+				writer.writeStartElement(XmlConstants.Tags.performanceEntry);
+				writer.writeAttribute(XmlConstants.Attributes.name, XmlConstants.Attributes.terminationState);
+				writer.writeAttribute(XmlConstants.Attributes.value,
+						serializer.terminationStateToString(results.getTerminationState()));
+				writer.writeEndElement();
+
+				InfoflowPerformanceData performanceData = results.getPerformanceData();
+				if (performanceData != null && !performanceData.isEmpty())
+					serializer.writePerformanceData(performanceData, writer);
+			}
+			writer.writeEndElement();
+
+			writer.writeEndDocument();
+		} catch (XMLStreamException e) {
+			throw new IOException("Could not write XML footer", e);
+		}
+	}
+
+	@Override
+	protected void flushWriter() throws IOException {
+		try {
+			writer.flush();
+		} catch (XMLStreamException e) {
+			throw new IOException("Could not flush XML writer", e);
+		}
+	}
+
+	@Override
+	protected void closeWriter() throws IOException {
+		try {
+			writer.close();
+		} catch (XMLStreamException e) {
+			throw new IOException("Could not close XML writer", e);
+		}
+	}
+
+}
@@ -64,6 +64,14 @@ class XmlConstants {
 		public static final String PERF_SOURCE_COUNT = "SourceCount";
 		public static final String PERF_SINK_COUNT = "SinkCount";
 
+		public static final String TERMINATION_SUCCESS = "Success";
+		public static final String TERMINATION_DATA_FLOW_TIMEOUT = "DataFlowTimeout";
+		public static final String TERMINATION_DATA_FLOW_OOM = "DataFlowOutOfMemory";
+		public static final String TERMINATION_PATH_RECONSTRUCTION_TIMEOUT = "PathReconstructionTimeout";
+		public static final String TERMINATION_PATH_RECONSTRUCTION_OOM = "PathReconstructionOfMemory";
+		public static final String TERMINATION_PARTIAL_RESULTS = "PartialResults";
+		public static final String TERMINATION_UNKNOWN = "Unknown";
+
 	}
 
 }
@@ -6,6 +6,7 @@ import heros.solver.Pair;
 import heros.solver.PathEdge;
 import soot.SootMethod;
 import soot.Unit;
+import soot.jimple.infoflow.cfg.SinkDistances;
 import soot.jimple.infoflow.data.Abstraction;
 import soot.jimple.infoflow.problems.AbstractInfoflowProblem;
 import soot.jimple.infoflow.solver.memory.IMemoryManager;
@@ -130,6 +131,15 @@ public interface IInfoflowSolver {
 	 */
 	public void setPeerGroup(SolverPeerGroup solverPeerGroup);
 
+	/**
+	 * Sets the callgraph distances to the nearest sink. If the executor orders its
+	 * tasks by priority, edges in methods closer to a sink are processed first.
+	 * 
+	 * @param sinkDistances The distances of all methods to the nearest sink, or
+	 *                      <code>null</code> to treat all edges equally
+	 */
+	public void setSinkDistances(SinkDistances sinkDistances);
+
 	/**
 	 * Notifies the solver that no further edges will be scheduled
 	 */
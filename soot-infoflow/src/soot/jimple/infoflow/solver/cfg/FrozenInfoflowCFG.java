@@ -0,0 +1,493 @@
+package soot.jimple.infoflow.solver.cfg;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntConsumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import gnu.trove.map.custom_hash.TObjectIntCustomHashMap;
+import gnu.trove.strategy.IdentityHashingStrategy;
+import soot.MethodOrMethodContext;
+import soot.Scene;
+import soot.SootMethod;
+import soot.Unit;
+import soot.jimple.infoflow.threading.ParallelTaskRunner;
+import soot.toolkits.graph.DirectedGraph;
+import soot.toolkits.graph.MHGPostDominatorsFinder;
+import soot.util.queue.QueueReader;
+
+/**
+ * Immutable interprocedural control-flow graph that numbers all units in
+ * reachable methods and stores successors, predecessors, callees, callers and
+ * postdominators in flat integer arrays. The graph is built once from an
+ * existing {@link InfoflowCFG}. Soot does not number units, so every query
+ * first looks up the unit number in an identity hash map with primitive int
+ * values. All further data is then read from the arrays instead of going
+ * through the caches of the underlying Soot ICFG.
+ *
+ * Units that were not part of the reachable methods when the graph was frozen,
+ * and units in methods that have been changed afterwards, are handled by the
+ * original ICFG.
+ */
+public class FrozenInfoflowCFG extends InfoflowCFG {
+
+	private final Logger logger = LoggerFactory.getLogger(getClass());
+
+	private static final byte FLAG_CALL = 1;
+	private static final byte FLAG_EXIT = 2;
+	private static final byte FLAG_START = 4;
+	private static final byte FLAG_RETURN_SITE = 8;
+
+	private final TObjectIntCustomHashMap<Unit> unitToId;
+	private final Unit[] units;
+	private final int[] unitToMethod;
+	private final byte[] unitFlags;
+
+	private final int[] succOffsets;
+	private final int[] succs;
+	private final int[] predOffsets;
+	private final int[] preds;
+	private final int[] calleeOffsets;
+	private final int[] callees;
+	private final int[] postdominators;
+
+	private final SootMethod[] methods;
+	private final int[] methodNumberToIdx;
+	private final SootMethod[] methodsByNumber;
+	private final int[] methodUnitOffsets;
+	private final int[] startPointOffsets;
+	private final int[] startPoints;
+	private final int[] endPointOffsets;
+	private final int[] endPoints;
+	private final int[] callerOffsets;
+	private final int[] callers;
+
+	private final Set<SootMethod> thawedMethods = ConcurrentHashMap.newKeySet();
+	private volatile boolean hasThawedMethods = false;
+
+	/**
+	 * Read-only list view on a range of unit numbers
+	 */
+	private class UnitList extends AbstractList<Unit> implements RandomAccess {
+
+		private final int[] data;
+		private final int from;
+		private final int to;
+
+		public UnitList(int[] data, int from, int to) {
+			this.data = data;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		public Unit get(int index) {
+			return units[data[from + index]];
+		}
+
+		@Override
+		public int size() {
+			return to - from;
+		}
+
+	}
+
+	/**
+	 * Read-only list view on a range of method numbers
+	 */
+	private class MethodList extends AbstractList<SootMethod> implements RandomAccess {
+
+		private final int from;
+		private final int to;
+
+		public MethodList(int from, int to) {
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		public SootMethod get(int index) {
+			return methodsByNumber[callees[from + index]];
+		}
+
+		@Override
+		public int size() {
+			return to - from;
+		}
+
+	}
+
+	/**
+	 * Creates a frozen copy of the given ICFG. All methods that are reachable in
+	 * the current callgraph are included.
+	 *
+	 * @param cfg The ICFG to freeze
+	 */
+	public FrozenInfoflowCFG(InfoflowCFG cfg) {
+		super(cfg.delegate);
+		this.sideEffectSummaries = cfg.sideEffectSummaries;
+
+		final long beforeFreeze = System.nanoTime();
+
+		// Collect the methods and number their units
+		List<SootMethod> methodList = new ArrayList<>();
+		QueueReader<MethodOrMethodContext> methodListener = Scene.v().getReachableMethods().listener();
+		MethodOrMethodContext mmoc;
+		while (methodListener.hasNext() && (mmoc = methodListener.next()) != null) {
+			SootMethod sm = mmoc.method();
+			if (sm != null && sm.hasActiveBody())
+				methodList.add(sm);
+		}
+		methods = methodList.toArray(new SootMethod[methodList.size()]);
+
+		int maxMethodNumber = Scene.v().getMethodNumberer().size() + 1;
+		methodNumberToIdx = new int[maxMethodNumber];
+		Arrays.fill(methodNumberToIdx, -1);
+		methodsByNumber = new SootMethod[maxMethodNumber];
+		methodUnitOffsets = new int[methods.length + 1];
+
+		int unitCount = 0;
+		for (int i = 0; i < methods.length; i++) {
+			methodNumberToIdx[methods[i].getNumber()] = i;
+			methodsByNumber[methods[i].getNumber()] = methods[i];
+			methodUnitOffsets[i] = unitCount;
+			unitCount += methods[i].getActiveBody().getUnits().size();
+		}
+		methodUnitOffsets[methods.length] = unitCount;
+
+		units = new Unit[unitCount];
+		unitToMethod = new int[unitCount];
+		unitToId = new TObjectIntCustomHashMap<>(new IdentityHashingStrategy<Unit>(), unitCount, 0.5f, -1);
+		for (int i = 0; i < methods.length; i++) {
+			int id = methodUnitOffsets[i];
+			for (Unit u : methods[i].getActiveBody().getUnits()) {
+				units[id] = u;
+				unitToMethod[id] = i;
+				unitToId.put(u, id);
+				id++;
+			}
+		}
+
+		// Count the edges for every unit
+		unitFlags = new byte[unitCount];
+		succOffsets = new int[unitCount + 1];
+		predOffsets = new int[unitCount + 1];
+		calleeOffsets = new int[unitCount + 1];
+		final ParallelTaskRunner runner = new ParallelTaskRunner("FlowDroid ICFG freezer");
+		try {
+			runner.run(methods.length, new IntConsumer() {
+
+				@Override
+				public void accept(int methodIdx) {
+					for (int id = methodUnitOffsets[methodIdx]; id < methodUnitOffsets[methodIdx + 1]; id++) {
+						Unit u = units[id];
+						succOffsets[id] = delegate.getSuccsOf(u).size();
+						predOffsets[id] = delegate.getPredsOf(u).size();
+
+						byte flags = 0;
+						if (delegate.isCallStmt(u)) {
+							flags |= FLAG_CALL;
+							calleeOffsets[id] = delegate.getCalleesOfCallAt(u).size();
+						}
+						if (delegate.isExitStmt(u))
+							flags |= FLAG_EXIT;
+						if (delegate.isStartPoint(u))
+							flags |= FLAG_START;
+						if (delegate.isReturnSite(u))
+							flags |= FLAG_RETURN_SITE;
+						unitFlags[id] = flags;
+					}
+				}
+
+			});
+			int succCount = toOffsets(succOffsets);
+			int predCount = toOffsets(predOffsets);
+			int calleeCount = toOffsets(calleeOffsets);
+
+			// Fill in the edges and postdominators
+			succs = new int[succCount];
+			preds = new int[predCount];
+			callees = new int[calleeCount];
+			postdominators = new int[unitCount];
+			runner.run(methods.length, new IntConsumer() {
+
+				@Override
+				public void accept(int methodIdx) {
+					SootMethod method = methods[methodIdx];
+					DirectedGraph<Unit> graph = delegate.getOrCreateUnitGraph(method);
+					MHGPostDominatorsFinder<Unit> postdominatorFinder = new MHGPostDominatorsFinder<Unit>(graph);
+
+					for (int id = methodUnitOffsets[methodIdx]; id < methodUnitOffsets[methodIdx + 1]; id++) {
+						Unit u = units[id];
+						fillUnits(delegate.getSuccsOf(u), succs, succOffsets[id]);
+						fillUnits(delegate.getPredsOf(u), preds, predOffsets[id]);
+						if ((unitFlags[id] & FLAG_CALL) != 0) {
+							int pos = calleeOffsets[id];
+							for (SootMethod callee : delegate.getCalleesOfCallAt(u)) {
+								callees[pos++] = callee.getNumber();
+								methodsByNumber[callee.getNumber()] = callee;
+							}
+						}
+
+						Unit postdom = postdominatorFinder.getImmediateDominator(u);
+						postdominators[id] = postdom == null ? -1 : getId(postdom);
+					}
+				}
+
+			});
+		} finally {
+			runner.shutdown();
+		}
+
+		// Index the start and end points of all methods
+		startPointOffsets = new int[methods.length + 1];
+		endPointOffsets = new int[methods.length + 1];
+		for (int id = 0; id < unitCount; id++) {
+			if ((unitFlags[id] & FLAG_START) != 0)
+				startPointOffsets[unitToMethod[id]]++;
+			if ((unitFlags[id] & FLAG_EXIT) != 0)
+				endPointOffsets[unitToMethod[id]]++;
+		}
+		startPoints = new int[toOffsets(startPointOffsets)];
+		endPoints = new int[toOffsets(endPointOffsets)];
+		int[] startPos = Arrays.copyOf(startPointOffsets, methods.length);
+		int[] endPos = Arrays.copyOf(endPointOffsets, methods.length);
+		for (int id = 0; id < unitCount; id++) {
+			if ((unitFlags[id] & FLAG_START) != 0)
+				startPoints[startPos[unitToMethod[id]]++] = id;
+			if ((unitFlags[id] & FLAG_EXIT) != 0)
+				endPoints[endPos[unitToMethod[id]]++] = id;
+		}
+
+		// Invert the callee relation to obtain the callers
+		callerOffsets = new int[maxMethodNumber + 1];
+		for (int callee : callees)
+			callerOffsets[callee]++;
+		callers = new int[toOffsets(callerOffsets)];
+		int[] callerPos = Arrays.copyOf(callerOffsets, maxMethodNumber);
+		for (int id = 0; id < unitCount; id++) {
+			for (int i = calleeOffsets[id]; i < calleeOffsets[id + 1]; i++)
+				callers[callerPos[callees[i]]++] = id;
+		}
+
+		logger.info("Froze ICFG with {} methods, {} units and {} call edges in {} seconds", methods.length,
+				unitCount, calleeCount, (System.nanoTime() - beforeFreeze) / 1E9);
+	}
+
+	/**
+	 * Converts the given array of counts into an array of start offsets. The last
+	 * element of the array is reserved for the total count.
+	 *
+	 * @param counts The counts. The array is modified in place.
+	 * @return The total count
+	 */
+	private static int toOffsets(int[] counts) {
+		int total = 0;
+		for (int i = 0; i < counts.length - 1; i++) {
+			int count = counts[i];
+			counts[i] = total;
+			total += count;
+		}
+		counts[counts.length - 1] = total;
+		return total;
+	}
+
+	/**
+	 * Writes the numbers of the given units into the given array
+	 *
+	 * @param source The units to write
+	 * @param target The array into which to write the unit numbers
+	 * @param pos    The position at which to start writing
+	 */
+	private void fillUnits(Collection<Unit> source, int[] target, int pos) {
+		for (Unit u : source)
+			target[pos++] = getId(u);
+	}
+
+	/**
+	 * Gets the number of the given unit, ignoring whether its method has been
+	 * changed
+	 *
+	 * @param u The unit
+	 * @return The number of the given unit, or -1 if the unit is not known
+	 */
+	private int getId(Unit u) {
+		return unitToId.get(u);
+	}
+
+	/**
+	 * Gets the number of the given unit if the frozen graph is still valid for it
+	 *
+	 * @param u The unit
+	 * @return The number of the given unit, or -1 if queries on this unit must be
+	 *         answered by the original ICFG
+	 */
+	private int getValidId(Unit u) {
+		int id = unitToId.get(u);
+		if (id < 0)
+			return -1;
+		if (hasThawedMethods && thawedMethods.contains(methods[unitToMethod[id]]))
+			return -1;
+		return id;
+	}
+
+	/**
+	 * Gets the index of the given method if the frozen graph is still valid for it
+	 *
+	 * @param m The method
+	 * @return The index of the given method, or -1 if queries on this method must
+	 *         be answered by the original ICFG
+	 */
+	private int getValidMethodIdx(SootMethod m) {
+		int number = m.getNumber();
+		if (number >= methodNumberToIdx.length)
+			return -1;
+		int idx = methodNumberToIdx[number];
+		if (idx < 0 || (hasThawedMethods && thawedMethods.contains(m)))
+			return -1;
+		return idx;
+	}
+
+	@Override
+	public SootMethod getMethodOf(Unit u) {
+		int id = getValidId(u);
+		return id < 0 ? super.getMethodOf(u) : methods[unitToMethod[id]];
+	}
+
+	@Override
+	public List<Unit> getSuccsOf(Unit u) {
+		int id = getValidId(u);
+		if (id < 0)
+			return super.getSuccsOf(u);
+		return new UnitList(succs, succOffsets[id], succOffsets[id + 1]);
+	}
+
+	@Override
+	public List<Unit> getPredsOf(Unit u) {
+		int id = getValidId(u);
+		if (id < 0)
+			return super.getPredsOf(u);
+		return new UnitList(preds, predOffsets[id], predOffsets[id + 1]);
+	}
+
+	@Override
+	public List<Unit> getPredsOfCallAt(Unit u) {
+		return getPredsOf(u);
+	}
+
+	@Override
+	public boolean isCallStmt(Unit u) {
+		int id = getValidId(u);
+		return id < 0 ? super.isCallStmt(u) : (unitFlags[id] & FLAG_CALL) != 0;
+	}
+
+	@Override
+	public boolean isExitStmt(Unit u) {
+		int id = getValidId(u);
+		return id < 0 ? super.isExitStmt(u) : (unitFlags[id] & FLAG_EXIT) != 0;
+	}
+
+	@Override
+	public boolean isStartPoint(Unit u) {
+		int id = getValidId(u);
+		return id < 0 ? super.isStartPoint(u) : (unitFlags[id] & FLAG_START) != 0;
+	}
+
+	@Override
+	public boolean isReturnSite(Unit n) {
+		int id = getValidId(n);
+		return id < 0 ? super.isReturnSite(n) : (unitFlags[id] & FLAG_RETURN_SITE) != 0;
+	}
+
+	@Override
+	public boolean isReachable(Unit u) {
+		return getValidId(u) >= 0 || super.isReachable(u);
+	}
+
+	@Override
+	public Collection<SootMethod> getCalleesOfCallAt(Unit u) {
+		int id = getValidId(u);
+		if (id < 0)
+			return super.getCalleesOfCallAt(u);
+		return new MethodList(calleeOffsets[id], calleeOffsets[id + 1]);
+	}
+
+	@Override
+	public Collection<Unit> getReturnSitesOfCallAt(Unit u) {
+		// The return sites of a call are its successors
+		int id = getValidId(u);
+		if (id < 0)
+			return super.getReturnSitesOfCallAt(u);
+		return new UnitList(succs, succOffsets[id], succOffsets[id + 1]);
+	}
+
+	@Override
+	public Collection<Unit> getCallersOf(SootMethod m) {
+		// A changed method might contain new call sites
+		int number = m.getNumber();
+		if (hasThawedMethods || number >= methodsByNumber.length || methodsByNumber[number] != m)
+			return super.getCallersOf(m);
+		return new UnitList(callers, callerOffsets[number], callerOffsets[number + 1]);
+	}
+
+	@Override
+	public Collection<Unit> getStartPointsOf(SootMethod m) {
+		int idx = getValidMethodIdx(m);
+		if (idx < 0)
+			return super.getStartPointsOf(m);
+		return new UnitList(startPoints, startPointOffsets[idx], startPointOffsets[idx + 1]);
+	}
+
+	@Override
+	public Collection<Unit> getEndPointsOf(SootMethod m) {
+		int idx = getValidMethodIdx(m);
+		if (idx < 0)
+			return super.getEndPointsOf(m);
+		return new UnitList(endPoints, endPointOffsets[idx], endPointOffsets[idx + 1]);
+	}
+
+	@Override
+	public UnitContainer getPostdominatorOf(Unit u) {
+		int id = getValidId(u);
+		if (id < 0)
+			return super.getPostdominatorOf(u);
+		int postdom = postdominators[id];
+		return postdom < 0 ? new UnitContainer(methods[unitToMethod[id]]) : new UnitContainer(units[postdom]);
+	}
+
+	@Override
+	public void notifyMethodChanged(SootMethod m) {
+		super.notifyMethodChanged(m);
+		if (thawedMethods.add(m))
+			hasThawedMethods = true;
+	}
+
+	/**
+	 * Gets the number of units in this frozen ICFG
+	 *
+	 * @return The number of units in this frozen ICFG
+	 */
+	public int getUnitCount() {
+		return units.length;
+	}
+
+	/**
+	 * Gets the methods that have been changed after the ICFG was frozen and for
+	 * which all queries are answered by the original ICFG
+	 *
+	 * @return The methods that have been changed after the ICFG was frozen
+	 */
+	public Set<SootMethod> getThawedMethods() {
+		return Collections.unmodifiableSet(thawedMethods);
+	}
+
+}
@@ -12,14 +12,8 @@ package soot.jimple.infoflow.solver.cfg;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
@@ -35,12 +29,10 @@ import soot.Unit;
 import soot.Value;
 import soot.ValueBox;
 import soot.jimple.AssignStmt;
-import soot.jimple.FieldRef;
 import soot.jimple.InvokeExpr;
-import soot.jimple.StaticFieldRef;
 import soot.jimple.Stmt;
 import soot.jimple.VirtualInvokeExpr;
-import soot.jimple.toolkits.callgraph.Edge;
+import soot.jimple.infoflow.cfg.MethodSideEffectSummaries;
 import soot.jimple.toolkits.ide.icfg.BiDiInterproceduralCFG;
 import soot.jimple.toolkits.ide.icfg.JimpleBasedInterproceduralCFG;
 import soot.toolkits.exceptions.ThrowableSet;
@@ -57,15 +49,7 @@ import soot.toolkits.graph.MHGPostDominatorsFinder;
  */
 public class InfoflowCFG implements IInfoflowCFG {
 
-	private final static int MAX_SIDE_EFFECT_ANALYSIS_DEPTH = 25;
-	private final static int MAX_STATIC_USE_ANALYSIS_DEPTH = 50;
-
-	private static enum StaticFieldUse {
-		Unknown, Unused, Read, Write, ReadWrite
-	}
-
-	protected final Map<SootMethod, Map<SootField, StaticFieldUse>> staticFieldUses = new ConcurrentHashMap<SootMethod, Map<SootField, StaticFieldUse>>();
-	protected final Map<SootMethod, Boolean> methodSideEffects = new ConcurrentHashMap<SootMethod, Boolean>();
+	protected volatile MethodSideEffectSummaries sideEffectSummaries;
 
 	protected final BiDiInterproceduralCFG<Unit, SootMethod> delegate;
 
@@ -248,208 +232,51 @@ public class InfoflowCFG implements IInfoflowCFG {
 		return delegate.isReturnSite(n);
 	}
 
-	@Override
-	public boolean isStaticFieldRead(SootMethod method, SootField variable) {
-		StaticFieldUse use = checkStaticFieldUsed(method, variable);
-		return use == StaticFieldUse.Read || use == StaticFieldUse.ReadWrite || use == StaticFieldUse.Unknown;
-	}
-
-	@Override
-	public boolean isStaticFieldUsed(SootMethod method, SootField variable) {
-		StaticFieldUse use = checkStaticFieldUsed(method, variable);
-		return use == StaticFieldUse.Write || use == StaticFieldUse.ReadWrite || use == StaticFieldUse.Unknown;
-	}
-
-	protected synchronized StaticFieldUse checkStaticFieldUsed(SootMethod smethod, SootField variable) {
-		// Skip over phantom methods
-		if (!smethod.isConcrete() || !smethod.hasActiveBody())
-			return StaticFieldUse.Unused;
-
-		List<SootMethod> workList = new ArrayList<>();
-		workList.add(smethod);
-		Map<SootMethod, StaticFieldUse> tempUses = new HashMap<>();
-
-		int processedMethods = 0;
-		while (!workList.isEmpty()) {
-			// DFS: We need to be able post-process a method once we know what all the
-			// invocations do
-			SootMethod method = workList.remove(workList.size() - 1);
-			processedMethods++;
-
-			// Without a body, we cannot say much
-			if (!method.hasActiveBody())
-				continue;
-
-			// Limit the maximum analysis depth
-			if (processedMethods > MAX_STATIC_USE_ANALYSIS_DEPTH)
-				return StaticFieldUse.Unknown;
-
-			boolean hasInvocation = false;
-			boolean reads = false, writes = false;
-
-			// Do we already have a cache entry?
-			Map<SootField, StaticFieldUse> entry = staticFieldUses.get(method);
-			if (entry != null) {
-				StaticFieldUse b = entry.get(variable);
-				if (b != null && b != StaticFieldUse.Unknown) {
-					tempUses.put(method, b);
-					continue;
+	/**
+	 * Sets the pre-computed side-effect summaries to be used by this ICFG. If no
+	 * summaries are set, they are computed on demand when they are first
+	 * required.
+	 * 
+	 * @param sideEffectSummaries The side-effect summaries to use
+	 */
+	public void setSideEffectSummaries(MethodSideEffectSummaries sideEffectSummaries) {
+		this.sideEffectSummaries = sideEffectSummaries;
+	}
+
+	/**
+	 * Gets the side-effect summaries used by this ICFG. If no summaries have been
+	 * set, they are computed for the current callgraph.
+	 * 
+	 * @return The side-effect summaries used by this ICFG
+	 */
+	public MethodSideEffectSummaries getSideEffectSummaries() {
+		MethodSideEffectSummaries summaries = sideEffectSummaries;
+		if (summaries == null) {
+			synchronized (this) {
+				summaries = sideEffectSummaries;
+				if (summaries == null) {
+					summaries = new MethodSideEffectSummaries();
+					summaries.compute();
+					sideEffectSummaries = summaries;
 				}
 			}
-
-			// Do we already have an entry?
-			StaticFieldUse oldUse = tempUses.get(method);
-
-			// Scan for references to this variable
-			for (Unit u : method.getActiveBody().getUnits()) {
-				if (u instanceof AssignStmt) {
-					AssignStmt assign = (AssignStmt) u;
-
-					if (assign.getLeftOp() instanceof StaticFieldRef) {
-						SootField sf = ((StaticFieldRef) assign.getLeftOp()).getField();
-						registerStaticVariableUse(method, sf, StaticFieldUse.Write);
-						if (variable.equals(sf))
-							writes = true;
-					}
-
-					if (assign.getRightOp() instanceof StaticFieldRef) {
-						SootField sf = ((StaticFieldRef) assign.getRightOp()).getField();
-						registerStaticVariableUse(method, sf, StaticFieldUse.Read);
-						if (variable.equals(sf))
-							reads = true;
-					}
-				}
-
-				if (((Stmt) u).containsInvokeExpr())
-					for (Iterator<Edge> edgeIt = Scene.v().getCallGraph().edgesOutOf(u); edgeIt.hasNext();) {
-						Edge e = edgeIt.next();
-						SootMethod callee = e.getTgt().method();
-						if (callee.isConcrete()) {
-							// Do we already know this method?
-							StaticFieldUse calleeUse = tempUses.get(callee);
-							if (calleeUse == null) {
-								// We need to get back to the current method after we have processed the callees
-								if (!hasInvocation)
-									workList.add(method);
-
-								// Process the callee
-								workList.add(callee);
-								hasInvocation = true;
-							} else {
-								reads |= calleeUse == StaticFieldUse.Read || calleeUse == StaticFieldUse.ReadWrite;
-								writes |= calleeUse == StaticFieldUse.Write || calleeUse == StaticFieldUse.ReadWrite;
-							}
-						}
-					}
-			}
-
-			// Variable is not read
-			StaticFieldUse fieldUse = StaticFieldUse.Unused;
-			if (reads && writes)
-				fieldUse = StaticFieldUse.ReadWrite;
-			else if (reads)
-				fieldUse = StaticFieldUse.Read;
-			else if (writes)
-				fieldUse = StaticFieldUse.Write;
-
-			// Have we changed our previous state?
-			if (fieldUse == oldUse)
-				continue;
-			tempUses.put(method, fieldUse);
-		}
-
-		// Merge the temporary results into the global cache
-		for (Entry<SootMethod, StaticFieldUse> tempEntry : tempUses.entrySet()) {
-			registerStaticVariableUse(tempEntry.getKey(), variable, tempEntry.getValue());
 		}
-
-		StaticFieldUse outerUse = tempUses.get(smethod);
-		return outerUse == null ? StaticFieldUse.Unknown : outerUse;
+		return summaries;
 	}
 
-	protected void registerStaticVariableUse(SootMethod method, SootField variable, StaticFieldUse fieldUse) {
-		Map<SootField, StaticFieldUse> entry = staticFieldUses.get(method);
-		StaticFieldUse oldUse;
-		synchronized (staticFieldUses) {
-			if (entry == null) {
-				entry = new ConcurrentHashMap<SootField, StaticFieldUse>();
-				staticFieldUses.put(method, entry);
-				entry.put(variable, fieldUse);
-				return;
-			}
-
-			oldUse = entry.get(variable);
-			if (oldUse == null) {
-				entry.put(variable, fieldUse);
-				return;
-			}
-		}
-
-		// This part is monotonic, so no need for synchronization
-		StaticFieldUse newUse;
-		switch (oldUse) {
-		case Unknown:
-		case Unused:
-		case ReadWrite:
-			newUse = fieldUse;
-			break;
-		case Read:
-			newUse = (fieldUse == StaticFieldUse.Read) ? oldUse : StaticFieldUse.ReadWrite;
-			break;
-		case Write:
-			newUse = (fieldUse == StaticFieldUse.Write) ? oldUse : StaticFieldUse.ReadWrite;
-			break;
-		default:
-			throw new RuntimeException("Invalid field use");
-		}
-		entry.put(variable, newUse);
+	@Override
+	public boolean isStaticFieldRead(SootMethod method, SootField variable) {
+		return getSideEffectSummaries().isStaticFieldRead(method, variable);
 	}
 
 	@Override
-	public boolean hasSideEffects(SootMethod method) {
-		return hasSideEffects(method, new HashSet<SootMethod>(), 0);
+	public boolean isStaticFieldUsed(SootMethod method, SootField variable) {
+		return getSideEffectSummaries().isStaticFieldWritten(method, variable);
 	}
 
-	protected boolean hasSideEffects(SootMethod method, Set<SootMethod> runList, int depth) {
-		// Without a body, we cannot say much
-		if (!method.hasActiveBody())
-			return false;
-
-		// Do not process the same method twice
-		if (!runList.add(method))
-			return false;
-
-		// Do we already have an entry?
-		Boolean hasSideEffects = methodSideEffects.get(method);
-		if (hasSideEffects != null)
-			return hasSideEffects;
-
-		// Limit the maximum analysis depth
-		if (depth > MAX_SIDE_EFFECT_ANALYSIS_DEPTH)
-			return true;
-
-		// Scan for references to this variable
-		for (Unit u : method.getActiveBody().getUnits()) {
-			if (u instanceof AssignStmt) {
-				AssignStmt assign = (AssignStmt) u;
-
-				if (assign.getLeftOp() instanceof FieldRef) {
-					methodSideEffects.put(method, true);
-					return true;
-				}
-			}
-
-			if (((Stmt) u).containsInvokeExpr())
-				for (Iterator<Edge> edgeIt = Scene.v().getCallGraph().edgesOutOf(u); edgeIt.hasNext();) {
-					Edge e = edgeIt.next();
-					if (hasSideEffects(e.getTgt().method(), runList, depth++))
-						return true;
-				}
-		}
-
-		// Variable is not read
-		methodSideEffects.put(method, false);
-		return false;
+	@Override
+	public boolean hasSideEffects(SootMethod method) {
+		return getSideEffectSummaries().hasSideEffects(method);
 	}
 
 	@Override
@@ -590,8 +417,7 @@ public class InfoflowCFG implements IInfoflowCFG {
 
 	@Override
 	public void purge() {
-		methodSideEffects.clear();
-		staticFieldUses.clear();
+		sideEffectSummaries = null;
 
 		methodToUsedLocals.invalidateAll();
 		methodToUsedLocals.cleanUp();
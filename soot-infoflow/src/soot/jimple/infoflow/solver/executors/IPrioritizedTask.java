@@ -0,0 +1,16 @@
+package soot.jimple.infoflow.solver.executors;
+
+/**
+ * Common interface for tasks that can be ordered in a priority-based executor
+ * queue
+ */
+public interface IPrioritizedTask extends Runnable {
+
+	/**
+	 * Gets the priority of this task. Tasks with lower values are executed first.
+	 * 
+	 * @return The priority of this task
+	 */
+	public int getPriority();
+
+}
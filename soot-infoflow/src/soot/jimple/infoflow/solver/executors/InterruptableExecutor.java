@@ -89,6 +89,26 @@ public class InterruptableExecutor extends CountingThreadPoolExecutor {
 		terminated = true;
 	}
 
+	/**
+	 * Waits for the running tasks to complete, but at most for the given amount of
+	 * time. Other than {@link #awaitCompletion(long, TimeUnit)}, this method does
+	 * not mark the executor as terminated, i.e., new tasks can still be submitted
+	 * afterwards.
+	 * 
+	 * @param timeout The maximum time to wait
+	 * @param unit    The unit of the timeout
+	 * @return True if all tasks have completed, false if the timeout has elapsed
+	 *         before
+	 * @throws InterruptedException Thrown if the current thread is interrupted
+	 *                              while waiting
+	 */
+	public boolean pollCompletion(long timeout, TimeUnit unit) throws InterruptedException {
+		if (terminated)
+			return true;
+		numRunningTasks.awaitZero(timeout, unit);
+		return numRunningTasks.isAtZero();
+	}
+
 	/**
 	 * Gets whether this executor has terminated all of its tasks
 	 * 
@@ -0,0 +1,23 @@
+package soot.jimple.infoflow.solver.executors;
+
+import java.util.Comparator;
+
+/**
+ * Comparator for ordering the work queue of an executor by task priority. Tasks
+ * that do not implement {@link IPrioritizedTask} are executed after all
+ * prioritized tasks.
+ */
+public class TaskPriorityComparator implements Comparator<Runnable> {
+
+	@Override
+	public int compare(Runnable o1, Runnable o2) {
+		return Integer.compare(getPriority(o1), getPriority(o2));
+	}
+
+	private static int getPriority(Runnable r) {
+		if (r instanceof IPrioritizedTask)
+			return ((IPrioritizedTask) r).getPriority();
+		return Integer.MAX_VALUE;
+	}
+
+}
@@ -13,6 +13,7 @@
  ******************************************************************************/
 package soot.jimple.infoflow.solver.fastSolver;
 
+import java.util.ArrayDeque;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
@@ -23,6 +24,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Consumer;
 
 import org.slf4j.Logger;
@@ -41,10 +43,12 @@ import heros.solver.Pair;
 import heros.solver.PathEdge;
 import soot.SootMethod;
 import soot.Unit;
+import soot.jimple.infoflow.cfg.SinkDistances;
 import soot.jimple.infoflow.collect.MyConcurrentHashMap;
 import soot.jimple.infoflow.memory.IMemoryBoundedSolver;
 import soot.jimple.infoflow.memory.ISolverTerminationReason;
 import soot.jimple.infoflow.solver.PredecessorShorteningMode;
+import soot.jimple.infoflow.solver.executors.IPrioritizedTask;
 import soot.jimple.infoflow.solver.executors.InterruptableExecutor;
 import soot.jimple.infoflow.solver.executors.SetPoolExecutor;
 import soot.jimple.infoflow.solver.memory.IMemoryManager;
@@ -128,6 +132,28 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 	private int maxCalleesPerCallSite = 75;
 	private int maxAbstractionPathLength = 100;
 
+	@DontSynchronize("readOnly")
+	private int intraproceduralEdgeBudget = 0;
+
+	@DontSynchronize("readOnly")
+	protected SinkDistances sinkDistances = null;
+
+	@SynchronizedBy("thread-local data structure")
+	private final ThreadLocal<LocalWorklist> localWorklist = new ThreadLocal<LocalWorklist>() {
+
+		@Override
+		protected LocalWorklist initialValue() {
+			return new LocalWorklist();
+		}
+
+	};
+
+	@SynchronizedBy("thread safe counter")
+	private final LongAdder inlinedEdgeCount = new LongAdder();
+
+	@SynchronizedBy("thread safe counter")
+	private final LongAdder scheduledTaskCount = new LongAdder();
+
 	/**
 	 * Creates a solver for the given problem, which caches flow functions and edge
 	 * functions. The solver must then be started by calling {@link #solve()}.
@@ -182,8 +208,11 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 		for (IMemoryBoundedSolverStatusNotification listener : notificationListeners)
 			listener.notifySolverStarted(this);
 
+		long beforeSolving = System.nanoTime();
 		submitInitialSeeds();
 		awaitCompletionComputeValuesAndShutdown();
+		if (intraproceduralEdgeBudget > 0)
+			logEdgeStatistics(System.nanoTime() - beforeSolving);
 
 		// Notify the listeners that the solver has been terminated
 		for (IMemoryBoundedSolverStatusNotification listener : notificationListeners)
@@ -260,10 +289,65 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 		if (killFlag != null || executor.isTerminating() || executor.isTerminated())
 			return;
 
+		// If we are currently processing an intra-procedural edge in this thread, we
+		// keep the successor edge in the thread-local worklist instead of scheduling
+		// a new task
+		if (intraproceduralEdgeBudget > 0 && localWorklist.get().offer(edge)) {
+			propagationCount++;
+			return;
+		}
+
 		executor.execute(new PathEdgeProcessingTask(edge, solverId));
+		scheduledTaskCount.increment();
 		propagationCount++;
 	}
 
+	/**
+	 * Processes the given edge in the current thread
+	 * 
+	 * @param edge     The edge to process
+	 * @param worklist The thread-local worklist that shall receive intra-procedural
+	 *                 successor edges, or <code>null</code> to schedule all
+	 *                 successor edges on the executor
+	 */
+	private void processPathEdge(PathEdge<N, D> edge, LocalWorklist worklist) {
+		final N target = edge.getTarget();
+		if (icfg.isCallStmt(target)) {
+			processCall(edge);
+		} else {
+			// note that some statements, such as "throw" may be
+			// both an exit statement and a "normal" statement
+			if (icfg.isExitStmt(target))
+				processExit(edge);
+			if (!icfg.getSuccsOf(target).isEmpty()) {
+				// Only successors along normal flows stay within the current method
+				if (worklist != null)
+					worklist.acceptEdges = true;
+				try {
+					processNormalFlow(edge);
+				} finally {
+					if (worklist != null)
+						worklist.acceptEdges = false;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Logs the propagation throughput of this solver, together with how many
+	 * edges it has processed inline and how many tasks it has scheduled on the
+	 * executor
+	 * 
+	 * @param nanos The time in nanoseconds that the solver took
+	 */
+	private void logEdgeStatistics(long nanos) {
+		double seconds = Math.max(nanos / 1E9, 1E-9);
+		logger.info(String.format(
+				"%s propagated %d edges in %.2f seconds (%.0f edges/s), %d of them inline, %d executor tasks",
+				getDebugName(), propagationCount, seconds, propagationCount / seconds, inlinedEdgeCount.sum(),
+				scheduledTaskCount.sum()));
+	}
+
 	/**
 	 * Lines 13-20 of the algorithm; processing a call site in the caller's context.
 	 * 
@@ -733,27 +817,29 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 		}
 	}
 
-	private class PathEdgeProcessingTask implements Runnable {
+	private class PathEdgeProcessingTask implements IPrioritizedTask {
 
 		private final PathEdge<N, D> edge;
 		private final boolean solverId;
+		private final int priority;
 
 		public PathEdgeProcessingTask(PathEdge<N, D> edge, boolean solverId) {
 			this.edge = edge;
 			this.solverId = solverId;
+			this.priority = sinkDistances == null ? 0
+					: sinkDistances.getDistance(icfg.getMethodOf(edge.getTarget()));
+		}
+
+		@Override
+		public int getPriority() {
+			return priority;
 		}
 
 		public void run() {
-			if (icfg.isCallStmt(edge.getTarget())) {
-				processCall(edge);
-			} else {
-				// note that some statements, such as "throw" may be
-				// both an exit statement and a "normal" statement
-				if (icfg.isExitStmt(edge.getTarget()))
-					processExit(edge);
-				if (!icfg.getSuccsOf(edge.getTarget()).isEmpty())
-					processNormalFlow(edge);
-			}
+			if (intraproceduralEdgeBudget > 0)
+				localWorklist.get().process(edge);
+			else
+				processPathEdge(edge, null);
 		}
 
 		@Override
@@ -786,6 +872,71 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 
 	}
 
+	/**
+	 * Thread-local worklist for processing intra-procedural edges without
+	 * creating new executor tasks. Edges are only accepted while a normal flow is
+	 * being processed, i.e., edges at call and return boundaries always go to the
+	 * shared executor.
+	 */
+	private class LocalWorklist {
+
+		private final ArrayDeque<PathEdge<N, D>> edges = new ArrayDeque<>();
+		private boolean acceptEdges = false;
+		private int processed = 0;
+
+		/**
+		 * Tries to add the given edge to this worklist
+		 * 
+		 * @param edge The edge to add
+		 * @return True if the edge was added to the worklist, false if it must be
+		 *         scheduled on the executor
+		 */
+		boolean offer(PathEdge<N, D> edge) {
+			if (!acceptEdges)
+				return false;
+
+			// Do not exceed the budget of the current task
+			if (processed + edges.size() >= intraproceduralEdgeBudget)
+				return false;
+
+			// If other workers have nothing to do, we share our edges with them
+			if (numThreads > 1 && !edges.isEmpty() && executor.getQueue().isEmpty())
+				return false;
+
+			edges.add(edge);
+			return true;
+		}
+
+		/**
+		 * Processes the given edge and all intra-procedural edges derived from it
+		 * within the budget
+		 * 
+		 * @param edge The edge to process
+		 */
+		void process(PathEdge<N, D> edge) {
+			try {
+				processed = 1;
+				processPathEdge(edge, this);
+
+				PathEdge<N, D> next;
+				while ((next = edges.poll()) != null) {
+					// Early termination check
+					if (killFlag != null)
+						return;
+
+					processed++;
+					inlinedEdgeCount.increment();
+					processPathEdge(next, this);
+				}
+			} finally {
+				edges.clear();
+				acceptEdges = false;
+				processed = 0;
+			}
+		}
+
+	}
+
 	/**
 	 * Sets whether abstractions on method returns shall be connected to the
 	 * respective call abstractions to shortcut paths.
@@ -868,4 +1019,39 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 		this.maxAbstractionPathLength = maxAbstractionPathLength;
 	}
 
+	public void setSinkDistances(SinkDistances sinkDistances) {
+		this.sinkDistances = sinkDistances;
+	}
+
+	/**
+	 * Sets the maximum number of edges that a single worker may process inline
+	 * before it hands further intra-procedural edges to the executor. Inline
+	 * processing avoids the creation of a new task for every normal flow edge.
+	 * 
+	 * @param intraproceduralEdgeBudget The maximum number of edges per task, or 0
+	 *                                  to schedule every edge as a separate task
+	 */
+	public void setIntraproceduralEdgeBudget(int intraproceduralEdgeBudget) {
+		this.intraproceduralEdgeBudget = intraproceduralEdgeBudget;
+	}
+
+	/**
+	 * Gets the number of edges that have been processed inline without creating a
+	 * new executor task
+	 * 
+	 * @return The number of edges that have been processed inline
+	 */
+	public long getInlinedEdgeCount() {
+		return inlinedEdgeCount.sum();
+	}
+
+	/**
+	 * Gets the number of tasks that this solver has submitted to the executor
+	 * 
+	 * @return The number of tasks that this solver has submitted to the executor
+	 */
+	public long getScheduledTaskCount() {
+		return scheduledTaskCount.sum();
+	}
+
 }
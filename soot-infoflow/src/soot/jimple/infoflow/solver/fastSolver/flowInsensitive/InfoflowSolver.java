@@ -19,6 +19,7 @@ import heros.solver.Pair;
 import heros.solver.PathEdge;
 import soot.SootMethod;
 import soot.Unit;
+import soot.jimple.infoflow.cfg.SinkDistances;
 import soot.jimple.infoflow.collect.MyConcurrentHashMap;
 import soot.jimple.infoflow.data.Abstraction;
 import soot.jimple.infoflow.problems.AbstractInfoflowProblem;
@@ -159,6 +160,11 @@ public class InfoflowSolver extends FlowInsensitiveSolver<Unit, Abstraction, BiD
 		// We don't have support for peer groups and don't really need them either
 	}
 
+	@Override
+	public void setSinkDistances(SinkDistances sinkDistances) {
+		// The flow-insensitive solver does not prioritize its edges
+	}
+
 	@Override
 	public void terminate() {
 		// not required
@@ -30,6 +30,13 @@ public abstract class AbstractReferenceCountingGarbageCollector<N, D> extends Ab
 	private GarbageCollectorPeerGroup peerGroup = null;
 	private boolean checkChangeCounter = false;
 
+	/**
+	 * If the reference provider works on strongly connected components, we
+	 * additionally track the live components to speed up dependency checks
+	 */
+	private final SCCReferenceProvider<D, N> sccReferenceProvider;
+	private final LiveComponentSet liveComponents;
+
 	protected boolean validateEdges = false;
 	protected Set<PathEdge<N, D>> oldEdges = new HashSet<>();
 
@@ -47,17 +54,39 @@ public abstract class AbstractReferenceCountingGarbageCollector<N, D> extends Ab
 			ConcurrentHashMultiMap<SootMethod, PathEdge<N, D>> jumpFunctions,
 			IGCReferenceProvider<D, N> referenceProvider) {
 		super(icfg, jumpFunctions, referenceProvider);
+		this.sccReferenceProvider = getSCCReferenceProvider();
+		this.liveComponents = sccReferenceProvider == null ? null : sccReferenceProvider.createLiveSet();
 	}
 
 	public AbstractReferenceCountingGarbageCollector(BiDiInterproceduralCFG<N, SootMethod> icfg,
 			ConcurrentHashMultiMap<SootMethod, PathEdge<N, D>> jumpFunctions) {
 		super(icfg, jumpFunctions);
+		this.sccReferenceProvider = getSCCReferenceProvider();
+		this.liveComponents = sccReferenceProvider == null ? null : sccReferenceProvider.createLiveSet();
+	}
+
+	/**
+	 * Gets the reference provider as an {@link SCCReferenceProvider} if it is one
+	 * 
+	 * @return The reference provider if it operates on strongly connected
+	 *         components, otherwise null
+	 */
+	@SuppressWarnings("unchecked")
+	private SCCReferenceProvider<D, N> getSCCReferenceProvider() {
+		if (referenceProvider instanceof SCCReferenceProvider)
+			return (SCCReferenceProvider<D, N>) referenceProvider;
+		return null;
 	}
 
 	@Override
 	public void notifyEdgeSchedule(PathEdge<N, D> edge) {
 		SootMethod sm = icfg.getMethodOf(edge.getTarget());
 		jumpFnCounter.increment(sm);
+		if (liveComponents != null) {
+			int component = sccReferenceProvider.getComponentOf(sm);
+			if (component >= 0)
+				liveComponents.increment(component);
+		}
 		gcScheduleSet.add(sm);
 		if (trigger == GarbageCollectionTrigger.EdgeThreshold)
 			edgeCounterForThreshold.incrementAndGet();
@@ -70,7 +99,13 @@ public abstract class AbstractReferenceCountingGarbageCollector<N, D> extends Ab
 
 	@Override
 	public void notifyTaskProcessed(PathEdge<N, D> edge) {
-		jumpFnCounter.decrement(icfg.getMethodOf(edge.getTarget()));
+		SootMethod sm = icfg.getMethodOf(edge.getTarget());
+		jumpFnCounter.decrement(sm);
+		if (liveComponents != null) {
+			int component = sccReferenceProvider.getComponentOf(sm);
+			if (component >= 0)
+				liveComponents.decrement(component);
+		}
 	}
 
 	/**
@@ -103,8 +138,31 @@ public abstract class AbstractReferenceCountingGarbageCollector<N, D> extends Ab
 		return false;
 	}
 
+	/**
+	 * Checks whether the given method has any open dependencies by intersecting its
+	 * reachable components with the set of live components
+	 * 
+	 * @param component The component of the method to check
+	 * @return True it the method has active dependencies and thus cannot be
+	 *         garbage-collected, false otherwise
+	 */
+	private boolean hasActiveComponentDependencies(int component) {
+		int changeCounter = -1;
+		do {
+			changeCounter = liveComponents.getChangeCounter();
+			if (sccReferenceProvider.hasLiveReferences(component, liveComponents))
+				return true;
+		} while (checkChangeCounter && changeCounter != liveComponents.getChangeCounter());
+		return false;
+	}
+
 	@Override
 	public boolean hasActiveDependencies(SootMethod method) {
+		if (liveComponents != null) {
+			int component = sccReferenceProvider.getComponentOf(method);
+			if (component >= 0)
+				return hasActiveComponentDependencies(component);
+		}
 		return hasActiveDependencies(method, jumpFnCounter);
 	}
 
@@ -123,38 +181,63 @@ public abstract class AbstractReferenceCountingGarbageCollector<N, D> extends Ab
 				int tempMethods = 0;
 				onBeforeRemoveEdges();
 				for (SootMethod sm : gcScheduleSet) {
-					// Is it safe to remove this method?
-					if (peerGroup != null) {
-						if (peerGroup.hasActiveDependencies(sm))
-							continue;
-					} else if (hasActiveDependencies(sm))
-						continue;
-
-					// Get stats for the stuff we are about to remove
-					Set<PathEdge<N, D>> oldFunctions = jumpFunctions.get(sm);
-					if (oldFunctions != null) {
-						int gcedSize = oldFunctions.size();
-						gcedEdges.addAndGet(gcedSize);
-						if (trigger == GarbageCollectionTrigger.EdgeThreshold)
-							edgeCounterForThreshold.subtract(gcedSize);
-					}
-
-					// First unregister the method, then delete the edges. In case some other thread
-					// concurrently schedules a new edge, the method gets back into the GC work list
-					// this way.
-					gcScheduleSet.remove(sm);
-					if (jumpFunctions.remove(sm)) {
-						gcedMethods.incrementAndGet();
+					if (collectMethod(sm) >= 0)
 						tempMethods++;
-						if (validateEdges)
-							oldEdges.addAll(oldFunctions);
-					}
 				}
 				onAfterRemoveEdges(tempMethods);
 			}
 		}
 	}
 
+	/**
+	 * Removes the jump functions of the given method if the method has no active
+	 * dependencies
+	 * 
+	 * @param sm The method for which to remove the jump functions
+	 * @return The number of edges that were removed, or -1 if the method could not
+	 *         be garbage-collected
+	 */
+	protected int collectMethod(SootMethod sm) {
+		// Is it safe to remove this method?
+		if (peerGroup != null) {
+			if (peerGroup.hasActiveDependencies(sm))
+				return -1;
+		} else if (hasActiveDependencies(sm))
+			return -1;
+
+		// Get stats for the stuff we are about to remove
+		Set<PathEdge<N, D>> oldFunctions = jumpFunctions.get(sm);
+		int gcedSize = 0;
+		if (oldFunctions != null) {
+			gcedSize = oldFunctions.size();
+			gcedEdges.addAndGet(gcedSize);
+			if (trigger == GarbageCollectionTrigger.EdgeThreshold)
+				edgeCounterForThreshold.subtract(gcedSize);
+		}
+
+		// First unregister the method, then delete the edges. In case some other thread
+		// concurrently schedules a new edge, the method gets back into the GC work list
+		// this way.
+		gcScheduleSet.remove(sm);
+		if (jumpFunctions.remove(sm)) {
+			gcedMethods.incrementAndGet();
+			if (validateEdges)
+				oldEdges.addAll(oldFunctions);
+			return gcedSize;
+		}
+		return -1;
+	}
+
+	/**
+	 * Gets the methods that are candidates for garbage collection, i.e., for which
+	 * edges have been scheduled since they were last collected
+	 * 
+	 * @return The methods that are candidates for garbage collection
+	 */
+	protected Set<SootMethod> getScheduledMethods() {
+		return gcScheduleSet;
+	}
+
 	/**
 	 * Method that is called before the first edge is removed from the jump
 	 * functions
@@ -11,6 +11,7 @@ import soot.jimple.infoflow.solver.SolverPeerGroup;
 public class GCSolverPeerGroup extends SolverPeerGroup {
 
 	private GarbageCollectorPeerGroup gcPeerGroup = null;
+	private IGCReferenceProvider<?, ?> referenceProvider = null;
 
 	public GCSolverPeerGroup() {
 	}
@@ -26,4 +27,26 @@ public class GCSolverPeerGroup extends SolverPeerGroup {
 		return gcPeerGroup;
 	}
 
+	/**
+	 * Gets the reference provider that is shared among all solvers in this peer
+	 * group
+	 * 
+	 * @return The shared reference provider, or <code>null</code> if no reference
+	 *         provider has been registered yet
+	 */
+	public IGCReferenceProvider<?, ?> getReferenceProvider() {
+		return referenceProvider;
+	}
+
+	/**
+	 * Sets the reference provider that shall be shared among all solvers in this
+	 * peer group. This avoids computing expensive dependency information more than
+	 * once.
+	 * 
+	 * @param referenceProvider The shared reference provider
+	 */
+	public void setReferenceProvider(IGCReferenceProvider<?, ?> referenceProvider) {
+		this.referenceProvider = referenceProvider;
+	}
+
 }
@@ -0,0 +1,425 @@
+package soot.jimple.infoflow.solver.gcSolver;
+
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryUsage;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import heros.solver.PathEdge;
+import soot.SootMethod;
+import soot.jimple.infoflow.memory.MemoryWarningSystem;
+import soot.jimple.infoflow.memory.MemoryWarningSystem.OnMemoryThresholdReached;
+import soot.jimple.toolkits.ide.icfg.BiDiInterproceduralCFG;
+import soot.util.ConcurrentHashMultiMap;
+
+/**
+ * Garbage collector that sorts the methods with jump functions into
+ * generations. Each method is stamped with the collection epoch in which it
+ * last received a new edge. Methods that have recently received edges are
+ * likely to receive more edges soon, so they are only considered once they
+ * have survived a configurable number of epochs. Under memory pressure, as
+ * reported by the {@link MemoryWarningSystem}, all methods are considered
+ * immediately. Two such full sweeps are at least a configurable interval apart,
+ * and the memory warning is only re-armed once the memory usage has dropped
+ * below the threshold again. Otherwise, the collector would keep sweeping for
+ * as long as the heap is tight.
+ *
+ * Sweeps run in a separate thread concurrently with the taint propagation.
+ * Each sweep is split into slices that are bounded in time, so that the
+ * collector never holds the work list for long. Note that the generations only
+ * decide when a method is inspected. Whether its jump functions can actually
+ * be removed is still decided by the reference counting in the base class.
+ */
+public class GenerationalGarbageCollector<N, D> extends AbstractReferenceCountingGarbageCollector<N, D> {
+
+	private static final Logger logger = LoggerFactory.getLogger(GenerationalGarbageCollector.class);
+
+	private class GCThread extends Thread {
+
+		private volatile boolean finished = false;
+
+		public GCThread() {
+			setName("IFDS Generational Garbage Collector");
+			setDaemon(true);
+		}
+
+		@Override
+		public void run() {
+			while (!finished) {
+				synchronized (lock) {
+					try {
+						if (!memoryPressure && !finished)
+							lock.wait(epochLengthMillis);
+
+						// Do not run full sweeps back to back
+						long backoff;
+						while (memoryPressure && !finished && (backoff = getPressureBackoffMillis()) > 0)
+							lock.wait(backoff);
+					} catch (InterruptedException e) {
+						break;
+					}
+				}
+				if (!finished) {
+					sweep();
+					rearmMemoryWarning();
+				}
+			}
+		}
+
+		/**
+		 * Notifies the thread to finish its current slice and then terminate
+		 */
+		public void finish() {
+			finished = true;
+			synchronized (lock) {
+				lock.notifyAll();
+			}
+		}
+
+	}
+
+	private final Object lock = new Object();
+	private final Object warningLock = new Object();
+	private final ConcurrentMap<SootMethod, Integer> methodEpochs = new ConcurrentHashMap<>();
+	private volatile int currentEpoch = 0;
+	private volatile boolean memoryPressure = false;
+
+	private int tenureEpochs = 2;
+	private long epochLengthMillis = 1000;
+	private long maxSliceMillis = 5;
+	private double memoryThreshold = 0.8;
+	private long minPressureIntervalMillis = 1000;
+	private volatile long lastPressureSweepNanos = 0;
+	private volatile boolean rearmPending = false;
+
+	private final AtomicInteger sweeps = new AtomicInteger();
+	private final AtomicInteger slices = new AtomicInteger();
+	private final AtomicInteger pressureSweeps = new AtomicInteger();
+	private final AtomicLong totalSliceNanos = new AtomicLong();
+	private final AtomicLong maxSliceNanos = new AtomicLong();
+
+	private MemoryWarningSystem warningSystem;
+	private MemoryPoolMXBean tenuredGenPool;
+	private GCThread gcThread;
+	private volatile boolean terminated = false;
+
+	public GenerationalGarbageCollector(BiDiInterproceduralCFG<N, SootMethod> icfg,
+			ConcurrentHashMultiMap<SootMethod, PathEdge<N, D>> jumpFunctions,
+			IGCReferenceProvider<D, N> referenceProvider) {
+		super(icfg, jumpFunctions, referenceProvider);
+		start();
+	}
+
+	public GenerationalGarbageCollector(BiDiInterproceduralCFG<N, SootMethod> icfg,
+			ConcurrentHashMultiMap<SootMethod, PathEdge<N, D>> jumpFunctions) {
+		super(icfg, jumpFunctions);
+		start();
+	}
+
+	/**
+	 * Starts the garbage collection thread and registers for memory warnings. We
+	 * cannot do this in initialize(), because our own fields are not yet
+	 * initialized when the super constructor runs.
+	 */
+	private void start() {
+		tenuredGenPool = MemoryWarningSystem.findTenuredGenPool();
+		registerMemoryWarning();
+		gcThread = new GCThread();
+		gcThread.start();
+	}
+
+	/**
+	 * Registers a memory warning that forces a full sweep when the configured
+	 * memory threshold has been reached. Once the solver has terminated, this
+	 * method does nothing, because a warning system that is registered again
+	 * would keep the collector reachable from the shared JVM listener.
+	 */
+	private void registerMemoryWarning() {
+		synchronized (warningLock) {
+			if (terminated)
+				return;
+			if (warningSystem == null) {
+				warningSystem = new MemoryWarningSystem();
+				warningSystem.addListener(new OnMemoryThresholdReached() {
+
+					@Override
+					public void onThresholdReached(long usedMemory, long maxMemory) {
+						synchronized (lock) {
+							memoryPressure = true;
+							lock.notifyAll();
+						}
+					}
+
+				});
+			}
+
+			// The warning system unregisters itself once it has fired, so we need to
+			// re-arm it after every sweep under memory pressure
+			warningSystem.setWarningThreshold(memoryThreshold);
+		}
+	}
+
+	/**
+	 * Re-arms the memory warning after a sweep under memory pressure, but only
+	 * once the memory usage has dropped below the threshold. As long as the usage
+	 * stays above the threshold, an armed warning system would fire again right
+	 * away.
+	 */
+	private void rearmMemoryWarning() {
+		if (!rearmPending)
+			return;
+		MemoryUsage usage = tenuredGenPool.getUsage();
+		if (usage != null && usage.getMax() > 0 && usage.getUsed() >= (long) (usage.getMax() * memoryThreshold))
+			return;
+		rearmPending = false;
+		registerMemoryWarning();
+	}
+
+	/**
+	 * Gets the time that must still pass before the next sweep under memory
+	 * pressure may start
+	 *
+	 * @return The remaining time in milliseconds, or a value smaller than or equal
+	 *         to zero if a sweep under memory pressure may start right away
+	 */
+	private long getPressureBackoffMillis() {
+		if (pressureSweeps.get() == 0)
+			return 0;
+		return minPressureIntervalMillis
+				- TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - lastPressureSweepNanos);
+	}
+
+	@Override
+	public void notifyEdgeSchedule(PathEdge<N, D> edge) {
+		super.notifyEdgeSchedule(edge);
+
+		// Stamp the method with the current epoch. We avoid the write if the stamp is
+		// already up to date, which is the common case.
+		SootMethod sm = icfg.getMethodOf(edge.getTarget());
+		int epoch = currentEpoch;
+		Integer oldEpoch = methodEpochs.get(sm);
+		if (oldEpoch == null || oldEpoch.intValue() != epoch)
+			methodEpochs.put(sm, epoch);
+	}
+
+	/**
+	 * Performs one sweep over all methods that are candidates for garbage
+	 * collection. Young methods are skipped unless the JVM is running low on
+	 * memory. The sweep is split into slices of bounded duration.
+	 */
+	private void sweep() {
+		final boolean fullSweep = memoryPressure;
+		final int epoch = currentEpoch;
+		currentEpoch = epoch + 1;
+		sweeps.incrementAndGet();
+		if (fullSweep)
+			pressureSweeps.incrementAndGet();
+
+		final long sliceBudgetNanos = TimeUnit.MILLISECONDS.toNanos(maxSliceMillis);
+		int tempMethods = 0;
+		onBeforeRemoveEdges();
+		Iterator<SootMethod> it = getScheduledMethods().iterator();
+		while (it.hasNext() && !gcThread.finished) {
+			long sliceStart = System.nanoTime();
+			long elapsed = 0;
+			while (it.hasNext() && elapsed < sliceBudgetNanos) {
+				SootMethod sm = it.next();
+				if (fullSweep || isTenured(sm, epoch)) {
+					if (collectMethod(sm) >= 0) {
+						methodEpochs.remove(sm);
+						tempMethods++;
+					}
+				}
+				elapsed = System.nanoTime() - sliceStart;
+			}
+			recordSlice(elapsed);
+
+			// Give the propagation threads a chance to run between two slices
+			if (it.hasNext())
+				Thread.yield();
+		}
+		onAfterRemoveEdges(tempMethods);
+		logger.debug("Generational GC sweep {} inspected {} methods ({})", epoch, tempMethods,
+				fullSweep ? "full" : "tenured only");
+
+		if (fullSweep) {
+			synchronized (lock) {
+				memoryPressure = false;
+			}
+			lastPressureSweepNanos = System.nanoTime();
+			rearmPending = true;
+		}
+	}
+
+	/**
+	 * Checks whether the given method has survived enough epochs to be considered
+	 * for garbage collection
+	 *
+	 * @param sm    The method to check
+	 * @param epoch The epoch of the current sweep
+	 * @return True if the method is old enough to be inspected, false otherwise
+	 */
+	private boolean isTenured(SootMethod sm, int epoch) {
+		Integer methodEpoch = methodEpochs.get(sm);
+		return methodEpoch == null || epoch - methodEpoch.intValue() >= tenureEpochs;
+	}
+
+	/**
+	 * Records the duration of a single sweep slice. Note that this is the time the
+	 * collector thread spent in the slice, not the time for which the propagation
+	 * threads were stalled.
+	 *
+	 * @param sliceNanos The duration of the slice in nanoseconds
+	 */
+	private void recordSlice(long sliceNanos) {
+		slices.incrementAndGet();
+		totalSliceNanos.addAndGet(sliceNanos);
+		long max;
+		do {
+			max = maxSliceNanos.get();
+		} while (sliceNanos > max && !maxSliceNanos.compareAndSet(max, sliceNanos));
+	}
+
+	@Override
+	public void gc() {
+		// nothing to do here
+	}
+
+	@Override
+	public void notifySolverTerminated() {
+		// Wait for the current sweep to finish, since it may re-arm the memory
+		// warning system
+		gcThread.finish();
+		try {
+			gcThread.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+
+		synchronized (warningLock) {
+			terminated = true;
+			if (warningSystem != null) {
+				warningSystem.close();
+				warningSystem = null;
+			}
+		}
+
+		if (logger.isDebugEnabled())
+			logger.debug(String.format(
+					"Generational GC reclaimed %d edges in %d methods in %d sweeps (%d under memory pressure), "
+							+ "%d slices, total slice time %d ms, longest slice %d ms",
+					getGcedEdges(), getGcedMethods(), sweeps.get(), pressureSweeps.get(), slices.get(),
+					TimeUnit.NANOSECONDS.toMillis(totalSliceNanos.get()),
+					TimeUnit.NANOSECONDS.toMillis(maxSliceNanos.get())));
+	}
+
+	/**
+	 * Sets the number of epochs that a method must survive without receiving new
+	 * edges before it is considered for garbage collection
+	 *
+	 * @param tenureEpochs The number of epochs after which a method is considered
+	 *                     for garbage collection
+	 */
+	public void setTenureEpochs(int tenureEpochs) {
+		this.tenureEpochs = tenureEpochs;
+	}
+
+	/**
+	 * Sets the length of a collection epoch, i.e., the time between two regular
+	 * sweeps
+	 *
+	 * @param epochLengthMillis The length of a collection epoch in milliseconds
+	 */
+	public void setEpochLengthMillis(long epochLengthMillis) {
+		this.epochLengthMillis = epochLengthMillis;
+	}
+
+	/**
+	 * Sets the maximum duration of a single sweep slice
+	 *
+	 * @param maxSliceMillis The maximum duration of a single sweep slice in
+	 *                       milliseconds
+	 */
+	public void setMaxSliceMillis(long maxSliceMillis) {
+		this.maxSliceMillis = maxSliceMillis;
+	}
+
+	/**
+	 * Sets the fraction of the heap that must be in use before a full sweep is
+	 * forced
+	 *
+	 * @param memoryThreshold The fraction of the heap, between 0 and 1, at which a
+	 *                        full sweep is forced
+	 */
+	public void setMemoryThreshold(double memoryThreshold) {
+		this.memoryThreshold = memoryThreshold;
+		synchronized (warningLock) {
+			if (warningSystem != null && !rearmPending)
+				registerMemoryWarning();
+		}
+	}
+
+	/**
+	 * Sets the minimum time between the end of a full sweep that was forced by
+	 * memory pressure and the start of the next one
+	 *
+	 * @param minPressureIntervalMillis The minimum time between two full sweeps in
+	 *                                  milliseconds
+	 */
+	public void setMinPressureIntervalMillis(long minPressureIntervalMillis) {
+		this.minPressureIntervalMillis = minPressureIntervalMillis;
+	}
+
+	/**
+	 * Gets the number of sweeps that have been performed so far
+	 *
+	 * @return The number of sweeps that have been performed so far
+	 */
+	public int getSweeps() {
+		return sweeps.get();
+	}
+
+	/**
+	 * Gets the number of sweeps that were forced by memory pressure
+	 *
+	 * @return The number of sweeps that were forced by memory pressure
+	 */
+	public int getPressureSweeps() {
+		return pressureSweeps.get();
+	}
+
+	/**
+	 * Gets the number of bounded slices in which the sweeps were performed
+	 *
+	 * @return The number of sweep slices
+	 */
+	public int getSlices() {
+		return slices.get();
+	}
+
+	/**
+	 * Gets the accumulated duration of all sweep slices
+	 *
+	 * @return The accumulated duration of all sweep slices in nanoseconds
+	 */
+	public long getTotalSliceNanos() {
+		return totalSliceNanos.get();
+	}
+
+	/**
+	 * Gets the duration of the longest sweep slice
+	 *
+	 * @return The duration of the longest sweep slice in nanoseconds
+	 */
+	public long getMaxSliceNanos() {
+		return maxSliceNanos.get();
+	}
+
+}
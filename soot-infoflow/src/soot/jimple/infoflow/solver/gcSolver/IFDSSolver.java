@@ -40,11 +40,13 @@ import heros.solver.Pair;
 import heros.solver.PathEdge;
 import soot.SootMethod;
 import soot.Unit;
+import soot.jimple.infoflow.cfg.SinkDistances;
 import soot.jimple.infoflow.collect.MyConcurrentHashMap;
 import soot.jimple.infoflow.memory.IMemoryBoundedSolver;
 import soot.jimple.infoflow.memory.ISolverTerminationReason;
 import soot.jimple.infoflow.solver.PredecessorShorteningMode;
 import soot.jimple.infoflow.solver.SolverPeerGroup;
+import soot.jimple.infoflow.solver.executors.IPrioritizedTask;
 import soot.jimple.infoflow.solver.executors.InterruptableExecutor;
 import soot.jimple.infoflow.solver.executors.SetPoolExecutor;
 import soot.jimple.infoflow.solver.fastSolver.FastSolverLinkedNode;
@@ -133,6 +135,9 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 	private int maxCalleesPerCallSite = 75;
 	private int maxAbstractionPathLength = 100;
 
+	@DontSynchronize("readOnly")
+	protected SinkDistances sinkDistances = null;
+
 	protected SolverPeerGroup solverPeerGroup;
 
 	/**
@@ -185,12 +190,39 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 			return garbageCollector;
 
 //		DefaultGarbageCollector<N, D> gc = new DefaultGarbageCollector<>(icfg, jumpFunctions);
-		ThreadedGarbageCollector<N, D> gc = new ThreadedGarbageCollector<>(icfg, jumpFunctions);
+		AbstractReferenceCountingGarbageCollector<N, D> gc = createReferenceCountingGarbageCollector(
+				createReferenceProvider());
 		GCSolverPeerGroup gcSolverGroup = (GCSolverPeerGroup) solverPeerGroup;
 		gc.setPeerGroup(gcSolverGroup.getGCPeerGroup());
 		return garbageCollector = gc;
 	}
 
+	/**
+	 * Factory method for creating the garbage collector instance before it is
+	 * registered with the peer group
+	 * 
+	 * @param referenceProvider The reference provider to use, or <code>null</code>
+	 *                          to use the default reference provider of the garbage
+	 *                          collector
+	 * @return The new garbage collector
+	 */
+	protected AbstractReferenceCountingGarbageCollector<N, D> createReferenceCountingGarbageCollector(
+			IGCReferenceProvider<D, N> referenceProvider) {
+		return referenceProvider == null ? new ThreadedGarbageCollector<>(icfg, jumpFunctions)
+				: new ThreadedGarbageCollector<>(icfg, jumpFunctions, referenceProvider);
+	}
+
+	/**
+	 * Factory method for creating the reference provider that the garbage collector
+	 * uses for identifying method dependencies
+	 * 
+	 * @return The new reference provider, or <code>null</code> to use the default
+	 *         reference provider of the garbage collector
+	 */
+	protected IGCReferenceProvider<D, N> createReferenceProvider() {
+		return null;
+	}
+
 	public void setSolverId(boolean solverId) {
 		this.solverId = solverId;
 	}
@@ -814,14 +846,22 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 		}
 	}
 
-	private class PathEdgeProcessingTask implements Runnable {
+	private class PathEdgeProcessingTask implements IPrioritizedTask {
 
 		private final PathEdge<N, D> edge;
 		private final boolean solverId;
+		private final int priority;
 
 		public PathEdgeProcessingTask(PathEdge<N, D> edge, boolean solverId) {
 			this.edge = edge;
 			this.solverId = solverId;
+			this.priority = sinkDistances == null ? 0
+					: sinkDistances.getDistance(icfg.getMethodOf(edge.getTarget()));
+		}
+
+		@Override
+		public int getPriority() {
+			return priority;
 		}
 
 		public void run() {
@@ -950,6 +990,10 @@ public class IFDSSolver<N, D extends FastSolverLinkedNode<D, N>, I extends BiDiI
 		this.maxAbstractionPathLength = maxAbstractionPathLength;
 	}
 
+	public void setSinkDistances(SinkDistances sinkDistances) {
+		this.sinkDistances = sinkDistances;
+	}
+
 	/**
 	 * Sets the peer group in which this solver operates. Peer groups allow for
 	 * synchronization between solvers
@@ -19,6 +19,10 @@ import heros.solver.Pair;
 import heros.solver.PathEdge;
 import soot.SootMethod;
 import soot.Unit;
+import soot.jimple.infoflow.InfoflowConfiguration.GarbageCollectionReferenceProvider;
+import soot.jimple.infoflow.InfoflowManager;
+import soot.jimple.infoflow.cfg.CallGraphCondensation;
+import soot.jimple.infoflow.cfg.MethodSideEffectSummaries;
 import soot.jimple.infoflow.data.Abstraction;
 import soot.jimple.infoflow.problems.AbstractInfoflowProblem;
 import soot.jimple.infoflow.solver.IFollowReturnsPastSeedsHandler;
@@ -55,6 +59,50 @@ public class InfoflowSolver extends IFDSSolver<Unit, Abstraction, BiDiInterproce
 		return executor;
 	}
 
+	@Override
+	protected AbstractReferenceCountingGarbageCollector<Unit, Abstraction> createReferenceCountingGarbageCollector(
+			IGCReferenceProvider<Abstraction, Unit> referenceProvider) {
+		if (!problem.getManager().getConfig().getSolverConfiguration().getGenerationalGarbageCollection())
+			return super.createReferenceCountingGarbageCollector(referenceProvider);
+		return referenceProvider == null ? new GenerationalGarbageCollector<>(icfg, jumpFunctions)
+				: new GenerationalGarbageCollector<>(icfg, jumpFunctions, referenceProvider);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	protected IGCReferenceProvider<Abstraction, Unit> createReferenceProvider() {
+		InfoflowManager manager = problem.getManager();
+		GarbageCollectionReferenceProvider providerType = manager.getConfig().getSolverConfiguration()
+				.getGarbageCollectionReferenceProvider();
+		if (providerType == null || providerType == GarbageCollectionReferenceProvider.OnDemand)
+			return null;
+
+		// All solvers in the same peer group share the same reference provider
+		GCSolverPeerGroup gcSolverGroup = (GCSolverPeerGroup) solverPeerGroup;
+		synchronized (gcSolverGroup) {
+			IGCReferenceProvider<Abstraction, Unit> provider = (IGCReferenceProvider<Abstraction, Unit>) gcSolverGroup
+					.getReferenceProvider();
+			if (provider == null) {
+				switch (providerType) {
+				case AheadOfTime:
+					provider = new AheadOfTimeReferenceProvider<>(icfg);
+					break;
+				case StronglyConnectedComponents:
+					MethodSideEffectSummaries summaries = manager.getSideEffectSummaries();
+					CallGraphCondensation condensation = summaries == null ? null : summaries.getCondensation();
+					if (condensation == null)
+						condensation = new CallGraphCondensation();
+					provider = new SCCReferenceProvider<>(icfg, condensation);
+					break;
+				default:
+					return null;
+				}
+				gcSolverGroup.setReferenceProvider(provider);
+			}
+			return provider;
+		}
+	}
+
 	@Override
 	public boolean processEdge(PathEdge<Unit, Abstraction> edge) {
 		// We might not have a garbage collector yet
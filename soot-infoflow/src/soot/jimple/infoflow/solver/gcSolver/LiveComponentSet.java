@@ -0,0 +1,134 @@
+package soot.jimple.infoflow.solver.gcSolver;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import soot.jimple.infoflow.collect.IntervalIntSet;
+
+/**
+ * Concurrent set of callgraph components that currently have pending jump
+ * functions. Each component has a reference counter. The set additionally
+ * maintains a bit set of all components with a non-zero counter, such that
+ * dependency checks can be performed as bit set intersections.
+ */
+public class LiveComponentSet {
+
+	private final AtomicIntegerArray counters;
+	private final AtomicLongArray liveBits;
+	private final AtomicInteger changeCounter = new AtomicInteger();
+
+	/**
+	 * Creates a new instance of the {@link LiveComponentSet} class
+	 *
+	 * @param numComponents The number of components in the callgraph
+	 */
+	public LiveComponentSet(int numComponents) {
+		this.counters = new AtomicIntegerArray(numComponents);
+		this.liveBits = new AtomicLongArray((numComponents + 63) / 64);
+	}
+
+	/**
+	 * Increments the reference counter of the given component
+	 *
+	 * @param component The component id
+	 */
+	public void increment(int component) {
+		if (counters.incrementAndGet(component) == 1)
+			updateBit(component);
+	}
+
+	/**
+	 * Decrements the reference counter of the given component
+	 *
+	 * @param component The component id
+	 */
+	public void decrement(int component) {
+		if (counters.decrementAndGet(component) == 0)
+			updateBit(component);
+	}
+
+	/**
+	 * Synchronizes the live bit of the given component with its counter. Another
+	 * thread may change the counter while we update the bit, so we repeat until
+	 * the bit reflects a stable counter value.
+	 *
+	 * @param component The component id
+	 */
+	private void updateBit(int component) {
+		final int idx = component >>> 6;
+		final long mask = 1L << component;
+		int count;
+		do {
+			count = counters.get(component);
+			while (true) {
+				long oldWord = liveBits.get(idx);
+				long newWord = count > 0 ? oldWord | mask : oldWord & ~mask;
+				if (oldWord == newWord || liveBits.compareAndSet(idx, oldWord, newWord))
+					break;
+			}
+		} while (count != counters.get(component));
+		changeCounter.incrementAndGet();
+	}
+
+	/**
+	 * Checks whether the given component currently has pending jump functions
+	 *
+	 * @param component The component id
+	 * @return True if the given component is live, otherwise false
+	 */
+	public boolean isLive(int component) {
+		return counters.get(component) > 0;
+	}
+
+	/**
+	 * Checks whether at least one component in the given set is live
+	 *
+	 * @param components The set of components to check
+	 * @return True if at least one of the given components is live, otherwise
+	 *         false
+	 */
+	public boolean intersects(IntervalIntSet components) {
+		for (int run = 0; run < components.getRunCount(); run++) {
+			if (anyLiveInRange(components.getRunStart(run), components.getRunEnd(run)))
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Checks whether at least one component in the given range is live
+	 *
+	 * @param start The first component in the range (inclusive)
+	 * @param end   The last component in the range (exclusive)
+	 * @return True if at least one component in the given range is live,
+	 *         otherwise false
+	 */
+	private boolean anyLiveInRange(int start, int end) {
+		int firstWord = start >>> 6;
+		int lastWord = (end - 1) >>> 6;
+		for (int w = firstWord; w <= lastWord; w++) {
+			long word = liveBits.get(w);
+			if (word == 0)
+				continue;
+			if (w == firstWord)
+				word &= -1L << start;
+			if (w == lastWord)
+				word &= -1L >>> (63 - ((end - 1) & 63));
+			if (word != 0)
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Gets the number of changes to the set of live components. This allows
+	 * callers to detect concurrent modifications while checking dependencies.
+	 *
+	 * @return The number of changes to the set of live components
+	 */
+	public int getChangeCounter() {
+		return changeCounter.get();
+	}
+
+}
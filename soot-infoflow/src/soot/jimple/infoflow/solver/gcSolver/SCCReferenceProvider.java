@@ -0,0 +1,194 @@
+package soot.jimple.infoflow.solver.gcSolver;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.IntConsumer;
+
+import soot.SootMethod;
+import soot.jimple.infoflow.cfg.CallGraphCondensation;
+import soot.jimple.infoflow.collect.IntervalIntSet;
+import soot.jimple.infoflow.solver.fastSolver.FastSolverLinkedNode;
+import soot.jimple.infoflow.threading.ParallelTaskRunner;
+import soot.jimple.toolkits.ide.icfg.BiDiInterproceduralCFG;
+
+/**
+ * Reference provider that condenses the callgraph into its strongly connected
+ * components and precomputes, for each component, the set of components that
+ * are reachable from it. Since all methods inside the same component reach
+ * each other, the reachability information is only stored once per component.
+ * The components are numbered in reverse topological order, which keeps the
+ * reachability sets compact when represented as intervals.
+ */
+public class SCCReferenceProvider<D, N> extends AbstractReferenceProvider<D, N> {
+
+	private final CallGraphCondensation condensation;
+	private final IntervalIntSet[] reachableComponents;
+
+	/**
+	 * Creates a new instance of the {@link SCCReferenceProvider} class
+	 *
+	 * @param icfg         The interprocedural control flow graph
+	 * @param condensation The condensed callgraph
+	 */
+	public SCCReferenceProvider(BiDiInterproceduralCFG<N, SootMethod> icfg, CallGraphCondensation condensation) {
+		super(icfg);
+		this.condensation = condensation;
+		this.reachableComponents = computeReachableComponents();
+	}
+
+	/**
+	 * Computes the set of transitively reachable components for each component in
+	 * the callgraph. The components are processed bottom-up by height, such that
+	 * all components of the same height can be processed in parallel.
+	 *
+	 * @return An array with the set of reachable components for each component
+	 */
+	private IntervalIntSet[] computeReachableComponents() {
+		final IntervalIntSet[] reach = new IntervalIntSet[condensation.getComponentCount()];
+		ParallelTaskRunner runner = new ParallelTaskRunner("FlowDroid GC reachability");
+		try {
+			for (final int[] level : condensation.getComponentsByHeight()) {
+				runner.run(level.length, new IntConsumer() {
+
+					@Override
+					public void accept(int idx) {
+						int component = level[idx];
+						int[] succs = condensation.getSuccessors(component);
+						IntervalIntSet[] succReach = new IntervalIntSet[succs.length];
+						for (int i = 0; i < succs.length; i++)
+							succReach[i] = reach[succs[i]];
+						reach[component] = IntervalIntSet.union(component, succReach);
+					}
+
+				});
+			}
+		} finally {
+			runner.shutdown();
+		}
+		return reach;
+	}
+
+	@Override
+	public Set<SootMethod> getMethodReferences(SootMethod method, FastSolverLinkedNode<D, N> context) {
+		int component = condensation.getComponentOf(method);
+		if (component < 0)
+			return getTransitiveCallees(method);
+		return new ComponentMethodSet(reachableComponents[component]);
+	}
+
+	/**
+	 * Creates a new set for tracking live components that is compatible with this
+	 * reference provider
+	 *
+	 * @return The new set of live components
+	 */
+	public LiveComponentSet createLiveSet() {
+		return new LiveComponentSet(condensation.getComponentCount());
+	}
+
+	/**
+	 * Gets the component to which the given method belongs
+	 *
+	 * @param method The method
+	 * @return The component of the given method, or -1 if the method is not part
+	 *         of the condensed callgraph
+	 */
+	public int getComponentOf(SootMethod method) {
+		return condensation.getComponentOf(method);
+	}
+
+	/**
+	 * Checks whether the given method or any of its transitive callees is live
+	 * according to the given set of live components
+	 *
+	 * @param component The component of the method to check
+	 * @param liveSet   The set of live components
+	 * @return True if the given component or any of the components reachable from
+	 *         it is live, otherwise false
+	 */
+	public boolean hasLiveReferences(int component, LiveComponentSet liveSet) {
+		return liveSet.intersects(reachableComponents[component]);
+	}
+
+	/**
+	 * Gets the condensed callgraph on which this reference provider operates
+	 *
+	 * @return The condensed callgraph
+	 */
+	public CallGraphCondensation getCondensation() {
+		return condensation;
+	}
+
+	/**
+	 * Read-only view on all methods in a set of components
+	 */
+	private class ComponentMethodSet extends AbstractSet<SootMethod> {
+
+		private final IntervalIntSet components;
+
+		public ComponentMethodSet(IntervalIntSet components) {
+			this.components = components;
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			if (!(o instanceof SootMethod))
+				return false;
+			int component = condensation.getComponentOf((SootMethod) o);
+			return component >= 0 && components.contains(component);
+		}
+
+		@Override
+		public Iterator<SootMethod> iterator() {
+			return new Iterator<SootMethod>() {
+
+				private int run = 0;
+				private int component = components.isEmpty() ? -1 : components.getRunStart(0);
+				private int member = 0;
+
+				{
+					skipEmpty();
+				}
+
+				private void skipEmpty() {
+					while (component >= 0 && member >= condensation.getComponentMembers(component).length) {
+						member = 0;
+						component++;
+						if (component >= components.getRunEnd(run)) {
+							run++;
+							component = run < components.getRunCount() ? components.getRunStart(run) : -1;
+						}
+					}
+				}
+
+				@Override
+				public boolean hasNext() {
+					return component >= 0;
+				}
+
+				@Override
+				public SootMethod next() {
+					if (component < 0)
+						throw new NoSuchElementException();
+					SootMethod sm = condensation.getMethod(condensation.getComponentMembers(component)[member++]);
+					skipEmpty();
+					return sm;
+				}
+
+			};
+		}
+
+		@Override
+		public int size() {
+			int size = 0;
+			for (int run = 0; run < components.getRunCount(); run++)
+				for (int c = components.getRunStart(run); c < components.getRunEnd(run); c++)
+					size += condensation.getComponentMembers(c).length;
+			return size;
+		}
+
+	}
+
+}
@@ -0,0 +1,220 @@
+package soot.jimple.infoflow.solver.sparseSolver;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+
+import heros.solver.IDESolver;
+import heros.solver.Pair;
+import soot.Local;
+import soot.SootField;
+import soot.SootMethod;
+import soot.Unit;
+import soot.Value;
+import soot.ValueBox;
+import soot.jimple.AssignStmt;
+import soot.jimple.InstanceFieldRef;
+import soot.jimple.StaticFieldRef;
+import soot.jimple.toolkits.ide.icfg.BiDiInterproceduralCFG;
+
+/**
+ * Sparse view on the control flow graph. For a given local or static field,
+ * only those statements are relevant that read or write it. Additionally, all
+ * call sites and exit points are relevant, because the solver needs them for
+ * inter-procedural propagation. All other statements can be skipped when
+ * propagating a taint on the respective local or field.
+ * 
+ * A taint on an instance field can also be overwritten through a base object
+ * that must alias the tainted one. For such a taint, the key is the pair of
+ * the base local and the first field, and all writes to that field are
+ * relevant regardless of their base object.
+ *
+ */
+public class SparseCFG {
+
+	/**
+	 * The default maximum number of memoized next relevant statements
+	 */
+	public static final int DEFAULT_MAX_NEXT_RELEVANT = 100000;
+
+	private final BiDiInterproceduralCFG<Unit, SootMethod> icfg;
+
+	protected final LoadingCache<SootMethod, MethodDefUseIndex> methodToDefUseIndex = IDESolver.DEFAULT_CACHE_BUILDER
+			.build(new CacheLoader<SootMethod, MethodDefUseIndex>() {
+				@Override
+				public MethodDefUseIndex load(SootMethod method) throws Exception {
+					return new MethodDefUseIndex(method);
+				}
+			});
+
+	protected final LoadingCache<Pair<Unit, Object>, Collection<Unit>> nextRelevant;
+
+	/**
+	 * Index of all statements in a single method that reference a given local or
+	 * static field
+	 */
+	private class MethodDefUseIndex {
+
+		private final Set<Unit> alwaysRelevant = new HashSet<>();
+		private final Map<Object, Set<Unit>> references = new HashMap<>();
+		private final Map<SootField, Set<Unit>> fieldWrites = new HashMap<>();
+
+		public MethodDefUseIndex(SootMethod method) {
+			for (Unit u : method.getActiveBody().getUnits()) {
+				if (icfg.isCallStmt(u) || icfg.isExitStmt(u))
+					alwaysRelevant.add(u);
+				addReferences(u, u.getUseBoxes());
+				addReferences(u, u.getDefBoxes());
+
+				// Writes to instance fields can kill taints on must-aliased bases
+				if (u instanceof AssignStmt && ((AssignStmt) u).getLeftOp() instanceof InstanceFieldRef) {
+					SootField field = ((InstanceFieldRef) ((AssignStmt) u).getLeftOp()).getField();
+					Set<Unit> units = fieldWrites.get(field);
+					if (units == null) {
+						units = new HashSet<>();
+						fieldWrites.put(field, units);
+					}
+					units.add(u);
+				}
+			}
+		}
+
+		/**
+		 * Records the locals and static fields in the given value boxes as being
+		 * referenced by the given statement
+		 * 
+		 * @param u     The statement
+		 * @param boxes The value boxes of the statement
+		 */
+		private void addReferences(Unit u, List<ValueBox> boxes) {
+			for (ValueBox vb : boxes) {
+				Value val = vb.getValue();
+				Object key = null;
+				if (val instanceof Local)
+					key = val;
+				else if (val instanceof StaticFieldRef)
+					key = ((StaticFieldRef) val).getField();
+				if (key != null) {
+					Set<Unit> units = references.get(key);
+					if (units == null) {
+						units = new HashSet<>();
+						references.put(key, units);
+					}
+					units.add(u);
+				}
+			}
+		}
+
+		/**
+		 * Checks whether the given statement is relevant for a taint on the given
+		 * local or static field
+		 * 
+		 * @param u   The statement to check
+		 * @param key The local or static field, or the pair of base local and first
+		 *            field for a taint on an instance field
+		 * @return True if the statement is relevant, false if it can be skipped
+		 */
+		public boolean isRelevant(Unit u, Object key) {
+			if (alwaysRelevant.contains(u))
+				return true;
+			if (key instanceof Pair) {
+				Pair<?, ?> fieldKey = (Pair<?, ?>) key;
+				return contains(references, fieldKey.getO1(), u) || contains(fieldWrites, fieldKey.getO2(), u);
+			}
+			return contains(references, key, u);
+		}
+
+		private boolean contains(Map<?, Set<Unit>> index, Object key, Unit u) {
+			Set<Unit> units = index.get(key);
+			return units != null && units.contains(u);
+		}
+
+		/**
+		 * Gets the relevant statements that are reachable from the given
+		 * non-relevant statement without passing through another relevant statement
+		 * 
+		 * @param u   The statement at which to start
+		 * @param key The key of the taint
+		 * @return The next relevant statements
+		 */
+		private Collection<Unit> computeNextRelevant(Unit u, Object key) {
+			List<Unit> res = null;
+			Set<Unit> doneSet = new HashSet<>();
+			ArrayDeque<Unit> workList = new ArrayDeque<>();
+			doneSet.add(u);
+			workList.add(u);
+			while (!workList.isEmpty()) {
+				Unit cur = workList.poll();
+				for (Unit succ : icfg.getSuccsOf(cur)) {
+					if (doneSet.add(succ)) {
+						if (isRelevant(succ, key)) {
+							if (res == null)
+								res = new ArrayList<>();
+							res.add(succ);
+						} else
+							workList.add(succ);
+					}
+				}
+			}
+			return res == null ? Collections.<Unit>emptyList() : res;
+		}
+
+	}
+
+	public SparseCFG(BiDiInterproceduralCFG<Unit, SootMethod> icfg) {
+		this(icfg, DEFAULT_MAX_NEXT_RELEVANT);
+	}
+
+	/**
+	 * Creates a new sparse view on the given control flow graph
+	 * 
+	 * @param icfg            The dense control flow graph
+	 * @param maxNextRelevant The maximum number of memoized next relevant
+	 *                        statements. If the limit is reached, the least
+	 *                        recently used entries are recomputed on demand.
+	 */
+	public SparseCFG(BiDiInterproceduralCFG<Unit, SootMethod> icfg, int maxNextRelevant) {
+		this.icfg = icfg;
+		this.nextRelevant = CacheBuilder.newBuilder().concurrencyLevel(Runtime.getRuntime().availableProcessors())
+				.maximumSize(maxNextRelevant).build(new CacheLoader<Pair<Unit, Object>, Collection<Unit>>() {
+					@Override
+					public Collection<Unit> load(Pair<Unit, Object> key) throws Exception {
+						SootMethod method = icfg.getMethodOf(key.getO1());
+						return methodToDefUseIndex.getUnchecked(method).computeNextRelevant(key.getO1(), key.getO2());
+					}
+				});
+	}
+
+	/**
+	 * Gets the statements at which a taint on the given local or static field
+	 * must be processed if it arrives at the given statement. If the given
+	 * statement is relevant for the taint, it is returned as-is. Otherwise, the
+	 * next relevant statements along the control flow are returned.
+	 * 
+	 * @param u   The statement at which the taint arrives
+	 * @param key The local or static field on which the taint is, or the pair of
+	 *            base local and first field for a taint on an instance field
+	 * @return The statements at which the taint must be processed
+	 */
+	public Collection<Unit> getRelevantUnits(Unit u, Object key) {
+		SootMethod method = icfg.getMethodOf(u);
+		if (method == null || !method.hasActiveBody())
+			return Collections.singleton(u);
+
+		MethodDefUseIndex index = methodToDefUseIndex.getUnchecked(method);
+		if (index.isRelevant(u, key))
+			return Collections.singleton(u);
+		return nextRelevant.getUnchecked(new Pair<Unit, Object>(u, key));
+	}
+
+}
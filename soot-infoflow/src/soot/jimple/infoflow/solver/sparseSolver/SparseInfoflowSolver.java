@@ -0,0 +1,73 @@
+package soot.jimple.infoflow.solver.sparseSolver;
+
+import java.util.Collection;
+
+import heros.solver.Pair;
+import soot.Unit;
+import soot.jimple.infoflow.data.AccessPath;
+import soot.jimple.infoflow.data.Abstraction;
+import soot.jimple.infoflow.problems.AbstractInfoflowProblem;
+import soot.jimple.infoflow.solver.executors.InterruptableExecutor;
+import soot.jimple.infoflow.solver.fastSolver.InfoflowSolver;
+
+/**
+ * Context- and flow-sensitive solver that propagates taints sparsely. Instead
+ * of processing a taint at every statement, the solver moves it directly to the
+ * next statement that reads or writes the tainted local or static field. A
+ * taint on an instance field additionally stops at all writes to that field,
+ * because they may overwrite it through a must-aliased base object. The
+ * skipped statements cannot change the taint, so they never appear in the
+ * propagation path and path reconstruction is not affected.
+ * 
+ * Taints that are not yet active, that model thrown exceptions or implicit
+ * flows, as well as the zero value, are always propagated densely.
+ *
+ */
+public class SparseInfoflowSolver extends InfoflowSolver {
+
+	private final SparseCFG sparseCfg;
+
+	public SparseInfoflowSolver(AbstractInfoflowProblem problem, InterruptableExecutor executor) {
+		super(problem, executor);
+		this.sparseCfg = new SparseCFG(icfg);
+	}
+
+	@Override
+	protected void propagate(Abstraction sourceVal, Unit target, Abstraction targetVal, Unit relatedCallSite,
+			boolean isUnbalancedReturn) {
+		Object key = getSparseKey(targetVal);
+		if (key == null) {
+			super.propagate(sourceVal, target, targetVal, relatedCallSite, isUnbalancedReturn);
+			return;
+		}
+
+		Collection<Unit> targets = sparseCfg.getRelevantUnits(target, key);
+		for (Unit t : targets)
+			super.propagate(sourceVal, t, targetVal, relatedCallSite, isUnbalancedReturn);
+	}
+
+	/**
+	 * Gets the key under which the sparse control flow graph looks up the
+	 * relevant statements for the given abstraction
+	 * 
+	 * @param abs The abstraction
+	 * @return The local or static field on which the given abstraction is based,
+	 *         the pair of base local and first field for a taint on an instance
+	 *         field, or <code>null</code> if the abstraction must be propagated
+	 *         densely
+	 */
+	private Object getSparseKey(Abstraction abs) {
+		if (abs == zeroValue || !abs.isAbstractionActive() || abs.getExceptionThrown() || abs.isImplicit())
+			return null;
+
+		AccessPath ap = abs.getAccessPath();
+		if (ap == null || ap.isEmpty())
+			return null;
+		if (ap.isStaticFieldRef())
+			return ap.getFirstField();
+		if (ap.isInstanceFieldRef())
+			return new Pair<Object, Object>(ap.getPlainValue(), ap.getFirstField());
+		return ap.getPlainValue();
+	}
+
+}
@@ -48,6 +48,7 @@ import soot.jimple.infoflow.sourcesSinks.definitions.ISourceSinkDefinition;
 import soot.jimple.infoflow.sourcesSinks.definitions.MethodSourceSinkDefinition;
 import soot.jimple.infoflow.sourcesSinks.definitions.MethodSourceSinkDefinition.CallType;
 import soot.jimple.infoflow.sourcesSinks.definitions.StatementSourceSinkDefinition;
+import soot.jimple.infoflow.util.HierarchyClosureIndex;
 import soot.jimple.infoflow.util.SystemClassHandler;
 import soot.jimple.infoflow.values.IValueProvider;
 import soot.jimple.infoflow.values.SimpleConstantValueProvider;
@@ -123,6 +124,21 @@ public abstract class BaseSourceSinkManager implements ISourceSinkManager, IOneS
 
 			});
 
+	/**
+	 * Gets all interfaces that the given class implements directly or indirectly.
+	 * If the class is part of the shared hierarchy index, the index is used.
+	 * Otherwise, the interfaces are computed and cached locally.
+	 *
+	 * @param sc The class for which to get the interfaces
+	 * @return The interfaces implemented by the given class
+	 */
+	protected Collection<SootClass> getInterfacesOf(SootClass sc) {
+		HierarchyClosureIndex index = HierarchyClosureIndex.v();
+		if (index.isIndexed(sc))
+			return index.getAllInterfacesOf(sc);
+		return interfacesOf.getUnchecked(sc);
+	}
+
 	/**
 	 * Creates a new instance of the {@link BaseSourceSinkManager} class with either
 	 * strong or weak matching.
@@ -227,7 +243,7 @@ public abstract class BaseSourceSinkManager implements ISourceSinkManager, IOneS
 			final String subSig = callee.getSubSignature();
 
 			// Check whether we have any of the interfaces on the list
-			for (SootClass i : interfacesOf.getUnchecked(sCallSite.getInvokeExpr().getMethod().getDeclaringClass())) {
+			for (SootClass i : getInterfacesOf(sCallSite.getInvokeExpr().getMethod().getDeclaringClass())) {
 				if (i.declaresMethod(subSig)) {
 					ISourceSinkDefinition def = this.sinkMethods.get(i.getMethod(subSig));
 					if (def != null)
@@ -431,7 +447,7 @@ public abstract class BaseSourceSinkManager implements ISourceSinkManager, IOneS
 
 			// Check whether we have any of the interfaces on the list
 			final String subSig = callee.getSubSignature();
-			for (SootClass i : interfacesOf.getUnchecked(callee.getDeclaringClass())) {
+			for (SootClass i : getInterfacesOf(callee.getDeclaringClass())) {
 				SootMethod m = i.getMethodUnsafe(subSig);
 				if (m != null) {
 					def = getSourceDefinition(m);
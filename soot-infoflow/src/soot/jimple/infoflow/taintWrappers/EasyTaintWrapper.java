@@ -17,6 +17,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -24,6 +25,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.IntConsumer;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -33,20 +35,25 @@ import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
 
 import heros.TwoElementSet;
+import soot.MethodOrMethodContext;
 import soot.Scene;
 import soot.SootClass;
 import soot.SootMethod;
+import soot.Unit;
 import soot.Value;
 import soot.jimple.Constant;
 import soot.jimple.DefinitionStmt;
 import soot.jimple.InstanceInvokeExpr;
 import soot.jimple.InvokeExpr;
 import soot.jimple.Stmt;
+import soot.jimple.infoflow.InfoflowManager;
 import soot.jimple.infoflow.data.Abstraction;
 import soot.jimple.infoflow.data.AccessPath;
+import soot.jimple.infoflow.threading.ParallelTaskRunner;
 import soot.jimple.infoflow.util.ResourceUtils;
 import soot.jimple.infoflow.util.SootMethodRepresentationParser;
 import soot.jimple.infoflow.util.SystemClassHandler;
+import soot.util.queue.QueueReader;
 
 /**
  * A list of methods is passed which contains signatures of instance methods
@@ -77,6 +84,21 @@ public class EasyTaintWrapper extends AbstractTaintWrapper implements Cloneable
 
 	private boolean aggressiveMode = false;
 	private boolean alwaysModelEqualsHashCode = true;
+	private boolean useDecisionTable = false;
+
+	/**
+	 * Precomputed decisions for all callees in the reachable code, indexed by the
+	 * method number. An entry of zero means that there is no decision for the
+	 * respective method.
+	 */
+	private volatile byte[] decisionTable = null;
+
+	private static final int DECISION_WRAP_TYPE_MASK = 0x03;
+	private static final int DECISION_SUPPORTED = 1 << 2;
+	private static final int DECISION_CLASS_WRAPPED = 1 << 3;
+	private static final int DECISION_EQUALS_HASHCODE = 1 << 4;
+	private static final int DECISION_STRING_GETCHARS = 1 << 5;
+	private static final int DECISION_VALID = 1 << 6;
 
 	/**
 	 * The possible effects this taint wrapper can have on a method invocation
@@ -102,6 +124,8 @@ public class EasyTaintWrapper extends AbstractTaintWrapper implements Cloneable
 		NotRegistered
 	}
 
+	private static final MethodWrapType[] WRAP_TYPES = MethodWrapType.values();
+
 	/**
 	 * Creates a new instanceof the {@link EasyTaintWrapper} class. This constructor
 	 * assumes that all classes are included and get wrapped. However, only the
@@ -181,6 +205,132 @@ public class EasyTaintWrapper extends AbstractTaintWrapper implements Cloneable
 
 	public EasyTaintWrapper(EasyTaintWrapper taintWrapper) {
 		this(taintWrapper.classList, taintWrapper.excludeList, taintWrapper.killList, taintWrapper.includeList);
+		this.useDecisionTable = taintWrapper.useDecisionTable;
+	}
+
+	@Override
+	public void initialize(InfoflowManager manager) {
+		super.initialize(manager);
+
+		// The callgraph is available now, so we can precompute our decisions
+		decisionTable = null;
+		if (useDecisionTable)
+			buildDecisionTable();
+	}
+
+	/**
+	 * Precomputes the decisions of this taint wrapper for all callees in the
+	 * reachable code
+	 */
+	private void buildDecisionTable() {
+		long beforeTable = System.nanoTime();
+
+		final List<SootMethod> methods = new ArrayList<>();
+		QueueReader<MethodOrMethodContext> methodListener = Scene.v().getReachableMethods().listener();
+		MethodOrMethodContext mmoc;
+		while (methodListener.hasNext() && (mmoc = methodListener.next()) != null) {
+			SootMethod sm = mmoc.method();
+			if (sm != null && sm.hasActiveBody())
+				methods.add(sm);
+		}
+
+		// Methods that are created later on are simply not part of the table. Every
+		// thread writes the same value for the same callee.
+		final byte[] table = new byte[Scene.v().getMethodNumberer().size() + 1];
+		ParallelTaskRunner runner = new ParallelTaskRunner("Taint wrapper decisions");
+		try {
+			runner.run(methods.size(), new IntConsumer() {
+
+				@Override
+				public void accept(int i) {
+					for (Unit u : methods.get(i).getActiveBody().getUnits()) {
+						Stmt stmt = (Stmt) u;
+						if (!stmt.containsInvokeExpr())
+							continue;
+						SootMethod callee = stmt.getInvokeExpr().getMethodRef().tryResolve();
+						if (callee == null)
+							continue;
+						int number = callee.getNumber();
+						if (number > 0 && number < table.length && table[number] == 0)
+							table[number] = computeDecision(callee);
+					}
+				}
+
+			});
+		} finally {
+			runner.shutdown();
+		}
+		decisionTable = table;
+
+		logger.info("Precomputed taint wrapper decisions for callees in {} methods in {} seconds", methods.size(),
+				(System.nanoTime() - beforeTable) / 1E9);
+	}
+
+	/**
+	 * Computes the decision of this taint wrapper for the given callee
+	 * 
+	 * @param method The callee
+	 * @return The decision for the given callee, encoded as a set of flags
+	 */
+	private byte computeDecision(SootMethod method) {
+		final SootClass declaringClass = method.getDeclaringClass();
+		final String subSig = method.getSubSignature();
+
+		int decision = DECISION_VALID | getMethodWrapType(subSig, declaringClass).ordinal();
+		if (isClassSupported(declaringClass))
+			decision |= DECISION_SUPPORTED;
+		if (hasWrappedMethodsForClass(declaringClass, true, true, false))
+			decision |= DECISION_CLASS_WRAPPED;
+		if (subSig.equals("boolean equals(java.lang.Object)") || subSig.equals("int hashCode()"))
+			decision |= DECISION_EQUALS_HASHCODE;
+		if (declaringClass.getName().equals("java.lang.String") && subSig.equals("void getChars(int,int,char[],int)"))
+			decision |= DECISION_STRING_GETCHARS;
+		return (byte) decision;
+	}
+
+	/**
+	 * Gets the precomputed decision for the given callee
+	 * 
+	 * @param method The callee
+	 * @return The precomputed decision for the given callee, or zero if there is
+	 *         no such decision
+	 */
+	private int getDecision(SootMethod method) {
+		final byte[] table = decisionTable;
+		if (table == null)
+			return 0;
+		int number = method.getNumber();
+		return number > 0 && number < table.length ? table[number] : 0;
+	}
+
+	/**
+	 * Gets the type of action the taint wrapper shall perform on the given callee
+	 * 
+	 * @param method The callee
+	 * @return The type of action to be performed on the given callee
+	 */
+	private MethodWrapType getWrapType(SootMethod method) {
+		int decision = getDecision(method);
+		if (decision != 0)
+			return WRAP_TYPES[decision & DECISION_WRAP_TYPE_MASK];
+		return methodWrapCache.getUnchecked(method);
+	}
+
+	/**
+	 * Checks whether the given class is matched by the list of included class
+	 * prefixes
+	 * 
+	 * @param sc The class to check
+	 * @return True if the given class is supported by this taint wrapper,
+	 *         otherwise false
+	 */
+	private boolean isClassSupported(SootClass sc) {
+		if (includeList == null || includeList.isEmpty())
+			return true;
+		for (String supportedClass : this.includeList)
+			if (sc.getName().startsWith(supportedClass))
+				return true;
+		return false;
 	}
 
 	@Override
@@ -205,30 +355,38 @@ public class EasyTaintWrapper extends AbstractTaintWrapper implements Cloneable
 		if (taintedPath.isStaticFieldRef())
 			return Collections.singleton(taintedPath);
 
+		// Take the precomputed decision if we have one
+		final int decision = getDecision(method);
+		final boolean isEqualsHashCode;
+		final boolean isStringGetChars;
+		final boolean isSupported;
+		if (decision != 0) {
+			isEqualsHashCode = (decision & DECISION_EQUALS_HASHCODE) != 0;
+			isStringGetChars = (decision & DECISION_STRING_GETCHARS) != 0;
+			isSupported = (decision & DECISION_SUPPORTED) != 0;
+		} else {
+			final String subSig = stmt.getInvokeExpr().getMethodRef().getSubSignature().getString();
+			isEqualsHashCode = subSig.equals("boolean equals(java.lang.Object)") || subSig.equals("int hashCode()");
+			isStringGetChars = method.getDeclaringClass().getName().equals("java.lang.String")
+					&& subSig.equals("void getChars(int,int,char[],int)");
+			isSupported = isClassSupported(method.getDeclaringClass());
+		}
+
 		// Do we handle equals() and hashCode() separately?
-		final String subSig = stmt.getInvokeExpr().getMethodRef().getSubSignature().getString();
-		boolean taintEqualsHashCode = alwaysModelEqualsHashCode
-				&& (subSig.equals("boolean equals(java.lang.Object)") || subSig.equals("int hashCode()"));
+		boolean taintEqualsHashCode = alwaysModelEqualsHashCode && isEqualsHashCode;
 
 		// We need to handle some API calls explicitly as they do not really fit
 		// the model of our rules
-		if (!taintedPath.isEmpty() && method.getDeclaringClass().getName().equals("java.lang.String")
-				&& subSig.equals("void getChars(int,int,char[],int)"))
+		if (!taintedPath.isEmpty() && isStringGetChars)
 			return handleStringGetChars(stmt.getInvokeExpr(), taintedPath);
 
 		// If this is not one of the supported classes, we skip it
-		boolean isSupported = includeList == null || includeList.isEmpty();
-		if (!isSupported)
-			for (String supportedClass : this.includeList)
-				if (method.getDeclaringClass().getName().startsWith(supportedClass)) {
-					isSupported = true;
-					break;
-				}
 		if (!isSupported && !aggressiveMode && !taintEqualsHashCode)
 			return taints;
 
 		// Check for a cached wrap type
-		final MethodWrapType wrapType = methodWrapCache.getUnchecked(method);
+		final MethodWrapType wrapType = decision != 0 ? WRAP_TYPES[decision & DECISION_WRAP_TYPE_MASK]
+				: methodWrapCache.getUnchecked(method);
 
 		if (stmt.getInvokeExpr() instanceof InstanceInvokeExpr) {
 			InstanceInvokeExpr iiExpr = (InstanceInvokeExpr) stmt.getInvokeExpr();
@@ -430,10 +588,20 @@ public class EasyTaintWrapper extends AbstractTaintWrapper implements Cloneable
 
 		assert ifc.isInterface() : "Class " + ifc.getName() + " is not an interface, though returned "
 				+ "by getInterfaces().";
-		for (SootClass pifc : Scene.v().getActiveHierarchy().getSuperinterfacesOfIncluding(ifc)) {
-			MethodWrapType wt = getMethodWrapTypeDirect(pifc.getName(), subSig);
+		// We walk the super interfaces breadth-first, so that closer interfaces take
+		// precedence over their parents
+		Set<SootClass> doneSet = new HashSet<>();
+		List<SootClass> workList = new LinkedList<>();
+		workList.add(ifc);
+		doneSet.add(ifc);
+		while (!workList.isEmpty()) {
+			SootClass curIfc = workList.remove(0);
+			MethodWrapType wt = getMethodWrapTypeDirect(curIfc.getName(), subSig);
 			if (wt != MethodWrapType.NotRegistered)
 				return wt;
+			for (SootClass pifc : curIfc.getInterfaces())
+				if (doneSet.add(pifc))
+					workList.add(pifc);
 		}
 		return MethodWrapType.NotRegistered;
 	}
@@ -443,7 +611,11 @@ public class EasyTaintWrapper extends AbstractTaintWrapper implements Cloneable
 		SootMethod method = stmt.getInvokeExpr().getMethod();
 
 		// Do we have an entry for at least one entry in the given class?
-		if (hasWrappedMethodsForClass(method.getDeclaringClass(), true, true, false))
+		final int decision = getDecision(method);
+		if (decision != 0) {
+			if ((decision & DECISION_CLASS_WRAPPED) != 0)
+				return true;
+		} else if (hasWrappedMethodsForClass(method.getDeclaringClass(), true, true, false))
 			return true;
 
 		// In aggressive mode, we always taint the return value if the base
@@ -454,7 +626,8 @@ public class EasyTaintWrapper extends AbstractTaintWrapper implements Cloneable
 				return true;
 		}
 
-		final MethodWrapType wrapType = methodWrapCache.getUnchecked(method);
+		final MethodWrapType wrapType = decision != 0 ? WRAP_TYPES[decision & DECISION_WRAP_TYPE_MASK]
+				: methodWrapCache.getUnchecked(method);
 		return wrapType != MethodWrapType.NotRegistered;
 	}
 
@@ -482,6 +655,31 @@ public class EasyTaintWrapper extends AbstractTaintWrapper implements Cloneable
 		return this.aggressiveMode;
 	}
 
+	/**
+	 * Sets whether the taint wrapper shall precompute its decisions for all callees
+	 * in the reachable code when it is initialized. Afterwards, the decisions for
+	 * these callees are simple array lookups instead of string-based lookups in the
+	 * wrapper configuration and the class hierarchy. Changes to the configuration
+	 * after the initialization are not reflected in the precomputed decisions.
+	 * 
+	 * @param useDecisionTable True to precompute the decisions for all reachable
+	 *                         callees, otherwise false
+	 */
+	public void setUseDecisionTable(boolean useDecisionTable) {
+		this.useDecisionTable = useDecisionTable;
+	}
+
+	/**
+	 * Gets whether the taint wrapper precomputes its decisions for all callees in
+	 * the reachable code when it is initialized
+	 * 
+	 * @return True if the decisions for all reachable callees are precomputed,
+	 *         otherwise false
+	 */
+	public boolean getUseDecisionTable() {
+		return this.useDecisionTable;
+	}
+
 	/**
 	 * Sets whether the equals() and hashCode() methods shall always be modeled,
 	 * regardless of the target type.
@@ -566,7 +764,7 @@ public class EasyTaintWrapper extends AbstractTaintWrapper implements Cloneable
 		// We need a method that can create a taint
 		if (!aggressiveMode) {
 			// Check for a cached wrap type
-			final MethodWrapType wrapType = methodWrapCache.getUnchecked(method);
+			final MethodWrapType wrapType = getWrapType(method);
 			if (wrapType != MethodWrapType.CreateTaint)
 				return false;
 		}
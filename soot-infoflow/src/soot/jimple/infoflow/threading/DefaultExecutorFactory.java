@@ -1,11 +1,15 @@
 package soot.jimple.infoflow.threading;
 
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.PriorityBlockingQueue;
 import java.util.concurrent.TimeUnit;
 
 import soot.jimple.infoflow.InfoflowConfiguration;
+import soot.jimple.infoflow.InfoflowConfiguration.SchedulingStrategy;
 import soot.jimple.infoflow.solver.executors.InterruptableExecutor;
 import soot.jimple.infoflow.solver.executors.SetPoolExecutor;
+import soot.jimple.infoflow.solver.executors.TaskPriorityComparator;
 
 /**
  * Default implementation of a factory for thread pool executors
@@ -23,9 +27,15 @@ public class DefaultExecutorFactory implements IExecutorFactory {
 	public InterruptableExecutor createExecutor(int numThreads, boolean allowSetSemantics,
 			InfoflowConfiguration config) {
 		if (allowSetSemantics) {
+			// The solvers can order their edges by priority
+			BlockingQueue<Runnable> workQueue;
+			if (config.getSolverConfiguration().getSchedulingStrategy() == SchedulingStrategy.SinkDistance)
+				workQueue = new PriorityBlockingQueue<Runnable>(11, new TaskPriorityComparator());
+			else
+				workQueue = new LinkedBlockingQueue<Runnable>();
 			return new SetPoolExecutor(
 					config.getMaxThreadNum() == -1 ? numThreads : Math.min(config.getMaxThreadNum(), numThreads),
-					Integer.MAX_VALUE, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>());
+					Integer.MAX_VALUE, 30, TimeUnit.SECONDS, workQueue);
 		} else {
 			return new InterruptableExecutor(
 					config.getMaxThreadNum() == -1 ? numThreads : Math.min(config.getMaxThreadNum(), numThreads),
@@ -0,0 +1,134 @@
+package soot.jimple.infoflow.threading;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+import soot.jimple.infoflow.solver.executors.InterruptableExecutor;
+
+/**
+ * Utility class for running a fixed number of independent work items on all
+ * available cores and waiting for their completion. This is used by the
+ * various pre-computation passes that build immutable indices over the Soot
+ * scene. The worker threads are shared among all calls to
+ * {@link #run(int, IntConsumer)} on the same runner and are released when the
+ * runner is shut down or has been idle for some time.
+ */
+public class ParallelTaskRunner {
+
+	private final String threadName;
+	private final int numThreads;
+	private InterruptableExecutor executor;
+
+	/**
+	 * Creates a new instance of the {@link ParallelTaskRunner} class that uses all
+	 * available processors
+	 *
+	 * @param threadName The name to give to the worker threads
+	 */
+	public ParallelTaskRunner(String threadName) {
+		this(threadName, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Creates a new instance of the {@link ParallelTaskRunner} class
+	 *
+	 * @param threadName The name to give to the worker threads
+	 * @param numThreads The maximum number of worker threads
+	 */
+	public ParallelTaskRunner(String threadName, int numThreads) {
+		this.threadName = threadName;
+		this.numThreads = Math.max(1, numThreads);
+	}
+
+	/**
+	 * Runs the given task for all indices from 0 (inclusive) to
+	 * <code>numItems</code> (exclusive). The indices are split into contiguous
+	 * chunks, one executor task per chunk. This method blocks until all items have
+	 * been processed.
+	 *
+	 * @param numItems The number of work items
+	 * @param task     The task to run for each work item
+	 */
+	public void run(int numItems, final IntConsumer task) {
+		if (numItems <= 0)
+			return;
+
+		// For small workloads, the overhead of the executor is not worth it
+		if (numThreads == 1 || numItems < numThreads * 4) {
+			for (int i = 0; i < numItems; i++)
+				task.accept(i);
+			return;
+		}
+
+		InterruptableExecutor executor = getExecutor();
+		try {
+			final int chunkSize = Math.max(1, numItems / (numThreads * 8));
+			for (int start = 0; start < numItems; start += chunkSize) {
+				final int chunkStart = start;
+				final int chunkEnd = Math.min(numItems, start + chunkSize);
+				executor.execute(new Runnable() {
+
+					@Override
+					public void run() {
+						for (int i = chunkStart; i < chunkEnd; i++)
+							task.accept(i);
+					}
+
+				});
+			}
+
+			try {
+				executor.awaitCompletion();
+			} catch (InterruptedException e) {
+				throw new RuntimeException("Interrupted while waiting for parallel tasks", e);
+			}
+
+			Throwable exception = executor.getException();
+			if (exception != null) {
+				shutdown();
+				throw new RuntimeException("An exception has occurred in a parallel task", exception);
+			}
+		} finally {
+			executor.reset();
+		}
+	}
+
+	/**
+	 * Gets the executor that runs the work items, and creates it if necessary
+	 *
+	 * @return The executor for running the work items
+	 */
+	private synchronized InterruptableExecutor getExecutor() {
+		if (executor == null) {
+			executor = new InterruptableExecutor(numThreads, numThreads, 30, TimeUnit.SECONDS,
+					new LinkedBlockingQueue<Runnable>());
+			executor.allowCoreThreadTimeOut(true);
+			executor.setThreadFactory(new ThreadFactory() {
+
+				@Override
+				public Thread newThread(Runnable r) {
+					Thread thr = new Thread(r);
+					thr.setDaemon(true);
+					thr.setName(threadName);
+					return thr;
+				}
+
+			});
+		}
+		return executor;
+	}
+
+	/**
+	 * Releases the worker threads of this runner. The runner can still be used
+	 * afterwards, in which case new worker threads are created.
+	 */
+	public synchronized void shutdown() {
+		if (executor != null) {
+			executor.shutdown();
+			executor = null;
+		}
+	}
+
+}
@@ -0,0 +1,398 @@
+package soot.jimple.infoflow.util;
+
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.lang.ref.WeakReference;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import soot.Scene;
+import soot.SootClass;
+
+/**
+ * Index over the transitive closures of the class hierarchy of the current
+ * Soot scene. The direct sub- and supertype relations are extracted once when
+ * the index is created. The transitive closures are stored as bit sets over the
+ * class numbers. They are computed on first use and never change afterwards, so
+ * that concurrent readers do not need any locks.
+ *
+ * The index is shared between all components that query the hierarchy. A new
+ * index is created automatically whenever the Soot scene is replaced or classes
+ * are added to or removed from the scene. Changes to the supertypes of classes
+ * that are already in the scene are not detected, and neither are classes that
+ * only reach the hierarchy resolving level later. Clients that make such
+ * changes must call {@link #release()}.
+ *
+ */
+public class HierarchyClosureIndex {
+
+	private static volatile HierarchyClosureIndex instance;
+
+	private final WeakReference<Scene> scene;
+	private final int classCount;
+	private final int numberedClassCount;
+
+	private final SootClass[] classes;
+	private final BitSet interfaces = new BitSet();
+	private final int[][] directSupertypes;
+	private final int[][] directSubtypes;
+
+	private final AtomicReferenceArray<BitSet> supertypeClosures;
+	private final AtomicReferenceArray<BitSet> subtypeClosures;
+
+	/**
+	 * Gets the hierarchy index for the current Soot scene
+	 *
+	 * @return The hierarchy index for the current Soot scene
+	 */
+	public static HierarchyClosureIndex v() {
+		final Scene scene = Scene.v();
+		HierarchyClosureIndex index = instance;
+		if (index == null || !index.isValidFor(scene)) {
+			synchronized (HierarchyClosureIndex.class) {
+				index = instance;
+				if (index == null || !index.isValidFor(scene)) {
+					index = new HierarchyClosureIndex(scene);
+					instance = index;
+				}
+			}
+		}
+		return index;
+	}
+
+	/**
+	 * Discards the shared index. The next call to {@link #v()} creates a new
+	 * index from the current Soot scene.
+	 */
+	public static void release() {
+		synchronized (HierarchyClosureIndex.class) {
+			instance = null;
+		}
+	}
+
+	/**
+	 * Creates a new instance of the {@link HierarchyClosureIndex} class for the
+	 * classes in the given Soot scene
+	 *
+	 * @param scene The Soot scene
+	 */
+	private HierarchyClosureIndex(Scene scene) {
+		this.scene = new WeakReference<>(scene);
+		this.classCount = scene.getClasses().size();
+		this.numberedClassCount = scene.getClassNumberer().size();
+
+		// Map the class numbers to classes
+		int maxNumber = 0;
+		for (SootClass sc : scene.getClasses())
+			maxNumber = Math.max(maxNumber, sc.getNumber());
+		this.classes = new SootClass[maxNumber + 1];
+		for (SootClass sc : scene.getClasses())
+			if (sc.getNumber() > 0)
+				classes[sc.getNumber()] = sc;
+
+		// Collect the direct edges in the same way as the Soot hierarchy. Interfaces
+		// only have super-interfaces, even though Soot gives them a superclass.
+		List<List<Integer>> supertypes = new ArrayList<>(classes.length);
+		List<List<Integer>> subtypes = new ArrayList<>(classes.length);
+		for (int i = 0; i < classes.length; i++) {
+			supertypes.add(new ArrayList<Integer>());
+			subtypes.add(new ArrayList<Integer>());
+		}
+		for (int i = 0; i < classes.length; i++) {
+			SootClass sc = classes[i];
+			if (sc == null || sc.resolvingLevel() < SootClass.HIERARCHY)
+				continue;
+			if (sc.isInterface())
+				interfaces.set(i);
+
+			if (!sc.isInterface() && sc.hasSuperclass())
+				addEdge(i, sc.getSuperclass(), supertypes, subtypes);
+			for (SootClass intf : sc.getInterfaces())
+				addEdge(i, intf, supertypes, subtypes);
+		}
+		this.directSupertypes = toArray(supertypes);
+		this.directSubtypes = toArray(subtypes);
+
+		this.supertypeClosures = new AtomicReferenceArray<>(classes.length);
+		this.subtypeClosures = new AtomicReferenceArray<>(classes.length);
+	}
+
+	/**
+	 * Checks whether this index still reflects the given Soot scene. Class numbers
+	 * are never re-used, so the number of classes that have ever been numbered
+	 * also changes when a class is removed and another one is added.
+	 *
+	 * @param scene The Soot scene
+	 * @return True if this index has been created for the given scene and no
+	 *         classes have been added or removed since, otherwise false
+	 */
+	private boolean isValidFor(Scene scene) {
+		return this.scene.get() == scene && classCount == scene.getClasses().size()
+				&& numberedClassCount == scene.getClassNumberer().size();
+	}
+
+	/**
+	 * Records a direct edge between the given class and its parent
+	 *
+	 * @param child      The number of the child class
+	 * @param parent     The parent class
+	 * @param supertypes The lists of direct supertypes
+	 * @param subtypes   The lists of direct subtypes
+	 */
+	private void addEdge(int child, SootClass parent, List<List<Integer>> supertypes, List<List<Integer>> subtypes) {
+		if (!isIndexed(parent))
+			return;
+		supertypes.get(child).add(parent.getNumber());
+		subtypes.get(parent.getNumber()).add(child);
+	}
+
+	/**
+	 * Converts the given adjacency lists into arrays
+	 *
+	 * @param lists The adjacency lists
+	 * @return The adjacency arrays
+	 */
+	private static int[][] toArray(List<List<Integer>> lists) {
+		int[][] res = new int[lists.size()][];
+		for (int i = 0; i < res.length; i++) {
+			List<Integer> list = lists.get(i);
+			res[i] = new int[list.size()];
+			for (int j = 0; j < res[i].length; j++)
+				res[i][j] = list.get(j);
+		}
+		return res;
+	}
+
+	/**
+	 * Checks whether the given class is contained in this index
+	 *
+	 * @param sc The class to check
+	 * @return True if the given class is contained in this index, false if it has
+	 *         not been added to the scene before the index was created
+	 */
+	public boolean isIndexed(SootClass sc) {
+		if (sc == null)
+			return false;
+		int number = sc.getNumber();
+		return number > 0 && number < classes.length && classes[number] == sc;
+	}
+
+	/**
+	 * Gets the transitive closure of the given class with respect to the given
+	 * edges. If the closures of some of the reachable classes are already known,
+	 * they are re-used instead of traversing the same part of the hierarchy again.
+	 *
+	 * @param id       The number of the class
+	 * @param edges    The direct edges to follow
+	 * @param closures The closures that have been computed so far
+	 * @return The transitive closure of the given class, including the class
+	 *         itself
+	 */
+	private BitSet getClosure(int id, int[][] edges, AtomicReferenceArray<BitSet> closures) {
+		BitSet closure = closures.get(id);
+		if (closure != null)
+			return closure;
+
+		closure = new BitSet();
+		closure.set(id);
+		Deque<Integer> workList = new ArrayDeque<>();
+		workList.push(id);
+		while (!workList.isEmpty()) {
+			int cur = workList.pop();
+			for (int next : edges[cur]) {
+				if (closure.get(next))
+					continue;
+				BitSet known = closures.get(next);
+				if (known != null)
+					closure.or(known);
+				else {
+					closure.set(next);
+					workList.push(next);
+				}
+			}
+		}
+
+		// Another thread may have been faster, but it must have computed the same set
+		if (closures.compareAndSet(id, null, closure))
+			return closure;
+		return closures.get(id);
+	}
+
+	/**
+	 * Gets all supertypes of the given class, including the class itself
+	 *
+	 * @param sc The class
+	 * @return The supertypes of the given class
+	 */
+	private BitSet getSupertypes(SootClass sc) {
+		return getClosure(sc.getNumber(), directSupertypes, supertypeClosures);
+	}
+
+	/**
+	 * Gets all subtypes of the given class, including the class itself
+	 *
+	 * @param sc The class
+	 * @return The subtypes of the given class
+	 */
+	private BitSet getSubtypes(SootClass sc) {
+		return getClosure(sc.getNumber(), directSubtypes, subtypeClosures);
+	}
+
+	/**
+	 * Gets all classes and interfaces that are derived from the given class or
+	 * interface. This comprises all subclasses, all sub-interfaces, and all
+	 * classes that implement the interface or one of its sub-interfaces.
+	 *
+	 * @param sc The class or interface for which to get the subtypes
+	 * @return The subtypes of the given class or interface, including the class
+	 *         or interface itself
+	 */
+	public Set<SootClass> getSubtypesOfIncluding(SootClass sc) {
+		if (!isIndexed(sc))
+			return Collections.singleton(sc);
+		return new ClassSet(getSubtypes(sc));
+	}
+
+	/**
+	 * Gets all classes that are derived from the given class or interface. In
+	 * contrast to {@link #getSubtypesOfIncluding(SootClass)}, this method does not
+	 * return any interfaces.
+	 *
+	 * @param sc The class or interface for which to get the subclasses
+	 * @return The subclasses and implementors of the given class or interface,
+	 *         including the class itself if it is not an interface
+	 */
+	public Set<SootClass> getSubclassesOfIncluding(SootClass sc) {
+		if (!isIndexed(sc))
+			return sc.isInterface() ? Collections.<SootClass>emptySet() : Collections.singleton(sc);
+		BitSet bs = (BitSet) getSubtypes(sc).clone();
+		bs.andNot(interfaces);
+		return new ClassSet(bs);
+	}
+
+	/**
+	 * Gets the given class and all of its superclasses
+	 *
+	 * @param sc The class for which to get the superclasses
+	 * @return The superclasses of the given class, including the class itself. If
+	 *         the given class is an interface, the result is empty.
+	 */
+	public Set<SootClass> getSuperclassesOfIncluding(SootClass sc) {
+		if (sc.isInterface())
+			return Collections.emptySet();
+		if (!isIndexed(sc)) {
+			Set<SootClass> res = new LinkedHashSet<>();
+			res.add(sc);
+			if (sc.hasSuperclass())
+				res.addAll(getSuperclassesOfIncluding(sc.getSuperclass()));
+			return res;
+		}
+		BitSet bs = (BitSet) getSupertypes(sc).clone();
+		bs.andNot(interfaces);
+		return new ClassSet(bs);
+	}
+
+	/**
+	 * Gets the given interface and all of its super-interfaces
+	 *
+	 * @param sc The interface for which to get the super-interfaces
+	 * @return The super-interfaces of the given interface, including the
+	 *         interface itself
+	 */
+	public Set<SootClass> getSuperinterfacesOfIncluding(SootClass sc) {
+		if (!isIndexed(sc)) {
+			Set<SootClass> res = new LinkedHashSet<>();
+			res.add(sc);
+			for (SootClass intf : sc.getInterfaces())
+				res.addAll(getSuperinterfacesOfIncluding(intf));
+			return res;
+		}
+		BitSet bs = (BitSet) getSupertypes(sc).clone();
+		bs.and(interfaces);
+		return new ClassSet(bs);
+	}
+
+	/**
+	 * Gets all interfaces that the given class implements directly or indirectly,
+	 * i.e., through one of its superclasses or through a super-interface
+	 *
+	 * @param sc The class or interface for which to get the interfaces
+	 * @return The interfaces implemented by the given class. If the given class is
+	 *         an interface, it is not part of the result.
+	 */
+	public Set<SootClass> getAllInterfacesOf(SootClass sc) {
+		if (!isIndexed(sc)) {
+			Set<SootClass> res = new LinkedHashSet<>();
+			for (SootClass intf : sc.getInterfaces())
+				res.addAll(getSuperinterfacesOfIncluding(intf));
+			if (!sc.isInterface() && sc.hasSuperclass())
+				res.addAll(getAllInterfacesOf(sc.getSuperclass()));
+			return res;
+		}
+		BitSet bs = (BitSet) getSupertypes(sc).clone();
+		bs.and(interfaces);
+		bs.clear(sc.getNumber());
+		return new ClassSet(bs);
+	}
+
+	/**
+	 * Immutable view on a set of classes that is backed by a bit set over the
+	 * class numbers
+	 */
+	private class ClassSet extends AbstractSet<SootClass> {
+
+		private final BitSet bits;
+		private final int size;
+
+		private ClassSet(BitSet bits) {
+			this.bits = bits;
+			this.size = bits.cardinality();
+		}
+
+		@Override
+		public Iterator<SootClass> iterator() {
+			return new Iterator<SootClass>() {
+
+				private int next = bits.nextSetBit(0);
+
+				@Override
+				public boolean hasNext() {
+					return next >= 0;
+				}
+
+				@Override
+				public SootClass next() {
+					if (next < 0)
+						throw new NoSuchElementException();
+					SootClass sc = classes[next];
+					next = bits.nextSetBit(next + 1);
+					return sc;
+				}
+
+			};
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			if (!(o instanceof SootClass))
+				return false;
+			SootClass sc = (SootClass) o;
+			return isIndexed(sc) && bits.get(sc.getNumber());
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+
+	}
+
+}
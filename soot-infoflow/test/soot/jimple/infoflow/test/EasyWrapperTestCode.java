@@ -10,6 +10,9 @@
  ******************************************************************************/
 package soot.jimple.infoflow.test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import soot.jimple.infoflow.test.android.AccountManager;
 import soot.jimple.infoflow.test.android.ConnectionManager;
 import soot.jimple.infoflow.test.android.TelephonyManager;
@@ -175,4 +178,32 @@ public class EasyWrapperTestCode {
 		cm.publish(tainted + tainted2);
 	}
 
+	public void excludedMethodTest() {
+		String tainted = TelephonyManager.getDeviceId();
+		List<String> list = new ArrayList<String>();
+		list.add(tainted);
+		ConnectionManager cm = new ConnectionManager();
+		cm.publish(list.size());
+	}
+
+	public void killMethodTest() {
+		String tainted = TelephonyManager.getDeviceId();
+		List<String> list = new ArrayList<String>();
+		list.add(tainted);
+		list.clear();
+		List<String> list2 = new ArrayList<String>();
+		list2.add(tainted);
+		ConnectionManager cm = new ConnectionManager();
+		cm.publish(list.get(0));
+		cm.publish(list2.get(0));
+	}
+
+	public void stringGetCharsTest() {
+		String tainted = TelephonyManager.getDeviceId();
+		char[] chars = new char[tainted.length()];
+		tainted.getChars(0, chars.length, chars, 0);
+		ConnectionManager cm = new ConnectionManager();
+		cm.publish(new String(chars));
+	}
+
 }
@@ -0,0 +1,174 @@
+package soot.jimple.infoflow.test.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import gnu.trove.strategy.HashingStrategy;
+import soot.jimple.infoflow.collect.ConcurrentCompactSet;
+
+/**
+ * Tests for the {@link ConcurrentCompactSet}
+ */
+public class ConcurrentCompactSetTests {
+
+	/**
+	 * Strategy with a poor hash function, so that elements collide once the set
+	 * has been moved into a hash map
+	 */
+	private static class CollidingStrategy implements HashingStrategy<Integer> {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public int computeHashCode(Integer object) {
+			return object % 3;
+		}
+
+		@Override
+		public boolean equals(Integer o1, Integer o2) {
+			return o1.intValue() == o2.intValue();
+		}
+
+	}
+
+	@Test
+	public void switchToMapTest() {
+		ConcurrentCompactSet<Integer> set = new ConcurrentCompactSet<>(new CollidingStrategy());
+		assertTrue(set.isEmpty());
+
+		// Fill the array representation up to the threshold
+		for (int i = 0; i < ConcurrentCompactSet.ARRAY_THRESHOLD; i++) {
+			assertTrue(set.add(i));
+			assertFalse(set.add(i));
+		}
+		assertEquals(ConcurrentCompactSet.ARRAY_THRESHOLD, set.size());
+
+		// The next element moves the set into a map
+		final int total = ConcurrentCompactSet.ARRAY_THRESHOLD * 4;
+		for (int i = ConcurrentCompactSet.ARRAY_THRESHOLD; i < total; i++)
+			assertTrue(set.add(i));
+		assertEquals(total, set.size());
+
+		// All elements must have survived the switch
+		for (int i = 0; i < total; i++) {
+			assertTrue(set.contains(i));
+			assertFalse(set.add(i));
+		}
+		assertFalse(set.contains(total));
+
+		Set<Integer> iterated = new HashSet<>();
+		for (Integer i : set)
+			assertTrue(iterated.add(i));
+		assertEquals(total, iterated.size());
+	}
+
+	@Test
+	public void initialElementTest() {
+		ConcurrentCompactSet<Integer> set = new ConcurrentCompactSet<>(new CollidingStrategy(), 42);
+		assertEquals(1, set.size());
+		assertTrue(set.contains(42));
+		assertFalse(set.add(42));
+	}
+
+	@Test(timeout = 60000)
+	public void concurrentAddTest() throws Exception {
+		final int threads = 8;
+		final int elements = 1000;
+
+		for (int run = 0; run < 20; run++) {
+			final ConcurrentCompactSet<Integer> set = new ConcurrentCompactSet<>(new CollidingStrategy());
+			final CountDownLatch start = new CountDownLatch(1);
+			ExecutorService executor = Executors.newFixedThreadPool(threads);
+			try {
+				// All threads add the same elements, so every element must be reported as
+				// new by exactly one thread
+				List<Future<Integer>> futures = new ArrayList<>();
+				for (int t = 0; t < threads; t++) {
+					final int offset = t;
+					futures.add(executor.submit(() -> {
+						start.await();
+						int added = 0;
+						for (int i = 0; i < elements; i++) {
+							if (set.add((i + offset) % elements))
+								added++;
+						}
+						return added;
+					}));
+				}
+				start.countDown();
+
+				int totalAdded = 0;
+				for (Future<Integer> f : futures)
+					totalAdded += f.get();
+				assertEquals(elements, totalAdded);
+				assertEquals(elements, set.size());
+				for (int i = 0; i < elements; i++)
+					assertTrue(set.contains(i));
+			} finally {
+				executor.shutdownNow();
+				executor.awaitTermination(10, TimeUnit.SECONDS);
+			}
+		}
+	}
+
+	@Test(timeout = 60000)
+	public void iterateWhileGrowingTest() throws Exception {
+		final int elements = 5000;
+
+		for (int run = 0; run < 20; run++) {
+			final ConcurrentCompactSet<Integer> set = new ConcurrentCompactSet<>(new CollidingStrategy());
+			for (int i = 0; i < ConcurrentCompactSet.ARRAY_THRESHOLD / 2; i++)
+				set.add(i);
+
+			final CountDownLatch start = new CountDownLatch(1);
+			Thread writer = new Thread(() -> {
+				try {
+					start.await();
+				} catch (InterruptedException e) {
+					return;
+				}
+				for (int i = 0; i < elements; i++)
+					set.add(i);
+			});
+			writer.start();
+			start.countDown();
+
+			// Iterate while the writer grows the set across the array-to-map switch.
+			// Every iteration must see all elements that were present before it
+			// started, and must never see an element twice.
+			while (writer.isAlive()) {
+				int sizeBefore = set.size();
+				Set<Integer> before = new HashSet<>();
+				for (int i = 0; i < elements && before.size() < sizeBefore; i++)
+					if (set.contains(i))
+						before.add(i);
+
+				Set<Integer> seen = new HashSet<>();
+				for (Integer i : set)
+					assertTrue(seen.add(i));
+				assertTrue(seen.containsAll(before));
+			}
+			writer.join();
+
+			assertEquals(elements, set.size());
+			Set<Integer> seen = new HashSet<>();
+			for (Integer i : set)
+				assertTrue(seen.add(i));
+			assertEquals(elements, seen.size());
+		}
+	}
+
+}
@@ -0,0 +1,65 @@
+package soot.jimple.infoflow.test.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+import soot.jimple.infoflow.IInfoflow;
+import soot.jimple.infoflow.InfoflowConfiguration;
+import soot.jimple.infoflow.InfoflowConfiguration.PathBuildingAlgorithm;
+import soot.jimple.infoflow.InfoflowConfiguration.PathReconstructionMode;
+
+/**
+ * Tests that sharing identical states in the context-sensitive path builder
+ * finds the same source-to-sink connections as extending every path on its own
+ *
+ */
+public class ContextSensitivePathBuilderTests extends JUnitTests {
+
+	private static final List<String> ENTRY_POINTS = Arrays.asList(
+			"<soot.jimple.infoflow.test.ContextSensitivityTestCode: void contextSensitivityTest1()>",
+			"<soot.jimple.infoflow.test.ContextSensitivityTestCode: void contextSensitivityTest2()>",
+			"<soot.jimple.infoflow.test.ContextSensitivityTestCode: void multipleCallSiteTest1()>",
+			"<soot.jimple.infoflow.test.ContextSensitivityTestCode: void multipleExitTest1()>",
+			"<soot.jimple.infoflow.test.BasicTestCode: void arithmeticLoopTest1()>",
+			"<soot.jimple.infoflow.test.BasicTestCode: void arithmeticLoopTest2()>",
+			"<soot.jimple.infoflow.test.HeapTestCode: void testForLoop()>",
+			"<soot.jimple.infoflow.test.HeapTestCode: void doubleAliasTest()>",
+			"<soot.jimple.infoflow.test.MultiTestCode: void loopPathTestCode1()>",
+			"<soot.jimple.infoflow.test.OtherTestCode: void loopTest()>");
+
+	private Set<String> computeFlows(boolean pathAgnosticResults, PathReconstructionMode mode) {
+		soot.G.reset();
+		boolean oldPathAgnosticResults = InfoflowConfiguration.getPathAgnosticResults();
+		try {
+			InfoflowConfiguration.setPathAgnosticResults(pathAgnosticResults);
+			IInfoflow infoflow = initInfoflow();
+			infoflow.getConfig().getPathConfiguration()
+					.setPathBuildingAlgorithm(PathBuildingAlgorithm.ContextSensitive);
+			infoflow.getConfig().getPathConfiguration().setPathReconstructionMode(mode);
+			infoflow.computeInfoflow(appPath, libPath, ENTRY_POINTS, sources, sinks);
+			return getFlows(infoflow, false);
+		} finally {
+			InfoflowConfiguration.setPathAgnosticResults(oldPathAgnosticResults);
+		}
+	}
+
+	@Test(timeout = 300000)
+	public void sameFlowsTest() {
+		// Every path is a separate result, so no states are shared
+		Set<String> expected = computeFlows(false, PathReconstructionMode.Precise);
+		assertFalse(expected.isEmpty());
+
+		// States are shared between the paths from the same sink
+		assertEquals(expected, computeFlows(true, PathReconstructionMode.Precise));
+
+		// States are shared between all sinks
+		assertEquals(expected, computeFlows(true, PathReconstructionMode.NoPaths));
+	}
+
+}
@@ -0,0 +1,21 @@
+package soot.jimple.infoflow.test.junit;
+
+import soot.jimple.infoflow.IInfoflow;
+import soot.jimple.infoflow.InfoflowConfiguration.PathReconstructionMode;
+
+/**
+ * Runs the context sensitivity tests with precise path reconstruction, i.e.,
+ * with the path builder sharing states only between the paths from the same
+ * sink
+ *
+ */
+public class ContextSensitivityTestsPaths extends ContextSensitivityTests {
+
+	@Override
+	protected IInfoflow initInfoflow(boolean useTaintWrapper) {
+		IInfoflow infoflow = super.initInfoflow(useTaintWrapper);
+		infoflow.getConfig().getPathConfiguration().setPathReconstructionMode(PathReconstructionMode.Precise);
+		return infoflow;
+	}
+
+}
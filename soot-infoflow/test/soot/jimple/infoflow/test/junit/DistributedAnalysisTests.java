@@ -0,0 +1,119 @@
+package soot.jimple.infoflow.test.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import soot.jimple.infoflow.IInfoflow;
+import soot.jimple.infoflow.distributed.DistributedAnalysisCoordinator;
+import soot.jimple.infoflow.handlers.ResultsAvailableHandler;
+import soot.jimple.infoflow.results.InfoflowResults;
+import soot.jimple.infoflow.results.xml.InfoflowResultsSerializer;
+import soot.jimple.infoflow.results.xml.SerializedInfoflowResults;
+import soot.jimple.infoflow.solver.cfg.IInfoflowCFG;
+
+/**
+ * Tests for distributing the data flow analysis across multiple worker
+ * processes. The test class doubles as the worker.
+ *
+ */
+public class DistributedAnalysisTests extends JUnitTests {
+
+	private static final List<String> ENTRY_POINTS = Arrays.asList(
+			"<soot.jimple.infoflow.test.BasicTestCode: void overwriteInCalleeTest2()>",
+			"<soot.jimple.infoflow.test.BasicTestCode: void simpleArithmeticTest1()>",
+			"<soot.jimple.infoflow.test.BasicTestCode: void arithmeticLoopTest1()>",
+			"<soot.jimple.infoflow.test.BasicTestCode: void arithmeticLoopTest2()>",
+			"<soot.jimple.infoflow.test.HeapTestCode: void aliasPerformanceTest()>");
+
+	/**
+	 * Runs the data flow analysis on one partition of the seeds and writes the
+	 * results into a file
+	 *
+	 * @param args The one-based partition number, the number of partitions, the
+	 *             output file, and optionally a partition that shall fail
+	 */
+	public static void main(String[] args) throws Exception {
+		final int partition = Integer.parseInt(args[0]);
+		final int partitionCount = Integer.parseInt(args[1]);
+		final String outputFile = args[2];
+		if (args.length > 3 && Integer.parseInt(args[3]) == partition)
+			System.exit(1);
+
+		JUnitTests.setUp();
+		final IInfoflow infoflow = new DistributedAnalysisTests().initInfoflow();
+		infoflow.getConfig().setSeedPartition(partition - 1, partitionCount);
+		infoflow.addResultsAvailableHandler(new ResultsAvailableHandler() {
+
+			@Override
+			public void onResultsAvailable(IInfoflowCFG cfg, InfoflowResults results) {
+				try {
+					new InfoflowResultsSerializer(cfg, infoflow.getConfig()).serialize(results, outputFile);
+				} catch (Exception e) {
+					throw new RuntimeException(e);
+				}
+			}
+
+		});
+		infoflow.computeInfoflow(appPath, libPath, ENTRY_POINTS, sources, sinks);
+		System.exit(0);
+	}
+
+	private DistributedAnalysisCoordinator createCoordinator(int workerCount, File workingDir,
+			String... extraArgs) {
+		List<String> cmd = new ArrayList<>();
+		cmd.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+		cmd.add("-cp");
+		cmd.add(System.getProperty("java.class.path"));
+		cmd.add(DistributedAnalysisTests.class.getName());
+		cmd.add(DistributedAnalysisCoordinator.PLACEHOLDER_PARTITION);
+		cmd.add(DistributedAnalysisCoordinator.PLACEHOLDER_PARTITION_COUNT);
+		cmd.add(DistributedAnalysisCoordinator.PLACEHOLDER_OUTPUT);
+		Collections.addAll(cmd, extraArgs);
+
+		DistributedAnalysisCoordinator coordinator = new DistributedAnalysisCoordinator(cmd, workerCount);
+		coordinator.setWorkingDirectory(workingDir);
+		coordinator.setWorkerTimeout(300);
+		return coordinator;
+	}
+
+	@Test(timeout = 600000)
+	public void partitionedResultsTest() throws IOException, InterruptedException {
+		File workingDir = Files.createTempDirectory("distributedTest").toFile();
+
+		SerializedInfoflowResults single = createCoordinator(1, workingDir).run();
+		SerializedInfoflowResults distributed = createCoordinator(3, workingDir).run();
+
+		assertTrue(single.getResultCount() > 1);
+		assertEquals(single.getResults(), distributed.getResults());
+		assertEquals(InfoflowResults.TERMINATION_SUCCESS, distributed.getTerminationState());
+
+		// Every worker sees all sinks, so they must not be added up
+		assertEquals(single.getPerformanceData().getSinkCount(), distributed.getPerformanceData().getSinkCount());
+		assertEquals(single.getPerformanceData().getSourceCount(),
+				distributed.getPerformanceData().getSourceCount());
+	}
+
+	@Test(timeout = 600000)
+	public void failedWorkerTest() throws IOException, InterruptedException {
+		File workingDir = Files.createTempDirectory("distributedTest").toFile();
+
+		DistributedAnalysisCoordinator coordinator = createCoordinator(2, workingDir, "2");
+		SerializedInfoflowResults results = coordinator.run();
+
+		assertEquals(Collections.singletonList(2), coordinator.getFailedWorkers());
+		assertTrue((results.getTerminationState() & InfoflowResults.TERMINATION_PARTIAL_RESULTS) != 0);
+		assertFalse(results.getResults() == null);
+	}
+
+}
@@ -0,0 +1,77 @@
+package soot.jimple.infoflow.test.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Set;
+
+import org.junit.Test;
+
+import soot.jimple.infoflow.IInfoflow;
+import soot.jimple.infoflow.taintWrappers.EasyTaintWrapper;
+
+/**
+ * Checks that the precomputed decision table of the {@link EasyTaintWrapper}
+ * leads to the same results as the normal lookups in the wrapper configuration
+ *
+ */
+public class EasyWrapperDecisionTableTests extends JUnitTests {
+
+	private EasyTaintWrapper createWrapper(boolean useDecisionTable, String includePrefix) throws IOException {
+		EasyTaintWrapper wrapper = new EasyTaintWrapper(new File("EasyTaintWrapperSource.txt"));
+		if (includePrefix != null)
+			wrapper.addIncludePrefix(includePrefix);
+		wrapper.setUseDecisionTable(useDecisionTable);
+		return wrapper;
+	}
+
+	private Set<String> computeFlows(String entryPoint, EasyTaintWrapper wrapper) {
+		soot.G.reset();
+		IInfoflow infoflow = initInfoflow();
+		infoflow.setTaintWrapper(wrapper);
+		infoflow.computeInfoflow(appPath, libPath, Collections.singletonList(entryPoint), sources, sinks);
+		return getFlows(infoflow, false);
+	}
+
+	private Set<String> checkSameFlows(String entryPoint, String includePrefix) throws IOException {
+		Set<String> expected = computeFlows(entryPoint, createWrapper(false, includePrefix));
+		assertEquals(expected, computeFlows(entryPoint, createWrapper(true, includePrefix)));
+		return expected;
+	}
+
+	@Test(timeout = 300000)
+	public void excludedMethodTest() throws IOException {
+		// List.size() is excluded from the wrapper
+		checkSameFlows("<soot.jimple.infoflow.test.EasyWrapperTestCode: void excludedMethodTest()>", null);
+	}
+
+	@Test(timeout = 300000)
+	public void killMethodTest() throws IOException {
+		// List.clear() kills the taint on the first list, but not on the second one
+		checkSameFlows("<soot.jimple.infoflow.test.EasyWrapperTestCode: void killMethodTest()>", null);
+	}
+
+	@Test(timeout = 300000)
+	public void stringGetCharsTest() throws IOException {
+		// String.getChars() is modeled explicitly
+		Set<String> flows = checkSameFlows(
+				"<soot.jimple.infoflow.test.EasyWrapperTestCode: void stringGetCharsTest()>", null);
+		assertFalse(flows.isEmpty());
+	}
+
+	@Test(timeout = 300000)
+	public void includePrefixMissTest() throws IOException {
+		// The library classes do not match the include prefix, so the wrapper does
+		// not handle them
+		checkSameFlows("<soot.jimple.infoflow.test.EasyWrapperTestCode: void stringConcatTest()>",
+				"soot.jimple.infoflow.test");
+		checkSameFlows("<soot.jimple.infoflow.test.EasyWrapperTestCode: void killMethodTest()>",
+				"soot.jimple.infoflow.test");
+		checkSameFlows("<soot.jimple.infoflow.test.EasyWrapperTestCode: void stringGetCharsTest()>",
+				"soot.jimple.infoflow.test");
+	}
+
+}
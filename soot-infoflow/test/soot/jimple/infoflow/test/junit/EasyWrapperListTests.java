@@ -24,7 +24,7 @@ import soot.jimple.infoflow.taintWrappers.EasyTaintWrapper;
  */
 public class EasyWrapperListTests extends JUnitTests {
 	
-	private final EasyTaintWrapper easyWrapper;
+	protected final EasyTaintWrapper easyWrapper;
 	
 	public EasyWrapperListTests() throws IOException {
 		easyWrapper = new EasyTaintWrapper(new File("EasyTaintWrapperSource.txt"));
@@ -0,0 +1,17 @@
+package soot.jimple.infoflow.test.junit;
+
+import java.io.IOException;
+
+/**
+ * Runs the list tests for the EasyTaintWrapper with precomputed decisions for
+ * all reachable callees
+ *
+ */
+public class EasyWrapperListTestsDecisionTable extends EasyWrapperListTests {
+
+	public EasyWrapperListTestsDecisionTable() throws IOException {
+		super();
+		easyWrapper.setUseDecisionTable(true);
+	}
+
+}
@@ -28,7 +28,7 @@ import soot.jimple.infoflow.taintWrappers.EasyTaintWrapper;
  */
 public class EasyWrapperTests extends JUnitTests {
 	
-	private final EasyTaintWrapper easyWrapper;
+	protected final EasyTaintWrapper easyWrapper;
 	
 	public EasyWrapperTests() throws IOException {
 		easyWrapper = new EasyTaintWrapper(new File("EasyTaintWrapperSource.txt"));
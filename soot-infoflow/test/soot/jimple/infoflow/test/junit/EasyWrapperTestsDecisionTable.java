@@ -0,0 +1,17 @@
+package soot.jimple.infoflow.test.junit;
+
+import java.io.IOException;
+
+/**
+ * Runs the tests for the EasyTaintWrapper with precomputed decisions for all
+ * reachable callees
+ *
+ */
+public class EasyWrapperTestsDecisionTable extends EasyWrapperTests {
+
+	public EasyWrapperTestsDecisionTable() throws IOException {
+		super();
+		easyWrapper.setUseDecisionTable(true);
+	}
+
+}
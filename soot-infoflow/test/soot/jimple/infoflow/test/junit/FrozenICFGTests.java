@@ -0,0 +1,96 @@
+package soot.jimple.infoflow.test.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+import soot.MethodOrMethodContext;
+import soot.Scene;
+import soot.SootMethod;
+import soot.Unit;
+import soot.jimple.infoflow.IInfoflow;
+import soot.jimple.infoflow.handlers.ResultsAvailableHandler;
+import soot.jimple.infoflow.results.InfoflowResults;
+import soot.jimple.infoflow.solver.cfg.FrozenInfoflowCFG;
+import soot.jimple.infoflow.solver.cfg.IInfoflowCFG;
+import soot.jimple.infoflow.solver.cfg.InfoflowCFG;
+
+/**
+ * Tests that the frozen, array-based ICFG answers all graph queries in the
+ * same way as the original ICFG
+ *
+ */
+public class FrozenICFGTests extends JUnitTests {
+
+	private static final List<String> ENTRY_POINTS = Arrays.asList(
+			"<soot.jimple.infoflow.test.BasicTestCode: void overwriteInCalleeTest2()>",
+			"<soot.jimple.infoflow.test.BasicTestCode: void arithmeticLoopTest1()>",
+			"<soot.jimple.infoflow.test.HeapTestCode: void doubleAliasTest()>",
+			"<soot.jimple.infoflow.test.HeapTestCode: void testForLoop()>",
+			"<soot.jimple.infoflow.test.ExceptionTestCode: void exceptionControlFlowTest1()>");
+
+	@Test(timeout = 300000)
+	public void sameGraphTest() {
+		IInfoflow infoflow = initInfoflow();
+		infoflow.getConfig().getSolverConfiguration().setFrozenICFG(true);
+		final AtomicReference<IInfoflowCFG> usedCFG = new AtomicReference<>();
+		infoflow.addResultsAvailableHandler(new ResultsAvailableHandler() {
+
+			@Override
+			public void onResultsAvailable(IInfoflowCFG cfg, InfoflowResults results) {
+				usedCFG.set(cfg);
+			}
+
+		});
+		infoflow.computeInfoflow(appPath, libPath, ENTRY_POINTS, sources, sinks);
+		assertTrue(usedCFG.get() instanceof FrozenInfoflowCFG);
+
+		// Compare a fresh frozen copy with the original ICFG on the same scene
+		InfoflowCFG original = new InfoflowCFG();
+		FrozenInfoflowCFG frozen = new FrozenInfoflowCFG(new InfoflowCFG());
+		assertTrue(frozen.getUnitCount() > 0);
+
+		int checkedMethods = 0;
+		for (Iterator<MethodOrMethodContext> it = Scene.v().getReachableMethods().listener(); it.hasNext();) {
+			MethodOrMethodContext mmoc = it.next();
+			SootMethod sm = mmoc == null ? null : mmoc.method();
+			if (sm == null || !sm.hasActiveBody())
+				continue;
+			checkedMethods++;
+
+			assertSameElements(original.getStartPointsOf(sm), frozen.getStartPointsOf(sm));
+			assertSameElements(original.getEndPointsOf(sm), frozen.getEndPointsOf(sm));
+			assertSameElements(original.getCallersOf(sm), frozen.getCallersOf(sm));
+
+			for (Unit u : sm.getActiveBody().getUnits()) {
+				assertEquals(original.getMethodOf(u), frozen.getMethodOf(u));
+				assertEquals(original.getSuccsOf(u), frozen.getSuccsOf(u));
+				assertEquals(original.getPredsOf(u), frozen.getPredsOf(u));
+				assertEquals(original.isCallStmt(u), frozen.isCallStmt(u));
+				assertEquals(original.isExitStmt(u), frozen.isExitStmt(u));
+				assertEquals(original.isStartPoint(u), frozen.isStartPoint(u));
+				assertEquals(original.isReturnSite(u), frozen.isReturnSite(u));
+				assertEquals(original.getPostdominatorOf(u), frozen.getPostdominatorOf(u));
+				if (original.isCallStmt(u)) {
+					assertSameElements(original.getCalleesOfCallAt(u), frozen.getCalleesOfCallAt(u));
+					assertSameElements(original.getReturnSitesOfCallAt(u), frozen.getReturnSitesOfCallAt(u));
+				}
+			}
+		}
+		assertTrue(checkedMethods > 0);
+	}
+
+	private static <T> void assertSameElements(Collection<T> expected, Collection<T> actual) {
+		assertEquals(expected.size(), actual.size());
+		assertEquals(new HashSet<>(expected), new HashSet<>(actual));
+	}
+
+}
@@ -0,0 +1,74 @@
+package soot.jimple.infoflow.test.junit;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import soot.jimple.infoflow.IInfoflow;
+import soot.jimple.infoflow.InfoflowConfiguration.DataFlowSolver;
+import soot.jimple.infoflow.memory.MemoryWarningSystem;
+
+/**
+ * Tests for the garbage-collecting solver with the generational garbage
+ * collector
+ *
+ */
+public class GenerationalGarbageCollectorTests extends JUnitTests {
+
+	@Override
+	protected IInfoflow initInfoflow(boolean useTaintWrapper) {
+		IInfoflow infoflow = super.initInfoflow(useTaintWrapper);
+		infoflow.getConfig().getSolverConfiguration().setDataFlowSolver(DataFlowSolver.GarbageCollecting);
+		infoflow.getConfig().getSolverConfiguration().setGenerationalGarbageCollection(true);
+		return infoflow;
+	}
+
+	@Test(timeout = 300000)
+	public void overwriteInCalleeTest2() {
+		IInfoflow infoflow = initInfoflow();
+		List<String> epoints = new ArrayList<String>();
+		epoints.add("<soot.jimple.infoflow.test.BasicTestCode: void overwriteInCalleeTest2()>");
+		infoflow.computeInfoflow(appPath, libPath, epoints, sources, sinks);
+		checkInfoflow(infoflow, 1);
+	}
+
+	@Test(timeout = 300000)
+	public void overwriteBaseObjectTest1() {
+		IInfoflow infoflow = initInfoflow();
+		List<String> epoints = new ArrayList<String>();
+		epoints.add("<soot.jimple.infoflow.test.BasicTestCode: void overwriteBaseObjectTest1()>");
+		infoflow.computeInfoflow(appPath, libPath, epoints, sources, sinks);
+		negativeCheckInfoflow(infoflow);
+	}
+
+	@Test(timeout = 300000)
+	public void arithmeticLoopTest1() {
+		IInfoflow infoflow = initInfoflow();
+		List<String> epoints = new ArrayList<String>();
+		epoints.add("<soot.jimple.infoflow.test.BasicTestCode: void arithmeticLoopTest1()>");
+		infoflow.computeInfoflow(appPath, libPath, epoints, sources, sinks);
+		checkInfoflow(infoflow, 1);
+	}
+
+	@Test(timeout = 300000)
+	public void warningSystemSurvivesSolverTest() {
+		// Somebody else is still interested in memory warnings while the solver runs
+		MemoryWarningSystem ws = new MemoryWarningSystem();
+		ws.setWarningThreshold(0.99);
+		try {
+			IInfoflow infoflow = initInfoflow();
+			List<String> epoints = new ArrayList<String>();
+			epoints.add("<soot.jimple.infoflow.test.BasicTestCode: void simpleArithmeticTest1()>");
+			infoflow.computeInfoflow(appPath, libPath, epoints, sources, sinks);
+			checkInfoflow(infoflow, 1);
+
+			// The collector must not have removed the shared JVM listener
+			Assert.assertTrue(MemoryWarningSystem.isListenerRegistered());
+		} finally {
+			ws.close();
+		}
+	}
+
+}
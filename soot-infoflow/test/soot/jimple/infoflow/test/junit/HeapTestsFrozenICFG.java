@@ -0,0 +1,18 @@
+package soot.jimple.infoflow.test.junit;
+
+import soot.jimple.infoflow.IInfoflow;
+
+/**
+ * Runs the heap tests on the frozen, array-based ICFG
+ *
+ */
+public class HeapTestsFrozenICFG extends HeapTests {
+
+	@Override
+	protected IInfoflow initInfoflow(boolean useTaintWrapper) {
+		IInfoflow infoflow = super.initInfoflow(useTaintWrapper);
+		infoflow.getConfig().getSolverConfiguration().setFrozenICFG(true);
+		return infoflow;
+	}
+
+}
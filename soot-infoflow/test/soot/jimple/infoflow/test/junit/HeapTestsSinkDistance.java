@@ -0,0 +1,20 @@
+package soot.jimple.infoflow.test.junit;
+
+import soot.jimple.infoflow.IInfoflow;
+import soot.jimple.infoflow.InfoflowConfiguration.SchedulingStrategy;
+
+/**
+ * Runs the heap tests with the edges prioritized by their callgraph distance to
+ * the nearest sink
+ *
+ */
+public class HeapTestsSinkDistance extends HeapTests {
+
+	@Override
+	protected IInfoflow initInfoflow(boolean useTaintWrapper) {
+		IInfoflow infoflow = super.initInfoflow(useTaintWrapper);
+		infoflow.getConfig().getSolverConfiguration().setSchedulingStrategy(SchedulingStrategy.SinkDistance);
+		return infoflow;
+	}
+
+}
@@ -0,0 +1,107 @@
+package soot.jimple.infoflow.test.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import soot.G;
+import soot.Modifier;
+import soot.Scene;
+import soot.SootClass;
+import soot.jimple.infoflow.util.HierarchyClosureIndex;
+import soot.options.Options;
+
+/**
+ * Tests for the shared index over the transitive closures of the class
+ * hierarchy
+ *
+ */
+public class HierarchyClosureIndexTests {
+
+	private SootClass i0;
+	private SootClass i1;
+	private SootClass i2;
+	private SootClass a;
+	private SootClass b;
+
+	@Before
+	public void setUp() {
+		G.reset();
+		Options.v().set_allow_phantom_refs(true);
+		Options.v().set_prepend_classpath(true);
+		Scene.v().loadNecessaryClasses();
+
+		// I2 extends I1 extends I0, A implements I1, B extends A implements I2
+		i0 = createClass("com.example.I0", null, true);
+		i1 = createClass("com.example.I1", null, true, i0);
+		i2 = createClass("com.example.I2", null, true, i1);
+		a = createClass("com.example.A", null, false, i1);
+		b = createClass("com.example.B", a, false, i2);
+	}
+
+	private static SootClass createClass(String className, SootClass superClass, boolean isInterface,
+			SootClass... interfaces) {
+		SootClass sc = new SootClass(className, Modifier.PUBLIC | (isInterface ? Modifier.INTERFACE : 0));
+		sc.setSuperclass(superClass == null ? Scene.v().getSootClass("java.lang.Object") : superClass);
+		for (SootClass intf : interfaces)
+			sc.addInterface(intf);
+		Scene.v().addClass(sc);
+		sc.setApplicationClass();
+		return sc;
+	}
+
+	private static Set<SootClass> set(SootClass... classes) {
+		return new HashSet<>(Arrays.asList(classes));
+	}
+
+	@Test
+	public void closureTest() {
+		HierarchyClosureIndex index = HierarchyClosureIndex.v();
+		assertEquals(set(i0, i1, i2), index.getAllInterfacesOf(b));
+		assertEquals(set(i0), index.getAllInterfacesOf(i1));
+		assertEquals(set(i1, i0), index.getSuperinterfacesOfIncluding(i1));
+		assertEquals(set(i1, i2, a, b), index.getSubtypesOfIncluding(i1));
+		assertEquals(set(a, b), index.getSubclassesOfIncluding(i0));
+		assertEquals(set(b), index.getSubclassesOfIncluding(b));
+
+		Set<SootClass> superclasses = index.getSuperclassesOfIncluding(b);
+		assertTrue(superclasses.containsAll(set(a, b, Scene.v().getSootClass("java.lang.Object"))));
+		assertFalse(superclasses.contains(i0));
+		assertTrue(index.getSuperclassesOfIncluding(i0).isEmpty());
+	}
+
+	@Test
+	public void newClassTest() {
+		HierarchyClosureIndex index = HierarchyClosureIndex.v();
+		assertSame(index, HierarchyClosureIndex.v());
+
+		// A new class must lead to a new index
+		SootClass c = createClass("com.example.C", b, false);
+		HierarchyClosureIndex newIndex = HierarchyClosureIndex.v();
+		assertNotSame(index, newIndex);
+		assertFalse(index.isIndexed(c));
+		assertEquals(set(a, b, c), newIndex.getSubclassesOfIncluding(a));
+	}
+
+	@Test
+	public void newSceneTest() {
+		HierarchyClosureIndex index = HierarchyClosureIndex.v();
+
+		// The same classes in a new scene must not re-use the old index
+		setUp();
+		HierarchyClosureIndex newIndex = HierarchyClosureIndex.v();
+		assertNotSame(index, newIndex);
+		assertTrue(newIndex.isIndexed(b));
+		assertEquals(set(i0, i1, i2), newIndex.getAllInterfacesOf(b));
+	}
+
+}
@@ -0,0 +1,46 @@
+package soot.jimple.infoflow.test.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+import soot.jimple.infoflow.IInfoflow;
+
+/**
+ * Tests that processing intra-procedural edges inline in the worker threads
+ * finds exactly the same flows as scheduling every edge as a separate task
+ *
+ */
+public class IntraproceduralEdgeBudgetTests extends JUnitTests {
+
+	private static final List<String> ENTRY_POINTS = Arrays.asList(
+			"<soot.jimple.infoflow.test.BasicTestCode: void overwriteInCalleeTest2()>",
+			"<soot.jimple.infoflow.test.BasicTestCode: void simpleArithmeticTest1()>",
+			"<soot.jimple.infoflow.test.BasicTestCode: void arithmeticLoopTest1()>",
+			"<soot.jimple.infoflow.test.BasicTestCode: void arithmeticLoopTest2()>",
+			"<soot.jimple.infoflow.test.HeapTestCode: void aliasPerformanceTest()>",
+			"<soot.jimple.infoflow.test.HeapTestCode: void doubleAliasTest()>",
+			"<soot.jimple.infoflow.test.OverwriteTestCode: void loopOverwrite()>");
+
+	private Set<String> computeFlows(int edgeBudget) {
+		soot.G.reset();
+		IInfoflow infoflow = initInfoflow();
+		infoflow.getConfig().getSolverConfiguration().setIntraproceduralEdgeBudget(edgeBudget);
+		infoflow.computeInfoflow(appPath, libPath, ENTRY_POINTS, sources, sinks);
+		return getFlows(infoflow, false);
+	}
+
+	@Test(timeout = 300000)
+	public void sameFlowsTest() {
+		Set<String> expected = computeFlows(0);
+		assertFalse(expected.isEmpty());
+		assertEquals(expected, computeFlows(1));
+		assertEquals(expected, computeFlows(100));
+	}
+
+}
@@ -18,7 +18,10 @@ import static org.junit.Assert.fail;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.junit.Before;
 import org.junit.BeforeClass;
@@ -26,6 +29,7 @@ import org.junit.BeforeClass;
 import soot.jimple.infoflow.IInfoflow;
 import soot.jimple.infoflow.Infoflow;
 import soot.jimple.infoflow.config.ConfigForTest;
+import soot.jimple.infoflow.results.DataFlowResult;
 import soot.jimple.infoflow.results.InfoflowResults;
 import soot.jimple.infoflow.taintWrappers.EasyTaintWrapper;
 
@@ -126,6 +130,32 @@ public abstract class JUnitTests {
 		}
 	}
 
+	/**
+	 * Gets the source-to-sink connections that the given data flow analysis has
+	 * found, so that the results of different analysis modes can be compared
+	 * 
+	 * @param infoflow  The data flow analysis
+	 * @param withPaths True to include the propagation paths in the connections,
+	 *                  false to only compare the sources and sinks
+	 * @return The connections found by the analysis, or an empty set if there are
+	 *         none
+	 */
+	public static Set<String> getFlows(IInfoflow infoflow, boolean withPaths) {
+		assertTrue(infoflow.isResultAvailable());
+
+		Set<String> flows = new HashSet<>();
+		InfoflowResults results = infoflow.getResults();
+		if (results != null && results.getResultSet() != null) {
+			for (DataFlowResult result : results.getResultSet()) {
+				String flow = result.getSource().getStmt() + " -> " + result.getSink().getStmt();
+				if (withPaths)
+					flow += ": " + Arrays.toString(result.getSource().getPath());
+				flows.add(flow);
+			}
+		}
+		return flows;
+	}
+
 	protected IInfoflow initInfoflow() {
 		return initInfoflow(false);
 	}
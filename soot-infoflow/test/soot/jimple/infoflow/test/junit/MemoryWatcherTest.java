@@ -56,6 +56,27 @@ public class MemoryWatcherTest {
 		}
 	}
 
+	@Test
+	public void closeKeepsSharedListenerTest() {
+		MemoryWarningSystem ws1 = new MemoryWarningSystem();
+		ws1.setWarningThreshold(0.99);
+		MemoryWarningSystem ws2 = new MemoryWarningSystem();
+		ws2.setWarningThreshold(0.99);
+		try {
+			// Closing one instance must not cut off the other one
+			ws1.close();
+			Assert.assertTrue(MemoryWarningSystem.isListenerRegistered());
+		} finally {
+			ws2.close();
+		}
+
+		// A new instance must register the listener again
+		MemoryWarningSystem ws3 = new MemoryWarningSystem();
+		ws3.setWarningThreshold(0.99);
+		Assert.assertTrue(MemoryWarningSystem.isListenerRegistered());
+		ws3.close();
+	}
+
 	private void leakMemory() {
 		for (long i = 0; i < MEMORY_STEP_BIG; i += MEMORY_STEP_SMALL)
 			memoryLeak.add(new byte[MEMORY_STEP_SMALL]);
@@ -0,0 +1,188 @@
+package soot.jimple.infoflow.test.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.junit.Test;
+
+import soot.jimple.infoflow.IInfoflow;
+import soot.jimple.infoflow.InfoflowConfiguration;
+import soot.jimple.infoflow.InfoflowConfiguration.PathReconstructionMode;
+import soot.jimple.infoflow.config.ConfigForTest;
+import soot.jimple.infoflow.handlers.ResultsAvailableHandler;
+import soot.jimple.infoflow.results.InfoflowResults;
+import soot.jimple.infoflow.results.binary.BinaryResultsReader;
+import soot.jimple.infoflow.results.binary.BinaryResultsWriter;
+import soot.jimple.infoflow.results.binary.ResultsFormatConverter;
+import soot.jimple.infoflow.results.xml.AbstractSerializedSourceSink;
+import soot.jimple.infoflow.results.xml.InfoflowResultsReader;
+import soot.jimple.infoflow.results.xml.InfoflowResultsSerializer;
+import soot.jimple.infoflow.results.xml.SerializedAccessPath;
+import soot.jimple.infoflow.results.xml.SerializedInfoflowResults;
+import soot.jimple.infoflow.results.xml.SerializedPathElement;
+import soot.jimple.infoflow.results.xml.SerializedSinkInfo;
+import soot.jimple.infoflow.results.xml.SerializedSourceInfo;
+import soot.jimple.infoflow.solver.cfg.IInfoflowCFG;
+import soot.options.Options;
+
+/**
+ * Tests that data flow results survive a round trip through the XML and the
+ * binary results format
+ *
+ */
+public class ResultsSerializationTests extends JUnitTests {
+
+	private static final List<String> ENTRY_POINTS = Arrays.asList(
+			"<soot.jimple.infoflow.test.BasicTestCode: void overwriteInCalleeTest2()>",
+			"<soot.jimple.infoflow.test.BasicTestCode: void arithmeticLoopTest1()>",
+			"<soot.jimple.infoflow.test.HeapTestCode: void simpleTest()>",
+			"<soot.jimple.infoflow.test.HeapTestCode: void aliasPerformanceTest()>");
+
+	/**
+	 * Checks that the given element carries the correct type for every field of
+	 * its access path
+	 *
+	 * @param element The element to check
+	 * @return True if the access path of the element has at least one field,
+	 *         otherwise false
+	 */
+	private static boolean checkFieldTypes(AbstractSerializedSourceSink element) {
+		SerializedAccessPath ap = element.getAccessPath();
+		if (ap == null || ap.getFields() == null || ap.getFields().length == 0)
+			return false;
+		assertEquals(ap.getFields().length, ap.getTypes().length);
+		for (int i = 0; i < ap.getFields().length; i++) {
+			// Fields are written as "<declaringClass: type name>"
+			assertTrue(ap.getFields()[i], ap.getFields()[i].contains(" " + ap.getTypes()[i] + " "));
+		}
+		return true;
+	}
+
+	/**
+	 * Checks that the given results contain the same data flows and the same
+	 * termination state. The file format version is specific to the format.
+	 */
+	private static void assertSameResults(SerializedInfoflowResults expected, SerializedInfoflowResults actual) {
+		assertEquals(expected.getResults(), actual.getResults());
+		assertEquals(expected.getTerminationState(), actual.getTerminationState());
+	}
+
+	@Test(timeout = 300000)
+	public void analysisRoundTripTest() throws IOException, XMLStreamException {
+		File workingDir = Files.createTempDirectory("resultsTest").toFile();
+		final String xmlFile = new File(workingDir, "results.xml").getAbsolutePath();
+		final String binaryFile = new File(workingDir, "results.fdr").getAbsolutePath();
+
+		final IInfoflow infoflow = initInfoflow();
+		infoflow.getConfig().setEnableLineNumbers(true);
+		infoflow.setSootConfig(new ConfigForTest() {
+
+			@Override
+			public void setSootOptions(Options options, InfoflowConfiguration config) {
+				super.setSootOptions(options, config);
+				options.set_keep_line_number(true);
+			}
+
+		});
+		infoflow.getConfig().getPathConfiguration().setPathReconstructionMode(PathReconstructionMode.Precise);
+		infoflow.addResultsAvailableHandler(new ResultsAvailableHandler() {
+
+			@Override
+			public void onResultsAvailable(IInfoflowCFG cfg, InfoflowResults results) {
+				try {
+					new InfoflowResultsSerializer(cfg, infoflow.getConfig()).serialize(results, xmlFile);
+					new BinaryResultsWriter(cfg, infoflow.getConfig()).serialize(results, binaryFile);
+				} catch (Exception e) {
+					throw new RuntimeException(e);
+				}
+			}
+
+		});
+		infoflow.computeInfoflow(appPath, libPath, ENTRY_POINTS, sources, sinks);
+
+		SerializedInfoflowResults xmlResults = new InfoflowResultsReader().readResults(xmlFile);
+		SerializedInfoflowResults binaryResults = new BinaryResultsReader().readResults(binaryFile);
+		assertTrue(xmlResults.getResultCount() > 1);
+		assertSameResults(xmlResults, binaryResults);
+
+		// Check the details that are not covered by the comparison above
+		boolean hasLineNumbers = false;
+		boolean hasPaths = false;
+		boolean hasFields = false;
+		for (SerializedSinkInfo sink : xmlResults.getResults().keySet()) {
+			hasLineNumbers |= sink.getLineNumber() >= 0;
+			hasFields |= checkFieldTypes(sink);
+			for (SerializedSourceInfo source : xmlResults.getResults().get(sink)) {
+				hasLineNumbers |= source.getLineNumber() >= 0;
+				hasFields |= checkFieldTypes(source);
+				if (source.getPropagationPath() != null) {
+					hasPaths = true;
+					for (SerializedPathElement element : source.getPropagationPath())
+						hasFields |= checkFieldTypes(element);
+				}
+			}
+		}
+		assertTrue(hasLineNumbers);
+		assertTrue(hasPaths);
+		assertTrue(hasFields);
+
+		// XML -> binary -> XML must not lose any data
+		String convertedBinaryFile = new File(workingDir, "converted.fdr").getAbsolutePath();
+		String convertedXmlFile = new File(workingDir, "converted.xml").getAbsolutePath();
+		ResultsFormatConverter.xmlToBinary(xmlFile, convertedBinaryFile);
+		ResultsFormatConverter.binaryToXml(convertedBinaryFile, convertedXmlFile);
+		assertEquals(xmlResults, new InfoflowResultsReader().readResults(convertedXmlFile));
+		assertEquals(xmlResults.getPerformanceData(), new BinaryResultsReader().readResults(convertedBinaryFile)
+				.getPerformanceData());
+	}
+
+	@Test
+	public void combinedTerminationStateTest() throws IOException, XMLStreamException {
+		File workingDir = Files.createTempDirectory("resultsTest").toFile();
+		String xmlFile = new File(workingDir, "results.xml").getAbsolutePath();
+		String binaryFile = new File(workingDir, "results.fdr").getAbsolutePath();
+
+		SerializedAccessPath ap = new SerializedAccessPath("r0", "com.example.Data", true,
+				new String[] { "<com.example.Data: java.lang.String value>" }, new String[] { "java.lang.String" });
+		List<SerializedPathElement> path = new ArrayList<>();
+		path.add(new SerializedPathElement(ap, "r0.<com.example.Data: java.lang.String value> = $r1",
+				"<com.example.Main: void main()>"));
+		SerializedInfoflowResults results = new SerializedInfoflowResults();
+		results.setFileFormatVersion(InfoflowResultsSerializer.FILE_FORMAT_VERSION);
+		results.getOrCreatePerformanceData().setTotalRuntimeSeconds(42);
+		results.getOrCreatePerformanceData().setSourceCount(2);
+		results.addResult(
+				new SerializedSourceInfo(null, "$r1 = getSecret()", "<com.example.Main: void main()>", 12, "Secrets",
+						path),
+				new SerializedSinkInfo(ap, "publish(r0)", "<com.example.Main: void main()>", 14, null));
+		results.addResult(new SerializedSourceInfo(null, "$r2 = getOtherSecret()", "<com.example.Main: void main()>"),
+				new SerializedSinkInfo(ap, "publish(r0)", "<com.example.Main: void main()>", 14, null));
+
+		int[] states = { InfoflowResults.TERMINATION_SUCCESS,
+				InfoflowResults.TERMINATION_DATA_FLOW_TIMEOUT | InfoflowResults.TERMINATION_PARTIAL_RESULTS,
+				InfoflowResults.TERMINATION_DATA_FLOW_OOM | InfoflowResults.TERMINATION_PATH_RECONSTRUCTION_TIMEOUT,
+				InfoflowResults.TERMINATION_PATH_RECONSTRUCTION_OOM | 1024 };
+		for (int state : states) {
+			results.setTerminationState(state);
+
+			new InfoflowResultsSerializer().serialize(results, xmlFile);
+			SerializedInfoflowResults xmlResults = new InfoflowResultsReader().readResults(xmlFile);
+			assertEquals(results, xmlResults);
+
+			new BinaryResultsWriter().serialize(results, binaryFile);
+			SerializedInfoflowResults binaryResults = new BinaryResultsReader().readResults(binaryFile);
+			assertSameResults(results, binaryResults);
+			assertEquals(results.getPerformanceData(), binaryResults.getPerformanceData());
+		}
+	}
+
+}
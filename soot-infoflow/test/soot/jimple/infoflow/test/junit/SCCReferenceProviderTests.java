@@ -0,0 +1,103 @@
+package soot.jimple.infoflow.test.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+import soot.jimple.infoflow.IInfoflow;
+import soot.jimple.infoflow.InfoflowConfiguration.DataFlowSolver;
+import soot.jimple.infoflow.InfoflowConfiguration.GarbageCollectionReferenceProvider;
+import soot.jimple.infoflow.collect.IntervalIntSet;
+import soot.jimple.infoflow.solver.gcSolver.LiveComponentSet;
+
+/**
+ * Tests for the garbage-collecting solver that checks method dependencies on
+ * the level of strongly connected components of the callgraph
+ *
+ */
+public class SCCReferenceProviderTests extends JUnitTests {
+
+	private static final List<String> ENTRY_POINTS = Arrays.asList(
+			"<soot.jimple.infoflow.test.BasicTestCode: void overwriteInCalleeTest2()>",
+			"<soot.jimple.infoflow.test.BasicTestCode: void arithmeticLoopTest1()>",
+			"<soot.jimple.infoflow.test.HeapTestCode: void simpleTest()>",
+			"<soot.jimple.infoflow.test.HeapTestCode: void doubleAliasTest()>",
+			"<soot.jimple.infoflow.test.StaticTestCode: void static3Test()>");
+
+	@Test
+	public void intervalSetTest() {
+		IntervalIntSet set = IntervalIntSet.union(5, IntervalIntSet.singleton(3), IntervalIntSet.singleton(4));
+		assertEquals(1, set.getRunCount());
+		assertEquals(3, set.getRunStart(0));
+		assertEquals(6, set.getRunEnd(0));
+		assertEquals(3, set.size());
+
+		set = IntervalIntSet.union(-1, set, IntervalIntSet.singleton(10));
+		assertEquals(2, set.getRunCount());
+		assertEquals(4, set.size());
+		assertTrue(set.contains(3));
+		assertTrue(set.contains(10));
+		assertFalse(set.contains(6));
+		assertFalse(set.contains(2));
+		assertEquals("{3..5, 10}", set.toString());
+
+		// A union that adds nothing must re-use the existing set
+		assertSame(set, IntervalIntSet.union(4, set));
+		assertSame(set, IntervalIntSet.union(-1, set, IntervalIntSet.singleton(10)));
+		assertTrue(IntervalIntSet.union(-1).isEmpty());
+	}
+
+	@Test
+	public void liveSetTest() {
+		LiveComponentSet liveSet = new LiveComponentSet(200);
+		IntervalIntSet range = IntervalIntSet.union(-1, IntervalIntSet.singleton(60), IntervalIntSet.singleton(61),
+				IntervalIntSet.singleton(62), IntervalIntSet.singleton(63), IntervalIntSet.singleton(64),
+				IntervalIntSet.singleton(65));
+		assertFalse(liveSet.intersects(range));
+
+		// Intervals that span word boundaries
+		liveSet.increment(64);
+		liveSet.increment(64);
+		assertTrue(liveSet.isLive(64));
+		assertTrue(liveSet.intersects(range));
+		assertFalse(liveSet.intersects(IntervalIntSet.singleton(63)));
+		assertFalse(liveSet.intersects(IntervalIntSet.singleton(65)));
+
+		liveSet.decrement(64);
+		assertTrue(liveSet.intersects(range));
+		int changes = liveSet.getChangeCounter();
+		liveSet.decrement(64);
+		assertFalse(liveSet.isLive(64));
+		assertFalse(liveSet.intersects(range));
+		assertTrue(liveSet.getChangeCounter() > changes);
+
+		liveSet.increment(199);
+		assertTrue(liveSet.intersects(IntervalIntSet.union(199, range)));
+	}
+
+	private Set<String> computeFlows(DataFlowSolver solver, GarbageCollectionReferenceProvider referenceProvider) {
+		soot.G.reset();
+		IInfoflow infoflow = initInfoflow();
+		infoflow.getConfig().getSolverConfiguration().setDataFlowSolver(solver);
+		infoflow.getConfig().getSolverConfiguration().setGarbageCollectionReferenceProvider(referenceProvider);
+		infoflow.computeInfoflow(appPath, libPath, ENTRY_POINTS, sources, sinks);
+		return getFlows(infoflow, false);
+	}
+
+	@Test(timeout = 300000)
+	public void sameFlowsTest() {
+		Set<String> expected = computeFlows(DataFlowSolver.ContextFlowSensitive,
+				GarbageCollectionReferenceProvider.OnDemand);
+		assertFalse(expected.isEmpty());
+		assertEquals(expected, computeFlows(DataFlowSolver.GarbageCollecting,
+				GarbageCollectionReferenceProvider.StronglyConnectedComponents));
+	}
+
+}
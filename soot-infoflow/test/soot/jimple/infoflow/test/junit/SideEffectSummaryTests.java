@@ -0,0 +1,267 @@
+package soot.jimple.infoflow.test.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.IntConsumer;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import soot.G;
+import soot.IntType;
+import soot.Local;
+import soot.Modifier;
+import soot.RefType;
+import soot.Scene;
+import soot.SootClass;
+import soot.SootField;
+import soot.SootMethod;
+import soot.Type;
+import soot.VoidType;
+import soot.jimple.IntConstant;
+import soot.jimple.InvokeStmt;
+import soot.jimple.Jimple;
+import soot.jimple.JimpleBody;
+import soot.jimple.StringConstant;
+import soot.jimple.infoflow.cfg.CallGraphCondensation;
+import soot.jimple.infoflow.cfg.MethodSideEffectSummaries;
+import soot.jimple.infoflow.threading.ParallelTaskRunner;
+import soot.jimple.toolkits.callgraph.CallGraph;
+import soot.jimple.toolkits.callgraph.Edge;
+import soot.options.Options;
+
+/**
+ * Tests for the bottom-up side effect summaries over the strongly connected
+ * components of the callgraph
+ *
+ */
+public class SideEffectSummaryTests {
+
+	private SootClass testClass;
+	private SootField writtenField;
+	private SootField readField;
+	private CallGraph callgraph;
+
+	private SootMethod a;
+	private SootMethod b;
+	private SootMethod c;
+	private SootMethod d;
+	private SootMethod e;
+
+	@Before
+	public void setUp() {
+		G.reset();
+		Options.v().set_allow_phantom_refs(true);
+		Options.v().set_prepend_classpath(true);
+		Scene.v().loadNecessaryClasses();
+
+		testClass = new SootClass("com.example.Effects", Modifier.PUBLIC);
+		testClass.setSuperclass(Scene.v().getSootClass("java.lang.Object"));
+		Scene.v().addClass(testClass);
+		testClass.setApplicationClass();
+		writtenField = new SootField("written", IntType.v(), Modifier.PUBLIC | Modifier.STATIC);
+		testClass.addField(writtenField);
+		readField = new SootField("read", IntType.v(), Modifier.PUBLIC | Modifier.STATIC);
+		testClass.addField(readField);
+		callgraph = new CallGraph();
+
+		// a() and b() call each other, b() calls c() which writes a static field,
+		// d() only reads a static field and e() does nothing
+		a = createMethod("a");
+		b = createMethod("b");
+		c = createMethod("c");
+		d = createMethod("d");
+		e = createMethod("e");
+		addCall(a, b);
+		addCall(b, a);
+		addCall(b, c);
+		c.getActiveBody().getUnits().addFirst(
+				Jimple.v().newAssignStmt(Jimple.v().newStaticFieldRef(writtenField.makeRef()), IntConstant.v(1)));
+		Local l = Jimple.v().newLocal("l", IntType.v());
+		d.getActiveBody().getLocals().add(l);
+		d.getActiveBody().getUnits()
+				.addFirst(Jimple.v().newAssignStmt(l, Jimple.v().newStaticFieldRef(readField.makeRef())));
+	}
+
+	private SootMethod createMethod(String name) {
+		SootMethod sm = new SootMethod(name, Collections.<Type>emptyList(), VoidType.v(),
+				Modifier.PUBLIC | Modifier.STATIC);
+		testClass.addMethod(sm);
+		JimpleBody body = Jimple.v().newBody(sm);
+		body.getUnits().add(Jimple.v().newReturnVoidStmt());
+		sm.setActiveBody(body);
+		return sm;
+	}
+
+	private void addCall(SootMethod caller, SootMethod callee) {
+		InvokeStmt stmt = Jimple.v().newInvokeStmt(Jimple.v().newStaticInvokeExpr(callee.makeRef()));
+		caller.getActiveBody().getUnits().addFirst(stmt);
+		callgraph.addEdge(new Edge(caller, stmt, callee));
+	}
+
+	private CallGraphCondensation condense() {
+		return new CallGraphCondensation(callgraph, Arrays.asList(a, b, c, d, e));
+	}
+
+	@Test
+	public void condensationTest() {
+		CallGraphCondensation condensation = condense();
+		assertEquals(5, condensation.getMethodCount());
+		assertEquals(4, condensation.getComponentCount());
+
+		int compA = condensation.getComponentOf(a);
+		int compC = condensation.getComponentOf(c);
+		assertEquals(compA, condensation.getComponentOf(b));
+		assertNotEquals(compA, compC);
+		assertTrue(condensation.isRecursive(compA));
+		assertFalse(condensation.isRecursive(compC));
+
+		// Callees must come before their callers
+		assertTrue(compC < compA);
+		assertEquals(0, condensation.getHeight(compC));
+		assertEquals(1, condensation.getHeight(compA));
+		assertEquals(Collections.singletonList(compC), toList(condensation.getSuccessors(compA)));
+		assertEquals(Collections.singletonList(compA), toList(condensation.getPredecessors(compC)));
+		assertEquals(2, condensation.getComponentsByHeight().length);
+		assertEquals(3, condensation.getComponentsByHeight()[0].length);
+
+		// Methods outside of the condensation are unknown
+		assertEquals(-1, condensation.getComponentOf(createMethod("f")));
+	}
+
+	@Test
+	public void summariesTest() {
+		MethodSideEffectSummaries summaries = new MethodSideEffectSummaries();
+		summaries.compute(condense());
+
+		// Effects are inherited from transitive callees, also across recursion
+		assertTrue(summaries.hasSideEffects(a));
+		assertTrue(summaries.hasSideEffects(b));
+		assertTrue(summaries.hasSideEffects(c));
+		assertTrue(summaries.isStaticFieldWritten(a, writtenField));
+		assertFalse(summaries.isStaticFieldRead(a, readField));
+		assertFalse(summaries.isStaticFieldWritten(a, readField));
+
+		assertFalse(summaries.hasSideEffects(d));
+		assertTrue(summaries.hasAnyEffect(d, MethodSideEffectSummaries.FIELD_READ));
+		assertTrue(summaries.isStaticFieldRead(d, readField));
+		assertFalse(summaries.isStaticFieldWritten(d, writtenField));
+
+		assertEquals(0, summaries.getFlags(e));
+		assertFalse(summaries.hasSideEffectsOrCallsSink(e));
+
+		// Unknown methods with a body must be treated conservatively
+		SootMethod unknown = createMethod("f");
+		assertEquals(-1, summaries.getFlags(unknown));
+		assertTrue(summaries.hasSideEffects(unknown));
+		assertTrue(summaries.isStaticFieldRead(unknown, readField));
+	}
+
+	@Test
+	public void parallelRunnerTest() {
+		final AtomicIntegerArray visits = new AtomicIntegerArray(10000);
+		new ParallelTaskRunner("Test", 4).run(visits.length(), new IntConsumer() {
+
+			@Override
+			public void accept(int i) {
+				visits.incrementAndGet(i);
+			}
+
+		});
+		for (int i = 0; i < visits.length(); i++)
+			assertEquals(1, visits.get(i));
+
+		try {
+			new ParallelTaskRunner("Test", 4).run(1000, new IntConsumer() {
+
+				@Override
+				public void accept(int i) {
+					if (i == 500)
+						throw new IllegalStateException("Failing item");
+				}
+
+			});
+			fail("Exception in task was not propagated");
+		} catch (RuntimeException ex) {
+			assertTrue(ex.getCause() instanceof IllegalStateException);
+		}
+	}
+
+	@Test
+	public void androidStubTest() {
+		Options.v().set_src_prec(Options.src_prec_apk);
+
+		// The exception constructor writes a field
+		SootClass exceptionClass = new SootClass("com.example.StubException", Modifier.PUBLIC);
+		exceptionClass.setSuperclass(Scene.v().getSootClass("java.lang.Object"));
+		Scene.v().addClass(exceptionClass);
+		exceptionClass.setApplicationClass();
+		RefType stringType = RefType.v("java.lang.String");
+		SootMethod init = new SootMethod("<init>", Collections.<Type>singletonList(stringType), VoidType.v(),
+				Modifier.PUBLIC);
+		exceptionClass.addMethod(init);
+		JimpleBody initBody = Jimple.v().newBody(init);
+		Local thisLocal = Jimple.v().newLocal("this", exceptionClass.getType());
+		Local msgLocal = Jimple.v().newLocal("msg", stringType);
+		initBody.getLocals().add(thisLocal);
+		initBody.getLocals().add(msgLocal);
+		initBody.getUnits()
+				.add(Jimple.v().newIdentityStmt(thisLocal, Jimple.v().newThisRef(exceptionClass.getType())));
+		initBody.getUnits().add(Jimple.v().newIdentityStmt(msgLocal, Jimple.v().newParameterRef(stringType, 0)));
+		initBody.getUnits().add(
+				Jimple.v().newAssignStmt(Jimple.v().newStaticFieldRef(writtenField.makeRef()), IntConstant.v(1)));
+		initBody.getUnits().add(Jimple.v().newReturnVoidStmt());
+		init.setActiveBody(initBody);
+
+		// The stub in a system library class only throws the exception
+		SootClass stubClass = new SootClass("android.example.Stubs", Modifier.PUBLIC);
+		stubClass.setSuperclass(Scene.v().getSootClass("java.lang.Object"));
+		Scene.v().addClass(stubClass);
+		stubClass.setLibraryClass();
+		SootMethod stub = new SootMethod("stub", Collections.<Type>emptyList(), VoidType.v(),
+				Modifier.PUBLIC | Modifier.STATIC);
+		stubClass.addMethod(stub);
+		JimpleBody stubBody = Jimple.v().newBody(stub);
+		Local exLocal = Jimple.v().newLocal("ex", exceptionClass.getType());
+		stubBody.getLocals().add(exLocal);
+		stubBody.getUnits().add(Jimple.v().newAssignStmt(exLocal, Jimple.v().newNewExpr(exceptionClass.getType())));
+		InvokeStmt initCall = Jimple.v().newInvokeStmt(
+				Jimple.v().newSpecialInvokeExpr(exLocal, init.makeRef(), StringConstant.v("Stub!")));
+		stubBody.getUnits().add(initCall);
+		stubBody.getUnits().add(Jimple.v().newThrowStmt(exLocal));
+		stub.setActiveBody(stubBody);
+		callgraph.addEdge(new Edge(stub, initCall, init));
+
+		// e() calls the stub
+		addCall(e, stub);
+
+		MethodSideEffectSummaries summaries = new MethodSideEffectSummaries();
+		summaries.compute(new CallGraphCondensation(callgraph, Arrays.asList(a, b, c, d, e, init, stub)));
+
+		// The stub does not inherit the effects of the exception constructor, and
+		// neither do its callers
+		assertTrue(MethodSideEffectSummaries.isAndroidStub(stub));
+		assertTrue(summaries.hasSideEffects(init));
+		assertEquals(0, summaries.getFlags(stub));
+		assertFalse(summaries.isStaticFieldWritten(stub, writtenField));
+		assertEquals(0, summaries.getFlags(e));
+		assertFalse(summaries.hasSideEffectsOrCallsSink(e));
+	}
+
+	private static List<Integer> toList(int[] values) {
+		List<Integer> list = new ArrayList<>();
+		for (int v : values)
+			list.add(v);
+		return list;
+	}
+
+}
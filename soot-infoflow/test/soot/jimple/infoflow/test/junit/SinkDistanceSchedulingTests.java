@@ -0,0 +1,46 @@
+package soot.jimple.infoflow.test.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+import soot.jimple.infoflow.IInfoflow;
+import soot.jimple.infoflow.InfoflowConfiguration.SchedulingStrategy;
+
+/**
+ * Tests that prioritizing the edges by their distance to the nearest sink finds
+ * exactly the same flows as processing the edges in the order in which they
+ * were scheduled
+ *
+ */
+public class SinkDistanceSchedulingTests extends JUnitTests {
+
+	private static final List<String> ENTRY_POINTS = Arrays.asList(
+			"<soot.jimple.infoflow.test.BasicTestCode: void overwriteInCalleeTest2()>",
+			"<soot.jimple.infoflow.test.BasicTestCode: void arithmeticLoopTest1()>",
+			"<soot.jimple.infoflow.test.HeapTestCode: void doubleAliasTest()>",
+			"<soot.jimple.infoflow.test.HeapTestCode: void aliasPerformanceTest()>",
+			"<soot.jimple.infoflow.test.StaticTestCode: void static3Test()>",
+			"<soot.jimple.infoflow.test.OverwriteTestCode: void loopOverwrite()>");
+
+	private Set<String> computeFlows(SchedulingStrategy strategy) {
+		soot.G.reset();
+		IInfoflow infoflow = initInfoflow();
+		infoflow.getConfig().getSolverConfiguration().setSchedulingStrategy(strategy);
+		infoflow.computeInfoflow(appPath, libPath, ENTRY_POINTS, sources, sinks);
+		return getFlows(infoflow, false);
+	}
+
+	@Test(timeout = 300000)
+	public void sameFlowsTest() {
+		Set<String> expected = computeFlows(SchedulingStrategy.FIFO);
+		assertFalse(expected.isEmpty());
+		assertEquals(expected, computeFlows(SchedulingStrategy.SinkDistance));
+	}
+
+}
@@ -0,0 +1,60 @@
+package soot.jimple.infoflow.test.junit;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+import soot.jimple.infoflow.IInfoflow;
+import soot.jimple.infoflow.InfoflowConfiguration.DataFlowSolver;
+
+/**
+ * Tests that the sparse solver finds exactly the same flows as the dense
+ * context- and flow-sensitive solver
+ *
+ */
+public class SparseSolverTests extends JUnitTests {
+
+	private static final List<String> ENTRY_POINTS = Arrays.asList(
+			"<soot.jimple.infoflow.test.OverwriteTestCode: void varOverwrite()>",
+			"<soot.jimple.infoflow.test.OverwriteTestCode: void staticFieldOverwrite()>",
+			"<soot.jimple.infoflow.test.OverwriteTestCode: void fieldOverwrite()>",
+			"<soot.jimple.infoflow.test.OverwriteTestCode: void returnOverwrite()>",
+			"<soot.jimple.infoflow.test.OverwriteTestCode: void loopOverwrite()>",
+			"<soot.jimple.infoflow.test.OverwriteTestCode: void overwriteAlias()>",
+			"<soot.jimple.infoflow.test.OverwriteTestCode: void simpleOverwriteAliasTest1()>",
+			"<soot.jimple.infoflow.test.HeapTestCode: void overwriteAliasTest()>",
+			"<soot.jimple.infoflow.test.HeapTestCode: void fieldBaseOverwriteTest()>",
+			"<soot.jimple.infoflow.test.HeapTestCode: void doubleAliasTest()>",
+			"<soot.jimple.infoflow.test.HeapTestCode: void multiAliasBaseTest()>",
+			"<soot.jimple.infoflow.test.BasicTestCode: void overwriteInCalleeTest2()>",
+			"<soot.jimple.infoflow.test.BasicTestCode: void arithmeticLoopTest1()>");
+
+	private Set<String> computeFlows(String entryPoint, DataFlowSolver solver) {
+		soot.G.reset();
+		IInfoflow infoflow = initInfoflow();
+		infoflow.getConfig().getSolverConfiguration().setDataFlowSolver(solver);
+		infoflow.computeInfoflow(appPath, libPath, Collections.singletonList(entryPoint), sources, sinks);
+		return getFlows(infoflow, false);
+	}
+
+	@Test(timeout = 600000)
+	public void denseSparseEquivalenceTest() {
+		for (String entryPoint : ENTRY_POINTS)
+			assertEquals(entryPoint, computeFlows(entryPoint, DataFlowSolver.ContextFlowSensitive),
+					computeFlows(entryPoint, DataFlowSolver.SparseContextFlowSensitive));
+	}
+
+	@Test(timeout = 300000)
+	public void mustAliasStrongUpdateTest() {
+		// The overwrite through the must-alias does not reference the tainted base
+		assertEquals(Collections.emptySet(),
+				computeFlows("<soot.jimple.infoflow.test.OverwriteTestCode: void simpleOverwriteAliasTest1()>",
+						DataFlowSolver.SparseContextFlowSensitive));
+	}
+
+}
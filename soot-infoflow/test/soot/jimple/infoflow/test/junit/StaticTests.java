@@ -17,6 +17,7 @@ import org.junit.Test;
 
 import soot.jimple.infoflow.IInfoflow;
 import soot.jimple.infoflow.InfoflowConfiguration.PathBuildingAlgorithm;
+import soot.jimple.infoflow.InfoflowConfiguration.StaticFieldTrackingMode;
 
 /**
  * contain tests which check taint propagation for static variables
@@ -96,4 +97,24 @@ public class StaticTests extends JUnitTests {
 		checkInfoflow(infoflow, 1);
 	}
 
+	@Test(timeout = 300000)
+	public void staticFieldBasedTest() {
+		IInfoflow infoflow = initInfoflow();
+		infoflow.getConfig().setStaticFieldTrackingMode(StaticFieldTrackingMode.ContextFlowInsensitive);
+		List<String> epoints = new ArrayList<String>();
+		epoints.add("<soot.jimple.infoflow.test.StaticTestCode: void static4Test()>");
+		infoflow.computeInfoflow(appPath, libPath, epoints, sources, sinks);
+		checkInfoflow(infoflow, 1);
+	}
+
+	@Test(timeout = 300000)
+	public void staticFieldBasedTest2() {
+		IInfoflow infoflow = initInfoflow();
+		infoflow.getConfig().setStaticFieldTrackingMode(StaticFieldTrackingMode.ContextFlowInsensitive);
+		List<String> epoints = new ArrayList<String>();
+		epoints.add("<soot.jimple.infoflow.test.StaticTestCode: void clinitTest1()>");
+		infoflow.computeInfoflow(appPath, libPath, epoints, sources, sinks);
+		checkInfoflow(infoflow, 1);
+	}
+
 }
@@ -0,0 +1,134 @@
+package soot.jimple.infoflow.test.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import soot.jimple.infoflow.IInfoflow;
+import soot.jimple.infoflow.InfoflowConfiguration.PathReconstructionMode;
+import soot.jimple.infoflow.InfoflowManager;
+import soot.jimple.infoflow.data.AbstractionAtSink;
+import soot.jimple.infoflow.data.pathBuilders.ContextSensitivePathBuilder;
+import soot.jimple.infoflow.data.pathBuilders.IAbstractionPathBuilder;
+import soot.jimple.infoflow.data.pathBuilders.IPathBuilderFactory;
+import soot.jimple.infoflow.results.InfoflowResults;
+import soot.jimple.infoflow.solver.executors.InterruptableExecutor;
+
+/**
+ * Tests that reconstructing the paths sink by sink within a memory budget finds
+ * the same paths as reconstructing all paths at once
+ *
+ */
+public class StreamingPathBuilderTests extends JUnitTests {
+
+	private static final List<String> ENTRY_POINTS = Arrays.asList(
+			"<soot.jimple.infoflow.test.BasicTestCode: void overwriteInCalleeTest2()>",
+			"<soot.jimple.infoflow.test.BasicTestCode: void simpleArithmeticTest1()>",
+			"<soot.jimple.infoflow.test.BasicTestCode: void arithmeticLoopTest1()>",
+			"<soot.jimple.infoflow.test.BasicTestCode: void arithmeticLoopTest2()>",
+			"<soot.jimple.infoflow.test.HeapTestCode: void aliasPerformanceTest()>");
+
+	/**
+	 * Path builder factory that creates context-sensitive path builders which
+	 * hold on to a large block of memory for every sink until the current wave
+	 * of sinks has completed
+	 */
+	private static class BallastPathBuilderFactory implements IPathBuilderFactory {
+
+		private final AtomicInteger sinks = new AtomicInteger();
+		private final AtomicInteger waves = new AtomicInteger();
+
+		@Override
+		public IAbstractionPathBuilder createPathBuilder(InfoflowManager manager, int maxThreadNum) {
+			// The data flow analysis always passes in its own executor
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public IAbstractionPathBuilder createPathBuilder(InfoflowManager manager, InterruptableExecutor executor) {
+			return new ContextSensitivePathBuilder(manager, executor) {
+
+				private final List<byte[]> ballast = new ArrayList<>();
+
+				@Override
+				public void computeTaintPaths(Set<AbstractionAtSink> res) {
+					sinks.incrementAndGet();
+					ballast.add(new byte[4 * 1000 * 1000]);
+					super.computeTaintPaths(res);
+				}
+
+				@Override
+				public void reset() {
+					super.reset();
+
+					// Every wave shall start from a clean heap, so that garbage that is
+					// collected during the wave does not hide the ballast
+					System.gc();
+				}
+
+				@Override
+				protected void releasePathCache() {
+					super.releasePathCache();
+					ballast.clear();
+					waves.incrementAndGet();
+				}
+
+			};
+		}
+
+		@Override
+		public boolean supportsPathReconstruction() {
+			return true;
+		}
+
+		@Override
+		public boolean isContextSensitive() {
+			return true;
+		}
+
+	}
+
+	private Set<String> computePaths(long memoryBudget, int batchSize, IPathBuilderFactory factory) {
+		soot.G.reset();
+		IInfoflow infoflow = initInfoflow();
+		infoflow.getConfig().getPathConfiguration().setPathReconstructionMode(PathReconstructionMode.Precise);
+		infoflow.getConfig().getPathConfiguration().setPathReconstructionMemoryBudget(memoryBudget);
+		infoflow.getConfig().getPathConfiguration().setPathReconstructionBatchSize(batchSize);
+		if (factory != null)
+			infoflow.setPathBuilderFactory(factory);
+		infoflow.computeInfoflow(appPath, libPath, ENTRY_POINTS, sources, sinks);
+		assertEquals(InfoflowResults.TERMINATION_SUCCESS, infoflow.getResults().getTerminationState());
+		return getFlows(infoflow, true);
+	}
+
+	@Test(timeout = 300000)
+	public void samePathsTest() {
+		Set<String> expected = computePaths(0, 1, null);
+		assertFalse(expected.isEmpty());
+
+		// With a batch size of one, every sink is processed in a wave of its own
+		assertEquals(expected, computePaths(1, 1, null));
+	}
+
+	@Test(timeout = 300000)
+	public void memoryBudgetTest() {
+		Set<String> expected = computePaths(0, 1, null);
+		assertFalse(expected.isEmpty());
+
+		// The batch size would allow all sinks in a single wave, but every sink
+		// exceeds the memory budget on its own
+		BallastPathBuilderFactory factory = new BallastPathBuilderFactory();
+		assertEquals(expected, computePaths(1, 1000, factory));
+		assertTrue(factory.sinks.get() > 1);
+		assertEquals(factory.sinks.get(), factory.waves.get());
+	}
+
+}
@@ -0,0 +1,140 @@
+package soot.jimple.infoflow.test.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.junit.Test;
+
+import soot.jimple.infoflow.IInfoflow;
+import soot.jimple.infoflow.results.InfoflowResults;
+import soot.jimple.infoflow.results.ResultSinkInfo;
+import soot.jimple.infoflow.results.ResultSourceInfo;
+import soot.jimple.infoflow.results.streaming.JsonLinesResultsWriter;
+import soot.jimple.infoflow.results.xml.InfoflowResultsReader;
+import soot.jimple.infoflow.results.xml.InfoflowResultsSerializer;
+import soot.jimple.infoflow.results.xml.SerializedInfoflowResults;
+import soot.jimple.infoflow.results.xml.StreamingXmlResultsWriter;
+
+/**
+ * Tests for writing out data flow results while the analysis is still running
+ *
+ */
+public class StreamingResultsTests extends JUnitTests {
+
+	private static final Pattern SINK_PATTERN = Pattern.compile("\"sink\":\\{\"statement\":\"((?:[^\"\\\\]|\\\\.)*)\"");
+	private static final Pattern SOURCE_PATTERN = Pattern
+			.compile("\"source\":\\{\"statement\":\"((?:[^\"\\\\]|\\\\.)*)\"");
+
+	private void runStreamingTest(String entryPoint, boolean discardStreamedResults) throws IOException {
+		File outputFile = File.createTempFile("streamingResults", ".jsonl");
+		try {
+			IInfoflow infoflow = initInfoflow();
+			infoflow.getConfig().setIncrementalResultReporting(true);
+			infoflow.getConfig().getOutputConfiguration().setDiscardStreamedResults(discardStreamedResults);
+
+			final AtomicInteger incrementalResults = new AtomicInteger();
+			JsonLinesResultsWriter writer = new JsonLinesResultsWriter(outputFile.getAbsolutePath(),
+					infoflow.getConfig()) {
+
+				@Override
+				public synchronized boolean onSingleResultAvailable(ResultSourceInfo source, ResultSinkInfo sink) {
+					incrementalResults.incrementAndGet();
+					return super.onSingleResultAvailable(source, sink);
+				}
+
+			};
+			infoflow.addResultsAvailableHandler(writer);
+
+			List<String> epoints = new ArrayList<String>();
+			epoints.add(entryPoint);
+			infoflow.computeInfoflow(appPath, libPath, epoints, sources, sinks);
+			assertTrue(incrementalResults.get() > 0);
+
+			// Collect the data flows from the output file
+			Set<String> streamed = new HashSet<>();
+			int resultLines = 0;
+			for (String line : Files.readAllLines(outputFile.toPath(), StandardCharsets.UTF_8)) {
+				if (!line.startsWith("{\"type\":\"result\""))
+					continue;
+				resultLines++;
+				streamed.add(getStatement(SINK_PATTERN, line) + " <- " + getStatement(SOURCE_PATTERN, line));
+			}
+
+			// Every data flow must have been written exactly once
+			assertEquals(resultLines, writer.getWrittenResults());
+			if (discardStreamedResults)
+				assertTrue(infoflow.getResults().isEmpty());
+			else {
+				InfoflowResults results = infoflow.getResults();
+				Set<String> expected = new HashSet<>();
+				for (ResultSinkInfo sink : results.getResults().keySet())
+					for (ResultSourceInfo source : results.getResults().get(sink))
+						expected.add(sink.getStmt().toString() + " <- " + source.getStmt().toString());
+				assertEquals(expected, streamed);
+				assertEquals(results.numConnections(), resultLines);
+			}
+		} finally {
+			outputFile.delete();
+		}
+	}
+
+	private static String getStatement(Pattern pattern, String line) {
+		Matcher matcher = pattern.matcher(line);
+		assertTrue(matcher.find());
+		return matcher.group(1).replace("\\\"", "\"").replace("\\\\", "\\");
+	}
+
+	@Test(timeout = 300000)
+	public void streamAliasPerformanceTest() throws IOException {
+		runStreamingTest("<soot.jimple.infoflow.test.HeapTestCode: void aliasPerformanceTest()>", false);
+	}
+
+	@Test(timeout = 300000)
+	public void streamTripleAliasTest() throws IOException {
+		runStreamingTest("<soot.jimple.infoflow.test.HeapTestCode: void tripleAliasTest()>", false);
+	}
+
+	@Test(timeout = 300000)
+	public void discardStreamedResultsTest() throws IOException {
+		runStreamingTest("<soot.jimple.infoflow.test.HeapTestCode: void tripleAliasTest()>", true);
+	}
+
+	@Test
+	public void streamedTerminationStateTest() throws IOException, XMLStreamException {
+		int[] states = { InfoflowResults.TERMINATION_SUCCESS,
+				InfoflowResults.TERMINATION_DATA_FLOW_TIMEOUT | InfoflowResults.TERMINATION_PARTIAL_RESULTS,
+				InfoflowResults.TERMINATION_DATA_FLOW_OOM };
+		for (int state : states) {
+			File outputFile = File.createTempFile("streamingResults", ".xml");
+			try {
+				InfoflowResults results = new InfoflowResults();
+				results.setTerminationState(state);
+
+				StreamingXmlResultsWriter writer = new StreamingXmlResultsWriter(outputFile.getAbsolutePath(),
+						new InfoflowResultsSerializer());
+				writer.onResultsAvailable(null, results);
+
+				SerializedInfoflowResults readResults = new InfoflowResultsReader()
+						.readResults(outputFile.getAbsolutePath());
+				assertEquals(state, readResults.getTerminationState());
+			} finally {
+				outputFile.delete();
+			}
+		}
+	}
+
+}